@@ -0,0 +1,119 @@
+package com.evcharge.app.core.db;
+
+import android.content.ContentValues;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.evcharge.app.core.db.AppDbHelper.*;
+import static org.junit.Assert.*;
+
+/**
+ * Per-row ContentValues writes (UserDao.insertOrReplace pattern) vs BulkUpsert.
+ * Runs against a throwaway on-disk DB in WAL mode, like the app's. Timings go to logcat (tag BulkUpsertBench).
+ */
+@RunWith(AndroidJUnit4.class)
+public class BulkUpsertBenchmark {
+
+    private static final String TAG = "BulkUpsertBench";
+    private static final int ROWS = 500;
+    private static final int ROUNDS = 5;
+
+    private File file;
+    private SQLiteDatabase db;
+
+    @Before
+    public void open() {
+        file = new File(InstrumentationRegistry.getInstrumentation().getTargetContext().getCacheDir(), "bulk_bench.db");
+        SQLiteDatabase.deleteDatabase(file);
+        db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        db.enableWriteAheadLogging();
+        DbMigrations.migrate(db, 0, DbMigrations.LATEST);
+    }
+
+    @After
+    public void close() {
+        db.close();
+        SQLiteDatabase.deleteDatabase(file);
+    }
+
+    @Test
+    public void bulkBeatsPerRow() {
+        List<UserDao.UserRecord> rows = users(ROWS);
+        long perRow = Long.MAX_VALUE, bulk = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            db.delete(T_USERS, null, null);
+            long t0 = System.nanoTime();
+            for (UserDao.UserRecord r : rows) perRowInsert(r);
+            perRow = Math.min(perRow, System.nanoTime() - t0);
+            assertEquals(ROWS, DatabaseUtils.queryNumEntries(db, T_USERS));
+
+            db.delete(T_USERS, null, null);
+            BulkUpsert<UserDao.UserRecord> upsert = new BulkUpsert<>(T_USERS,
+                    C_ID_KEY, C_FULL_NAME, C_PHONE, C_ROLE, C_STATUS, C_LAST_LOGIN_UTC);
+            t0 = System.nanoTime();
+            int written = upsert.run(db, rows, UserDao::bind);
+            bulk = Math.min(bulk, System.nanoTime() - t0);
+            assertEquals(ROWS, written);
+            assertEquals(ROWS, DatabaseUtils.queryNumEntries(db, T_USERS));
+        }
+        Log.i(TAG, String.format(Locale.US, "%d rows, best of %d: per-row %.1f ms, bulk %.1f ms (x%.1f)",
+                ROWS, ROUNDS, perRow / 1e6, bulk / 1e6, perRow / (double) Math.max(1, bulk)));
+        assertTrue("bulk upsert should be faster than per-row writes", bulk < perRow);
+    }
+
+    @Test
+    public void updateFirstKeepsUntouchedColumns() {
+        List<UserDao.UserRecord> rows = users(10);
+        BulkUpsert<UserDao.UserRecord> upsert = new BulkUpsert<UserDao.UserRecord>(T_USERS,
+                C_ID_KEY, C_FULL_NAME, C_PHONE, C_ROLE, C_STATUS, C_LAST_LOGIN_UTC)
+                .updateFirst("UPDATE " + T_USERS + " SET " + C_FULL_NAME + "=? WHERE " + C_ID_KEY + "=?", (st, r) -> {
+                    st.bindString(1, r.fullName);
+                    st.bindString(2, r.idKey);
+                    return true;
+                });
+        upsert.run(db, rows, UserDao::bind);
+        for (UserDao.UserRecord r : rows) { r.fullName = "Renamed"; r.phone = null; }
+        assertEquals(10, upsert.run(db, rows, UserDao::bind));
+        assertEquals(10, DatabaseUtils.queryNumEntries(db, T_USERS, C_FULL_NAME + "='Renamed' AND " + C_PHONE + " IS NOT NULL"));
+    }
+
+    private void perRowInsert(UserDao.UserRecord r) {
+        ContentValues cv = new ContentValues();
+        cv.put(C_ID_KEY, r.idKey);
+        cv.put(C_FULL_NAME, r.fullName);
+        cv.put(C_PHONE, r.phone);
+        cv.put(C_ROLE, r.role);
+        cv.put(C_STATUS, r.status);
+        cv.put(C_LAST_LOGIN_UTC, r.lastLoginUtc);
+        db.insertWithOnConflict(T_USERS, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static List<UserDao.UserRecord> users(int n) {
+        List<UserDao.UserRecord> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            UserDao.UserRecord r = new UserDao.UserRecord();
+            r.idKey = "NIC" + i;
+            r.fullName = "Owner " + i;
+            r.phone = "07700" + i;
+            r.role = "Owner";
+            r.status = "Active";
+            r.lastLoginUtc = "2025-01-01T00:00:00Z";
+            out.add(r);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,18 @@
+package com.evcharge.app;
+
+import android.app.Application;
+
+import com.evcharge.app.core.perf.NetMetrics;
+import com.evcharge.app.core.platform.AndroidPlatform;
+
+/** Process entry point: wires the Android adapters into the platform-independent :core module. */
+public class EvChargeApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        AndroidPlatform.install();
+        // Dirs are resolved on the dump thread: no disk access on the main thread here
+        NetMetrics.get().startPeriodicDump(this::getFilesDir, BuildConfig.DEBUG ? () -> getExternalFilesDir(null) : null);
+    }
+}
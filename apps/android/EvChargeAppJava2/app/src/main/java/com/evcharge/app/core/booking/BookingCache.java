@@ -0,0 +1,128 @@
+package com.evcharge.app.core.booking;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Last successful GET /api/Booking/mine, kept so the dashboard can paint before the network answers.
+ * - Stored as the raw JSON array in files/bookings_mine.json
+ * - Held in memory after the first read (startup prewarm loads it during the splash)
+ * - mine() is that server copy with BookingOutbox's unconfirmed writes painted over it
+ * Display-only: the server stays the source of truth.
+ */
+public final class BookingCache {
+
+    private static final String TAG = "BookingCache";
+    private static final String FILE_NAME = "bookings_mine.json";
+
+    private static volatile BookingCache instance;
+
+    public static BookingCache get(Context context) {
+        BookingCache c = instance;
+        if (c == null) {
+            synchronized (BookingCache.class) {
+                c = instance;
+                if (c == null) { c = new BookingCache(context.getApplicationContext()); instance = c; }
+            }
+        }
+        return c;
+    }
+
+    private final Context appCtx;
+    private final File file;
+    private volatile JSONArray mine;    // server copy; null until loaded
+    private volatile boolean loaded = false;
+
+    private BookingCache(Context appCtx) {
+        this.appCtx = appCtx;
+        this.file = new File(appCtx.getFilesDir(), FILE_NAME);
+    }
+
+    /**
+     * Cached bookings as the user should see them (pending creates/changes included), or null if
+     * nothing was stored or queued yet. Call off the main thread.
+     */
+    public synchronized JSONArray mine() {
+        return BookingMutations.overlay(server(), BookingOutbox.get(appCtx).pending());
+    }
+
+    /** One booking from mine(), or null. */
+    public synchronized JSONObject find(String bookingId) {
+        JSONArray arr = mine();
+        int i = BookingMutations.indexOf(arr, bookingId);
+        return i >= 0 ? arr.optJSONObject(i) : null;
+    }
+
+    /** Replace the server copy with a fresh /api/Booking/mine. */
+    public synchronized void putMine(JSONArray arr) {
+        if (arr == null) return;
+        mine = arr;
+        loaded = true;
+        write(arr);
+    }
+
+    /**
+     * Fold a write the server accepted into the server copy (its returned booking replaces the optimistic
+     * row). False when that needs a refetch (a create answered without a booking).
+     */
+    public synchronized boolean confirm(BookingMutations.Op op, JSONObject serverRow) {
+        JSONArray cur = server();
+        // Edit a copy: callers may still be iterating the array mine() handed out
+        JSONArray arr = cur != null ? JsonUtils.parseArray(cur.toString()) : null;
+        if (arr == null) arr = new JSONArray();
+        if (!BookingMutations.reconcile(arr, op, serverRow)) return false;
+        mine = arr;
+        write(arr);
+        return true;
+    }
+
+    /** Drop cached bookings (logout / account switch). */
+    public synchronized void clear() {
+        mine = null;
+        loaded = true;
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    private JSONArray server() {
+        if (!loaded) {
+            mine = readFile();
+            loaded = true;
+        }
+        return mine;
+    }
+
+    private void write(JSONArray arr) {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(arr.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            Log.w(TAG, "write failed: " + e.getMessage());
+        }
+    }
+
+    private JSONArray readFile() {
+        if (!file.exists()) return null;
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) baos.write(buf, 0, n);
+            return JsonUtils.parseArray(baos.toString(StandardCharsets.UTF_8.name()));
+        } catch (Exception e) {
+            Log.w(TAG, "read failed: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.evcharge.app.core.booking;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.db.BookingMutationDao;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.HttpClient;
+
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for booking create / modify / cancel, so booking actions return at once.
+ * - Each op is persisted (booking_mutations_pending) with its own Idempotency-Key before anything hits
+ *   the network, and BookingCache.mine() shows it from then on
+ * - Ops are sent one at a time, oldest first, always with the key they were queued with
+ * - Accepted: the booking the server returned replaces the optimistic row (BookingCache.confirm)
+ * - Rejected (other 4xx incl. 403, e.g. slot taken, booking locked or not the owner's to change): the op
+ *   is dropped, which rolls the row back, the list is refetched and listeners get the server's message
+ * - Transient failures retry with jittered exponential backoff; 401 waits for the next kick(). Resending is
+ *   safe because the backend stores each key (IdempotencyRepository): a write that landed before its
+ *   response was lost is answered from the store, and 409 IdempotencyInProgress means "still running"
+ * Single worker thread; all network work happens there.
+ */
+public final class BookingOutbox {
+
+    private static final String TAG = "BookingOutbox";
+
+    static final long BACKOFF_BASE_MS = 2_000L;
+    static final long BACKOFF_MAX_MS = 5 * 60_000L;
+
+    /** Called on the outbox's worker (or the enqueuing) thread; post to the UI yourself. */
+    public interface Listener {
+        /** mine() changed: an op was queued, confirmed or rolled back. */
+        void onBookingsChanged();
+
+        /** The server refused the op and its optimistic change is gone. */
+        void onRejected(BookingMutations.Op op, int code, String message);
+    }
+
+    private static volatile BookingOutbox instance;
+
+    public static BookingOutbox get(Context context) {
+        BookingOutbox o = instance;
+        if (o == null) {
+            synchronized (BookingOutbox.class) {
+                o = instance;
+                if (o == null) { o = new BookingOutbox(context.getApplicationContext()); instance = o; }
+            }
+        }
+        return o;
+    }
+
+    private enum Outcome { DONE, RETRY, AUTH }
+
+    private final Context appCtx;
+    private final BookingMutationDao dao;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "booking-outbox");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Object queueLock = new Object();
+    private volatile List<BookingMutations.Op> pending;   // queue snapshot, oldest first; null until loaded
+
+    // guarded by this
+    private ScheduledFuture<?> scheduled;
+    private long scheduledForMs;
+    private int failures = 0;
+
+    private BookingOutbox(Context appCtx) {
+        this.appCtx = appCtx;
+        this.dao = new BookingMutationDao(appCtx);
+    }
+
+    // ---- queue ----
+
+    /**
+     * Queue a create. opId belongs to the screen (one per confirm screen), so tapping Confirm again
+     * after a failure or a restart is the same booking, with the same key. Call off the main thread.
+     */
+    public BookingMutations.Op enqueueCreate(String opId, JSONObject payload) {
+        return enqueue(BookingMutations.create(opId, payload, System.currentTimeMillis()));
+    }
+
+    /** Returns null for bookings the server hasn't confirmed yet (nothing to modify there). */
+    public BookingMutations.Op enqueueModify(String bookingId, JSONObject payload) {
+        if (bookingId == null || BookingMutations.isLocalId(bookingId)) return null;
+        return enqueue(BookingMutations.modify(bookingId, payload, System.currentTimeMillis()));
+    }
+
+    /** Returns null for bookings the server hasn't confirmed yet. */
+    public BookingMutations.Op enqueueCancel(String bookingId) {
+        if (bookingId == null || BookingMutations.isLocalId(bookingId)) return null;
+        return enqueue(BookingMutations.cancel(bookingId, System.currentTimeMillis()));
+    }
+
+    /** Unconfirmed ops, oldest first. The first call reads the queue from the DB. */
+    public List<BookingMutations.Op> pending() {
+        List<BookingMutations.Op> p = pending;
+        if (p == null) {
+            synchronized (queueLock) {
+                if (pending == null) reload();
+                p = pending;
+            }
+        }
+        return p;
+    }
+
+    public boolean hasPending(String bookingId) {
+        for (BookingMutations.Op op : pending()) if (op.targetId().equals(bookingId)) return true;
+        return false;
+    }
+
+    /** Send whatever survived a previous process (startup, login, sync pass). */
+    public void kick() {
+        synchronized (this) { failures = 0; }
+        scheduleIn(0L);
+    }
+
+    /** Queued writes belong to the signed-in owner; drop them on logout. */
+    public void dropPending() {
+        worker.execute(() -> {
+            synchronized (queueLock) {
+                dao.clear();
+                reload();
+            }
+            notifyChanged();
+        });
+    }
+
+    public void addListener(Listener l) { if (l != null) listeners.add(l); }
+
+    public void removeListener(Listener l) { listeners.remove(l); }
+
+    private BookingMutations.Op enqueue(BookingMutations.Op op) {
+        synchronized (queueLock) {
+            if (!dao.insert(op)) Log.i(TAG, "already queued: " + op);
+            reload();
+        }
+        notifyChanged();
+        scheduleIn(0L);
+        return op;
+    }
+
+    private void reload() { pending = Collections.unmodifiableList(dao.pending()); }
+
+    // ---- drain ----
+
+    private synchronized void scheduleIn(long delayMs) {
+        long at = System.currentTimeMillis() + delayMs;
+        if (scheduled != null && !scheduled.isDone() && scheduledForMs <= at) return; // coalesce
+        if (scheduled != null) scheduled.cancel(false);
+        scheduledForMs = at;
+        scheduled = worker.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        synchronized (this) { scheduled = null; } // this run no longer counts as "pending"
+        boolean refetch = false;
+        try {
+            ApiClient api = ApiClient.get(appCtx);
+            BookingMutations.Op op;
+            while ((op = head()) != null) {
+                ApiClient.Result r = send(api, op);
+                Outcome o = classify(r);
+                if (o == Outcome.AUTH) return;             // keep queue; next kick() after login
+                if (o == Outcome.RETRY) {
+                    dao.bumpAttempts(op.opId);
+                    retryLater();
+                    return;
+                }
+                if (r.ok) {
+                    refetch |= !BookingCache.get(appCtx).confirm(op, r.json);
+                } else {
+                    // The server's copy may differ from what this op assumed (approved, moved, gone)
+                    Log.w(TAG, "rejected " + op + ": HTTP " + r.code);
+                    refetch = true;
+                }
+                synchronized (queueLock) {
+                    dao.remove(op.opId);
+                    reload();
+                }
+                resetFailures();
+                if (!r.ok) for (Listener l : listeners) l.onRejected(op, r.code, r.message);
+                notifyChanged();
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "drain failed: " + e.getMessage());
+            retryLater();
+        } finally {
+            if (refetch) refetch();
+        }
+    }
+
+    private BookingMutations.Op head() {
+        List<BookingMutations.Op> p = pending();
+        return p.isEmpty() ? null : p.get(0);
+    }
+
+    private static ApiClient.Result send(ApiClient api, BookingMutations.Op op) {
+        switch (op.kind) {
+            case BookingMutations.CREATE: return api.bookingCreate(op.payload, op.idempotencyKey);
+            case BookingMutations.MODIFY: return api.bookingModify(op.bookingId, op.payload, op.idempotencyKey);
+            case BookingMutations.CANCEL: return api.bookingCancel(op.bookingId, op.idempotencyKey);
+            default: return new ApiClient.Result(false, 400, "Unknown booking change: " + op.kind, null, null);
+        }
+    }
+
+    private static Outcome classify(ApiClient.Result r) {
+        if (r.ok) return Outcome.DONE;
+        if (r.code == 401) return Outcome.AUTH;            // 403 is BookingController's Forbid(): a rejection
+        if (r.code == 0 || r.code == 408 || r.code == 429 || r.code >= 500) return Outcome.RETRY;
+        if (r.code == 409 && r.json != null && "IdempotencyInProgress".equals(r.json.optString("error"))) return Outcome.RETRY;
+        return Outcome.DONE;                                // other 4xx: rejected, roll back
+    }
+
+    /** Reconcile with the server's list after a rejection or a create answered without a booking. */
+    private void refetch() {
+        try {
+            HttpClient.Response r = ApiClient.get(appCtx).bookingMineRaw();
+            if (!r.is2xx() || r.jsonArray == null) return;
+            BookingCache.get(appCtx).putMine(r.jsonArray);
+            notifyChanged();
+        } catch (Exception e) {
+            Log.w(TAG, "refetch failed: " + e.getMessage());
+        }
+    }
+
+    private void notifyChanged() {
+        for (Listener l : listeners) l.onBookingsChanged();
+    }
+
+    private synchronized void resetFailures() { failures = 0; }
+
+    private void retryLater() {
+        long delay;
+        synchronized (this) {
+            failures++;
+            long exp = BACKOFF_BASE_MS << Math.min(failures - 1, 16);
+            long capped = Math.min(BACKOFF_MAX_MS, exp);
+            delay = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1); // jitter
+        }
+        scheduleIn(delay);
+    }
+}
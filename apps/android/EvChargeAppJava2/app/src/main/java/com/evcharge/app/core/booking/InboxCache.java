@@ -0,0 +1,80 @@
+package com.evcharge.app.core.booking;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Last operator inbox (GET /api/Operator/inbox?date=...) for one day, so the operator screen
+ * can paint before the network answers. Stored as { "date": "YYYY-MM-DD", "items": [...] }
+ * in files/operator_inbox.json; display-only.
+ */
+public final class InboxCache {
+
+    private static final String TAG = "InboxCache";
+    private static final String FILE_NAME = "operator_inbox.json";
+
+    private static volatile InboxCache instance;
+
+    public static InboxCache get(Context context) {
+        InboxCache c = instance;
+        if (c == null) {
+            synchronized (InboxCache.class) {
+                c = instance;
+                if (c == null) { c = new InboxCache(context.getApplicationContext()); instance = c; }
+            }
+        }
+        return c;
+    }
+
+    private final File file;
+
+    private InboxCache(Context appCtx) {
+        this.file = new File(appCtx.getFilesDir(), FILE_NAME);
+    }
+
+    /** Cached inbox for that day, or null. Call off the main thread. */
+    public synchronized JSONArray forDay(String ymd) {
+        if (ymd == null || !file.exists()) return null;
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) baos.write(buf, 0, n);
+            JSONObject root = JsonUtils.parseObject(baos.toString(StandardCharsets.UTF_8.name()));
+            if (root == null || !ymd.equals(JsonUtils.optString(root, "date"))) return null;
+            return root.optJSONArray("items");
+        } catch (Exception e) {
+            Log.w(TAG, "read failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized void put(String ymd, JSONArray items) {
+        if (ymd == null || items == null) return;
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            JSONObject root = new JSONObject();
+            root.put("date", ymd);
+            root.put("items", items);
+            out.write(root.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            Log.w(TAG, "write failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized void clear() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
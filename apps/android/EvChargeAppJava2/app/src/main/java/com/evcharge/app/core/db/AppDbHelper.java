@@ -3,15 +3,21 @@ package com.evcharge.app.core.db;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
 
 /**
- * Minimal local DB used ONLY for user snapshot caching.
+ * Minimal local DB for user snapshots, the notifications cache, its pending mark-read queue
+ * and the station search index.
  * Business logic remains on the server.
+ * - Schema changes are ordered steps in DbMigrations, so app updates keep cached data
+ * - Write-ahead logging: background sync writes don't block UI reads
  */
 public final class AppDbHelper extends SQLiteOpenHelper {
 
     public static final String DB_NAME = "evcharge.db";
-    public static final int DB_VERSION = 1;
+    public static final int DB_VERSION = DbMigrations.LATEST;  // v6: booking outbox
+
+    private static final String TAG = "AppDbHelper";
 
     // Table + columns
     public static final String T_USERS = "users";
@@ -22,30 +28,84 @@ public final class AppDbHelper extends SQLiteOpenHelper {
     public static final String C_STATUS = "status";           // "Active" | "Deactivated" | null
     public static final String C_LAST_LOGIN_UTC = "last_login_utc";
 
-    private static final String SQL_CREATE_USERS =
-            "CREATE TABLE IF NOT EXISTS " + T_USERS + " (" +
-                    C_ID_KEY + " TEXT PRIMARY KEY, " +
-                    C_FULL_NAME + " TEXT, " +
-                    C_PHONE + " TEXT, " +
-                    C_ROLE + " TEXT, " +
-                    C_STATUS + " TEXT, " +
-                    C_LAST_LOGIN_UTC + " TEXT" +
-            ");";
+    // v2: notifications cache (synced incrementally from /api/Notifications)
+    public static final String T_NOTIFICATIONS = "notifications";
+    public static final String C_N_ID = "id";
+    public static final String C_N_TYPE = "type";
+    public static final String C_N_SUBJECT = "subject";
+    public static final String C_N_MESSAGE = "message";
+    public static final String C_N_PAYLOAD = "payload";               // raw JSON object text
+    public static final String C_N_CREATED_AT_UTC = "created_at_utc";
+    public static final String C_N_CREATED_AT_MS = "created_at_ms";   // for ordering / sync watermark
+    public static final String C_N_READ_AT_UTC = "read_at_utc";       // null = unread
+
+    // v3: mark-read ids not yet confirmed by the server (write-behind queue)
+    public static final String T_PENDING_READS = "notification_reads_pending";
+    public static final String C_PR_ID = "id";
+    public static final String C_PR_QUEUED_AT_MS = "queued_at_ms";
+    public static final String C_PR_ATTEMPTS = "attempts";
+
+    // v5: full-text index over the station catalogue (FTS4; rebuilt from StationCatalog)
+    public static final String T_STATION_FTS = "station_fts";
+    public static final String C_SF_STATION_ID = "station_id";  // not tokenized
+    public static final String C_SF_NAME = "name";
+    public static final String C_SF_CITY = "city";
+    public static final String C_SF_TYPE = "type";
+
+    // v6: booking writes not yet confirmed by the server (BookingOutbox)
+    public static final String T_BOOKING_OPS = "booking_mutations_pending";
+    public static final String C_BO_OP_ID = "op_id";
+    public static final String C_BO_KIND = "kind";                       // "create" | "modify" | "cancel"
+    public static final String C_BO_BOOKING_ID = "booking_id";           // null for create
+    public static final String C_BO_PAYLOAD = "payload";                 // request body JSON
+    public static final String C_BO_IDEMPOTENCY_KEY = "idempotency_key"; // fixed for the op's lifetime
+    public static final String C_BO_QUEUED_AT_MS = "queued_at_ms";
+    public static final String C_BO_ATTEMPTS = "attempts";
+
+    private static volatile AppDbHelper instance;
+
+    /** Shared helper so the connection opened during startup prewarm is reused by every DAO. */
+    public static AppDbHelper get(Context ctx) {
+        AppDbHelper h = instance;
+        if (h == null) {
+            synchronized (AppDbHelper.class) {
+                h = instance;
+                if (h == null) { h = new AppDbHelper(ctx.getApplicationContext()); instance = h; }
+            }
+        }
+        return h;
+    }
 
     public AppDbHelper(Context ctx) {
         super(ctx, DB_NAME, null, DB_VERSION);
+        // Concurrent readers alongside a single writer (sync worker, read batcher, UI)
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        db.execSQL(SQL_CREATE_USERS);
+        DbMigrations.migrate(db, 0, DB_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // v1 → future: either ALTER TABLEs or simple rebuild.
-        // For assignment simplicity, rebuild if schema changes.
-        db.execSQL("DROP TABLE IF EXISTS " + T_USERS);
-        onCreate(db);
+        try {
+            DbMigrations.migrate(db, oldVersion, newVersion);
+        } catch (RuntimeException e) {
+            // Everything here is a cache of server state: rebuilding beats refusing to open
+            Log.w(TAG, "migration " + oldVersion + " -> " + newVersion + " failed, rebuilding: " + e.getMessage());
+            rebuild(db);
+        }
+    }
+
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Older build installed over a newer schema: no down-steps, start clean
+        rebuild(db);
+    }
+
+    private static void rebuild(SQLiteDatabase db) {
+        for (String t : DbMigrations.TABLES) db.execSQL("DROP TABLE IF EXISTS " + t);
+        DbMigrations.migrate(db, 0, DB_VERSION);
     }
 }
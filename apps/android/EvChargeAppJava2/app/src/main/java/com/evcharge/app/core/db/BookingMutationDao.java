@@ -0,0 +1,78 @@
+package com.evcharge.app.core.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.evcharge.app.core.booking.BookingMutations;
+import com.evcharge.app.core.util.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.evcharge.app.core.db.AppDbHelper.*;
+
+/** The booking_mutations_pending queue behind BookingOutbox. */
+public final class BookingMutationDao {
+
+    private final AppDbHelper helper;
+
+    public BookingMutationDao(Context ctx) {
+        this.helper = AppDbHelper.get(ctx);
+    }
+
+    private static final String[] COLS = {
+            C_BO_OP_ID, C_BO_KIND, C_BO_BOOKING_ID, C_BO_PAYLOAD,
+            C_BO_IDEMPOTENCY_KEY, C_BO_QUEUED_AT_MS, C_BO_ATTEMPTS
+    };
+
+    /** Queue an op; returns false if an op with this id is already queued (its key is kept). */
+    public boolean insert(BookingMutations.Op op) {
+        ContentValues cv = new ContentValues();
+        cv.put(C_BO_OP_ID, op.opId);
+        cv.put(C_BO_KIND, op.kind);
+        cv.put(C_BO_BOOKING_ID, op.bookingId);
+        cv.put(C_BO_PAYLOAD, op.payload.toString());
+        cv.put(C_BO_IDEMPOTENCY_KEY, op.idempotencyKey);
+        cv.put(C_BO_QUEUED_AT_MS, op.queuedAtMs);
+        cv.put(C_BO_ATTEMPTS, op.attempts);
+        return helper.getWritableDatabase()
+                .insertWithOnConflict(T_BOOKING_OPS, null, cv, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+    }
+
+    /** Oldest first. */
+    public List<BookingMutations.Op> pending() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        List<BookingMutations.Op> out = new ArrayList<>();
+        Cursor c = null;
+        try {
+            c = db.query(T_BOOKING_OPS, COLS, null, null, null, null,
+                    C_BO_QUEUED_AT_MS + " ASC, " + C_BO_OP_ID + " ASC");
+            while (c.moveToNext()) {
+                out.add(new BookingMutations.Op(
+                        c.getString(0), c.getString(1), c.isNull(2) ? null : c.getString(2),
+                        JsonUtils.parseObject(c.isNull(3) ? null : c.getString(3)),
+                        c.getString(4), c.getLong(5), c.getInt(6)));
+            }
+        } finally {
+            if (c != null) c.close();
+        }
+        return out;
+    }
+
+    public void remove(String opId) {
+        if (opId == null) return;
+        helper.getWritableDatabase().delete(T_BOOKING_OPS, C_BO_OP_ID + "=?", new String[]{opId});
+    }
+
+    public void bumpAttempts(String opId) {
+        if (opId == null) return;
+        helper.getWritableDatabase().execSQL("UPDATE " + T_BOOKING_OPS + " SET " + C_BO_ATTEMPTS + "=" + C_BO_ATTEMPTS +
+                "+1 WHERE " + C_BO_OP_ID + "=?", new Object[]{opId});
+    }
+
+    public void clear() {
+        helper.getWritableDatabase().delete(T_BOOKING_OPS, null, null);
+    }
+}
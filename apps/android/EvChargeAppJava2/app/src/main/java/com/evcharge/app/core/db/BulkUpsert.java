@@ -0,0 +1,85 @@
+package com.evcharge.app.core.db;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Batch writer for sync payloads (hundreds of rows at a time).
+ * - Statements are compiled once and re-bound per row (no ContentValues, no per-row SQL building)
+ * - The whole batch runs in a single transaction (one journal commit instead of one per row)
+ * - Optional update-then-insert mode keeps columns the update statement doesn't touch
+ *   (e.g. a locally-set read flag); SQLite's ON CONFLICT DO UPDATE needs API 30+
+ */
+public final class BulkUpsert<T> {
+
+    /** Binds one row onto a compiled statement. Return false to skip the row. */
+    public interface Binder<T> {
+        boolean bind(SQLiteStatement st, T row);
+    }
+
+    private final String table;
+    private final String[] columns;
+    private String updateSql;
+    private Binder<T> updateBinder;
+
+    /** INSERT OR REPLACE into {@code table} with the given columns, bound in that order. */
+    public BulkUpsert(String table, String... columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    /**
+     * Try {@code updateSql} first and only insert when it changed no row.
+     * Use this when an existing row carries local state a blind REPLACE would lose.
+     */
+    public BulkUpsert<T> updateFirst(String updateSql, Binder<T> binder) {
+        this.updateSql = updateSql;
+        this.updateBinder = binder;
+        return this;
+    }
+
+    public String insertSql() {
+        StringBuilder sb = new StringBuilder("INSERT OR REPLACE INTO ").append(table).append(" (");
+        StringBuilder qs = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) { sb.append(','); qs.append(','); }
+            sb.append(columns[i]);
+            qs.append('?');
+        }
+        return sb.append(") VALUES (").append(qs).append(')').toString();
+    }
+
+    /** Writes every row in one transaction; returns how many rows were inserted or updated. */
+    public int run(SQLiteDatabase db, Iterable<? extends T> rows, Binder<T> insertBinder) {
+        if (rows == null) return 0;
+        int written = 0;
+        db.beginTransaction();
+        SQLiteStatement insert = null, update = null;
+        try {
+            insert = db.compileStatement(insertSql());
+            if (updateSql != null) update = db.compileStatement(updateSql);
+            for (T row : rows) {
+                if (row == null) continue;
+                if (update != null) {
+                    update.clearBindings();
+                    if (!updateBinder.bind(update, row)) continue;
+                    if (update.executeUpdateDelete() > 0) { written++; continue; }
+                }
+                insert.clearBindings();
+                if (!insertBinder.bind(insert, row)) continue;
+                if (insert.executeInsert() != -1) written++;
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            if (insert != null) insert.close();
+            if (update != null) update.close();
+            db.endTransaction();
+        }
+        return written;
+    }
+
+    /** SQLiteStatement has no bindString(null); this binds NULL for missing values. */
+    public static void bindText(SQLiteStatement st, int index, String value) {
+        if (value == null) st.bindNull(index); else st.bindString(index, value);
+    }
+}
@@ -0,0 +1,98 @@
+package com.evcharge.app.core.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import static com.evcharge.app.core.db.AppDbHelper.*;
+
+/**
+ * Ordered schema steps for AppDbHelper. STEPS[i] upgrades version i to i+1.
+ * - Fresh installs run every step from 0; upgrades run only the missing ones
+ * - Steps are append-only: never edit a shipped step, add a new one and bump DB_VERSION
+ * - Every step runs inside SQLiteOpenHelper's upgrade transaction
+ */
+final class DbMigrations {
+
+    interface Step {
+        void apply(SQLiteDatabase db);
+    }
+
+    private static final Step[] STEPS = {
+            // 0 -> 1: user snapshots
+            db -> db.execSQL("CREATE TABLE IF NOT EXISTS " + T_USERS + " (" +
+                    C_ID_KEY + " TEXT PRIMARY KEY, " +
+                    C_FULL_NAME + " TEXT, " +
+                    C_PHONE + " TEXT, " +
+                    C_ROLE + " TEXT, " +
+                    C_STATUS + " TEXT, " +
+                    C_LAST_LOGIN_UTC + " TEXT" +
+                    ");"),
+
+            // 1 -> 2: notifications cache (synced incrementally from /api/Notifications)
+            db -> db.execSQL("CREATE TABLE IF NOT EXISTS " + T_NOTIFICATIONS + " (" +
+                    C_N_ID + " TEXT PRIMARY KEY, " +
+                    C_N_TYPE + " TEXT, " +
+                    C_N_SUBJECT + " TEXT, " +
+                    C_N_MESSAGE + " TEXT, " +
+                    C_N_PAYLOAD + " TEXT, " +
+                    C_N_CREATED_AT_UTC + " TEXT, " +
+                    C_N_CREATED_AT_MS + " INTEGER NOT NULL DEFAULT 0, " +
+                    C_N_READ_AT_UTC + " TEXT" +
+                    ");"),
+
+            // 2 -> 3: mark-read ids not yet confirmed by the server (write-behind queue)
+            db -> db.execSQL("CREATE TABLE IF NOT EXISTS " + T_PENDING_READS + " (" +
+                    C_PR_ID + " TEXT PRIMARY KEY, " +
+                    C_PR_QUEUED_AT_MS + " INTEGER NOT NULL, " +
+                    C_PR_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0" +
+                    ");"),
+
+            // 3 -> 4: indexes for the list/badge/flush lookups
+            db -> {
+                // list(all) ordering and the MAX(created_at_ms) sync watermark
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_created ON " + T_NOTIFICATIONS +
+                        " (" + C_N_CREATED_AT_MS + " DESC, " + C_N_ID + " DESC);");
+                // unread badge count + list(unreadOnly); partial, so it only holds the unread rows
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_unread ON " + T_NOTIFICATIONS +
+                        " (" + C_N_CREATED_AT_MS + " DESC, " + C_N_ID + " DESC) WHERE " + C_N_READ_AT_UTC + " IS NULL;");
+                // oldest-first flush of the pending mark-read queue
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_pending_reads_queued ON " + T_PENDING_READS +
+                        " (" + C_PR_QUEUED_AT_MS + ");");
+            },
+
+            // 4 -> 5: station search (prefix/token MATCH over name, city, type); contents come from the catalogue
+            db -> db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + T_STATION_FTS + " USING fts4(" +
+                    C_SF_STATION_ID + ", " + C_SF_NAME + ", " + C_SF_CITY + ", " + C_SF_TYPE + ", " +
+                    "notindexed=" + C_SF_STATION_ID + ", tokenize=unicode61);"),
+
+            // 5 -> 6: booking create/modify/cancel queue (write-behind, drained oldest first)
+            db -> {
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + T_BOOKING_OPS + " (" +
+                        C_BO_OP_ID + " TEXT PRIMARY KEY, " +
+                        C_BO_KIND + " TEXT NOT NULL, " +
+                        C_BO_BOOKING_ID + " TEXT, " +
+                        C_BO_PAYLOAD + " TEXT, " +
+                        C_BO_IDEMPOTENCY_KEY + " TEXT NOT NULL, " +
+                        C_BO_QUEUED_AT_MS + " INTEGER NOT NULL, " +
+                        C_BO_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0" +
+                        ");");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_booking_ops_queued ON " + T_BOOKING_OPS +
+                        " (" + C_BO_QUEUED_AT_MS + ");");
+            },
+    };
+
+    /** Schema version reached after every step has run. */
+    static final int LATEST = STEPS.length;
+
+    private DbMigrations() {}
+
+    /** Runs steps [from, to) in order. */
+    static void migrate(SQLiteDatabase db, int from, int to) {
+        if (from < 0 || to > STEPS.length || from > to) {
+            throw new IllegalArgumentException("No migration path " + from + " -> " + to);
+        }
+        for (int v = from; v < to; v++) STEPS[v].apply(db);
+    }
+
+    /** Every table this schema owns (used only for the rebuild fallback). */
+    static final String[] TABLES = {T_USERS, T_NOTIFICATIONS, T_PENDING_READS, T_STATION_FTS, T_BOOKING_OPS};
+}
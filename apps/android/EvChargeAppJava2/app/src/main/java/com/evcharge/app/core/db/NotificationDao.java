@@ -0,0 +1,238 @@
+package com.evcharge.app.core.db;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.evcharge.app.core.db.AppDbHelper.*;
+
+public final class NotificationDao {
+
+    private final AppDbHelper helper;
+
+    public NotificationDao(Context ctx) {
+        this.helper = AppDbHelper.get(ctx);
+    }
+
+    public static final class NotificationRecord {
+        public String id;             // PK
+        public String type;
+        public String subject;
+        public String message;
+        public String payloadJson;    // raw JSON object text or null
+        public String createdAtUtc;   // ISO-8601 as sent by the server
+        public long createdAtMs;
+        public String readAtUtc;      // null = unread
+
+        public boolean isRead() { return readAtUtc != null; }
+    }
+
+    private static final String[] COLS = {
+            C_N_ID, C_N_TYPE, C_N_SUBJECT, C_N_MESSAGE, C_N_PAYLOAD,
+            C_N_CREATED_AT_UTC, C_N_CREATED_AT_MS, C_N_READ_AT_UTC
+    };
+
+    // Server copy wins for content; a locally-set read state is kept when the server says unread
+    private static final BulkUpsert<NotificationRecord> UPSERT =
+            new BulkUpsert<NotificationRecord>(T_NOTIFICATIONS, COLS)
+                    .updateFirst("UPDATE " + T_NOTIFICATIONS + " SET " +
+                            C_N_TYPE + "=?, " + C_N_SUBJECT + "=?, " + C_N_MESSAGE + "=?, " + C_N_PAYLOAD + "=?, " +
+                            C_N_CREATED_AT_UTC + "=?, " + C_N_CREATED_AT_MS + "=?, " +
+                            C_N_READ_AT_UTC + "=COALESCE(?, " + C_N_READ_AT_UTC + ") " +
+                            "WHERE " + C_N_ID + "=?", (st, r) -> {
+                        if (r.id == null) return false;
+                        BulkUpsert.bindText(st, 1, r.type);
+                        BulkUpsert.bindText(st, 2, r.subject);
+                        BulkUpsert.bindText(st, 3, r.message);
+                        BulkUpsert.bindText(st, 4, r.payloadJson);
+                        BulkUpsert.bindText(st, 5, r.createdAtUtc);
+                        st.bindLong(6, r.createdAtMs);
+                        BulkUpsert.bindText(st, 7, r.readAtUtc);
+                        st.bindString(8, r.id);
+                        return true;
+                    });
+
+    /** Upsert a batch in one transaction. A locally-set read state is never cleared by the server copy. */
+    public void upsertAll(List<NotificationRecord> records) {
+        if (records == null || records.isEmpty()) return;
+        UPSERT.run(helper.getWritableDatabase(), records, (st, r) -> {
+            BulkUpsert.bindText(st, 1, r.id);
+            BulkUpsert.bindText(st, 2, r.type);
+            BulkUpsert.bindText(st, 3, r.subject);
+            BulkUpsert.bindText(st, 4, r.message);
+            BulkUpsert.bindText(st, 5, r.payloadJson);
+            BulkUpsert.bindText(st, 6, r.createdAtUtc);
+            st.bindLong(7, r.createdAtMs);
+            BulkUpsert.bindText(st, 8, r.readAtUtc);
+            return true;
+        });
+    }
+
+    /** Newest createdAtMs we hold (sync watermark), or 0 if empty. */
+    public long maxCreatedAtMs() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        return DatabaseUtils.longForQuery(db,
+                "SELECT IFNULL(MAX(" + C_N_CREATED_AT_MS + "),0) FROM " + T_NOTIFICATIONS, null);
+    }
+
+    public int countUnread() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        return (int) DatabaseUtils.queryNumEntries(db, T_NOTIFICATIONS, C_N_READ_AT_UTC + " IS NULL");
+    }
+
+    /**
+     * Newest first, starting below {@code after} (the last row already shown; null = from the top).
+     * Keyset paging on (created_at_ms, id): rows arriving or turning read meanwhile neither shift nor
+     * repeat the next page, and each page is an index seek rather than an OFFSET scan.
+     */
+    public List<NotificationRecord> list(boolean unreadOnly, int limit, NotificationRecord after) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        List<NotificationRecord> out = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        if (unreadOnly) where.add(C_N_READ_AT_UTC + " IS NULL");
+        if (after != null) {
+            // row value comparison (SQLite 3.15+, minSdk 26 ships 3.18) matches the (created DESC, id DESC) indexes
+            where.add("(" + C_N_CREATED_AT_MS + ", " + C_N_ID + ") < (?, ?)");
+            args.add(Long.toString(after.createdAtMs));
+            args.add(after.id);
+        }
+        Cursor c = null;
+        try {
+            c = db.query(T_NOTIFICATIONS, COLS,
+                    where.isEmpty() ? null : String.join(" AND ", where), args.toArray(new String[0]),
+                    null, null,
+                    C_N_CREATED_AT_MS + " DESC, " + C_N_ID + " DESC",
+                    Integer.toString(Math.max(1, limit)));
+            while (c.moveToNext()) {
+                NotificationRecord r = new NotificationRecord();
+                r.id = c.getString(0);
+                r.type = c.getString(1);
+                r.subject = c.getString(2);
+                r.message = c.getString(3);
+                r.payloadJson = c.getString(4);
+                r.createdAtUtc = c.getString(5);
+                r.createdAtMs = c.getLong(6);
+                r.readAtUtc = c.getString(7);
+                out.add(r);
+            }
+        } finally {
+            if (c != null) c.close();
+        }
+        return out;
+    }
+
+    /** Returns true if the row was unread before. */
+    public boolean markRead(String id, String readAtUtc) {
+        if (id == null) return false;
+        SQLiteDatabase db = helper.getWritableDatabase();
+        ContentValues cv = new ContentValues();
+        cv.put(C_N_READ_AT_UTC, readAtUtc);
+        return db.update(T_NOTIFICATIONS, cv, C_N_ID + "=? AND " + C_N_READ_AT_UTC + " IS NULL", new String[]{id}) > 0;
+    }
+
+    /** Mark read locally and queue the id for the server in one transaction. */
+    public void markReadAndQueue(String id, String readAtUtc) {
+        if (id == null) return;
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues cv = new ContentValues();
+            cv.put(C_N_READ_AT_UTC, readAtUtc);
+            db.update(T_NOTIFICATIONS, cv, C_N_ID + "=? AND " + C_N_READ_AT_UTC + " IS NULL", new String[]{id});
+
+            ContentValues q = new ContentValues();
+            q.put(C_PR_ID, id);
+            q.put(C_PR_QUEUED_AT_MS, System.currentTimeMillis());
+            db.insertWithOnConflict(T_PENDING_READS, null, q, SQLiteDatabase.CONFLICT_IGNORE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // ---- pending mark-read queue ----
+
+    /** Oldest first. */
+    public List<String> pendingReads(int limit) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        List<String> out = new ArrayList<>();
+        Cursor c = null;
+        try {
+            c = db.query(T_PENDING_READS, new String[]{C_PR_ID}, null, null, null, null,
+                    C_PR_QUEUED_AT_MS + " ASC", String.valueOf(Math.max(1, limit)));
+            while (c.moveToNext()) out.add(c.getString(0));
+        } finally {
+            if (c != null) c.close();
+        }
+        return out;
+    }
+
+    public int countPendingReads() {
+        return (int) DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), T_PENDING_READS);
+    }
+
+    public void removePendingReads(List<String> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) db.delete(T_PENDING_READS, C_PR_ID + "=?", new String[]{id});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void bumpPendingAttempts(List<String> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                db.execSQL("UPDATE " + T_PENDING_READS + " SET " + C_PR_ATTEMPTS + "=" + C_PR_ATTEMPTS + "+1 WHERE " + C_PR_ID + "=?",
+                        new Object[]{id});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void clearPendingReads() {
+        helper.getWritableDatabase().delete(T_PENDING_READS, null, null);
+    }
+
+    public int markAllRead(String readAtUtc) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        ContentValues cv = new ContentValues();
+        cv.put(C_N_READ_AT_UTC, readAtUtc);
+        return db.update(T_NOTIFICATIONS, cv, C_N_READ_AT_UTC + " IS NULL", null);
+    }
+
+    /** Server says these ids are no longer unread (read elsewhere); returns rows changed. */
+    public int markReadExcept(List<String> stillUnreadIds, String readAtUtc) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        ContentValues cv = new ContentValues();
+        cv.put(C_N_READ_AT_UTC, readAtUtc);
+        if (stillUnreadIds == null || stillUnreadIds.isEmpty()) {
+            return db.update(T_NOTIFICATIONS, cv, C_N_READ_AT_UTC + " IS NULL", null);
+        }
+        StringBuilder in = new StringBuilder();
+        for (int i = 0; i < stillUnreadIds.size(); i++) in.append(i == 0 ? "?" : ",?");
+        return db.update(T_NOTIFICATIONS, cv,
+                C_N_READ_AT_UTC + " IS NULL AND " + C_N_ID + " NOT IN (" + in + ")",
+                stillUnreadIds.toArray(new String[0]));
+    }
+
+    public int clearAll() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.delete(T_PENDING_READS, null, null);
+        return db.delete(T_NOTIFICATIONS, null, null);
+    }
+}
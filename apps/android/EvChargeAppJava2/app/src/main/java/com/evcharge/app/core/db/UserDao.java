@@ -4,6 +4,9 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.List;
 
 import static com.evcharge.app.core.db.AppDbHelper.*;
 
@@ -12,7 +15,7 @@ public final class UserDao {
     private final AppDbHelper helper;
 
     public UserDao(Context ctx) {
-        this.helper = new AppDbHelper(ctx.getApplicationContext());
+        this.helper = AppDbHelper.get(ctx);
     }
 
     // --- DTO/POJO kept tiny on purpose ---
@@ -39,6 +42,26 @@ public final class UserDao {
         return rowId != -1;
     }
 
+    private static final BulkUpsert<UserRecord> UPSERT = new BulkUpsert<>(T_USERS,
+            C_ID_KEY, C_FULL_NAME, C_PHONE, C_ROLE, C_STATUS, C_LAST_LOGIN_UTC);
+
+    /** Batch variant of insertOrReplace: one transaction, one compiled statement. Returns rows written. */
+    public int insertOrReplaceAll(List<UserRecord> records) {
+        if (records == null || records.isEmpty()) return 0;
+        return UPSERT.run(helper.getWritableDatabase(), records, UserDao::bind);
+    }
+
+    static boolean bind(SQLiteStatement st, UserRecord r) {
+        if (r.idKey == null || r.idKey.trim().isEmpty()) return false;
+        st.bindString(1, r.idKey);
+        BulkUpsert.bindText(st, 2, r.fullName);
+        BulkUpsert.bindText(st, 3, r.phone);
+        BulkUpsert.bindText(st, 4, r.role);
+        BulkUpsert.bindText(st, 5, r.status);
+        BulkUpsert.bindText(st, 6, r.lastLoginUtc);
+        return true;
+    }
+
     public UserRecord getByIdKey(String idKey) {
         if (idKey == null || idKey.trim().isEmpty()) return null;
         SQLiteDatabase db = helper.getReadableDatabase();
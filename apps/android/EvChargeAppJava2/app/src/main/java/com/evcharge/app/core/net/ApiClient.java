@@ -1,9 +1,15 @@
 package com.evcharge.app.core.net;
 
 import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LifecycleOwner;
 
 import com.evcharge.app.BuildConfig;
+import com.evcharge.app.core.perf.StartupTracer;
+import com.evcharge.app.core.platform.AndroidPlatform;
 import com.evcharge.app.core.prefs.AppPrefs;
+import com.evcharge.app.core.security.AuthGuard;
 import com.evcharge.app.core.security.JwtStore;
 import com.evcharge.app.core.util.JsonUtils;
 
@@ -15,22 +21,59 @@ import java.util.UUID;
 
 public final class ApiClient {
 
+  private static final String TAG = "ApiClient";
+
   private final Context appCtx;
   private final String baseUrl;
   private final HttpClient http;
   private final JwtStore jwt;
   private final AppPrefs prefs;
+  private final Call call;   // null on the shared client; set on views from withCall()/boundTo()
+
+  // ===== Per-method resilience (retry policy + circuit breaker, keyed by endpoint name): see Endpoints =====
+  private static final Endpoints EP = Endpoints.APP;
 
-  private static final long CLOCK_SKEW_MS = 30_000L; // 30s skew (aligns with JwtStore)
+  private static volatile ApiClient shared;
+
+  /** Process-wide instance (stateless apart from prefs reads, so safe to share across threads). */
+  public static ApiClient get(Context context) {
+    ApiClient c = shared;
+    if (c == null) {
+      synchronized (ApiClient.class) {
+        c = shared;
+        if (c == null) { c = new ApiClient(context); shared = c; }
+      }
+    }
+    return c;
+  }
 
   public ApiClient(Context context) {
     this.appCtx = context.getApplicationContext();
     this.baseUrl = BuildConfig.BASE_URL.endsWith("/")
       ? BuildConfig.BASE_URL.substring(0, BuildConfig.BASE_URL.length() - 1)
       : BuildConfig.BASE_URL;
-    this.http = new HttpClient();
-    this.jwt = new JwtStore(appCtx);
+    this.http = new HttpClient()
+      .gzipRequestsAbove(HttpClient.DEFAULT_GZIP_MIN_BYTES)
+      .observe((code, elapsedMs) ->
+        StartupTracer.endOnce(StartupTracer.FIRST_NETWORK_RESPONSE, StartupTracer.now() - elapsedMs));
+    // netsim flavor: play a named link profile (2g, congested-4g, captive-portal) over the real connection
+    NetworkProfile link = BuildConfig.DEBUG ? NetworkProfile.byName(BuildConfig.NET_PROFILE) : null;
+    if (link != null) {
+      http.intercept(new ConditionedLink(link));
+      Log.w(TAG, "simulated network: " + link);
+    }
+    this.jwt = AndroidPlatform.jwtStore(appCtx);
     this.prefs = new AppPrefs(appCtx);
+    this.call = null;
+  }
+
+  private ApiClient(ApiClient base, Call call) {
+    this.appCtx = base.appCtx;
+    this.baseUrl = base.baseUrl;
+    this.http = base.http;
+    this.jwt = base.jwt;
+    this.prefs = base.prefs;
+    this.call = call;
   }
 
   // ===== Models =====
@@ -61,20 +104,45 @@ public final class ApiClient {
     return h;
   }
 
-  private static void addIdempotencyKey(Map<String,String> h) { if (h != null) h.put("Idempotency-Key", UUID.randomUUID().toString()); }
+  /** Endpoint for the generic helpers: one breaker per method + route (query string dropped). */
+  private static Endpoint generic(String method, String path, RetryPolicy retry) {
+    int q = path != null ? path.indexOf('?') : -1;
+    return Endpoint.of(method + " " + (q >= 0 ? path.substring(0, q) : path), retry);
+  }
+
+  /**
+   * Handle for withCall() and the *Raw(..., Call) overloads: cancel() or leaving the screen
+   * (CallLifecycle.cancelOnDestroy) aborts the socket, and all requests made with it share one
+   * Call.DEFAULT_DEADLINE_MS budget.
+   */
+  public Call newCall() { return Call.withDeadline(Call.DEFAULT_DEADLINE_MS); }
+
+  /** Same client, with every request made through it under {@code call} (cancel + total deadline). */
+  public ApiClient withCall(Call call) { return new ApiClient(this, call); }
+
+  /**
+   * A client for one screen operation: a fresh newCall(), canceled when {@code owner} is destroyed.
+   * Call on the main thread, before handing the client to the worker thread.
+   */
+  public ApiClient boundTo(LifecycleOwner owner) { return withCall(CallLifecycle.cancelOnDestroy(newCall(), owner)); }
+
+  /**
+   * A client for a write the user confirmed: a fresh newCall() for the deadline, but not tied to a screen,
+   * so leaving it doesn't abort the write half-way.
+   */
+  public ApiClient unbound() { return withCall(newCall()); }
+
+  /** The call this client's requests run under, or null (stage timeouts only). */
+  public Call call() { return call; }
+
+  private static void addIdempotencyKey(Map<String,String> h, String key) { if (h != null && key != null) h.put("Idempotency-Key", key); }
 
   // ---- Auth freshness guard ----
   /** Public helper for activities to query current freshness quickly. */
   public boolean isAuthFresh() { return authFreshnessGuard() == null; }
 
-  /** Returns a non-null 401 Result if auth is stale; otherwise null. */
+  /** Returns a non-null 401/403 Result if auth is stale; otherwise null. Logic lives in AuthGuard. */
   private Result authFreshnessGuard() {
-    // 1) Check JWT exp from token
-    if (!jwt.isValid()) {
-      return new Result(false, 401, "Session expired — please log in again.", null, null);
-    }
-
-    // 2) Check server-issued expiry we cached at login
     String role = prefs.getActiveRole();
     String expiresAtUtc = null;
     if ("Operator".equalsIgnoreCase(role)) {
@@ -83,44 +151,10 @@ public final class ApiClient {
       expiresAtUtc = prefs.getLastLoginUtc();                 // we mirrored expiresAtUtc here on login
     }
 
-    if (expiresAtUtc != null && !expiresAtUtc.trim().isEmpty()) {
-      Long ms = tryParseIsoToMillis(expiresAtUtc.trim());
-      if (ms != null) {
-        long now = System.currentTimeMillis();
-        if (ms <= (now + CLOCK_SKEW_MS)) {
-          return new Result(false, 401, "Session expired — please log in again.", null, null);
-        }
-      }
-      // If unparsable, be lenient (fall back to JWT validity only)
-    }
-
-    // 3) Optional: reject any unknown roles explicitly
-    if (role != null && !role.equalsIgnoreCase("Owner") && !role.equalsIgnoreCase("Operator")) {
-      return new Result(false, 403, "Unsupported role", null, null);
-    }
-
-    return null;
-  }
-
-  private static Long tryParseIsoToMillis(String iso) {
-    try {
-      // Handles 2025-10-08T16:14:07.059889Z and variants
-      return java.time.Instant.parse(iso).toEpochMilli();
-    } catch (Exception ignored1) {
-      try {
-        return java.time.OffsetDateTime.parse(iso).toInstant().toEpochMilli();
-      } catch (Exception ignored2) {
-        try {
-          // best-effort fallback for plain seconds (append Z if missing)
-          String s = iso.endsWith("Z") ? iso : (iso + "Z");
-          java.text.SimpleDateFormat f = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", java.util.Locale.US);
-          f.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-          java.util.Date d = f.parse(s);
-          return (d != null) ? d.getTime() : null;
-        } catch (Exception ignored3) {
-          return null;
-        }
-      }
+    switch (AuthGuard.check(jwt, role, expiresAtUtc, System.currentTimeMillis())) {
+      case AuthGuard.EXPIRED:   return new Result(false, 401, "Session expired — please log in again.", null, null);
+      case AuthGuard.FORBIDDEN: return new Result(false, 403, "Unsupported role", null, null);
+      default:                  return null;
     }
   }
 
@@ -128,7 +162,7 @@ public final class ApiClient {
   public LoginResult login(String username, String password) {
     try {
       JSONObject body = new JSONObject(); body.put("username", username); body.put("password", password);
-      HttpClient.Response r = http.post(url("/api/Auth/login"), body, HttpClient.headers());
+      HttpClient.Response r = http.post(url("/api/Auth/login"), body, HttpClient.headers(), EP.login, call);
       if (r.is2xx()) {
         String token = null;
         if (r.body != null) {
@@ -196,7 +230,7 @@ public final class ApiClient {
       JSONObject b = new JSONObject();
       b.put("nic", nic); b.put("fullName", fullName); b.put("email", email); b.put("phone", phone); b.put("password", password);
       b.put("addressLine1", addressLine1); b.put("addressLine2", addressLine2); b.put("city", city);
-      HttpClient.Response r = http.post(url("/api/EvOwner"), b, HttpClient.headers()); // anonymous endpoint: no auth
+      HttpClient.Response r = http.post(url("/api/EvOwner"), b, HttpClient.headers(), EP.register, call); // anonymous endpoint: no auth
       return r.is2xx() ? Result.success(r) : Result.failure(r);
     } catch (Exception e) { return new Result(false, 0, "Network error: " + e.getMessage(), null, null); }
   }
@@ -204,63 +238,64 @@ public final class ApiClient {
   // ===== Generic authed helpers (now guarded) =====
   public Result getAuthed(String path) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.get(url(path), jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r); }
+    try { HttpClient.Response r = http.get(url(path), jsonAuthHeaders(), generic("GET", path, RetryPolicy.READ), call); return r.is2xx()? Result.success(r): Result.failure(r); }
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
 
   public Result postAuthed(String path, JSONObject body) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.post(url(path), body, jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r); }
-    catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
-  }
-
-  public Result postAuthedIdempotent(String path, JSONObject body) {
-    Result g = authFreshnessGuard(); if (g != null) return g;
-    try { Map<String,String> h = jsonAuthHeaders(); addIdempotencyKey(h); HttpClient.Response r = http.post(url(path), body, h); return r.is2xx()? Result.success(r): Result.failure(r); }
+    try { HttpClient.Response r = http.post(url(path), body, jsonAuthHeaders(), generic("POST", path, RetryPolicy.NONE), call); return r.is2xx()? Result.success(r): Result.failure(r); }
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
 
   public Result putAuthed(String path, JSONObject body) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.put(url(path), body, jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r); }
+    try { HttpClient.Response r = http.put(url(path), body, jsonAuthHeaders(), generic("PUT", path, RetryPolicy.NONE), call); return r.is2xx()? Result.success(r): Result.failure(r); }
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
 
   public Result deleteAuthed(String path, JSONObject body) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.delete(url(path), body, jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r); }
+    try { HttpClient.Response r = http.delete(url(path), body, jsonAuthHeaders(), generic("DELETE", path, RetryPolicy.NONE), call); return r.is2xx()? Result.success(r): Result.failure(r); }
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
 
   // ===== Bookings =====
   public HttpClient.Response bookingMineRaw() throws Exception {
     // Raw method kept as-is (callers should verify isAuthFresh() first)
-    return http.get(url("/api/Booking/mine"), jsonAuthHeaders());
+    return http.get(url("/api/Booking/mine"), jsonAuthHeaders(), EP.bookingMine, call);
   }
   public Result bookingDetail(String bookingId) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.get(url("/api/Booking/"+bookingId), jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r);}
+    try { HttpClient.Response r = http.get(url("/api/Booking/"+bookingId), jsonAuthHeaders(), EP.bookingDetail, call); return r.is2xx()? Result.success(r): Result.failure(r);}
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null);}
   }
-  public Result bookingCreate(JSONObject payload) {
+  /** One-shot create with a fresh key; screens go through BookingOutbox, which keeps one key per booking. */
+  public Result bookingCreate(JSONObject payload) { return bookingCreate(payload, UUID.randomUUID().toString()); }
+  /** Same key = same booking: the server answers a repeat with the booking it already made. */
+  public Result bookingCreate(JSONObject payload, String idempotencyKey) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { Map<String,String> h = jsonAuthHeaders(); addIdempotencyKey(h); HttpClient.Response r = http.post(url("/api/Booking"), payload, h); return r.is2xx()? Result.success(r): Result.failure(r);}
+    try { Map<String,String> h = jsonAuthHeaders(); addIdempotencyKey(h, idempotencyKey); HttpClient.Response r = http.post(url("/api/Booking"), payload, h, EP.bookingCreate, call); return r.is2xx()? Result.success(r): Result.failure(r);}
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null);}
   }
-  public Result bookingModify(String bookingId, JSONObject payload) {
+  public Result bookingModify(String bookingId, JSONObject payload) { return bookingModify(bookingId, payload, null); }
+  /** idempotencyKey null = no key and no retries. */
+  public Result bookingModify(String bookingId, JSONObject payload, String idempotencyKey) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.put(url("/api/Booking/"+bookingId), payload, jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r);}
+    try { Map<String,String> h = jsonAuthHeaders(); addIdempotencyKey(h, idempotencyKey); HttpClient.Response r = http.put(url("/api/Booking/"+bookingId), payload, h, EP.bookingModify, call); return r.is2xx()? Result.success(r): Result.failure(r);}
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null);}
   }
-  public Result bookingCancel(String bookingId) {
+  public Result bookingCancel(String bookingId) { return bookingCancel(bookingId, null); }
+  /** idempotencyKey null = no key and no retries. */
+  public Result bookingCancel(String bookingId, String idempotencyKey) {
     Result g = authFreshnessGuard(); if (g != null) return g;
-    try { HttpClient.Response r = http.post(url("/api/Booking/"+bookingId+"/cancel"), new JSONObject(), jsonAuthHeaders()); return r.is2xx()? Result.success(r): Result.failure(r);}
+    try { Map<String,String> h = jsonAuthHeaders(); addIdempotencyKey(h, idempotencyKey); HttpClient.Response r = http.post(url("/api/Booking/"+bookingId+"/cancel"), new JSONObject(), h, EP.bookingCancel, call); return r.is2xx()? Result.success(r): Result.failure(r);}
     catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null);}
   }
   public Result qrIssue(String bookingId) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.post(url("/api/Qr/issue/"+bookingId), new JSONObject(), jsonAuthHeaders());
+      HttpClient.Response r = http.post(url("/api/Qr/issue/"+bookingId), new JSONObject(), jsonAuthHeaders(), EP.qrIssue, call);
       if (!r.is2xx()) return Result.failure(r);
       String token = null;
       if (r.body != null) {
@@ -283,25 +318,37 @@ public final class ApiClient {
 
   // ===== Stations =====
   public HttpClient.Response stationsAllRaw() throws Exception {
-    return http.get(url("/api/Station"), HttpClient.headers());
+    return http.get(url("/api/Station"), HttpClient.headers(), EP.stationList, call);
   }
 
   /** GET /api/Station/nearby?lat=..&lng=..&radiusKm=..&type=AC|DC → JSONArray */
   public HttpClient.Response stationsNearbyRaw(double lat, double lng, double radiusKm, String type) throws Exception {
+    return stationsNearbyRaw(lat, lng, radiusKm, type, call);
+  }
+
+  public HttpClient.Response stationsNearbyRaw(double lat, double lng, double radiusKm, String type, Call call) throws Exception {
     String q = String.format(java.util.Locale.US,
       "/api/Station/nearby?lat=%f&lng=%f&radiusKm=%f%s",
       lat, lng, radiusKm, (type != null && !type.isEmpty() ? "&type=" + java.net.URLEncoder.encode(type, "UTF-8") : ""));
-    return http.get(url(q), HttpClient.headers());
+    return http.get(url(q), HttpClient.headers(), EP.stationNearby, call);
   }
 
   /** GET /api/Station/{id} → JSONObject (public) */
   public HttpClient.Response stationDetailRaw(String id) throws Exception {
-    return http.get(url("/api/Station/" + id), HttpClient.headers());
+    return stationDetailRaw(id, call);
+  }
+
+  public HttpClient.Response stationDetailRaw(String id, Call call) throws Exception {
+    return http.get(url("/api/Station/" + id), HttpClient.headers(), EP.stationDetail, call);
   }
 
   /** GET /api/Station/{id}/schedule → JSONObject (public) */
   public HttpClient.Response stationScheduleRaw(String id) throws Exception {
-    return http.get(url("/api/Station/" + id + "/schedule"), HttpClient.headers());
+    return stationScheduleRaw(id, call);
+  }
+
+  public HttpClient.Response stationScheduleRaw(String id, Call call) throws Exception {
+    return http.get(url("/api/Station/" + id + "/schedule"), HttpClient.headers(), EP.stationSchedule, call);
   }
 
   // ===== Owners (Profile) =====
@@ -309,7 +356,7 @@ public final class ApiClient {
   public Result ownerGet(String nic) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.get(url("/api/EvOwner/" + nic), jsonAuthHeaders());
+      HttpClient.Response r = http.get(url("/api/EvOwner/" + nic), jsonAuthHeaders(), EP.ownerGet, call);
       return r.is2xx()? Result.success(r): Result.failure(r);
     } catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
@@ -318,7 +365,7 @@ public final class ApiClient {
   public Result ownerUpdate(String nic, JSONObject body) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.put(url("/api/EvOwner/" + nic), body, jsonAuthHeaders());
+      HttpClient.Response r = http.put(url("/api/EvOwner/" + nic), body, jsonAuthHeaders(), EP.ownerUpdate, call);
       return r.is2xx()? Result.success(r): Result.failure(r);
     } catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
@@ -327,7 +374,7 @@ public final class ApiClient {
   public Result ownerDeactivate(String nic) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.put(url("/api/EvOwner/" + nic + "/deactivate"), new JSONObject(), jsonAuthHeaders());
+      HttpClient.Response r = http.put(url("/api/EvOwner/" + nic + "/deactivate"), new JSONObject(), jsonAuthHeaders(), EP.ownerDeactivate, call);
       return r.is2xx()? Result.success(r): Result.failure(r);
     } catch (Exception e){ return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
@@ -338,7 +385,7 @@ public final class ApiClient {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
       String q = "/api/Operator/inbox" + (ymd != null && !ymd.isEmpty() ? ("?date=" + ymd) : "");
-      HttpClient.Response r = http.get(url(q), jsonAuthHeaders());
+      HttpClient.Response r = http.get(url(q), jsonAuthHeaders(), EP.operatorInbox, call);
       return r.is2xx()? Result.success(r): Result.failure(r);
     } catch (Exception e) { return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
@@ -347,7 +394,7 @@ public final class ApiClient {
   public Result stationDetailAuthed(String stationId) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.get(url("/api/Station/" + stationId), jsonAuthHeaders());
+      HttpClient.Response r = http.get(url("/api/Station/" + stationId), jsonAuthHeaders(), EP.stationDetail, call);
       return r.is2xx()? Result.success(r): Result.failure(r);
     } catch (Exception e) { return new Result(false,0,"Network error: "+e.getMessage(),null,null); }
   }
@@ -359,14 +406,25 @@ public final class ApiClient {
     String q = String.format(java.util.Locale.US,
       "/api/Notifications?unreadOnly=%s&page=%d&pageSize=%d",
       unreadOnly ? "true" : "false", Math.max(1, page), Math.max(1, pageSize));
-    return http.get(url(q), jsonAuthHeaders());
+    return http.get(url(q), jsonAuthHeaders(), EP.notifList, call);
   }
 
   /** PUT /api/Notifications/{id}/read → 204 */
   public Result notificationMarkRead(String id) {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.put(url("/api/Notifications/" + id + "/read"), new JSONObject(), jsonAuthHeaders());
+      HttpClient.Response r = http.put(url("/api/Notifications/" + id + "/read"), new JSONObject(), jsonAuthHeaders(), EP.notifRead, call);
+      return r.is2xx() ? Result.success(r) : Result.failure(r);
+    } catch (Exception e) { return new Result(false,0,"Network error: " + e.getMessage(),null,null); }
+  }
+
+  /** PUT /api/Notifications/read-batch { ids:[...] } → { "updated": N } (max 100 ids) */
+  public Result notificationsMarkReadBatch(java.util.List<String> ids) {
+    Result g = authFreshnessGuard(); if (g != null) return g;
+    try {
+      JSONObject body = new JSONObject();
+      body.put("ids", new org.json.JSONArray(ids));
+      HttpClient.Response r = http.put(url("/api/Notifications/read-batch"), body, jsonAuthHeaders(), EP.notifReadBatch, call);
       return r.is2xx() ? Result.success(r) : Result.failure(r);
     } catch (Exception e) { return new Result(false,0,"Network error: " + e.getMessage(),null,null); }
   }
@@ -375,7 +433,7 @@ public final class ApiClient {
   public Result notificationsMarkAllRead() {
     Result g = authFreshnessGuard(); if (g != null) return g;
     try {
-      HttpClient.Response r = http.put(url("/api/Notifications/read-all"), new JSONObject(), jsonAuthHeaders());
+      HttpClient.Response r = http.put(url("/api/Notifications/read-all"), new JSONObject(), jsonAuthHeaders(), EP.notifReadAll, call);
       return r.is2xx() ? Result.success(r) : Result.failure(r);
     } catch (Exception e) { return new Result(false,0,"Network error: " + e.getMessage(),null,null); }
   }
@@ -0,0 +1,52 @@
+package com.evcharge.app.core.net;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Android side of Call (which lives in :core and knows nothing about screens):
+ * leaving the screen cancels the call, freeing the socket and the worker thread.
+ * One observer per screen; calls past their deadline (or canceled) are dropped as new ones are added, so
+ * long-lived screens (the map pans, list refreshes) don't accumulate them.
+ */
+public final class CallLifecycle {
+
+    // Main thread only (Lifecycle observers are too)
+    private static final Map<LifecycleOwner, List<Call>> LIVE = new WeakHashMap<>();
+
+    private CallLifecycle() {}
+
+    /** Cancel automatically when the owner (activity/fragment) is destroyed. Call on the main thread. */
+    public static Call cancelOnDestroy(Call call, LifecycleOwner owner) {
+        Lifecycle lc = owner.getLifecycle();
+        if (lc.getCurrentState() == Lifecycle.State.DESTROYED) {
+            call.cancel();
+            return call;
+        }
+        List<Call> calls = LIVE.get(owner);
+        if (calls == null) {
+            final List<Call> mine = new ArrayList<>();
+            calls = mine;
+            LIVE.put(owner, mine);
+            lc.addObserver(new LifecycleEventObserver() {
+                @Override public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                    if (event == Lifecycle.Event.ON_DESTROY) {
+                        source.getLifecycle().removeObserver(this);
+                        LIVE.remove(source);
+                        for (Call c : mine) c.cancel();
+                    }
+                }
+            });
+        }
+        for (Iterator<Call> it = calls.iterator(); it.hasNext(); ) if (it.next().isDone()) it.remove();
+        calls.add(call);
+        return call;
+    }
+}
@@ -0,0 +1,120 @@
+package com.evcharge.app.core.notifications;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.evcharge.app.core.db.NotificationDao.NotificationRecord;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.Call;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Paged, newest-first notifications source for an infinite-scroll list.
+ * - Each page is read from the local store first, below the last row shown (keyset on createdAt/id, so
+ *   rows synced or marked read meanwhile don't shift pages); server pages are pulled only when the local
+ *   table runs out (and are cached by NotificationStore)
+ * - onItemBound() triggers the next page PREFETCH_DISTANCE rows before the end
+ * - unreadOnly=false also surfaces read items
+ * Callbacks run on the main thread; one pager per list, close() when the list goes away (it also aborts
+ * the page request in flight; each page gets its own Call so a long scroll never runs out of deadline).
+ */
+public final class NotificationPager {
+
+    public interface Listener {
+        /** Full list so far (newest first); endReached = no more pages. */
+        void onItems(List<NotificationRecord> items, boolean endReached);
+        void onError(String message);
+    }
+
+    public static final int PAGE_SIZE = 20;
+    public static final int PREFETCH_DISTANCE = 5;
+    private static final int REMOTE_PAGE_SIZE = 50;
+
+    private final NotificationStore store;
+    private final ApiClient api;
+    private final boolean unreadOnly;
+    private final Listener listener;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    // main thread only
+    private final List<NotificationRecord> items = new ArrayList<>();
+    private final Set<String> ids = new HashSet<>();
+    private boolean loading = false;
+    private boolean endReached = false;
+    private boolean closed = false;
+    private volatile Call inFlight;
+
+    // worker thread only
+    private int remotePage = 0;
+    private boolean remoteExhausted = false;
+
+    public NotificationPager(NotificationStore store, ApiClient api, boolean unreadOnly, Listener listener) {
+        this.store = store;
+        this.api = api;
+        this.unreadOnly = unreadOnly;
+        this.listener = listener;
+    }
+
+    public boolean isUnreadOnly() { return unreadOnly; }
+
+    public void start() { loadMore(); }
+
+    /** Call from the adapter's onBindViewHolder. */
+    public void onItemBound(int position) {
+        if (position >= items.size() - PREFETCH_DISTANCE) loadMore();
+    }
+
+    public void close() {
+        closed = true;
+        Call c = inFlight;
+        if (c != null) c.cancel();
+        worker.shutdownNow();
+    }
+
+    private void loadMore() {
+        if (loading || endReached || closed) return;
+        loading = true;
+        final NotificationRecord after = items.isEmpty() ? null : items.get(items.size() - 1);
+        final Call call = api.newCall();
+        inFlight = call;
+        final ApiClient pageApi = api.withCall(call);
+        worker.execute(() -> {
+            List<NotificationRecord> page = store.list(unreadOnly, PAGE_SIZE, after);
+            String error = null;
+            while (page.size() < PAGE_SIZE && !remoteExhausted) {
+                int got = store.ensureRemotePage(pageApi, unreadOnly, remotePage + 1, REMOTE_PAGE_SIZE);
+                if (got < 0) { error = "Couldn't load more notifications"; break; }
+                remotePage++;
+                if (got < REMOTE_PAGE_SIZE) remoteExhausted = true;
+                page = store.list(unreadOnly, PAGE_SIZE, after);
+            }
+            call.finish();
+            final List<NotificationRecord> result = page;
+            final boolean end = remoteExhausted && result.size() < PAGE_SIZE;
+            final String err = error;
+            main.post(() -> deliver(result, end, err));
+        });
+    }
+
+    private void deliver(List<NotificationRecord> page, boolean end, String error) {
+        loading = false;
+        if (closed) return;
+        for (NotificationRecord r : page) {
+            if (ids.add(r.id)) items.add(r);   // a re-synced row can come back with a different createdAt
+        }
+        endReached = end;
+        listener.onItems(Collections.unmodifiableList(new ArrayList<>(items)), endReached);
+        if (error != null) {
+            endReached = true;                  // stop auto-prefetch; reopening retries
+            listener.onError(error);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.evcharge.app.core.notifications;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.db.NotificationDao;
+import com.evcharge.app.core.db.NotificationDao.NotificationRecord;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Local notifications cache (SQLite) with incremental sync and an in-memory unread count.
+ * - sync() only pulls items at/after the newest createdAtUtc we hold (server lists newest first)
+ * - The full unread set is re-listed on first sync and every RECONCILE_INTERVAL_MS
+ *   (catches items read on another device)
+ * - Mark-read updates the table and the count optimistically
+ * Process-wide singleton; call the DB/network methods off the main thread.
+ */
+public final class NotificationStore {
+
+    private static final String TAG = "NotificationStore";
+
+    /** Screens don't re-sync more often than this (tab switches render from memory). */
+    public static final long MIN_SYNC_INTERVAL_MS = 60_000L;
+    public static final long RECONCILE_INTERVAL_MS = 10 * 60_000L;
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES = 10;
+    /** A server page fetched for scrolling is reused for this long (then re-fetched). */
+    public static final long PAGE_CACHE_TTL_MS = 5 * 60_000L;
+
+    private static volatile NotificationStore instance;
+
+    public static NotificationStore get(Context context) {
+        NotificationStore s = instance;
+        if (s == null) {
+            synchronized (NotificationStore.class) {
+                s = instance;
+                if (s == null) { s = new NotificationStore(context.getApplicationContext()); instance = s; }
+            }
+        }
+        return s;
+    }
+
+    private final Context appCtx;
+    private final NotificationDao dao;
+    private final Object syncLock = new Object();
+    private volatile int unread = -1;           // -1 until loaded from the DB
+    private volatile long lastSyncMs = 0L;
+    private volatile long lastReconcileMs = 0L;
+    private final Map<String, long[]> pageCache = new HashMap<>(); // "u:3" -> {fetchedAtMs, itemCount}
+
+    private NotificationStore(Context appCtx) {
+        this.appCtx = appCtx;
+        this.dao = new NotificationDao(appCtx);
+    }
+
+    // ---- reads ----
+
+    /** Unread count from memory only (main-thread safe); -1 if not loaded yet. */
+    public int cachedUnread() { return unread; }
+
+    /** Unread count, loading it from the DB on first use. */
+    public int unreadCount() {
+        int u = unread;
+        if (u < 0) { u = dao.countUnread(); unread = u; }
+        return u;
+    }
+
+    /** Newest first, straight from the local table, below {@code after} (null = from the top). */
+    public List<NotificationRecord> list(boolean unreadOnly, int limit, NotificationRecord after) {
+        return dao.list(unreadOnly, limit, after);
+    }
+
+    public boolean needsSync() {
+        return (System.currentTimeMillis() - lastSyncMs) > MIN_SYNC_INTERVAL_MS;
+    }
+
+    // ---- writes (optimistic) ----
+
+    /** Optimistic badge update (memory only, main-thread safe); pair with markReadLocal(). */
+    public void decrementUnread() {
+        int u = unread;
+        if (u > 0) unread = u - 1;
+    }
+
+    /** Marks read locally and queues the id for the server (ReadBatcher write-behind). */
+    public void markReadLocal(String id) {
+        dao.markReadAndQueue(id, nowIsoUtc());
+        unread = dao.countUnread();
+        ReadBatcher.get(appCtx).schedule();
+    }
+
+    /** After a successful read-all: queued single reads are redundant. */
+    public void markAllReadLocal() {
+        dao.markAllRead(nowIsoUtc());
+        unread = 0;
+        ReadBatcher.get(appCtx).dropPending();
+    }
+
+    /** Logout / account switch. */
+    public void clear() {
+        synchronized (syncLock) {
+            dao.clearAll();
+            unread = 0;
+            lastSyncMs = 0L;
+            lastReconcileMs = 0L;
+        }
+        synchronized (pageCache) { pageCache.clear(); }
+    }
+
+    // ---- sync (network) ----
+
+    public boolean syncIfStale(ApiClient api) {
+        return needsSync() && sync(api);
+    }
+
+    /** Incremental pull; returns false on any failure (local data kept). */
+    public boolean sync(ApiClient api) {
+        return sync(api, () -> true);
+    }
+
+    /**
+     * Same, asking {@code live} before each write to the table (SyncEngine: worker not stopped, same session);
+     * once it says no, nothing more is written and the pass returns false.
+     */
+    public boolean sync(ApiClient api, BooleanSupplier live) {
+        synchronized (syncLock) {
+            if (!api.isAuthFresh()) return false;
+            try {
+                long watermark = dao.maxCreatedAtMs();
+                long now = System.currentTimeMillis();
+
+                if (watermark == 0L || (now - lastReconcileMs) > RECONCILE_INTERVAL_MS) {
+                    if (!reconcileUnread(api, live)) return false;
+                    lastReconcileMs = now;
+                }
+                if (watermark > 0L && !pullNewerThan(api, watermark, live)) return false;
+
+                unread = dao.countUnread();
+                lastSyncMs = now;
+                // Server reachable again: push reads that were waiting on backoff
+                if (dao.countPendingReads() > 0) ReadBatcher.get(appCtx).kick();
+                return true;
+            } catch (Exception e) {
+                Log.w(TAG, "sync failed: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /** Pages newest-first until an item older than the watermark shows up. */
+    private boolean pullNewerThan(ApiClient api, long watermark, BooleanSupplier live) throws Exception {
+        List<NotificationRecord> fresh = new ArrayList<>();
+        for (int page = 1; page <= MAX_PAGES; page++) {
+            JSONArray items = fetchPage(api, false, page);
+            if (items == null) return false;
+            boolean reachedKnown = false;
+            for (int i = 0; i < items.length(); i++) {
+                NotificationRecord r = parse(items.optJSONObject(i));
+                if (r == null) continue;
+                if (r.createdAtMs < watermark) { reachedKnown = true; break; }
+                fresh.add(r);
+            }
+            if (reachedKnown || items.length() < PAGE_SIZE) break;
+        }
+        if (!live.getAsBoolean()) return false;
+        dao.upsertAll(fresh);
+        return true;
+    }
+
+    /** Re-list every unread item; anything we hold as unread but the server doesn't is marked read. */
+    private boolean reconcileUnread(ApiClient api, BooleanSupplier live) throws Exception {
+        List<NotificationRecord> all = new ArrayList<>();
+        boolean complete = false;
+        for (int page = 1; page <= MAX_PAGES; page++) {
+            JSONArray items = fetchPage(api, true, page);
+            if (items == null) return false;
+            for (int i = 0; i < items.length(); i++) {
+                NotificationRecord r = parse(items.optJSONObject(i));
+                if (r != null) all.add(r);
+            }
+            if (items.length() < PAGE_SIZE) { complete = true; break; }
+        }
+        if (!live.getAsBoolean()) return false;
+        dao.upsertAll(all);
+        if (complete) {
+            List<String> ids = new ArrayList<>(all.size());
+            for (NotificationRecord r : all) ids.add(r.id);
+            if (!live.getAsBoolean()) return false;
+            dao.markReadExcept(ids, nowIsoUtc());
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure server page {@code page} (newest first) is in the local table.
+     * Returns the number of items on that page, or -1 on failure. Cached for PAGE_CACHE_TTL_MS.
+     */
+    public int ensureRemotePage(ApiClient api, boolean unreadOnly, int page, int pageSize) {
+        String key = (unreadOnly ? "u:" : "a:") + page + ":" + pageSize;
+        long now = System.currentTimeMillis();
+        synchronized (pageCache) {
+            long[] hit = pageCache.get(key);
+            if (hit != null && (now - hit[0]) <= PAGE_CACHE_TTL_MS) return (int) hit[1];
+        }
+        if (!api.isAuthFresh()) return -1;
+        try {
+            HttpClient.Response r = api.notificationsListRaw(unreadOnly, page, pageSize);
+            if (!r.is2xx() || r.jsonObject == null) return -1;
+            JSONArray items = r.jsonObject.optJSONArray("items");
+            List<NotificationRecord> parsed = new ArrayList<>();
+            if (items != null) {
+                for (int i = 0; i < items.length(); i++) {
+                    NotificationRecord rec = parse(items.optJSONObject(i));
+                    if (rec != null) parsed.add(rec);
+                }
+            }
+            dao.upsertAll(parsed);
+            unread = dao.countUnread();
+            int n = (items != null) ? items.length() : 0;
+            synchronized (pageCache) { pageCache.put(key, new long[]{now, n}); }
+            return n;
+        } catch (Exception e) {
+            Log.w(TAG, "page " + page + " failed: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static JSONArray fetchPage(ApiClient api, boolean unreadOnly, int page) throws Exception {
+        HttpClient.Response r = api.notificationsListRaw(unreadOnly, page, PAGE_SIZE);
+        if (!r.is2xx() || r.jsonObject == null) return null;
+        JSONArray items = r.jsonObject.optJSONArray("items");
+        return (items != null) ? items : new JSONArray();
+    }
+
+    // ---- parsing ----
+
+    static NotificationRecord parse(JSONObject o) {
+        if (o == null) return null;
+        String id = JsonUtils.optString(o, "id");
+        if (id == null) return null;
+        NotificationRecord r = new NotificationRecord();
+        r.id = id;
+        r.type = JsonUtils.optString(o, "type");
+        r.subject = JsonUtils.optString(o, "subject");
+        r.message = JsonUtils.optString(o, "message");
+        JSONObject payload = o.optJSONObject("payload");
+        r.payloadJson = (payload != null) ? payload.toString() : null;
+        r.createdAtUtc = JsonUtils.optString(o, "createdAtUtc");
+        r.createdAtMs = parseIsoMs(r.createdAtUtc);
+        r.readAtUtc = (o.has("readAtUtc") && !o.isNull("readAtUtc")) ? JsonUtils.optString(o, "readAtUtc") : null;
+        return r;
+    }
+
+    static long parseIsoMs(String iso) {
+        if (iso == null || iso.isEmpty()) return 0L;
+        try {
+            return java.time.Instant.parse(iso).toEpochMilli();
+        } catch (Exception ignored) {
+            try {
+                return java.time.OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+            } catch (Exception ignored2) {
+                try {
+                    // server may omit the zone designator; values are UTC
+                    return java.time.LocalDateTime.parse(iso).toInstant(java.time.ZoneOffset.UTC).toEpochMilli();
+                } catch (Exception ignored3) {
+                    return 0L;
+                }
+            }
+        }
+    }
+
+    private static String nowIsoUtc() {
+        return java.time.Instant.now().toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.evcharge.app.core.notifications;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.db.NotificationDao;
+import com.evcharge.app.core.net.ApiClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind mark-read queue.
+ * - Ids are persisted (notification_reads_pending) before anything hits the network
+ * - Taps within WINDOW_MS are coalesced into one PUT /api/Notifications/read-batch
+ *   (at most MAX_CALLS_PER_FLUSH calls of MAX_BATCH ids per flush)
+ * - Transient failures retry with jittered exponential backoff; 401 waits for the next kick()
+ * - Falls back to per-id PUT {id}/read against servers without the batch endpoint
+ * Single worker thread; all DB and network work happens there.
+ */
+public final class ReadBatcher {
+
+    private static final String TAG = "ReadBatcher";
+
+    static final long WINDOW_MS = 1500L;
+    static final int MAX_BATCH = 100;          // server-side cap of read-batch
+    static final int MAX_CALLS_PER_FLUSH = 3;
+    static final long BACKOFF_BASE_MS = 2_000L;
+    static final long BACKOFF_MAX_MS = 5 * 60_000L;
+
+    private static volatile ReadBatcher instance;
+
+    public static ReadBatcher get(Context context) {
+        ReadBatcher b = instance;
+        if (b == null) {
+            synchronized (ReadBatcher.class) {
+                b = instance;
+                if (b == null) { b = new ReadBatcher(context.getApplicationContext()); instance = b; }
+            }
+        }
+        return b;
+    }
+
+    private enum Outcome { DONE, RETRY, AUTH }
+
+    private final Context appCtx;
+    private final NotificationDao dao;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "notif-read-batcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // guarded by this
+    private ScheduledFuture<?> scheduled;
+    private long scheduledForMs;
+    private int failures = 0;
+    private volatile boolean batchUnsupported = false;
+
+    private ReadBatcher(Context appCtx) {
+        this.appCtx = appCtx;
+        this.dao = new NotificationDao(appCtx);
+    }
+
+    /** A mark-read was queued: flush after the coalescing window (an earlier pending flush is kept). */
+    public void schedule() { scheduleIn(WINDOW_MS); }
+
+    /** Flush whatever survived a previous process (startup, login, connectivity back). */
+    public void kick() {
+        synchronized (this) { failures = 0; }
+        scheduleIn(0L);
+    }
+
+    /** Pending ids are obsolete (read-all succeeded, or logout). */
+    public void dropPending() {
+        worker.execute(dao::clearPendingReads);
+    }
+
+    private synchronized void scheduleIn(long delayMs) {
+        long at = System.currentTimeMillis() + delayMs;
+        if (scheduled != null && !scheduled.isDone() && scheduledForMs <= at) return; // coalesce
+        if (scheduled != null) scheduled.cancel(false);
+        scheduledForMs = at;
+        scheduled = worker.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        synchronized (this) { scheduled = null; } // this run no longer counts as "pending"
+        try {
+            ApiClient api = ApiClient.get(appCtx);
+            for (int call = 0; call < MAX_CALLS_PER_FLUSH; call++) {
+                List<String> ids = dao.pendingReads(MAX_BATCH);
+                if (ids.isEmpty()) { resetFailures(); return; }
+
+                List<String> confirmed = new ArrayList<>();
+                Outcome o = send(api, ids, confirmed);
+                dao.removePendingReads(confirmed);
+                if (o == Outcome.AUTH) return;             // keep queue; next kick() after login
+                if (o == Outcome.RETRY) {
+                    List<String> left = new ArrayList<>(ids);
+                    left.removeAll(confirmed);
+                    dao.bumpPendingAttempts(left);
+                    retryLater();
+                    return;
+                }
+                resetFailures();
+            }
+            // More than MAX_CALLS_PER_FLUSH batches queued: continue after another window
+            if (dao.countPendingReads() > 0) scheduleIn(WINDOW_MS);
+        } catch (Exception e) {
+            Log.w(TAG, "flush failed: " + e.getMessage());
+            retryLater();
+        }
+    }
+
+    /** Sends ids; adds the ones the server accepted (or permanently rejected) to confirmed. */
+    private Outcome send(ApiClient api, List<String> ids, List<String> confirmed) {
+        if (!batchUnsupported) {
+            ApiClient.Result r = api.notificationsMarkReadBatch(ids);
+            if (r.ok) { confirmed.addAll(ids); return Outcome.DONE; }
+            if (r.code == 404 || r.code == 405) {
+                batchUnsupported = true;                    // older server: per-id below
+            } else {
+                return classify(r, ids, confirmed);
+            }
+        }
+        for (String id : ids) {
+            ApiClient.Result r = api.notificationMarkRead(id);
+            // 404 = unknown or already read: nothing left to do for this id
+            if (r.ok || r.code == 404) { confirmed.add(id); continue; }
+            Outcome o = classify(r, java.util.Collections.singletonList(id), confirmed);
+            if (o != Outcome.DONE) return o;
+        }
+        return Outcome.DONE;
+    }
+
+    private static Outcome classify(ApiClient.Result r, List<String> ids, List<String> confirmed) {
+        if (r.code == 401 || r.code == 403) return Outcome.AUTH;
+        if (r.code == 0 || r.code == 408 || r.code == 429 || r.code >= 500) return Outcome.RETRY;
+        // Other 4xx: the server will never accept these; don't retry forever
+        Log.w(TAG, "dropping " + ids.size() + " mark-read id(s): HTTP " + r.code);
+        confirmed.addAll(ids);
+        return Outcome.DONE;
+    }
+
+    private synchronized void resetFailures() { failures = 0; }
+
+    private void retryLater() {
+        long delay;
+        synchronized (this) {
+            failures++;
+            long exp = BACKOFF_BASE_MS << Math.min(failures - 1, 16);
+            long capped = Math.min(BACKOFF_MAX_MS, exp);
+            delay = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1); // jitter
+        }
+        scheduleIn(delay);
+    }
+}
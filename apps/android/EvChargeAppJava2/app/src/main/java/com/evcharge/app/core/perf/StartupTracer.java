@@ -0,0 +1,184 @@
+package com.evcharge.app.core.perf;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.evcharge.app.BuildConfig;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight startup tracer (named spans, ms since launch start).
+ * - Cold launch: origin is the process start; warm launch: origin is SplashActivity.onCreate
+ * - Spans go to an in-memory ring buffer (last CAPACITY spans, across launches)
+ * - flush() writes the buffer to files/startup_trace.json. The package is com.evcharge.app plus the flavor's
+ *   suffix (.emu, .lan, .iis, .netsim), and run-as only works on debuggable (debug) builds:
+ *     adb shell run-as com.evcharge.app.emu cat files/startup_trace.json
+ * - Debug builds also export a copy to the app's external files dir, readable without run-as:
+ *     adb pull /sdcard/Android/data/com.evcharge.app.emu/files/startup_trace.json
+ * All methods are cheap and thread-safe; nothing here touches the network.
+ */
+public final class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+    public static final String FILE_NAME = "startup_trace.json";
+    public static final int CAPACITY = 256;
+
+    // Span names used across the app (free-form names are fine too)
+    public static final String SPLASH_CREATE = "splash_create";
+    public static final String PREFS_LOAD = "prefs_load";
+    public static final String JWT_CHECK = "jwt_check";
+    public static final String PREWARM_LOCAL = "prewarm_local";
+    public static final String FIRST_NETWORK_RESPONSE = "first_network_response";
+    public static final String HOME_CREATE = "home_create";
+    public static final String FIRST_ROW_BIND = "first_row_bind";
+    public static final String HOME_LIST_READY = "home_list_ready";  // fresh data shown (even if empty)
+
+    public static final class Span {
+        public final int launch;          // launch sequence number in this process (1 = first)
+        public final boolean cold;
+        public final String name;
+        public final long startMs;        // since launch origin
+        public final long durationMs;     // 0 for instant marks
+        public final String thread;
+
+        Span(int launch, boolean cold, String name, long startMs, long durationMs, String thread) {
+            this.launch = launch; this.cold = cold; this.name = name;
+            this.startMs = startMs; this.durationMs = durationMs; this.thread = thread;
+        }
+    }
+
+    private static final Span[] ring = new Span[CAPACITY];
+    private static int head = 0, count = 0;
+
+    private static int launch = 0;
+    private static boolean cold = true;
+    private static long originUptime = -1L;
+    private static final Set<String> onceSeen = new HashSet<>();
+    private static final Map<String, Long> open = new HashMap<>();
+
+    private StartupTracer() {}
+
+    /** Called from SplashActivity.onCreate; the first call in a process is a cold launch. */
+    public static synchronized void launchStarted() {
+        long now = SystemClock.uptimeMillis();
+        cold = (launch == 0);
+        launch++;
+        originUptime = cold ? Process.getStartUptimeMillis() : now;
+        onceSeen.clear();
+        open.clear();
+        add(SPLASH_CREATE, now, now);
+    }
+
+    /** Token for a span measured around a block: long t = now(); ... end(name, t). */
+    public static long now() { return SystemClock.uptimeMillis(); }
+
+    public static synchronized void end(String name, long startToken) {
+        add(name, startToken, SystemClock.uptimeMillis());
+    }
+
+    /** Like end(), but only the first span with this name per launch is recorded. */
+    public static synchronized boolean endOnce(String name, long startToken) {
+        if (!onceSeen.add(name)) return false;
+        add(name, startToken, SystemClock.uptimeMillis());
+        return true;
+    }
+
+    /** Start a span ended elsewhere (e.g., across activities) via end(name). */
+    public static synchronized void begin(String name) { open.put(name, SystemClock.uptimeMillis()); }
+
+    public static synchronized void end(String name) {
+        Long t = open.remove(name);
+        if (t != null) add(name, t, SystemClock.uptimeMillis());
+    }
+
+    /** Instant milestone (duration 0). */
+    public static synchronized void mark(String name) {
+        long t = SystemClock.uptimeMillis();
+        add(name, t, t);
+    }
+
+    /** Milestone recorded only once per launch; returns true if this call recorded it. */
+    public static synchronized boolean markOnce(String name) {
+        if (!onceSeen.add(name)) return false;
+        long t = SystemClock.uptimeMillis();
+        add(name, t, t);
+        return true;
+    }
+
+    /** Oldest first. */
+    public static synchronized List<Span> snapshot() {
+        List<Span> out = new ArrayList<>(count);
+        int start = (head - count + CAPACITY) % CAPACITY;
+        for (int i = 0; i < count; i++) out.add(ring[(start + i) % CAPACITY]);
+        return out;
+    }
+
+    /** Write the ring buffer as JSON to files/startup_trace.json (background thread). */
+    public static void flush(Context context) {
+        final Context appCtx = context.getApplicationContext();
+        final File dir = appCtx.getFilesDir();
+        final File exportDir = BuildConfig.DEBUG ? appCtx.getExternalFilesDir(null) : null; // null if unmounted
+        final List<Span> spans = snapshot();
+        new Thread(() -> {
+            try {
+                JSONObject root = new JSONObject();
+                root.put("versionName", BuildConfig.VERSION_NAME);
+                root.put("versionCode", BuildConfig.VERSION_CODE);
+                root.put("flavor", BuildConfig.FLAVOR);
+                JSONArray arr = new JSONArray();
+                for (Span s : spans) {
+                    JSONObject o = new JSONObject();
+                    o.put("launch", s.launch);
+                    o.put("kind", s.cold ? "cold" : "warm");
+                    o.put("name", s.name);
+                    o.put("startMs", s.startMs);
+                    o.put("durationMs", s.durationMs);
+                    o.put("thread", s.thread);
+                    arr.put(o);
+                }
+                root.put("spans", arr);
+
+                byte[] bytes = root.toString(2).getBytes(StandardCharsets.UTF_8);
+                write(dir, bytes);
+                if (exportDir != null) write(exportDir, bytes);
+            } catch (Exception e) {
+                Log.w(TAG, "flush failed: " + e.getMessage());
+            }
+        }, "startup-trace-flush").start();
+    }
+
+    /** Temp file + rename, so a reader never sees a half-written trace. */
+    private static void write(File dir, byte[] bytes) throws Exception {
+        File tmp = new File(dir, FILE_NAME + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+        }
+        if (!tmp.renameTo(new File(dir, FILE_NAME))) Log.w(TAG, "rename failed: " + dir);
+    }
+
+    // ---- internals (caller holds the lock) ----
+
+    private static void add(String name, long startUptime, long endUptime) {
+        if (originUptime < 0) return; // no launch started (e.g., activity restored without splash)
+        Span s = new Span(launch, cold, name, startUptime - originUptime,
+                Math.max(0L, endUptime - startUptime), Thread.currentThread().getName());
+        ring[head] = s;
+        head = (head + 1) % CAPACITY;
+        if (count < CAPACITY) count++;
+        if (BuildConfig.DEBUG) Log.d(TAG, name + " @" + s.startMs + "ms +" + s.durationMs + "ms (" + (cold ? "cold" : "warm") + ")");
+    }
+}
@@ -0,0 +1,30 @@
+package com.evcharge.app.core.platform;
+
+import android.content.SharedPreferences;
+
+/** KeyValueStore over SharedPreferences. */
+public final class AndroidKeyValueStore implements KeyValueStore {
+
+    private final SharedPreferences prefs;
+
+    public AndroidKeyValueStore(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    @Override
+    public String getString(String key, String defValue) { return prefs.getString(key, defValue); }
+
+    @Override
+    public long getLong(String key, long defValue) { return prefs.getLong(key, defValue); }
+
+    @Override
+    public Editor edit() {
+        final SharedPreferences.Editor e = prefs.edit();
+        return new Editor() {
+            @Override public Editor putString(String key, String value) { e.putString(key, value); return this; }
+            @Override public Editor putLong(String key, long value) { e.putLong(key, value); return this; }
+            @Override public Editor clear() { e.clear(); return this; }
+            @Override public void apply() { e.apply(); }
+        };
+    }
+}
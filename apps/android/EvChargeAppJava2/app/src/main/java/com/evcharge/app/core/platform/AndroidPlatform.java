@@ -0,0 +1,26 @@
+package com.evcharge.app.core.platform;
+
+import android.content.Context;
+import android.util.Base64;
+import android.util.Log;
+
+import com.evcharge.app.core.security.JwtStore;
+
+/** Android implementations of the :core platform interfaces (installed once by EvChargeApp). */
+public final class AndroidPlatform {
+
+    private AndroidPlatform() {}
+
+    public static void install() {
+        Platform.install(new Logger() {
+            @Override public void d(String tag, String msg) { Log.d(tag, msg); }
+            @Override public void w(String tag, String msg) { Log.w(tag, msg); }
+        }, s -> Base64.decode(s, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING));
+    }
+
+    /** JwtStore backed by the same SharedPreferences file as before the :core split. */
+    public static JwtStore jwtStore(Context context) {
+        return new JwtStore(new AndroidKeyValueStore(context.getApplicationContext()
+                .getSharedPreferences(JwtStore.PREFS_NAME, Context.MODE_PRIVATE)));
+    }
+}
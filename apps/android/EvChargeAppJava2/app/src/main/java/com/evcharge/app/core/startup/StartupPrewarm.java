@@ -0,0 +1,114 @@
+package com.evcharge.app.core.startup;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.BookingOutbox;
+import com.evcharge.app.core.db.AppDbHelper;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.notifications.ReadBatcher;
+import com.evcharge.app.core.perf.StartupTracer;
+import com.evcharge.app.core.station.StationCatalog;
+import com.evcharge.app.core.sync.SyncScheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Startup pipeline run while the splash animates.
+ * - Local stage: ApiClient singleton, DB open, cached stations + bookings loaded into memory
+ * - Network stage: the first request of the destination screen is started early and handed over
+ *   (one-shot) to the screen via take*() instead of being issued again
+ * The splash routes as soon as the local stage is done; the network stage keeps running.
+ */
+public final class StartupPrewarm {
+
+    private static final String TAG = "StartupPrewarm";
+
+    /** A handed-over response older than this is ignored and the screen fetches again. */
+    private static final long HANDOVER_MAX_AGE_MS = 30_000L;
+
+    public enum Destination { OWNER_HOME, OPERATOR_HOME, OTHER }
+
+    private static Future<HttpClient.Response> bookingsMine;
+    private static Future<ApiClient.Result> operatorInbox;
+    private static String operatorInboxYmd;
+    private static long startedAtMs;
+
+    private StartupPrewarm() {}
+
+    /**
+     * Kick off prewarm on a background thread.
+     * @param localDone invoked (background thread) once the local stage finished; may be null
+     */
+    public static void start(Context context, Destination dest, String todayYmd, Runnable localDone) {
+        final Context appCtx = context.getApplicationContext();
+        new Thread(() -> {
+            ApiClient api = ApiClient.get(appCtx);
+
+            // Network first, so it overlaps with the local work below
+            if (dest == Destination.OWNER_HOME && api.isAuthFresh()) {
+                FutureTask<HttpClient.Response> t = new FutureTask<>(api::bookingMineRaw);
+                publish(t, null, null);
+                new Thread(t, "prewarm-bookings").start();
+            } else if (dest == Destination.OPERATOR_HOME) {
+                FutureTask<ApiClient.Result> t = new FutureTask<>((Callable<ApiClient.Result>) () -> api.operatorInbox(todayYmd));
+                publish(null, t, todayYmd);
+                new Thread(t, "prewarm-inbox").start();
+            }
+
+            long t = StartupTracer.now();
+            try { AppDbHelper.get(appCtx).getWritableDatabase(); }
+            catch (Exception e) { Log.w(TAG, "db open failed: " + e.getMessage()); }
+            try { StationCatalog.get(appCtx).index(); }
+            catch (Exception e) { Log.w(TAG, "catalog load failed: " + e.getMessage()); }
+            if (dest == Destination.OWNER_HOME) {
+                try { BookingCache.get(appCtx).mine(); }
+                catch (Exception e) { Log.w(TAG, "bookings cache load failed: " + e.getMessage()); }
+                // Mark-reads and booking changes queued before the last process death
+                ReadBatcher.get(appCtx).kick();
+                BookingOutbox.get(appCtx).kick();
+            }
+
+            StartupTracer.end(StartupTracer.PREWARM_LOCAL, t);
+
+            // Signed-in: keep local caches warm in the background (no-op if already scheduled)
+            if (dest != Destination.OTHER) {
+                try { SyncScheduler.schedule(appCtx); }
+                catch (Exception e) { Log.w(TAG, "sync schedule failed: " + e.getMessage()); }
+            }
+
+            if (localDone != null) localDone.run();
+        }, "startup-prewarm").start();
+    }
+
+    private static synchronized void publish(Future<HttpClient.Response> mine, Future<ApiClient.Result> inbox, String ymd) {
+        bookingsMine = mine;
+        operatorInbox = inbox;
+        operatorInboxYmd = ymd;
+        startedAtMs = System.currentTimeMillis();
+    }
+
+    private static boolean fresh() {
+        return (System.currentTimeMillis() - startedAtMs) <= HANDOVER_MAX_AGE_MS;
+    }
+
+    /** In-flight/finished GET /api/Booking/mine from startup, or null (one-shot). */
+    public static synchronized Future<HttpClient.Response> takeBookingsMine() {
+        Future<HttpClient.Response> f = bookingsMine;
+        bookingsMine = null;
+        return (f != null && fresh()) ? f : null;
+    }
+
+    /** In-flight/finished operator inbox for the given day from startup, or null (one-shot). */
+    public static synchronized Future<ApiClient.Result> takeOperatorInbox(String ymd) {
+        Future<ApiClient.Result> f = operatorInbox;
+        String forDay = operatorInboxYmd;
+        operatorInbox = null;
+        operatorInboxYmd = null;
+        return (f != null && fresh() && ymd != null && ymd.equals(forDay)) ? f : null;
+    }
+}
@@ -0,0 +1,171 @@
+package com.evcharge.app.core.station;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.geo.StationIndex;
+import com.evcharge.app.core.geo.StationPoint;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Locally cached station catalogue (GET /api/Station) with a spatial index on top.
+ * - Cached as a binary CatalogSnapshot in files/station_catalog.bin (memory-mapped on load)
+ * - Nearby queries are answered from StationIndex (no network, works offline)
+ * - The network is only used by refresh() to replace the catalogue (and the StationLookup/StationSearch indexes);
+ *   refreshes are single-flight, so screens asking at the same time share one download and one file write
+ * Process-wide singleton; the index is immutable and swapped atomically.
+ */
+public final class StationCatalog {
+
+    private static final String TAG = "StationCatalog";
+    private static final String FILE_NAME = "station_catalog.bin";
+
+    /** Catalogue older than this is refreshed opportunistically by screens. */
+    public static final long MAX_AGE_MS = 30 * 60_000L;
+
+    private static volatile StationCatalog instance;
+
+    public static StationCatalog get(Context context) {
+        StationCatalog c = instance;
+        if (c == null) {
+            synchronized (StationCatalog.class) {
+                c = instance;
+                if (c == null) { c = new StationCatalog(context.getApplicationContext()); instance = c; }
+            }
+        }
+        return c;
+    }
+
+    private final Context appCtx;
+    private final File file;
+    private final Object loadLock = new Object();
+    private final Object refreshLock = new Object();
+    private volatile StationIndex index = null;  // null until first load
+    private volatile long updatedAtMs = 0L;
+    private volatile long refreshCount = 0L;     // finished refreshes; written under refreshLock
+    private volatile boolean lastRefreshOk = false;
+
+    private StationCatalog(Context appCtx) {
+        this.appCtx = appCtx;
+        this.file = new File(appCtx.getFilesDir(), FILE_NAME);
+    }
+
+    // ---- queries (never touch the network) ----
+
+    /** Current index, loading the on-disk cache on first use. Call off the main thread. */
+    public StationIndex index() {
+        StationIndex i = index;
+        if (i != null) return i;
+        synchronized (loadLock) {
+            if (index == null) loadFromDisk();
+            return index;
+        }
+    }
+
+    public List<StationIndex.Hit> nearby(double lat, double lng, double radiusKm, String type, int limit) {
+        return index().nearby(lat, lng, radiusKm, type, true, limit);
+    }
+
+    public boolean isEmpty() { return index().size() == 0; }
+
+    public boolean isStale() {
+        index();
+        return updatedAtMs == 0L || (System.currentTimeMillis() - updatedAtMs) > MAX_AGE_MS;
+    }
+
+    // ---- refresh (network) ----
+
+    /**
+     * Fetch /api/Station, persist it and swap the index. Returns false on any failure (cache kept).
+     * A caller that arrives while another refresh runs waits for it and gets its result.
+     */
+    public boolean refresh(ApiClient api) {
+        long seen = refreshCount;
+        synchronized (refreshLock) {
+            if (refreshCount != seen) return lastRefreshOk;
+            boolean ok = fetchAndSwap(api);
+            lastRefreshOk = ok;
+            refreshCount = seen + 1;
+            return ok;
+        }
+    }
+
+    /** Refresh only when the cached catalogue is missing or older than MAX_AGE_MS. */
+    public boolean refreshIfStale(ApiClient api) {
+        return isStale() && refresh(api);
+    }
+
+    private boolean fetchAndSwap(ApiClient api) {
+        try {
+            HttpClient.Response r = api.stationsAllRaw();
+            if (!r.is2xx()) return false;
+            JSONArray arr = extractArray(r);
+            if (arr == null) return false;
+            List<StationPoint> parsed = parse(arr);
+            long now = System.currentTimeMillis();
+            CatalogSnapshot.writeAtomically(file, parsed, now);
+            synchronized (loadLock) {
+                index = new StationIndex(parsed);
+                updatedAtMs = now;
+            }
+            StationLookup.get(appCtx).rebuild(parsed);
+            try { StationSearch.get(appCtx).reindex(parsed); }
+            catch (Exception e) { Log.w(TAG, "search reindex failed: " + e.getMessage()); }
+            return true;
+        } catch (Exception e) {
+            Log.w(TAG, "refresh failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ---- parsing ----
+
+    /** Accepts either [ ... ] or a wrapper object { items/data/results/stations/value: [ ... ] }. */
+    public static JSONArray extractArray(HttpClient.Response r) {
+        JSONArray arr = r.jsonArray;
+        JSONObject root = r.jsonObject;
+        if (arr == null) {
+            if (root == null && r.body != null && !r.body.trim().isEmpty()) {
+                arr = JsonUtils.parseArray(r.body);
+                if (arr == null) root = JsonUtils.parseObject(r.body);
+            }
+            if (arr == null && root != null) {
+                for (String k : new String[]{"items", "data", "results", "stations", "value"}) {
+                    JSONArray cand = root.optJSONArray(k);
+                    if (cand != null) { arr = cand; break; }
+                }
+                if (arr == null) {
+                    for (Iterator<String> it = root.keys(); it.hasNext(); ) {
+                        Object v = root.opt(it.next());
+                        if (v instanceof JSONArray) { arr = (JSONArray) v; break; }
+                    }
+                }
+            }
+        }
+        return arr;
+    }
+
+    public static List<StationPoint> parse(JSONArray arr) {
+        return StationPoint.parseAll(arr);
+    }
+
+    // ---- disk ----
+
+    private void loadFromDisk() {
+        CatalogSnapshot.Loaded snap = CatalogSnapshot.read(file);
+        updatedAtMs = snap != null ? snap.savedAtMs : 0L;
+        index = new StationIndex(snap != null ? snap.stations : Collections.emptyList());
+        StationLookup lookup = StationLookup.get(appCtx);
+        if (snap != null && !lookup.isBuilt()) lookup.rebuild(snap.stations);
+    }
+}
@@ -0,0 +1,122 @@
+package com.evcharge.app.core.station;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+
+/**
+ * Off-heap stationId -> name/coords table for list rendering (bookings, dashboard, booking detail).
+ * - The table format, build and lookups are StationTable (core); this class owns files/station_lookup.bin
+ * - Memory-mapped read-only; find() and the coordinate getters allocate nothing and create no GC work
+ * - Rebuilt by StationCatalog whenever the catalogue is refreshed. A rebuild maps a new buffer, so slots
+ *   are read through a StationTable (snapshot()): find() and the getters then always use the same buffer
+ */
+public final class StationLookup {
+
+    private static final String TAG = "StationLookup";
+    private static final String FILE_NAME = "station_lookup.bin";
+
+    /** Returned by find() when the id is not in the table. Slots are only valid in the table that found them. */
+    public static final int MISSING = StationTable.MISSING;
+
+    private static volatile StationLookup instance;
+
+    public static StationLookup get(Context context) {
+        StationLookup l = instance;
+        if (l == null) {
+            synchronized (StationLookup.class) {
+                l = instance;
+                if (l == null) { l = new StationLookup(context.getApplicationContext()); instance = l; }
+            }
+        }
+        return l;
+    }
+
+    private final Context appCtx;
+    private final File file;
+    private volatile StationTable table;   // null until mapped (or when no valid table exists yet)
+    private volatile boolean opened = false;
+
+    private StationLookup(Context appCtx) {
+        this.appCtx = appCtx;
+        this.file = new File(appCtx.getFilesDir(), FILE_NAME);
+    }
+
+    // ---- lookups (allocation-free) ----
+
+    /** The current table, or null before the first catalogue load. Resolve slots and read them from it. */
+    public StationTable snapshot() { return table(); }
+
+    public boolean contains(CharSequence id) {
+        StationTable t = table();
+        return t != null && t.find(id) != MISSING;
+    }
+
+    /**
+     * Name as a String for row models; null if the id is unknown or the station is unnamed. Names cut
+     * to fit the record come from the full catalogue (StationIndex) instead.
+     */
+    public String nameOf(CharSequence id) {
+        StationTable t = table();
+        int slot = t != null ? t.find(id) : MISSING;
+        if (slot == MISSING || !t.hasName(slot)) return null;
+        if (t.isNameTruncated(slot)) {
+            StationPoint p = StationCatalog.get(appCtx).index().byId(id.toString());
+            if (p != null && p.name != null) return p.name;
+        }
+        StringBuilder sb = new StringBuilder(StationTable.NAME_BYTES);
+        t.appendName(slot, sb);
+        return sb.toString();
+    }
+
+    /** True once a valid table is mapped (older installs and older formats get one on the next catalogue load). */
+    public boolean isBuilt() { return table() != null; }
+
+    // ---- build ----
+
+    /** Write a fresh table for the catalogue (temp file + rename) and map it. */
+    public synchronized void rebuild(Collection<StationPoint> stations) {
+        try {
+            byte[] bytes = StationTable.encode(stations);
+            File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(bytes);
+                out.getFD().sync();
+            }
+            if (!tmp.renameTo(file)) throw new IOException("rename failed");
+            map();
+            opened = true;
+        } catch (IOException e) {
+            Log.w(TAG, "rebuild failed: " + e.getMessage());
+        }
+    }
+
+    // ---- mapping ----
+
+    private StationTable table() {
+        if (!opened) {
+            synchronized (this) {
+                if (!opened) { map(); opened = true; }
+            }
+        }
+        return table;
+    }
+
+    private synchronized void map() {
+        if (!file.exists()) { table = null; return; }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel ch = raf.getChannel()) {
+            table = StationTable.wrap(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "map failed: " + e.getMessage());
+            table = null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.evcharge.app.core.station;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.evcharge.app.core.db.AppDbHelper;
+import com.evcharge.app.core.db.BulkUpsert;
+import com.evcharge.app.core.geo.GeoMath;
+import com.evcharge.app.core.geo.StationIndex;
+import com.evcharge.app.core.geo.StationPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.evcharge.app.core.db.AppDbHelper.*;
+
+/**
+ * Local station search for the pickers (operator station box, create-booking).
+ * - FTS4 table over name / city / type, rebuilt whenever StationCatalog refreshes
+ * - Every typed token is a prefix term: "col fas" matches "Colombo Fast DC"
+ * - Matches are ranked by distance from the caller's origin, then by name
+ * Works offline; call off the main thread.
+ */
+public final class StationSearch {
+
+    private static final String TAG = "StationSearch";
+    /** FTS candidates fetched before distance ranking (hundreds of stations total). */
+    private static final int MAX_CANDIDATES = 500;
+
+    private static final BulkUpsert<StationPoint> INSERT =
+            new BulkUpsert<>(T_STATION_FTS, C_SF_STATION_ID, C_SF_NAME, C_SF_CITY, C_SF_TYPE);
+
+    private static volatile StationSearch instance;
+
+    public static StationSearch get(Context context) {
+        StationSearch s = instance;
+        if (s == null) {
+            synchronized (StationSearch.class) {
+                s = instance;
+                if (s == null) { s = new StationSearch(context.getApplicationContext()); instance = s; }
+            }
+        }
+        return s;
+    }
+
+    private final Context appCtx;
+    private final AppDbHelper helper;
+    private volatile boolean verified = false; // FTS rows checked against the catalogue this process
+
+    private StationSearch(Context appCtx) {
+        this.appCtx = appCtx;
+        this.helper = AppDbHelper.get(appCtx);
+    }
+
+    // ---- indexing ----
+
+    /** Replace the search index with the given catalogue (one transaction). */
+    public synchronized void reindex(Collection<StationPoint> stations) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(T_STATION_FTS, null, null);
+            INSERT.run(db, stations, (st, p) -> {
+                if (p.id == null) return false;
+                st.bindString(1, p.id);
+                BulkUpsert.bindText(st, 2, p.name);
+                BulkUpsert.bindText(st, 3, p.city);
+                BulkUpsert.bindText(st, 4, p.type);
+                return true;
+            });
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        verified = true;
+    }
+
+    /** First search after an upgrade (or a cleared DB) rebuilds from the cached catalogue. */
+    private void ensureIndexed(StationIndex index) {
+        if (verified) return;
+        synchronized (this) {
+            if (verified) return;
+            long rows = DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), T_STATION_FTS);
+            if (rows != index.withIds().size()) reindex(index.withIds());
+            verified = true;
+        }
+    }
+
+    // ---- queries ----
+
+    /**
+     * Stations matching every token of {@code query} as a prefix (name, city or type).
+     * A blank query returns all stations. Ranked nearest-first from (originLat, originLng);
+     * pass NaN when there is no origin to rank by name only.
+     * @param onlyIds restrict to these station ids, or null for the whole catalogue
+     * @param activeOnly skip stations whose status is not Active
+     */
+    public List<StationIndex.Hit> search(String query, double originLat, double originLng,
+                                         Set<String> onlyIds, boolean activeOnly, int limit) {
+        StationIndex index = StationCatalog.get(appCtx).index();
+        String match = toMatch(query);
+        List<StationPoint> candidates = new ArrayList<>();
+        if (match == null) {
+            candidates.addAll(index.withIds());
+        } else {
+            ensureIndexed(index);
+            for (String id : matchIds(match)) {
+                StationPoint p = index.byId(id);
+                if (p != null) candidates.add(p);
+            }
+        }
+
+        List<StationIndex.Hit> hits = new ArrayList<>();
+        for (StationPoint p : candidates) {
+            if (onlyIds != null && !onlyIds.contains(p.id)) continue;
+            if (activeOnly && !p.isActive()) continue;
+            hits.add(new StationIndex.Hit(p, distanceKm(p, originLat, originLng)));
+        }
+        Collections.sort(hits, (a, b) -> {
+            int c = Double.compare(a.distanceKm, b.distanceKm);
+            return c != 0 ? c : nameOf(a.station).compareToIgnoreCase(nameOf(b.station));
+        });
+        return (limit > 0 && hits.size() > limit) ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private List<String> matchIds(String match) {
+        List<String> out = new ArrayList<>();
+        Cursor c = null;
+        try {
+            c = helper.getReadableDatabase().query(T_STATION_FTS, new String[]{C_SF_STATION_ID},
+                    T_STATION_FTS + " MATCH ?", new String[]{match},
+                    null, null, null, String.valueOf(MAX_CANDIDATES));
+            while (c.moveToNext()) out.add(c.getString(0));
+        } catch (Exception e) {
+            Log.w(TAG, "match failed: " + e.getMessage());
+        } finally {
+            if (c != null) c.close();
+        }
+        return out;
+    }
+
+    /** Distance used for ranking; +Infinity (sorts last) without an origin or coordinates. */
+    public static double distanceKm(StationPoint p, double originLat, double originLng) {
+        if (Double.isNaN(originLat) || Double.isNaN(originLng) || Double.isNaN(p.lat) || Double.isNaN(p.lng)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return GeoMath.haversineKm(originLat, originLng, p.lat, p.lng);
+    }
+
+    /** In-memory equivalent of the FTS match, for stations outside the catalogue. */
+    public static boolean matches(StationPoint p, String query) {
+        String match = toMatch(query);
+        if (match == null) return true;
+        String hay = (nameOf(p) + " " + (p.city != null ? p.city : "") + " " + (p.type != null ? p.type : ""))
+                .toLowerCase(Locale.ROOT);
+        List<String> words = Arrays.asList(hay.split("[^\\p{L}\\p{N}]+"));
+        for (String term : match.split(" ")) {
+            String prefix = term.substring(0, term.length() - 1);
+            boolean hit = false;
+            for (String w : words) if (w.startsWith(prefix)) { hit = true; break; }
+            if (!hit) return false;
+        }
+        return true;
+    }
+
+    /** "Colombo  fast-DC" -> "colombo* fast* dc*" (implicit AND); null when nothing searchable is left. */
+    static String toMatch(String query) {
+        if (query == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String tok : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (tok.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(tok).append('*');
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    private static String nameOf(StationPoint p) {
+        return p.name != null ? p.name : (p.id != null ? p.id : "");
+    }
+}
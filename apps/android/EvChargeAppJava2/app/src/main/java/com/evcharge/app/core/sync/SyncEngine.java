@@ -0,0 +1,158 @@
+package com.evcharge.app.core.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.BookingOutbox;
+import com.evcharge.app.core.booking.InboxCache;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.notifications.NotificationStore;
+import com.evcharge.app.core.notifications.ReadBatcher;
+import com.evcharge.app.core.prefs.AppPrefs;
+import com.evcharge.app.core.station.StationCatalog;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * One background sync pass over the locally cached resources.
+ * - Each resource has a freshness budget; only resources past it are refreshed
+ * - Resources depend on the active role (owner vs operator); nothing runs without a fresh session
+ * - Last-success times live in SharedPreferences "sync_state"
+ * - A pass that was stopped (worker cancelled, e.g. by logout) or whose session changed meanwhile writes
+ *   nothing more: every cache write is preceded by a check of both
+ * Blocking; called from SyncWorker (or any background thread).
+ */
+public final class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+    private static final String PREFS_NAME = "sync_state";
+
+    public enum Resource {
+        BOOKINGS(15 * 60_000L),
+        NOTIFICATIONS(15 * 60_000L),
+        STATIONS(6 * 60 * 60_000L),
+        OPERATOR_INBOX(15 * 60_000L);
+
+        /** Skip the resource if it was synced more recently than this. */
+        public final long freshnessBudgetMs;
+
+        Resource(long freshnessBudgetMs) { this.freshnessBudgetMs = freshnessBudgetMs; }
+    }
+
+    public enum Outcome { OK, PARTIAL, SKIPPED }
+
+    /** Asked before each write; SyncWorker passes its isStopped(). */
+    public interface StopSignal { boolean isStopped(); }
+
+    private final Context appCtx;
+    private final SharedPreferences state;
+
+    public SyncEngine(Context context) {
+        this.appCtx = context.getApplicationContext();
+        this.state = appCtx.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** PARTIAL = at least one due resource failed (worker should retry with backoff). */
+    public Outcome runOnce(ApiClient api, StopSignal stop) {
+        if (stop.isStopped() || !api.isAuthFresh()) return Outcome.SKIPPED;
+
+        AppPrefs prefs = new AppPrefs(appCtx);
+        String role = prefs.getActiveRole();
+        Pass pass = new Pass(api, prefs, role, prefs.getActiveIdKey(), stop);
+        boolean operator = "Operator".equalsIgnoreCase(role);
+
+        boolean failed = false;
+        if (operator) {
+            failed |= !maybe(pass, Resource.OPERATOR_INBOX, () -> syncInbox(pass));
+        } else {
+            failed |= !maybe(pass, Resource.BOOKINGS, () -> syncBookings(pass));
+            failed |= !maybe(pass, Resource.NOTIFICATIONS, () -> syncNotifications(pass));
+        }
+        failed |= !maybe(pass, Resource.STATIONS, () -> StationCatalog.get(appCtx).refresh(api));
+        if (!pass.live()) return Outcome.SKIPPED; // nothing to retry for a session that's gone
+        return failed ? Outcome.PARTIAL : Outcome.OK;
+    }
+
+    public long lastSyncMs(Resource r) { return state.getLong(key(r), 0L); }
+
+    public boolean isDue(Resource r) {
+        return (System.currentTimeMillis() - lastSyncMs(r)) >= r.freshnessBudgetMs;
+    }
+
+    /** Forget sync times (logout: the next user starts cold). */
+    public void reset() { state.edit().clear().apply(); }
+
+    // ---- resources ----
+
+    private interface Step { boolean run() throws Exception; }
+
+    /** One pass: the session it started under and the worker's stop signal. */
+    private static final class Pass {
+        final ApiClient api;
+        final AppPrefs prefs;
+        final String role, idKey;
+        final StopSignal stop;
+
+        Pass(ApiClient api, AppPrefs prefs, String role, String idKey, StopSignal stop) {
+            this.api = api; this.prefs = prefs; this.role = role; this.idKey = idKey; this.stop = stop;
+        }
+
+        /** Not stopped, and still the same fresh session the pass started with. */
+        boolean live() {
+            return !stop.isStopped() && api.isAuthFresh()
+                    && equal(role, prefs.getActiveRole()) && equal(idKey, prefs.getActiveIdKey());
+        }
+
+        private static boolean equal(String a, String b) { return a == null ? b == null : a.equals(b); }
+    }
+
+    /** Runs the step if the resource is due; returns false only if it ran and failed. */
+    private boolean maybe(Pass pass, Resource r, Step step) {
+        if (!isDue(r)) return true;
+        if (!pass.live()) return false;
+        try {
+            boolean ok = step.run();
+            if (ok && pass.live()) state.edit().putLong(key(r), System.currentTimeMillis()).apply();
+            return ok;
+        } catch (Exception e) {
+            Log.w(TAG, r + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean syncBookings(Pass pass) throws Exception {
+        BookingOutbox.get(appCtx).kick(); // queued changes go out on their own worker; mine() keeps them on top
+        HttpClient.Response r = pass.api.bookingMineRaw();
+        if (!r.is2xx() || r.jsonArray == null) return false;
+        if (!pass.live()) return false;
+        BookingCache.get(appCtx).putMine(r.jsonArray);
+        return true;
+    }
+
+    private boolean syncNotifications(Pass pass) {
+        ReadBatcher.get(appCtx).kick(); // push queued reads first so the pull sees them
+        if (!pass.live()) return false;
+        return NotificationStore.get(appCtx).sync(pass.api, pass::live);
+    }
+
+    private boolean syncInbox(Pass pass) {
+        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+        ApiClient.Result r = pass.api.operatorInbox(today);
+        if (!r.ok) return false;
+        JSONArray arr = JsonUtils.parseArray(r.body);
+        if (arr == null) return false;
+        if (!pass.live()) return false;
+        InboxCache.get(appCtx).put(today, arr);
+        return true;
+    }
+
+    private static String key(Resource r) { return "last_" + r.name().toLowerCase(Locale.US); }
+}
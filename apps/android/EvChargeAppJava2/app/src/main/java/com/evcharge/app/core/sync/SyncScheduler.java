@@ -0,0 +1,53 @@
+package com.evcharge.app.core.sync;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the periodic background sync.
+ * - Runs only on unmetered networks while charging (and not on low battery)
+ * - Jittered: random initial delay plus a flex window, so devices don't sync in lockstep
+ * - Unique work: calling schedule() again keeps the existing schedule
+ */
+public final class SyncScheduler {
+
+    public static final String UNIQUE_NAME = "evcharge-background-sync";
+
+    static final long INTERVAL_MIN = 60;
+    static final long FLEX_MIN = 20;
+
+    private SyncScheduler() {}
+
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest req = new PeriodicWorkRequest.Builder(
+                SyncWorker.class, INTERVAL_MIN, TimeUnit.MINUTES, FLEX_MIN, TimeUnit.MINUTES)
+                .setConstraints(constraints)
+                .setInitialDelay(ThreadLocalRandom.current().nextLong(INTERVAL_MIN), TimeUnit.MINUTES)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniquePeriodicWork(UNIQUE_NAME, ExistingPeriodicWorkPolicy.KEEP, req);
+    }
+
+    /** Logout: stop syncing (a pass already running sees isStopped() and writes nothing more) and forget freshness. */
+    public static void cancel(Context context) {
+        WorkManager.getInstance(context.getApplicationContext()).cancelUniqueWork(UNIQUE_NAME);
+        new SyncEngine(context).reset();
+    }
+}
@@ -0,0 +1,51 @@
+package com.evcharge.app.core.sync;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.Call;
+
+/**
+ * WorkManager entry point for the periodic background sync (see SyncScheduler).
+ * Stopping the work (SyncScheduler.cancel on logout, constraints lost) cancels the request in flight, and
+ * the pass checks isStopped() before every write.
+ */
+public final class SyncWorker extends Worker {
+
+    /** Give up after this many attempts of one run; the next period tries again. */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** WorkManager stops a worker after 10 minutes; the pass's requests share one deadline below that. */
+    private static final long PASS_DEADLINE_MS = 9 * 60_000L;
+
+    private final Call call = Call.withDeadline(PASS_DEADLINE_MS);
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        ApiClient api = ApiClient.get(getApplicationContext()).withCall(call);
+        SyncEngine.Outcome o;
+        try {
+            o = new SyncEngine(getApplicationContext()).runOnce(api, this::isStopped);
+        } finally {
+            call.finish(); // drop the 9-minute watchdog now
+        }
+        if (o == SyncEngine.Outcome.PARTIAL && getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+            return Result.retry(); // WorkManager applies the backoff policy
+        }
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        call.cancel();
+    }
+}
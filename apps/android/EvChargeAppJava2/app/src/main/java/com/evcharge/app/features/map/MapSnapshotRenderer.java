@@ -0,0 +1,228 @@
+package com.evcharge.app.features.map;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.Log;
+import android.view.ViewGroup;
+
+import com.evcharge.app.core.geo.StationIndex;
+import com.evcharge.app.core.geo.StationPoint;
+import com.google.android.gms.maps.GoogleMapOptions;
+import com.google.android.gms.maps.MapView;
+import com.google.android.gms.maps.model.CameraPosition;
+import com.google.android.gms.maps.model.LatLng;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Non-interactive map thumbnail for the owner dashboard (replaces a live MapView).
+ * - Base image: a lite-mode MapView (the Maps SDK and its app-restricted key) rendered once per
+ *   (centre, zoom, size) behind the preview and captured with GoogleMap.snapshot(); kept in cacheDir
+ * - Station pins are drawn locally on top (Web Mercator projection)
+ * - Composed bitmap is cached on disk and in memory; a pin signature invalidates it when stations change
+ * Call render() off the main thread, captureBase() and release() on it.
+ */
+public final class MapSnapshotRenderer {
+
+    private static final String TAG = "MapSnapshot";
+    private static final String DIR = "map_snapshots";
+    private static final int PIN_COLOR = 0xFF5DD62C;
+    private static final int PIN_STROKE = 0xFF0F0F0F;
+    private static final int FALLBACK_BG = 0xFF202020;
+
+    // Last composed bitmap (tab switches re-create the fragment; keep it in memory)
+    private static String memKey;
+    private static Bitmap memBitmap;
+
+    private final Context appCtx;
+    private final File dir;
+    private MapView capturing;   // lite-mode view behind the preview while a base is being captured; main thread only
+
+    public MapSnapshotRenderer(Context context) {
+        this.appCtx = context.getApplicationContext();
+        this.dir = new File(appCtx.getCacheDir(), DIR);
+    }
+
+    /**
+     * Returns the snapshot with pins, using disk/memory caches when the pin set is unchanged.
+     * Falls back to pins on a plain background until captureBase() has stored the base map.
+     */
+    public Bitmap render(double lat, double lng, float zoom, int widthPx, int heightPx, List<StationIndex.Hit> pins) {
+        String base = baseKey(lat, lng, zoom, widthPx, heightPx);
+        String sig = signature(pins);
+        String key = base + "_" + sig;
+        synchronized (MapSnapshotRenderer.class) {
+            if (key.equals(memKey) && memBitmap != null) return memBitmap;
+        }
+
+        if (!dir.exists() && !dir.mkdirs()) Log.w(TAG, "cannot create " + dir);
+        File composedFile = new File(dir, "snap_" + base + ".png");
+        File sigFile = new File(dir, "snap_" + base + ".sig");
+
+        // 1) Composed snapshot on disk with the same pin signature
+        if (composedFile.exists() && sig.equals(readSmall(sigFile))) {
+            Bitmap b = BitmapFactory.decodeFile(composedFile.getAbsolutePath());
+            if (b != null) { remember(key, b); return b; }
+        }
+
+        // 2) Base map captured earlier, then draw pins
+        File baseFile = baseFile(base);
+        Bitmap baseBmp = baseFile.exists() ? BitmapFactory.decodeFile(baseFile.getAbsolutePath()) : null;
+
+        boolean haveBase = baseBmp != null;
+        Bitmap out = Bitmap.createBitmap(widthPx, heightPx, Bitmap.Config.ARGB_8888);
+        Canvas c = new Canvas(out);
+        if (haveBase) {
+            c.drawBitmap(Bitmap.createScaledBitmap(baseBmp, widthPx, heightPx, true), 0, 0, null);
+        } else {
+            c.drawColor(FALLBACK_BG);
+        }
+        drawPins(c, lat, lng, zoom, widthPx, heightPx, pins);
+
+        // Only persist real map snapshots; a fallback retries the base next time
+        if (haveBase) {
+            writePng(out, composedFile);
+            writeSmall(sigFile, sig);
+        }
+        remember(key, out);
+        return out;
+    }
+
+    /** False until captureBase() has stored the base map for this centre, zoom and size. */
+    public boolean hasBase(double lat, double lng, float zoom, int widthPx, int heightPx) {
+        return baseFile(baseKey(lat, lng, zoom, widthPx, heightPx)).exists();
+    }
+
+    /**
+     * Renders a lite-mode map of exactly widthPx x heightPx inside {@code host} (at the back, so the preview
+     * keeps covering it), snapshots it once loaded and stores that as the base. {@code done} runs on a
+     * background thread after the base is written; not at all if the capture fails or release() is called.
+     * Main thread only; one capture at a time.
+     */
+    public void captureBase(ViewGroup host, double lat, double lng, float zoom, int widthPx, int heightPx, Runnable done) {
+        if (capturing != null || host == null) return;
+        File dest = baseFile(baseKey(lat, lng, zoom, widthPx, heightPx));
+        GoogleMapOptions opts = new GoogleMapOptions()
+                .liteMode(true)
+                .mapToolbarEnabled(false)
+                .camera(CameraPosition.fromLatLngZoom(new LatLng(lat, lng), Math.round(zoom)));
+        MapView view = new MapView(host.getContext(), opts);
+        view.onCreate(null);
+        host.addView(view, 0, new ViewGroup.LayoutParams(widthPx, heightPx));
+        capturing = view;
+        view.getMapAsync(map -> map.setOnMapLoadedCallback(() -> map.snapshot(bmp -> {
+            if (capturing != view) return;       // released meanwhile
+            release();
+            if (bmp == null) return;
+            new Thread(() -> {
+                if (!dir.exists() && !dir.mkdirs()) Log.w(TAG, "cannot create " + dir);
+                writePng(bmp, dest);
+                if (dest.exists() && done != null) done.run();
+            }, "map-snapshot").start();
+        })));
+    }
+
+    /** Drops an unfinished capture (call from onDestroyView). Main thread. */
+    public void release() {
+        MapView v = capturing;
+        capturing = null;
+        if (v == null) return;
+        if (v.getParent() instanceof ViewGroup) ((ViewGroup) v.getParent()).removeView(v);
+        v.onDestroy();
+    }
+
+    // ---- drawing ----
+
+    private void drawPins(Canvas c, double lat, double lng, float zoom, int w, int h, List<StationIndex.Hit> pins) {
+        if (pins == null || pins.isEmpty()) return;
+        float density = appCtx.getResources().getDisplayMetrics().density;
+        float r = 6f * density;
+        Paint fill = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fill.setColor(PIN_COLOR);
+        Paint stroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+        stroke.setColor(PIN_STROKE);
+        stroke.setStyle(Paint.Style.STROKE);
+        stroke.setStrokeWidth(2f * density);
+
+        // World size in px at this zoom: 256 dp per tile, as the MapView drew the base (integral zoom)
+        double world = 256.0 * density * Math.pow(2, Math.round(zoom));
+        double cx = mercX(lng) * world, cy = mercY(lat) * world;
+        for (StationIndex.Hit hit : pins) {
+            StationPoint p = hit.station;
+            float x = (float) (mercX(p.lng) * world - cx + w / 2.0);
+            float y = (float) (mercY(p.lat) * world - cy + h / 2.0);
+            if (x < -r || y < -r || x > w + r || y > h + r) continue;
+            c.drawCircle(x, y, r, fill);
+            c.drawCircle(x, y, r, stroke);
+        }
+    }
+
+    private static double mercX(double lng) { return (lng + 180.0) / 360.0; }
+    private static double mercY(double lat) {
+        double s = Math.sin(Math.toRadians(Math.max(-85.0511, Math.min(85.0511, lat))));
+        return 0.5 - Math.log((1 + s) / (1 - s)) / (4 * Math.PI);
+    }
+
+    // ---- keys & small files ----
+
+    private File baseFile(String baseKey) { return new File(dir, "base_" + baseKey + ".png"); }
+
+    private static String baseKey(double lat, double lng, float zoom, int w, int h) {
+        // "lite": bases captured from the MapView (older Static Maps bases used another pixel scale)
+        return String.format(Locale.US, "lite_%.4f_%.4f_z%d_%dx%d", lat, lng, Math.round(zoom), w, h);
+    }
+
+    /** Order-sensitive hash of the pins (ids + coordinates); changes whenever nearby stations change. */
+    static String signature(List<StationIndex.Hit> pins) {
+        long h = 1125899906842597L;
+        if (pins != null) {
+            for (StationIndex.Hit hit : pins) {
+                StationPoint p = hit.station;
+                h = 31 * h + (p.id != null ? p.id.hashCode() : 0);
+                h = 31 * h + Double.doubleToLongBits(p.lat);
+                h = 31 * h + Double.doubleToLongBits(p.lng);
+            }
+        }
+        return Long.toHexString(h);
+    }
+
+    private static synchronized void remember(String key, Bitmap b) {
+        memKey = key;
+        memBitmap = b;
+    }
+
+    private static void writePng(Bitmap b, File f) {
+        try (FileOutputStream fos = new FileOutputStream(f)) {
+            b.compress(Bitmap.CompressFormat.PNG, 100, fos);
+        } catch (Exception e) {
+            Log.w(TAG, "write failed: " + e.getMessage());
+        }
+    }
+
+    private static String readSmall(File f) {
+        if (!f.exists()) return null;
+        try (InputStream in = new java.io.FileInputStream(f)) {
+            byte[] buf = new byte[64];
+            int n = in.read(buf);
+            return n > 0 ? new String(buf, 0, n, StandardCharsets.UTF_8) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void writeSmall(File f, String s) {
+        try (FileOutputStream fos = new FileOutputStream(f)) {
+            fos.write(s.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            Log.w(TAG, "write failed: " + e.getMessage());
+        }
+    }
+}
@@ -2,24 +2,14 @@ package com.evcharge.app.features.qr;
 
 import android.graphics.Bitmap;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 
 public final class QrRenderer {
     private QrRenderer(){}
 
-    /** Generate a square QR bitmap from a token string. */
+    /** Generate a square QR bitmap from a token string (one bulk copy instead of per-pixel setPixel). */
     public static Bitmap bitmapFrom(String token, int sizePx) throws WriterException {
-        QRCodeWriter writer = new QRCodeWriter();
-        BitMatrix m = writer.encode(token, BarcodeFormat.QR_CODE, sizePx, sizePx);
-        Bitmap bmp = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
-        for (int y = 0; y < sizePx; y++) {
-            for (int x = 0; x < sizePx; x++) {
-                bmp.setPixel(x, y, m.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-            }
-        }
-        return bmp;
+        int[] px = QrMatrix.pixels(token, sizePx);
+        return Bitmap.createBitmap(px, sizePx, sizePx, Bitmap.Config.ARGB_8888);
     }
 }
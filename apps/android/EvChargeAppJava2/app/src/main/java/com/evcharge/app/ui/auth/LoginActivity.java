@@ -12,9 +12,12 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.evcharge.app.BuildConfig;
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingOutbox;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.platform.AndroidPlatform;
 import com.evcharge.app.core.prefs.AppPrefs;
 import com.evcharge.app.core.security.JwtStore;
+import com.evcharge.app.core.sync.SyncScheduler;
 import com.evcharge.app.ui.main.MainActivity;
 import com.evcharge.app.ui.operator.OperatorOneActivity;
 
@@ -75,7 +78,7 @@ public final class LoginActivity extends AppCompatActivity {
         }
 
         // Enforce role: only Owner or Operator may proceed
-        JwtStore jwt = new JwtStore(getApplicationContext());
+        JwtStore jwt = AndroidPlatform.jwtStore(this);
         boolean isOwner = jwt.hasRole("Owner");
         boolean isOperator = jwt.hasRole("Operator");
 
@@ -86,13 +89,15 @@ public final class LoginActivity extends AppCompatActivity {
 
         if (!isOwner && !isOperator) {
           // Unsupported role → hard stop and clear token
-          new JwtStore(getApplicationContext()).clear();
+          AndroidPlatform.jwtStore(this).clear();
           new AppPrefs(getApplicationContext()).clearActiveUser();
           toast("This account role is not supported. Only Owner or Operator are allowed.");
           return;
         }
 
         toast("Login successful");
+        SyncScheduler.schedule(getApplicationContext());
+        if (isOwner) BookingOutbox.get(getApplicationContext()).kick(); // changes held back by a 401
         Intent i = new Intent(this, isOperator ? OperatorOneActivity.class : MainActivity.class);
         i.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
         startActivity(i);
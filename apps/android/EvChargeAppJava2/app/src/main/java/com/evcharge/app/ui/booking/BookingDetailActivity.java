@@ -15,7 +15,12 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.BookingMutations;
+import com.evcharge.app.core.booking.BookingOutbox;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.station.StationLookup;
+import com.evcharge.app.core.station.StationTable;
 import com.evcharge.app.core.util.JsonUtils;
 import com.evcharge.app.features.qr.QrRenderer;
 import com.google.zxing.WriterException;
@@ -68,15 +73,29 @@ public final class BookingDetailActivity extends AppCompatActivity {
   }
 
   private void load() {
+    final ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this); // leaving the screen aborts the GET
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
+      // Local copy first (includes changes still waiting for the server)
+      JSONObject cached = BookingCache.get(getApplicationContext()).find(bookingId);
+      if (cached != null) runOnUiThread(() -> render(cached));
+      if (BookingMutations.isLocalId(bookingId)) {
+        // Not on the server yet: no detail, QR or edits until BookingOutbox gets it accepted
+        runOnUiThread(() -> {
+          if (cached == null) { toast("Booking was not accepted"); finish(); }
+        });
+        return;
+      }
+
       ApiClient.Result r = api.bookingDetail(bookingId);
+      JSONObject shown = (r.ok && r.json != null)
+        ? BookingMutations.overlay(r.json, BookingOutbox.get(getApplicationContext()).pending())
+        : null;
       runOnUiThread(() -> {
-        if (!r.ok || r.json == null) {
+        if (shown == null) {
           toast(r.message != null ? r.message : "Failed to load");
           return;
         }
-        render(r.json);
+        render(shown);
       });
     }).start();
   }
@@ -86,6 +105,7 @@ public final class BookingDetailActivity extends AppCompatActivity {
     String station = JsonUtils.optString(o, "stationName");
     stationId = JsonUtils.optString(o, "stationId");
     if (stationId == null) stationId = JsonUtils.optString(o, "StationId");
+    if (station == null) station = StationLookup.get(getApplicationContext()).nameOf(stationId);
 
     // Prefer localDate/startTime/minutes if your backend returns them
     localDate = JsonUtils.optString(o, "localDate");
@@ -100,7 +120,12 @@ public final class BookingDetailActivity extends AppCompatActivity {
 
     String qrToken = JsonUtils.optString(o, "qrToken");
 
-    tvStatus.setText("Status: " + (status != null ? status : "-"));
+    boolean syncing = o.has(BookingMutations.PENDING_FIELD);
+    tvStatus.setText("Status: " + (status != null ? status : "-") + (syncing ? " (syncing)" : ""));
+    boolean onServer = !BookingMutations.isLocalId(bookingId);
+    btnModify.setEnabled(onServer);
+    btnCancel.setEnabled(onServer && !"Cancelled".equalsIgnoreCase(status));
+    btnIssueQr.setEnabled(onServer && !syncing);
     String meta = (station != null ? station : "") +
       (start != null ? "\nStart: " + start : "") +
       (end != null ? "\nEnd: " + end : "");
@@ -122,9 +147,18 @@ public final class BookingDetailActivity extends AppCompatActivity {
   }
 
   private void fetchStationCoords(String id) {
+    // Synced catalogue first: no network round trip for the Directions button
+    StationTable lookup = StationLookup.get(getApplicationContext()).snapshot();
+    int slot = lookup != null ? lookup.find(id) : StationLookup.MISSING;
+    if (slot != StationLookup.MISSING && !Double.isNaN(lookup.lat(slot)) && !Double.isNaN(lookup.lng(slot))) {
+      stationLat = lookup.lat(slot);
+      stationLng = lookup.lng(slot);
+      btnDirections.setEnabled(true);
+      return;
+    }
+    final ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this);
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(getApplicationContext());
         com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(id);
         Double lat = null, lng = null;
 
@@ -198,19 +232,20 @@ public final class BookingDetailActivity extends AppCompatActivity {
     }, initYear, initMonth, initDay).show();
   }
 
+  // Modify/cancel are queued (BookingOutbox) and shown at once; a server rejection rolls them back
   private void doModify(String newDate, String newTime) {
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
       try {
         JSONObject payload = new JSONObject();
         payload.put("localDate", newDate);
         payload.put("startTime", newTime);
         payload.put("minutes", minutes); // keep same duration
-        ApiClient.Result r = api.bookingModify(bookingId, payload);
+        BookingMutations.Op op = BookingOutbox.get(getApplicationContext()).enqueueModify(bookingId, payload);
+        JSONObject shown = BookingCache.get(getApplicationContext()).find(bookingId);
         runOnUiThread(() -> {
-          String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
-          toast("Modify: " + r.code + (detail.isEmpty() ? "" : " · " + shrink(detail, 120)));
-          if (r.ok) load(); // reload detail
+          if (op == null) { toast("This booking is still being saved"); return; }
+          toast("Change requested");
+          if (shown != null) render(shown); else load();
         });
       } catch (Exception e) {
         runOnUiThread(() -> toast("Modify error: " + e.getMessage()));
@@ -219,22 +254,27 @@ public final class BookingDetailActivity extends AppCompatActivity {
   }
 
   private void doCancel() {
+    btnCancel.setEnabled(false);
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
-      ApiClient.Result r = api.bookingCancel(bookingId);
+      BookingMutations.Op op = BookingOutbox.get(getApplicationContext()).enqueueCancel(bookingId);
       runOnUiThread(() -> {
-        String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
-        toast("Cancel: " + r.code + (detail.isEmpty() ? "" : " · " + shrink(detail, 120)));
-        if (r.ok) finish(); // close detail on success
+        if (op == null) {
+          btnCancel.setEnabled(true);
+          toast("This booking is still being saved");
+          return;
+        }
+        toast("Cancellation requested");
+        finish();
       });
     }).start();
   }
 
   private void issueQr() {
+    final ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this);
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
       ApiClient.Result r = api.qrIssue(bookingId);
       runOnUiThread(() -> {
+        if (isDestroyed()) return;
         if (!r.ok || r.json == null) {
           toast(r.message != null ? r.message : "Could not issue QR");
           return;
@@ -280,9 +320,5 @@ public final class BookingDetailActivity extends AppCompatActivity {
     }
   }
 
-  private static String shrink(String s, int max) {
-    return (s != null && s.length() > max) ? s.substring(0, max) + "…" : (s != null ? s : "");
-  }
-
   private void toast(String m){ Toast.makeText(this, m, Toast.LENGTH_LONG).show(); }
 }
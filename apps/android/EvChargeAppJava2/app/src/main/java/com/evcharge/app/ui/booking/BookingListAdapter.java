@@ -9,6 +9,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.perf.StartupTracer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -76,6 +77,7 @@ public final class BookingListAdapter extends RecyclerView.Adapter<RecyclerView.
             ((HeaderVH) vh).bind((HeaderRow) r);
         } else if (vh instanceof ItemVH && r instanceof ItemRow) {
             ((ItemVH) vh).bind((ItemRow) r);
+            if (StartupTracer.markOnce(StartupTracer.FIRST_ROW_BIND)) StartupTracer.flush(vh.itemView.getContext());
         }
     }
 
@@ -10,22 +10,29 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.evcharge.app.R;
-import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.booking.BookingOutbox;
 import com.evcharge.app.core.util.JsonUtils;
 
 import org.json.JSONObject;
 
+import java.util.UUID;
+
 public final class BookingSummaryActivity extends AppCompatActivity {
 
   private TextView tvSummary;
   private Button btnConfirm;
   private JSONObject payload;
+  // One booking per confirm screen: a second tap (or a rotation) queues the same op, with the same key
+  private String opId;
 
   @Override
   protected void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
     setContentView(R.layout.activity_booking_summary);
 
+    opId = savedInstanceState != null ? savedInstanceState.getString("opId") : null;
+    if (opId == null) opId = UUID.randomUUID().toString();
+
     tvSummary = findViewById(R.id.tvSummary);
     btnConfirm = findViewById(R.id.btnConfirm);
 
@@ -48,6 +55,12 @@ public final class BookingSummaryActivity extends AppCompatActivity {
     btnConfirm.setOnClickListener(v -> doCreate());
   }
 
+  @Override
+  protected void onSaveInstanceState(Bundle outState) {
+    super.onSaveInstanceState(outState);
+    outState.putString("opId", opId);
+  }
+
   private void doCreate() {
     if (payload == null) {
       toast("Invalid booking details");
@@ -56,23 +69,14 @@ public final class BookingSummaryActivity extends AppCompatActivity {
 
     btnConfirm.setEnabled(false);
 
+    // Queued locally (shows up in My bookings right away); BookingOutbox sends it and reports a rejection
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
-      ApiClient.Result r = api.bookingCreate(payload);
+      BookingOutbox.get(getApplicationContext()).enqueueCreate(opId, payload);
 
       runOnUiThread(() -> {
-        btnConfirm.setEnabled(true);
-
-        if (r.ok) {
-          toast("Booking created successfully");
-          startActivity(new Intent(this, MyBookingsActivity.class));
-          finish();
-        } else {
-          String msg = (r.message != null && !r.message.isEmpty())
-            ? r.message
-            : "Booking failed (" + r.code + ")";
-          toast(msg);
-        }
+        toast("Booking requested");
+        startActivity(new Intent(this, MyBookingsActivity.class));
+        finish();
       });
     }).start();
   }
@@ -1,11 +1,16 @@
 package com.evcharge.app.ui.booking;
 
+import android.Manifest;
 import android.app.DatePickerDialog;
 import android.app.TimePickerDialog;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationManager;
 import android.os.Bundle;
-import android.view.View;
-import android.widget.AdapterView;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Spinner;
@@ -13,16 +18,21 @@ import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.SlotAvailability;
+import com.evcharge.app.core.geo.StationPoint;
 import com.evcharge.app.core.net.ApiClient;
-import com.evcharge.app.core.util.JsonUtils;
+import com.evcharge.app.core.station.StationCatalog;
+import com.evcharge.app.ui.stations.StationSearchAdapter;
 
-import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Calendar;
 import java.util.List;
 
@@ -34,12 +44,13 @@ public final class CreateBookingActivity extends AppCompatActivity {
     @Override public String toString(){ return name; }
   }
 
-  private Spinner spStation, spMinutes;
+  private AutoCompleteTextView acStation;
+  private Spinner spMinutes;
   private Button btnPickDate, btnPickTime, btnReview;
   private EditText etNotes;
 
-  private final List<StationRow> stations = new ArrayList<>();
-  private ArrayAdapter<StationRow> stationAdapter;
+  private StationSearchAdapter stationAdapter;
+  private StationRow selectedStation = null;
 
   private final Integer[] allowedMinutes = new Integer[]{30,45,60,90,120};
   private ArrayAdapter<Integer> minutesAdapter;
@@ -55,12 +66,15 @@ public final class CreateBookingActivity extends AppCompatActivity {
   // track if minutes are fixed by server
   private boolean minutesFixed = false;
 
+  // local schedule/capacity model for the selected station (null until loaded)
+  private SlotAvailability availability = null;
+
   @Override
   protected void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
     setContentView(R.layout.activity_create_booking);
 
-    spStation = findViewById(R.id.spStation);
+    acStation = findViewById(R.id.acStation);
     spMinutes = findViewById(R.id.spMinutes);
     btnPickDate = findViewById(R.id.btnPickDate);
     btnPickTime = findViewById(R.id.btnPickTime);
@@ -77,8 +91,9 @@ public final class CreateBookingActivity extends AppCompatActivity {
       }
     }
 
-    stationAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, stations);
-    spStation.setAdapter(stationAdapter);
+    // Local FTS search over the cached catalogue, nearest stations first
+    stationAdapter = new StationSearchAdapter(this, null, true);
+    acStation.setAdapter(stationAdapter);
 
     minutesAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, allowedMinutes);
     spMinutes.setAdapter(minutesAdapter);
@@ -86,13 +101,24 @@ public final class CreateBookingActivity extends AppCompatActivity {
     spMinutes.setEnabled(true);
     minutesFixed = false;
 
-    // When the user changes station, fetch DefaultSlotMinutes and lock the duration if present
-    spStation.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-      @Override public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-        StationRow sel = (StationRow) spStation.getSelectedItem();
-        if (sel != null) fetchAndApplySlot(sel.id);
+    // When the user picks a station, fetch DefaultSlotMinutes and lock the duration if present
+    acStation.setOnItemClickListener((parent, view, position, id) -> {
+      StationPoint p = stationAdapter.getItem(position).station;
+      selectStation(new StationRow(p.id, p.name));
+    });
+    // Typing after a pick invalidates it until a suggestion is chosen again
+    acStation.addTextChangedListener(new TextWatcher() {
+      @Override public void beforeTextChanged(CharSequence s, int st, int c, int a) {}
+      @Override public void onTextChanged(CharSequence s, int st, int b, int c) {}
+      @Override public void afterTextChanged(Editable e) {
+        if (selectedStation != null && !selectedStation.name.contentEquals(e)) selectedStation = null;
+      }
+    });
+    acStation.setOnFocusChangeListener((v, hasFocus) -> {
+      if (hasFocus && acStation.isEnabled() && acStation.getText().length() == 0) {
+        stationAdapter.getFilter().filter(null);
+        acStation.showDropDown();
       }
-      @Override public void onNothingSelected(AdapterView<?> parent) { /* no-op */ }
     });
 
     btnPickDate.setOnClickListener(v -> showDatePicker());
@@ -120,118 +146,136 @@ public final class CreateBookingActivity extends AppCompatActivity {
   private void loadStations() {
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response r = api.stationsAllRaw();
-
-        if (!(r.code >= 200 && r.code < 300)) {
-          runOnUiThread(() -> toast("Stations failed: " + r.code));
-          return;
-        }
-
-        // Accept either: [ ... ]  OR  { items/data/results/stations: [ ... ] }
-        JSONArray arr = r.jsonArray;
-        JSONObject root = r.jsonObject;
-
-        if (arr == null) {
-          if (root == null && r.body != null && !r.body.trim().isEmpty()) {
-            // last resort: try to parse as array first, then object
-            try { arr = new JSONArray(r.body); } catch (JSONException ignored) {
-              try { root = new JSONObject(r.body); } catch (JSONException ignored2) { /* leave null */ }
-            }
-          }
-          if (arr == null && root != null) {
-            // common wrappers
-            String[] keys = new String[]{"items","data","results","stations","value"};
-            for (String k : keys) {
-              JSONArray candidate = root.optJSONArray(k);
-              if (candidate != null) { arr = candidate; break; }
-            }
-            // if still null, try first array we can find
-            if (arr == null) {
-              for (java.util.Iterator<String> it = root.keys(); it.hasNext(); ) {
-                String k = it.next();
-                Object v = root.opt(k);
-                if (v instanceof JSONArray) { arr = (JSONArray) v; break; }
-              }
-            }
-          }
-        }
-
-        if (arr == null) {
-          String sample = (r.body != null ? r.body : "no body");
-          final String msg = "Stations parse error (200). Shape not an array. Sample: " + sample;
-          runOnUiThread(() -> toast(msg.length() > 200 ? msg.substring(0,200) + "…" : msg));
+        StationCatalog catalog = StationCatalog.get(getApplicationContext());
+        ApiClient api = ApiClient.get(getApplicationContext());
+        // Cold install: the picker needs the catalogue before it can search
+        if (catalog.isEmpty() && !catalog.refresh(api)) {
+          runOnUiThread(() -> toast("Stations failed to load"));
           return;
         }
 
-        List<StationRow> tmp = new ArrayList<>();
-        for (int i=0;i<arr.length();i++){
-          JSONObject o = arr.optJSONObject(i); if (o==null) continue;
-          String id = JsonUtils.optString(o, "id"); if (id==null) id = JsonUtils.optString(o, "stationId");
-          String name = JsonUtils.optString(o, "name"); if (name==null) name = JsonUtils.optString(o, "stationName");
-          if (id!=null) tmp.add(new StationRow(id,name));
-        }
+        double[] origin = lastKnownLatLng();
+        if (origin != null) stationAdapter.setOrigin(origin[0], origin[1]);
 
-        List<StationRow> finalList = tmp;
+        StationPoint preset = catalog.index().byId(presetStationId);
+        int count = catalog.index().withIds().size();
         runOnUiThread(() -> {
-          stations.clear();
-          stations.addAll(finalList);
-
-          // If a preset station is supplied but not found in the list, add it as a temporary option.
+          // Preselect & lock the picker if presetStationId exists (coming from StationDetail);
+          // a preset missing from the catalogue is still used as-is
           if (presetStationId != null) {
-            int foundIdx = -1;
-            for (int i = 0; i < stations.size(); i++) {
-              if (presetStationId.equals(stations.get(i).id)) { foundIdx = i; break; }
-            }
-            if (foundIdx == -1) {
-              stations.add(0, new StationRow(presetStationId, presetStationName != null ? presetStationName : presetStationId));
-            }
+            String name = preset != null && preset.name != null ? preset.name : presetStationName;
+            selectStation(new StationRow(presetStationId, name));
+            acStation.setEnabled(false);
           }
-
-          stationAdapter.notifyDataSetChanged();
-
-          // Preselect & maybe lock the spinner if presetStationId exists
-          int idx = 0;
-          if (presetStationId != null) {
-            for (int i=0;i<stations.size();i++) {
-              if (presetStationId.equals(stations.get(i).id)) { idx = i; break; }
-            }
-            spStation.setSelection(idx);
-            spStation.setEnabled(false); // station fixed when coming from StationDetail
-          }
-
-          // Fetch slot for the initially selected station (handles both preset & default selection)
-          StationRow sel = (StationRow) spStation.getSelectedItem();
-          if (sel != null) fetchAndApplySlot(sel.id);
-
-          toast("Loaded " + stations.size() + " station(s)");
+          toast("Loaded " + count + " station(s)");
         });
+
+        catalog.refreshIfStale(api); // searches pick up the new index transparently
       } catch (Exception e) {
         runOnUiThread(() -> toast("Network error: " + e.getMessage()));
       }
     }).start();
   }
 
-  /** Fetch DefaultSlotMinutes for a station and apply it to the minutes spinner. */
+  private void selectStation(StationRow row) {
+    selectedStation = row;
+    acStation.setText(row.name, false);
+    acStation.dismissDropDown();
+    fetchAndApplySlot(row.id);
+  }
+
+  /** Best cached fix without waking GPS; null without permission or any fix. */
+  private double[] lastKnownLatLng() {
+    if (ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED
+        && ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_COARSE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+      return null;
+    }
+    try {
+      LocationManager lm = (LocationManager) getSystemService(LOCATION_SERVICE);
+      Location best = null;
+      for (String provider : lm.getProviders(true)) {
+        Location l = lm.getLastKnownLocation(provider);
+        if (l != null && (best == null || l.getTime() > best.getTime())) best = l;
+      }
+      return best != null ? new double[]{best.getLatitude(), best.getLongitude()} : null;
+    } catch (SecurityException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Apply the station's DefaultSlotMinutes to the minutes spinner and build its local availability.
+   * Slot minutes, connectors and timezone come from the catalogue; only the schedule is fetched. Entries
+   * without them (catalogue saved from an older server) fall back to the station detail.
+   */
   private void fetchAndApplySlot(String stationId) {
+    availability = null;
+    final ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this);
     new Thread(() -> {
       Integer slot = null;
+      SlotAvailability avail = null;
       try {
-        ApiClient api = new ApiClient(getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(stationId);
-        if (d.jsonObject != null) {
-          int s1 = d.jsonObject.optInt("defaultSlotMinutes", 0);
-          int s2 = d.jsonObject.optInt("DefaultSlotMinutes", 0);
-          int s = (s1 > 0 ? s1 : s2);
-          if (s > 0) slot = s;
+        StationPoint known = StationCatalog.get(getApplicationContext()).index().byId(stationId);
+        boolean fromCatalog = known != null && known.defaultSlotMinutes > 0 && known.connectors > 0;
+        JSONObject detail = null;
+        if (fromCatalog) {
+          slot = known.defaultSlotMinutes;
+        } else {
+          com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(stationId);
+          detail = d.jsonObject;
+          if (detail != null) {
+            int s = detail.optInt("defaultSlotMinutes", detail.optInt("DefaultSlotMinutes", 0));
+            if (s > 0) slot = s;
+          }
+        }
+
+        // Schedule + own bookings -> local availability (checks picks without a server round trip)
+        if (fromCatalog || detail != null) {
+          com.evcharge.app.core.net.HttpClient.Response sch = api.stationScheduleRaw(stationId);
+          if (sch.code >= 200 && sch.code < 300) {
+            avail = fromCatalog ? SlotAvailability.from(known, sch.jsonObject) : SlotAvailability.from(detail, sch.jsonObject);
+            avail.addBookingsFrom(BookingCache.get(getApplicationContext()).mine(), stationId);
+          }
         }
       } catch (Exception ignored) {}
 
       final Integer slotFinal = slot;
-      runOnUiThread(() -> applySlotMinutes(slotFinal));
+      final SlotAvailability availFinal = avail;
+      runOnUiThread(() -> {
+        if (selectedStation == null || !stationId.equals(selectedStation.id)) return; // picked another meanwhile
+        applySlotMinutes(slotFinal);
+        availability = availFinal;
+        if (availFinal != null && checkPick() != null) moveToNextFree(false);
+      });
     }).start();
   }
 
+  /** Rejection reason for the current date/time/minutes pick, or null if it's bookable (or unknown). */
+  private String checkPick() {
+    Integer minutesObj = (Integer) spMinutes.getSelectedItem();
+    if (availability == null || minutesObj == null) return null;
+    LocalDate date = LocalDate.of(pickCal.get(Calendar.YEAR), pickCal.get(Calendar.MONTH) + 1, pickCal.get(Calendar.DAY_OF_MONTH));
+    LocalTime time = LocalTime.of(pickCal.get(Calendar.HOUR_OF_DAY), pickCal.get(Calendar.MINUTE));
+    return availability.check(date, time, minutesObj, availability.now());
+  }
+
+  /** Jump the pickers to the first free slot at/after the current pick (or now). Returns false if none. */
+  private boolean moveToNextFree(boolean announce) {
+    LocalDateTime from = LocalDateTime.of(pickCal.get(Calendar.YEAR), pickCal.get(Calendar.MONTH) + 1,
+        pickCal.get(Calendar.DAY_OF_MONTH), pickCal.get(Calendar.HOUR_OF_DAY), pickCal.get(Calendar.MINUTE));
+    List<SlotAvailability.Slot> next = availability.nextFree(1, from, availability.now());
+    if (next.isEmpty()) next = availability.nextFree(1, availability.now());
+    if (next.isEmpty()) {
+      if (announce) toast("No free slots in the next " + SlotAvailability.HORIZON_DAYS + " days");
+      return false;
+    }
+    SlotAvailability.Slot s = next.get(0);
+    pickCal.set(s.date.getYear(), s.date.getMonthValue() - 1, s.date.getDayOfMonth(), s.start.getHour(), s.start.getMinute());
+    updateDateTimeButtons();
+    if (announce) toast("Next free slot: " + s);
+    return true;
+  }
+
   /** Apply minutes spinner contents depending on slot (fixed if provided, else flexible). */
   private void applySlotMinutes(Integer slotFromServer) {
     if (slotFromServer != null && slotFromServer > 0) {
@@ -287,14 +331,21 @@ public final class CreateBookingActivity extends AppCompatActivity {
   }
 
   private void goReview() {
-    if (stations.isEmpty()) { toast("Pick a station"); return; }
-    StationRow sel = (StationRow) spStation.getSelectedItem();
+    StationRow sel = selectedStation;
     if (sel == null) { toast("Pick a station"); return; }
 
     Integer minutesObj = (Integer) spMinutes.getSelectedItem();
     if (minutesObj == null) { toast("Pick a duration"); return; }
     int minutes = minutesObj;
 
+    // Same rules the server applies on create; never submit a pick we already know is invalid
+    String problem = checkPick();
+    if (problem != null) {
+      toast(problem);
+      moveToNextFree(true);
+      return;
+    }
+
     String notes = etNotes.getText().toString().trim();
 
     // Build payload EXACTLY as backend expects
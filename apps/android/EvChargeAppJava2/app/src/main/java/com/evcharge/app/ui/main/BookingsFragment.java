@@ -4,7 +4,6 @@ import android.app.DatePickerDialog;
 import android.content.SharedPreferences;
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.TextUtils;
 import android.view.*;
 import android.widget.*;
 
@@ -17,7 +16,12 @@ import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.BookingMutations;
+import com.evcharge.app.core.booking.BookingOutbox;
+import com.evcharge.app.core.booking.BookingSections;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.station.StationLookup;
 import com.evcharge.app.core.util.JsonUtils;
 import com.evcharge.app.ui.booking.BookingDetailActivity;
 import com.evcharge.app.ui.booking.BookingListAdapter;
@@ -28,8 +32,6 @@ import org.json.JSONObject;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.WeekFields;
 import java.util.*;
 
 public final class BookingsFragment extends Fragment {
@@ -54,8 +56,14 @@ public final class BookingsFragment extends Fragment {
   private LocalDate filterTo = null;
 
   private final DateTimeFormatter btnFmt   = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-  private final DateTimeFormatter whenDate = DateTimeFormatter.ofPattern("dd MMM yyyy");
-  private final DateTimeFormatter whenTime = DateTimeFormatter.ofPattern("HH:mm");
+
+  // Repaint when a queued booking change lands or is rolled back; surface the server's reason
+  private final BookingOutbox.Listener outboxListener = new BookingOutbox.Listener() {
+    @Override public void onBookingsChanged() { if (isAdded()) requireActivity().runOnUiThread(() -> loadAndRender(false)); }
+    @Override public void onRejected(BookingMutations.Op op, int code, String message) {
+      uiToast("Booking " + op.kind + " not accepted" + (message != null && !message.isEmpty() ? ": " + message : " (" + code + ")"));
+    }
+  };
 
   @Nullable
   @Override
@@ -122,6 +130,16 @@ public final class BookingsFragment extends Fragment {
     return v;
   }
 
+  @Override public void onStart() {
+    super.onStart();
+    BookingOutbox.get(requireContext()).addListener(outboxListener);
+  }
+
+  @Override public void onStop() {
+    BookingOutbox.get(requireContext()).removeListener(outboxListener);
+    super.onStop();
+  }
+
   private void showDatePicker(boolean isFrom) {
     LocalDate base = (isFrom ? (filterFrom != null ? filterFrom : LocalDate.now())
       : (filterTo   != null ? filterTo   : LocalDate.now()));
@@ -143,16 +161,30 @@ public final class BookingsFragment extends Fragment {
     btnTo.setText(filterTo != null ? btnFmt.format(filterTo) : "To");
   }
 
-  private void loadAndRender() {
-    btnRefresh.setEnabled(false);
-    if (swr != null && !swr.isRefreshing()) swr.setRefreshing(true);
+  private void loadAndRender() { loadAndRender(true); }
+
+  /**
+   * Paints BookingCache (last server list with queued bookings and changes painted over it) at once,
+   * then, when network is true, refreshes it from /api/Booking/mine and paints again.
+   */
+  private void loadAndRender(boolean network) {
+    if (!isAdded() || getView() == null) return;
+    if (network) {
+      btnRefresh.setEnabled(false);
+      if (swr != null && !swr.isRefreshing()) swr.setRefreshing(true);
+    }
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    // The list and the name lookups behind it are aborted with the view
+    final ApiClient api = network ? ApiClient.get(appCtx).boundTo(getViewLifecycleOwner()) : null;
 
     new Thread(() -> {
-      List<BookingListAdapter.Row> rows = new ArrayList<>();
-      int total = 0;
-      int kept = 0;
+      StationLookup lookup = StationLookup.get(appCtx);
+      JSONArray cached = BookingCache.get(appCtx).mine();
+      if (cached != null) postRows(cached, buildRows(cached, lookup, null), false);
+      if (!network) return;
+
+      JSONArray shown = cached;
       try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
         com.evcharge.app.core.net.HttpClient.Response resp = api.bookingMineRaw();
         if (!(resp.code >= 200 && resp.code < 300)) {
           uiToast("Failed: " + resp.code);
@@ -164,256 +196,91 @@ public final class BookingsFragment extends Fragment {
           if (arr == null) {
             uiToast("No data");
           } else {
-            total = arr.length();
-
-            // 1) Collect stationIds needing names
-            Set<String> ids = new HashSet<>();
-            Map<String,String> idToName = new HashMap<>();
-            for (int i=0;i<arr.length();i++){
-              JSONObject o = arr.optJSONObject(i); if (o==null) continue;
-              String stationName = JsonUtils.optString(o, "stationName");
-              if (stationName == null) stationName = JsonUtils.optString(o, "StationName");
-              if (stationName != null) {
-                String sid = extractStationId(o);
-                if (sid != null) idToName.put(sid, stationName);
-              } else {
-                String sid = extractStationId(o);
-                if (sid != null) ids.add(sid);
-              }
-            }
-
-            // 2) Resolve missing station names via /api/Station/{id}
-            if (!ids.isEmpty()) {
-              for (String sid : ids) {
-                try {
-                  com.evcharge.app.core.net.HttpClient.Response r2 = api.stationDetailRaw(sid);
-                  JSONObject sObj = r2.jsonObject;
-                  if (sObj == null && r2.body != null) {
-                    try { sObj = new JSONObject(r2.body); } catch (Exception ignored){}
-                  }
-                  String nm = (sObj != null ? JsonUtils.optString(sObj, "name") : null);
-                  if (nm == null && sObj != null) nm = JsonUtils.optString(sObj, "Name");
-                  if (nm != null) idToName.put(sid, nm);
-                } catch (Exception ignored){}
-              }
-            }
-
-            // 3) Build sectioned rows using idToName & robust time parsing
-            rows = buildSectionedRows(arr, idToName);
-            for (BookingListAdapter.Row r : rows) if (r instanceof BookingListAdapter.ItemRow) kept++;
+            BookingCache.get(appCtx).putMine(arr);
+            shown = BookingCache.get(appCtx).mine();
           }
         }
       } catch (Exception e) {
         uiToast("Network error: " + e.getMessage());
       }
-      int finalTotal = total, finalKept = kept;
-      List<BookingListAdapter.Row> finalRows = rows;
-      requireActivity().runOnUiThread(() -> {
-        adapter.setRows(finalRows);
-        btnRefresh.setEnabled(true);
-        if (swr != null) swr.setRefreshing(false);
-        Toast.makeText(requireContext(), "Loaded " + finalTotal + ", after filters " + finalKept, Toast.LENGTH_SHORT).show();
-      });
+      List<BookingListAdapter.Row> rows = new ArrayList<>();
+      try {
+        if (shown != null) rows = buildRows(shown, lookup, api);
+      } catch (Exception e) {
+        uiToast("Bookings error: " + e.getMessage());
+      }
+      postRows(shown, rows, true);
     }).start();
   }
 
-  private List<BookingListAdapter.Row> buildSectionedRows(JSONArray arr, Map<String,String> idToName) {
-    String selStatus = (String) spStatus.getSelectedItem();
-    boolean filterByStatus = selStatus != null && !"All".equalsIgnoreCase(selStatus);
-
-    ZoneId zone = ZoneId.systemDefault();
-    LocalDate today = LocalDate.now(zone);
-    LocalDate yesterday = today.minusDays(1);
-
-    WeekFields wf = WeekFields.ISO;
-    LocalDate weekStart = today.with(wf.dayOfWeek(), 1);
-    LocalDate weekEnd   = today.with(wf.dayOfWeek(), 7);
-
-    List<BookingListAdapter.ItemRow> todayList = new ArrayList<>();
-    List<BookingListAdapter.ItemRow> yList     = new ArrayList<>();
-    List<BookingListAdapter.ItemRow> weekList  = new ArrayList<>();
-    List<BookingListAdapter.ItemRow> upcoming  = new ArrayList<>();
-    List<BookingListAdapter.ItemRow> older     = new ArrayList<>();
-    List<BookingListAdapter.ItemRow> other     = new ArrayList<>();
-
-    for (int i=0;i<arr.length();i++) {
-      JSONObject o = arr.optJSONObject(i);
-      if (o == null) continue;
-      String id = JsonUtils.optString(o, "id");
-      if (id == null) id = JsonUtils.optString(o, "bookingId");
-      if (id == null) id = JsonUtils.optString(o, "BookingId");
-      if (id == null) id = JsonUtils.optString(o, "BookingCode");
-      if (id == null) continue;
-
-      String station = JsonUtils.optString(o, "stationName");
-      if (station == null) station = JsonUtils.optString(o, "StationName");
-      if (station == null) {
-        String sid = extractStationId(o);
-        if (sid != null && idToName.containsKey(sid)) {
-          station = idToName.get(sid);
-        } else if (sid != null) {
-          station = "Station " + (sid.length() > 6 ? sid.substring(0,6) : sid);
-        } else {
-          station = "Station";
-        }
-      }
-
-      String status  = JsonUtils.optString(o, "status");
-      if (status == null) status = JsonUtils.optString(o, "Status");
-
-      LocalDateTime ldt = parseStartLocalRobust(o, zone);
-      String whenDisplay = displayWhenString(o, ldt);
-
-      if (filterByStatus && (status == null || !selStatus.equalsIgnoreCase(status))) continue;
-
-      if (ldt == null) {
-        other.add(new BookingListAdapter.ItemRow(id, station, whenDisplay, status));
-        continue;
-      }
+  private void postRows(JSONArray arr, List<BookingListAdapter.Row> rows, boolean done) {
+    if (!isAdded()) return;
+    int total = arr != null ? arr.length() : 0;
+    int kept = 0;
+    for (BookingListAdapter.Row r : rows) if (r instanceof BookingListAdapter.ItemRow) kept++;
+    final int finalKept = kept;
+    requireActivity().runOnUiThread(() -> {
+      adapter.setRows(rows);
+      if (!done) return;
+      btnRefresh.setEnabled(true);
+      if (swr != null) swr.setRefreshing(false);
+      Toast.makeText(requireContext(), "Loaded " + total + ", after filters " + finalKept, Toast.LENGTH_SHORT).show();
+    });
+  }
 
-      LocalDate d = ldt.toLocalDate();
-
-      if (filterFrom != null && d.isBefore(filterFrom)) continue;
-      if (filterTo   != null && d.isAfter(filterTo))   continue;
-
-      BookingListAdapter.ItemRow item = new BookingListAdapter.ItemRow(
-        id, station,
-        whenDate.format(d) + " · " + whenTime.format(ldt.toLocalTime()),
-        status
-      );
-
-      if (d.equals(today)) {
-        todayList.add(item);
-      } else if (d.equals(yesterday)) {
-        yList.add(item);
-      } else if (!d.isBefore(weekStart) && !d.isAfter(weekEnd)) {
-        weekList.add(item);
-      } else if (d.isAfter(weekEnd)) {
-        upcoming.add(item);
+  /** Station names come from the booking, then the local catalogue, then (only when api != null) a detail request. */
+  private List<BookingListAdapter.Row> buildRows(JSONArray arr, StationLookup lookup, ApiClient api) {
+    // 1) Collect stationIds needing names
+    Set<String> ids = new HashSet<>();
+    Map<String,String> idToName = new HashMap<>();
+    for (int i=0;i<arr.length();i++){
+      JSONObject o = arr.optJSONObject(i); if (o==null) continue;
+      String stationName = JsonUtils.optString(o, "stationName");
+      if (stationName == null) stationName = JsonUtils.optString(o, "StationName");
+      if (stationName != null) {
+        String sid = BookingSections.extractStationId(o);
+        if (sid != null) idToName.put(sid, stationName);
       } else {
-        older.add(item);
+        String sid = BookingSections.extractStationId(o);
+        if (sid == null || idToName.containsKey(sid)) continue;
+        String local = lookup.nameOf(sid); // off-heap catalogue table, no network
+        if (local != null) idToName.put(sid, local); else ids.add(sid);
       }
     }
 
-    List<BookingListAdapter.Row> out = new ArrayList<>();
-    if (!todayList.isEmpty())    { out.add(new BookingListAdapter.HeaderRow("Today"));      out.addAll(todayList); }
-    if (!yList.isEmpty())        { out.add(new BookingListAdapter.HeaderRow("Yesterday"));  out.addAll(yList); }
-    if (!weekList.isEmpty())     { out.add(new BookingListAdapter.HeaderRow("This Week"));  out.addAll(weekList); }
-    if (!upcoming.isEmpty())     { out.add(new BookingListAdapter.HeaderRow("Upcoming"));   out.addAll(upcoming); }
-    if (!older.isEmpty())        { out.add(new BookingListAdapter.HeaderRow("Older"));      out.addAll(older); }
-    if (!other.isEmpty())        { out.add(new BookingListAdapter.HeaderRow("Other"));      out.addAll(other); }
-    return out;
-  }
-
-  private LocalDateTime parseStartLocalRobust(JSONObject o, ZoneId zone) {
-    String s = JsonUtils.optString(o, "startUtc");
-    if (s == null) s = JsonUtils.optString(o, "startTimeUtc");
-    if (s == null) s = JsonUtils.optString(o, "slotStartUtc");
-    if (s == null) s = JsonUtils.optString(o, "SlotStartUtc");
-
-    if (!TextUtils.isEmpty(s)) {
-      LocalDateTime ldt = tryParseInstantLike(s, zone);
-      if (ldt != null) return ldt;
-      ldt = tryCommonDateTimePatterns(s, zone);
-      if (ldt != null) return ldt;
-    }
-
-    String d = JsonUtils.optString(o, "localDate");
-    String t = JsonUtils.optString(o, "startTime");
-    String slotLocal = JsonUtils.optString(o, "slotStartLocal");
-    if (slotLocal == null) slotLocal = JsonUtils.optString(o, "SlotStartLocal");
-    if (!TextUtils.isEmpty(slotLocal)) {
-      try {
-        return LocalDateTime.parse(slotLocal.replace(" ", "T"), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-      } catch (Exception ignored) {}
-    }
-    if (!TextUtils.isEmpty(d) && !TextUtils.isEmpty(t)) {
-      try {
-        LocalDate ld = LocalDate.parse(d);
-        java.time.LocalTime lt = java.time.LocalTime.parse(t);
-        return LocalDateTime.of(ld, lt);
-      } catch (Exception ignored) {}
-    }
-
-    return null;
-  }
-
-  private LocalDateTime tryParseInstantLike(String s, ZoneId zone) {
-    try {
-      if (s.endsWith("Z") || s.contains("+")) {
-        Instant ins = Instant.parse(s.replace(" ", "T"));
-        return LocalDateTime.ofInstant(ins, zone);
+    // 2) Resolve names unknown to the local catalogue via /api/Station/{id}
+    if (api != null && !ids.isEmpty()) {
+      for (String sid : ids) {
+        try {
+          com.evcharge.app.core.net.HttpClient.Response r2 = api.stationDetailRaw(sid);
+          JSONObject sObj = r2.jsonObject;
+          if (sObj == null && r2.body != null) {
+            try { sObj = new JSONObject(r2.body); } catch (Exception ignored){}
+          }
+          String nm = (sObj != null ? JsonUtils.optString(sObj, "name") : null);
+          if (nm == null && sObj != null) nm = JsonUtils.optString(sObj, "Name");
+          if (nm != null) idToName.put(sid, nm);
+        } catch (Exception ignored){}
       }
-    } catch (Exception ignored) {}
-    try {
-      return OffsetDateTime.parse(s.replace(" ", "T")).atZoneSameInstant(zone).toLocalDateTime();
-    } catch (Exception ignored) {}
-    try {
-      return ZonedDateTime.parse(s.replace(" ", "T")).withZoneSameInstant(zone).toLocalDateTime();
-    } catch (Exception ignored) {}
-    return null;
-  }
-
-  private LocalDateTime tryCommonDateTimePatterns(String s, ZoneId zone) {
-    String v = s.replace(" ", "T");
-    String[] patterns = new String[]{
-      "yyyy-MM-dd'T'HH:mm:ss.SSS",
-      "yyyy-MM-dd'T'HH:mm:ss",
-      "yyyy-MM-dd'T'HH:mm"
-    };
-    for (String p : patterns) {
-      try {
-        DateTimeFormatter f = DateTimeFormatter.ofPattern(p);
-        LocalDateTime ldt = LocalDateTime.parse(v, f);
-        return ldt;
-      } catch (DateTimeParseException ignored) {}
     }
-    return null;
-  }
 
-  private String displayWhenString(JSONObject o, LocalDateTime ldt) {
-    if (ldt != null) {
-      return whenDate.format(ldt.toLocalDate()) + " · " + whenTime.format(ldt.toLocalTime());
-    }
-    String s = JsonUtils.optString(o, "startUtc");
-    if (s == null) s = JsonUtils.optString(o, "startTimeUtc");
-    if (s == null) s = JsonUtils.optString(o, "slotStartUtc");
-    if (s == null) s = JsonUtils.optString(o, "SlotStartUtc");
-    if (!TextUtils.isEmpty(s)) return s;
-    String d = JsonUtils.optString(o, "localDate");
-    String t = JsonUtils.optString(o, "startTime");
-    String l = JsonUtils.optString(o, "slotStartLocal");
-    if (l == null) l = JsonUtils.optString(o, "SlotStartLocal");
-    if (!TextUtils.isEmpty(l)) return l;
-    if (!TextUtils.isEmpty(d) && !TextUtils.isEmpty(t)) return d + " · " + t;
-    if (!TextUtils.isEmpty(d)) return d;
-    return "(time unknown)";
+    // 3) Build sectioned rows using idToName & robust time parsing
+    return buildSectionedRows(arr, idToName);
   }
 
-  private String extractStationId(JSONObject o) {
-    String sid = JsonUtils.optString(o, "stationId");
-    if (sid == null) sid = JsonUtils.optString(o, "StationId");
-    if (sid != null) return sid;
-
-    JSONObject node = o.optJSONObject("StationId");
-    if (node != null) {
-      String oid = JsonUtils.optString(node, "$oid");
-      if (oid != null) return oid;
-    }
-
-    JSONObject st = o.optJSONObject("station");
-    if (st != null) {
-      String id = JsonUtils.optString(st, "id");
-      if (id == null) id = JsonUtils.optString(st, "_id");
-      if (id != null) return id;
-      JSONObject _id = st.optJSONObject("_id");
-      if (_id != null) {
-        String oid = JsonUtils.optString(_id, "$oid");
-        if (oid != null) return oid;
+  /** Sections (grouping, filters, time parsing) come from BookingSections; this only maps them to adapter rows. */
+  private List<BookingListAdapter.Row> buildSectionedRows(JSONArray arr, Map<String,String> idToName) {
+    ZoneId zone = ZoneId.systemDefault();
+    List<BookingSections.Section> sections = BookingSections.build(
+      arr, idToName, (String) spStatus.getSelectedItem(), filterFrom, filterTo, zone, LocalDate.now(zone));
+    List<BookingListAdapter.Row> out = new ArrayList<>();
+    for (BookingSections.Section sec : sections) {
+      out.add(new BookingListAdapter.HeaderRow(sec.title));
+      for (BookingSections.Item it : sec.items) {
+        out.add(new BookingListAdapter.ItemRow(it.id, it.station, it.when, it.status));
       }
     }
-
-    return null;
+    return out;
   }
 
   private void loadFilters() {
@@ -444,6 +311,7 @@ public final class BookingsFragment extends Fragment {
   }
 
   private void uiToast(String m) {
+    if (!isAdded()) return;
     requireActivity().runOnUiThread(() ->
       Toast.makeText(requireContext(), m, Toast.LENGTH_SHORT).show());
   }
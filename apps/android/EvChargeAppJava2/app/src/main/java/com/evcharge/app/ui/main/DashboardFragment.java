@@ -1,11 +1,13 @@
 package com.evcharge.app.ui.main;
 
 import android.content.Intent;
+import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
+import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -17,26 +19,29 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.geo.StationIndex;
+import com.evcharge.app.core.geo.StationPoint;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.notifications.NotificationStore;
+import com.evcharge.app.core.perf.StartupTracer;
+import com.evcharge.app.core.startup.StartupPrewarm;
+import com.evcharge.app.core.station.StationCatalog;
+import com.evcharge.app.core.station.StationLookup;
 import com.evcharge.app.core.util.JsonUtils;
+import com.evcharge.app.features.map.MapSnapshotRenderer;
 import com.evcharge.app.ui.booking.BookingDetailActivity;
 import com.evcharge.app.ui.booking.BookingListAdapter;
 import com.evcharge.app.ui.booking.CreateBookingActivity;
 import com.evcharge.app.ui.stations.NearbyMapActivity;
 import com.evcharge.app.ui.stations.StationDetailActivity;
-import com.google.android.gms.maps.CameraUpdateFactory;
-import com.google.android.gms.maps.GoogleMap;
-import com.google.android.gms.maps.MapView;
-import com.google.android.gms.maps.UiSettings;
-import com.google.android.gms.maps.model.BitmapDescriptorFactory;
-import com.google.android.gms.maps.model.LatLng;
-import com.google.android.gms.maps.model.MarkerOptions;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
@@ -44,7 +49,7 @@ public final class DashboardFragment extends Fragment {
 
   // UI
   private View cardMap;
-  private MapView mapView;
+  private ImageView imgMapPreview;
   private View btnTabBookings, btnTabStations;
   private View panelBookings, panelStations;
   private ImageButton btnNotif;
@@ -56,8 +61,10 @@ public final class DashboardFragment extends Fragment {
   private BookingListAdapter bookingsAdapter;
   private StationAdapter stationsAdapter;
 
-  // Maps
-  private GoogleMap previewMap;
+  // Map preview (static snapshot; the live map only exists in NearbyMapActivity)
+  private MapSnapshotRenderer mapRenderer;
+  private static final double PREVIEW_LAT = 6.9271, PREVIEW_LNG = 79.8612; // Colombo
+  private static final float PREVIEW_ZOOM = 12f;
 
   @Nullable
   @Override
@@ -69,26 +76,11 @@ public final class DashboardFragment extends Fragment {
 
     // --- Map preview ---
     cardMap = v.findViewById(R.id.cardMap);
-    mapView = v.findViewById(R.id.mapPreview);
-    if (mapView != null) {
-      mapView.onCreate(savedInstanceState);
-      mapView.getMapAsync(gm -> {
-        previewMap = gm;
-        // Make preview behave like a thumbnail (non-interactive)
-        UiSettings ui = gm.getUiSettings();
-        ui.setAllGesturesEnabled(false);
-        ui.setZoomControlsEnabled(false);
-        ui.setMapToolbarEnabled(false);
-        ui.setCompassEnabled(false);
-
-        LatLng colombo = new LatLng(6.9271, 79.8612);
-        gm.moveCamera(CameraUpdateFactory.newLatLngZoom(colombo, 12f));
-        loadMapPreview(colombo.latitude, colombo.longitude);
-
-        // Tapping the map preview opens the full map screen
-        gm.setOnMapClickListener(latLng ->
-          startActivity(new Intent(requireContext(), NearbyMapActivity.class)));
-      });
+    imgMapPreview = v.findViewById(R.id.imgMapPreview);
+    mapRenderer = new MapSnapshotRenderer(requireContext());
+    if (imgMapPreview != null) {
+      // Size is only known after layout
+      imgMapPreview.post(() -> loadMapPreview(PREVIEW_LAT, PREVIEW_LNG));
     }
 
     if (cardMap != null) {
@@ -161,47 +153,49 @@ public final class DashboardFragment extends Fragment {
   }
 
   // ---------- Map preview loader ----------
+  /**
+   * Pins come from the local catalogue index and are drawn onto a cached snapshot bitmap.
+   * The snapshot is re-composed only when the nearby station set changes; the base map is captured
+   * from a lite-mode MapView the first time this centre/size is shown.
+   */
   private void loadMapPreview(double lat, double lng) {
+    if (imgMapPreview == null || !isAdded()) return;
+    final int w = imgMapPreview.getWidth(), h = imgMapPreview.getHeight();
+    if (w <= 0 || h <= 0) return;
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    final MapSnapshotRenderer renderer = mapRenderer;
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response r =
-          api.stationsNearbyRaw(lat, lng, 5, "AC");
-        JSONArray arr = (r != null ? r.jsonArray : null);
-        if (arr == null && r != null && r.body != null) {
-          try { arr = new JSONArray(r.body); } catch (Exception ignored) {}
-        }
-        if (previewMap == null || arr == null) return;
-
-        for (int i = 0; i < Math.min(arr.length(), 5); i++) {
-          JSONObject o = arr.optJSONObject(i); if (o == null) continue;
-
-          String status = JsonUtils.optString(o, "status");
-          if (status == null) status = JsonUtils.optString(o, "Status");
-          if (status == null || !"active".equalsIgnoreCase(status)) continue;
-
-          double sLat = o.optDouble("lat", Double.NaN);
-          double sLng = o.optDouble("lng", Double.NaN);
-          if (Double.isNaN(sLat) || Double.isNaN(sLng)) continue;
-
-          String name = JsonUtils.optString(o, "name");
-          if (name == null) name = "Station";
-
-          final String title = name;
-          final double fl = sLat, flng = sLng;
-          requireActivity().runOnUiThread(() -> {
-            if (previewMap != null) {
-              previewMap.addMarker(new MarkerOptions()
-                .position(new LatLng(fl, flng))
-                .title(title)
-                .icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN)));
-            }
-          });
+        StationCatalog catalog = StationCatalog.get(appCtx);
+        List<StationIndex.Hit> hits = catalog.nearby(lat, lng, 5, null, 5);
+        postPreview(renderer.render(lat, lng, PREVIEW_ZOOM, w, h, hits));
+        if (!renderer.hasBase(lat, lng, PREVIEW_ZOOM, w, h)) captureMapBase(renderer, catalog, lat, lng, w, h);
+        if (catalog.refreshIfStale(ApiClient.get(appCtx))) {
+          postPreview(renderer.render(lat, lng, PREVIEW_ZOOM, w, h, catalog.nearby(lat, lng, 5, null, 5)));
         }
       } catch (Exception ignored) {}
     }).start();
   }
 
+  private void captureMapBase(MapSnapshotRenderer renderer, StationCatalog catalog, double lat, double lng, int w, int h) {
+    if (!isAdded()) return;
+    requireActivity().runOnUiThread(() -> {
+      if (!(cardMap instanceof ViewGroup) || !isAdded()) return;
+      renderer.captureBase((ViewGroup) cardMap, lat, lng, PREVIEW_ZOOM, w, h, () -> {
+        try {
+          postPreview(renderer.render(lat, lng, PREVIEW_ZOOM, w, h, catalog.nearby(lat, lng, 5, null, 5)));
+        } catch (Exception ignored) {}
+      });
+    });
+  }
+
+  private void postPreview(Bitmap bmp) {
+    if (bmp == null || !isAdded()) return;
+    requireActivity().runOnUiThread(() -> {
+      if (imgMapPreview != null) imgMapPreview.setImageBitmap(bmp);
+    });
+  }
+
   private void showTab(boolean bookings) {
     if (panelBookings != null) panelBookings.setVisibility(bookings ? View.VISIBLE : View.GONE);
     if (panelStations != null) panelStations.setVisibility(bookings ? View.GONE : View.VISIBLE);
@@ -212,80 +206,33 @@ public final class DashboardFragment extends Fragment {
   // ---------- Bookings (today only) ----------
   private void refreshBookingsToday() {
     setBusyBookings(true);
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    // Runs from onCreateView, before the view's lifecycle exists, so it's bound to the fragment's
+    final ApiClient api = ApiClient.get(appCtx).boundTo(this);
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response resp = api.bookingMineRaw();
+        StationLookup stations = StationLookup.get(appCtx);
+
+        // Paint the last known bookings first (no network), then replace with fresh data
+        JSONArray cached = BookingCache.get(appCtx).mine();
+        if (cached != null) postBookingRows(buildTodayRows(cached, stations, null), false);
+
+        // Reuse the request started during the splash when there is one
+        java.util.concurrent.Future<com.evcharge.app.core.net.HttpClient.Response> pre = StartupPrewarm.takeBookingsMine();
+        com.evcharge.app.core.net.HttpClient.Response resp = (pre != null) ? pre.get() : api.bookingMineRaw();
         if (!(resp.code >= 200 && resp.code < 300) || resp.jsonArray == null) {
+          if (!isAdded()) return;
           requireActivity().runOnUiThread(() -> {
             toast("Bookings failed: " + resp.code);
             setBusyBookings(false);
           });
           return;
         }
-        JSONArray arr = resp.jsonArray;
-
-        String todayYmd = ymd(Calendar.getInstance());
-        List<BookingListAdapter.Row> rows = new ArrayList<>();
-        rows.add(new BookingListAdapter.HeaderRow("Today"));
-
-        for (int i = 0; i < arr.length(); i++) {
-          JSONObject o = arr.optJSONObject(i); if (o == null) continue;
-
-          String id = JsonUtils.optString(o, "id");
-          if (id == null) id = JsonUtils.optString(o, "bookingId");
-          if (id == null) continue;
-
-          String station = JsonUtils.optString(o, "stationName");
-          if (station == null) {
-            String stId = JsonUtils.optString(o, "stationId");
-            if (stId == null) {
-              JSONObject stObj = o.optJSONObject("StationId");
-              if (stObj != null) stId = JsonUtils.optString(stObj, "$oid");
-            }
-            if (stId != null) {
-              try {
-                com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(stId);
-                if (d.jsonObject != null) {
-                  station = JsonUtils.optString(d.jsonObject, "name");
-                }
-              } catch (Exception ignored) {}
-            }
-          }
-          if (station == null) station = "Station";
-
-          String status = JsonUtils.optString(o, "status");
-          if (status == null) status = "-";
-
-          String local = JsonUtils.optString(o, "slotStartLocal");
-          if (local == null) local = JsonUtils.optString(o, "SlotStartLocal");
-
-          String dateYmd = null, hm = null;
-          if (local != null && local.length() >= 16) {
-            dateYmd = local.substring(0, 10);
-            hm = local.substring(11, 16);
-          } else {
-            String startUtc = JsonUtils.optString(o, "slotStartUtc");
-            if (startUtc == null) startUtc = JsonUtils.optString(o, "SlotStartUtc");
-            if (startUtc != null && startUtc.length() >= 16) {
-              dateYmd = startUtc.substring(0, 10);
-              hm = startUtc.substring(11, 16) + "Z";
-            }
-          }
-
-          if (todayYmd.equals(dateYmd)) {
-            String when = dateYmd + " · " + (hm != null ? hm : "??:??");
-            rows.add(new BookingListAdapter.ItemRow(id, station, when, status));
-          }
-        }
-
-        final boolean emptyToday = rows.size() <= 1;
-        requireActivity().runOnUiThread(() -> {
-          bookingsAdapter.setRows(rows);
-          tvBookingsEmpty.setVisibility(emptyToday ? View.VISIBLE : View.GONE);
-          setBusyBookings(false);
-        });
+        BookingCache.get(appCtx).putMine(resp.jsonArray);
+        // Re-read: mine() keeps bookings/changes still queued in BookingOutbox on top of the fresh list
+        postBookingRows(buildTodayRows(BookingCache.get(appCtx).mine(), stations, api), true);
       } catch (Exception e) {
+        if (!isAdded()) return;
         requireActivity().runOnUiThread(() -> {
           toast("Bookings error: " + e.getMessage());
           setBusyBookings(false);
@@ -294,6 +241,79 @@ public final class DashboardFragment extends Fragment {
     }).start();
   }
 
+  private void postBookingRows(List<BookingListAdapter.Row> rows, boolean done) {
+    if (!isAdded()) return;
+    final boolean emptyToday = rows.size() <= 1;
+    requireActivity().runOnUiThread(() -> {
+      bookingsAdapter.setRows(rows);
+      tvBookingsEmpty.setVisibility(emptyToday ? View.VISIBLE : View.GONE);
+      if (done) setBusyBookings(false);
+      if (done && StartupTracer.markOnce(StartupTracer.HOME_LIST_READY)) StartupTracer.flush(requireContext());
+    });
+  }
+
+  /**
+   * Today's rows from a /api/Booking/mine array. Station names come from the booking, then the
+   * local catalogue, then (only when api != null) a detail request.
+   */
+  private List<BookingListAdapter.Row> buildTodayRows(JSONArray arr, StationLookup stations, ApiClient api) {
+    String todayYmd = ymd(Calendar.getInstance());
+    List<BookingListAdapter.Row> rows = new ArrayList<>();
+    rows.add(new BookingListAdapter.HeaderRow("Today"));
+
+    for (int i = 0; i < arr.length(); i++) {
+      JSONObject o = arr.optJSONObject(i); if (o == null) continue;
+
+      String id = JsonUtils.optString(o, "id");
+      if (id == null) id = JsonUtils.optString(o, "bookingId");
+      if (id == null) continue;
+
+      String status = JsonUtils.optString(o, "status");
+      if (status == null) status = "-";
+
+      String local = JsonUtils.optString(o, "slotStartLocal");
+      if (local == null) local = JsonUtils.optString(o, "SlotStartLocal");
+
+      String dateYmd = null, hm = null;
+      if (local != null && local.length() >= 16) {
+        dateYmd = local.substring(0, 10);
+        hm = local.substring(11, 16);
+      } else {
+        String startUtc = JsonUtils.optString(o, "slotStartUtc");
+        if (startUtc == null) startUtc = JsonUtils.optString(o, "SlotStartUtc");
+        if (startUtc != null && startUtc.length() >= 16) {
+          dateYmd = startUtc.substring(0, 10);
+          hm = startUtc.substring(11, 16) + "Z";
+        }
+      }
+      if (!todayYmd.equals(dateYmd)) continue;
+
+      String station = JsonUtils.optString(o, "stationName");
+      if (station == null) {
+        String stId = JsonUtils.optString(o, "stationId");
+        if (stId == null) {
+          JSONObject stObj = o.optJSONObject("StationId");
+          if (stObj != null) stId = JsonUtils.optString(stObj, "$oid");
+        }
+        station = stations.nameOf(stId);
+        if (station == null && stId != null && api != null) {
+          try {
+            com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(stId);
+            if (d.jsonObject != null) {
+              station = JsonUtils.optString(d.jsonObject, "name");
+            }
+          } catch (Exception ignored) {}
+        }
+      }
+      if (station == null) station = "Station";
+
+      String when = dateYmd + " · " + (hm != null ? hm : "??:??");
+      rows.add(new BookingListAdapter.ItemRow(id, station, when, status));
+    }
+    return rows;
+  }
+
+
   private void setBusyBookings(boolean b) {
     if (!isAdded()) return;
     requireActivity().runOnUiThread(() -> {
@@ -303,84 +323,20 @@ public final class DashboardFragment extends Fragment {
   }
 
   // ---------- Stations (active only) ----------
+  /** Active stations from the local catalogue; the network is only used when it is missing or stale. */
   private void refreshStationsActive() {
     setBusyStations(true);
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    // Not bound to this screen: the map preview may be waiting on the same catalogue refresh
+    final ApiClient api = ApiClient.get(appCtx).unbound();
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response r = api.stationsAllRaw();
-
-        JSONArray arr = r.jsonArray;
-        JSONObject root = r.jsonObject;
-        if (arr == null) {
-          if (root == null && r.body != null && !r.body.trim().isEmpty()) {
-            try { arr = new JSONArray(r.body); } catch (Exception ignored) {
-              try { root = new JSONObject(r.body); } catch (Exception ignored2) {}
-            }
-          }
-          if (arr == null && root != null) {
-            String[] keys = new String[]{"items","data","results","stations","value"};
-            for (String k : keys) {
-              JSONArray cand = root.optJSONArray(k);
-              if (cand != null) { arr = cand; break; }
-            }
-            if (arr == null) {
-              for (java.util.Iterator<String> it = root.keys(); it.hasNext();) {
-                String k = it.next();
-                Object v = root.opt(k);
-                if (v instanceof JSONArray) { arr = (JSONArray) v; break; }
-              }
-            }
-          }
-        }
-
-        final List<String> stationIds = new ArrayList<>();
-        final List<String> stationNames = new ArrayList<>();
-
-        if (arr != null) {
-          for (int i = 0; i < arr.length(); i++) {
-            JSONObject o = arr.optJSONObject(i); if (o == null) continue;
-
-            String id = JsonUtils.optString(o,"id");
-            if (id == null) {
-              JSONObject m = o.optJSONObject("_id");
-              if (m != null) id = JsonUtils.optString(m, "$oid");
-            }
-            if (id == null) id = JsonUtils.optString(o, "stationId");
-            if (id == null) continue;
-
-            String name = JsonUtils.optString(o,"name");
-            if (name == null) name = JsonUtils.optString(o,"Name");
-            if (name == null) name = "Station";
-
-            String status = JsonUtils.optString(o,"status");
-            if (status == null) status = JsonUtils.optString(o,"Status");
-
-            if (status == null) {
-              try {
-                com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(id);
-                if (d.jsonObject != null) {
-                  status = JsonUtils.optString(d.jsonObject,"status");
-                  if (status == null) status = JsonUtils.optString(d.jsonObject,"Status");
-                  String dn = JsonUtils.optString(d.jsonObject,"name");
-                  if (dn != null) name = dn;
-                }
-              } catch (Exception ignored) {}
-            }
-
-            if (status != null && "active".equalsIgnoreCase(status)) {
-              stationIds.add(id);
-              stationNames.add(name);
-            }
-          }
-        }
-
-        requireActivity().runOnUiThread(() -> {
-          stationsAdapter.setRows(stationIds, stationNames);
-          tvStationsEmpty.setVisibility(stationIds.isEmpty() ? View.VISIBLE : View.GONE);
-          setBusyStations(false);
-        });
+        StationCatalog catalog = StationCatalog.get(appCtx);
+        boolean shown = !catalog.isEmpty();
+        if (shown) postStations(catalog.index());
+        if (catalog.refreshIfStale(api) || !shown) postStations(catalog.index());
       } catch (Exception e) {
+        if (!isAdded()) return;
         requireActivity().runOnUiThread(() -> {
           toast("Stations error: " + e.getMessage());
           setBusyStations(false);
@@ -389,6 +345,27 @@ public final class DashboardFragment extends Fragment {
     }).start();
   }
 
+  private void postStations(StationIndex index) {
+    List<StationPoint> active = new ArrayList<>();
+    for (StationPoint p : index.withIds()) if (p.isActive()) active.add(p);
+    Collections.sort(active, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(nameOf(a), nameOf(b)));
+    final List<String> stationIds = new ArrayList<>(active.size());
+    final List<String> stationNames = new ArrayList<>(active.size());
+    for (StationPoint p : active) {
+      stationIds.add(p.id);
+      stationNames.add(nameOf(p));
+    }
+    if (!isAdded()) return;
+    requireActivity().runOnUiThread(() -> {
+      if (stationsAdapter == null) return;
+      stationsAdapter.setRows(stationIds, stationNames);
+      tvStationsEmpty.setVisibility(stationIds.isEmpty() ? View.VISIBLE : View.GONE);
+      setBusyStations(false);
+    });
+  }
+
+  private static String nameOf(StationPoint p) { return p.name != null ? p.name : "Station"; }
+
   private void setBusyStations(boolean b) {
     if (!isAdded()) return;
     requireActivity().runOnUiThread(() -> {
@@ -398,22 +375,37 @@ public final class DashboardFragment extends Fragment {
   }
 
   // ---------- Notifications badge ----------
+  /** Renders from the in-memory unread count; only syncs when the local store is stale. */
   private void refreshBadge() {
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    NotificationStore store = NotificationStore.get(appCtx);
+    int cached = store.cachedUnread();
+    if (cached >= 0) renderBadge(cached);
+    if (cached >= 0 && !store.needsSync()) return;
+
     new Thread(() -> {
       try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response r = api.notificationsListRaw(true, 1, 1);
-        int total = 0;
-        if (r != null && r.jsonObject != null) total = r.jsonObject.optInt("total", 0);
-        final int badge = Math.max(0, total);
-        requireActivity().runOnUiThread(() -> {
-          tvBadge.setVisibility(badge > 0 ? View.VISIBLE : View.GONE);
-          tvBadge.setText(String.valueOf(badge));
-        });
+        int before = store.unreadCount();
+        postBadge(before);
+        if (store.syncIfStale(ApiClient.get(appCtx))) {
+          int after = store.unreadCount();
+          if (after != before) postBadge(after);
+        }
       } catch (Exception ignored) {}
     }).start();
   }
 
+  private void postBadge(int count) {
+    if (!isAdded()) return;
+    requireActivity().runOnUiThread(() -> renderBadge(count));
+  }
+
+  private void renderBadge(int count) {
+    if (tvBadge == null) return;
+    tvBadge.setVisibility(count > 0 ? View.VISIBLE : View.GONE);
+    tvBadge.setText(String.valueOf(count));
+  }
+
   private static String ymd(Calendar c) {
     return String.format(Locale.US, "%04d-%02d-%02d",
       c.get(Calendar.YEAR), c.get(Calendar.MONTH) + 1, c.get(Calendar.DAY_OF_MONTH));
@@ -470,21 +462,10 @@ public final class DashboardFragment extends Fragment {
     }
   }
 
-  // ---- MapView lifecycle wiring ----
-  @Override public void onResume() {
-    super.onResume();
-    if (mapView != null) mapView.onResume();
-  }
-  @Override public void onPause() {
-    if (mapView != null) mapView.onPause();
-    super.onPause();
-  }
   @Override public void onDestroyView() {
-    if (mapView != null) mapView.onDestroy();
+    if (mapRenderer != null) mapRenderer.release();
+    imgMapPreview = null;
+    cardMap = null;
     super.onDestroyView();
   }
-  @Override public void onLowMemory() {
-    super.onLowMemory();
-    if (mapView != null) mapView.onLowMemory();
-  }
 }
@@ -8,6 +8,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.perf.StartupTracer;
 
 public final class MainActivity extends AppCompatActivity {
 
@@ -16,6 +17,7 @@ public final class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTracer.mark(StartupTracer.HOME_CREATE);
         setContentView(R.layout.activity_main);
 
         btnTabDash = findViewById(R.id.btnTabDash);
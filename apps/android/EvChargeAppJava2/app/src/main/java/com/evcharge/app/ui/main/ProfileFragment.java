@@ -3,7 +3,6 @@ package com.evcharge.app.ui.main;
 import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,9 +16,14 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.BookingOutbox;
 import com.evcharge.app.core.db.UserDao;
 import com.evcharge.app.core.db.UserDao.UserRecord;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.notifications.NotificationStore;
+import com.evcharge.app.core.platform.AndroidPlatform;
+import com.evcharge.app.core.sync.SyncScheduler;
 import com.evcharge.app.core.prefs.AppPrefs;
 import com.evcharge.app.core.security.JwtStore;
 import com.evcharge.app.core.util.JsonUtils;
@@ -56,8 +60,11 @@ public final class ProfileFragment extends Fragment {
     btnDeactivate.setOnClickListener(view -> confirmDeactivate());
     btnLogout.setOnClickListener(view -> {
       // Clear auth + active NIC
-      new JwtStore(requireContext().getApplicationContext()).clear();
+      AndroidPlatform.jwtStore(requireContext()).clear();
       new AppPrefs(requireContext().getApplicationContext()).clearActiveNic();
+      BookingCache.get(requireContext()).clear();
+      BookingOutbox.get(requireContext()).dropPending();
+      clearNotificationsAsync();
       // Optional: also remove local snapshot row for this NIC
       try {
         if (currentNic != null && !currentNic.isEmpty()) {
@@ -88,19 +95,13 @@ public final class ProfileFragment extends Fragment {
     // 2) Fallback: decode JWT for nic/sub (ignore emails)
     if (nic == null) {
       try {
-        String token = new JwtStore(requireContext().getApplicationContext()).getToken();
-        if (token != null && token.contains(".")) {
-          String[] parts = token.split("\\.");
-          if (parts.length >= 2) {
-            String payload = new String(Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING));
-            JSONObject p = JsonUtils.parseObject(payload);
-            if (p != null) {
-              String candidate = JsonUtils.optString(p, "nic");
-              if (candidate == null) candidate = JsonUtils.optString(p, "sub");
-              if (candidate != null && candidate.contains("@")) candidate = null; // not a NIC
-              nic = candidate;
-            }
-          }
+        String token = AndroidPlatform.jwtStore(requireContext()).getToken();
+        JSONObject p = token != null ? JwtStore.decodePayload(token) : null;
+        if (p != null) {
+          String candidate = JsonUtils.optString(p, "nic");
+          if (candidate == null) candidate = JsonUtils.optString(p, "sub");
+          if (candidate != null && candidate.contains("@")) candidate = null; // not a NIC
+          nic = candidate;
         }
       } catch (Exception ignored) {}
     }
@@ -137,9 +138,10 @@ public final class ProfileFragment extends Fragment {
   }
 
   private void doLoad(String nic) {
+    final ApiClient api = ApiClient.get(requireContext().getApplicationContext()).boundTo(getViewLifecycleOwner());
     new Thread(() -> {
-      ApiClient api = new ApiClient(requireContext().getApplicationContext());
       ApiClient.Result r = api.ownerGet(nic);
+      if (!isAdded()) return;
       requireActivity().runOnUiThread(() -> {
         if (!r.ok || r.json == null) {
           toast(r.message != null ? r.message : "Load failed");
@@ -198,9 +200,10 @@ public final class ProfileFragment extends Fragment {
     } catch (Exception ignored) {}
 
     btnSave.setEnabled(false);
+    final ApiClient api = ApiClient.get(requireContext().getApplicationContext()).unbound();
     new Thread(() -> {
-      ApiClient api = new ApiClient(requireContext().getApplicationContext());
       ApiClient.Result r = api.ownerUpdate(currentNic, body);
+      if (!isAdded()) return;
       requireActivity().runOnUiThread(() -> {
         btnSave.setEnabled(true);
         String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
@@ -225,17 +228,21 @@ public final class ProfileFragment extends Fragment {
 
   private void doDeactivate() {
     btnDeactivate.setEnabled(false);
+    final ApiClient api = ApiClient.get(requireContext().getApplicationContext()).unbound();
     new Thread(() -> {
-      ApiClient api = new ApiClient(requireContext().getApplicationContext());
       ApiClient.Result r = api.ownerDeactivate(currentNic);
+      if (!isAdded()) return;
       requireActivity().runOnUiThread(() -> {
         btnDeactivate.setEnabled(true);
         String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
         toast("Deactivate: " + r.code + (detail.isEmpty() ? "" : " · " + shrink(detail, 140)));
         if (r.ok) {
           // After deactivation, log out
-          new JwtStore(requireContext().getApplicationContext()).clear();
+          AndroidPlatform.jwtStore(requireContext()).clear();
           new AppPrefs(requireContext().getApplicationContext()).clearActiveNic();
+          BookingCache.get(requireContext()).clear();
+          BookingOutbox.get(requireContext()).dropPending();
+          clearNotificationsAsync();
           try {
             new UserDao(requireContext().getApplicationContext()).deleteByIdKey(currentNic);
           } catch (Exception ignored) {}
@@ -252,6 +259,13 @@ public final class ProfileFragment extends Fragment {
     return (s != null && s.length() > max) ? s.substring(0, max) + "…" : (s != null ? s : "");
   }
 
+  /** Notifications belong to the signed-in NIC; drop the local copy and background sync on logout. */
+  private void clearNotificationsAsync() {
+    final android.content.Context appCtx = requireContext().getApplicationContext();
+    SyncScheduler.cancel(appCtx);
+    new Thread(() -> NotificationStore.get(appCtx).clear()).start();
+  }
+
   private void toast(String m){
     Toast.makeText(requireContext(), m, Toast.LENGTH_LONG).show();
   }
@@ -19,11 +19,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.db.NotificationDao.NotificationRecord;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.notifications.NotificationPager;
+import com.evcharge.app.core.notifications.NotificationStore;
 import com.evcharge.app.core.util.JsonUtils;
 import com.evcharge.app.ui.booking.BookingDetailActivity;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.text.ParsePosition;
@@ -34,7 +36,8 @@ import java.util.Locale;
 import java.util.TimeZone;
 
 /**
- * Lists unread notifications (page 1, up to 20).
+ * Infinite-scroll notifications list (unread by default, "Show all" includes read ones).
+ * - Pages come from NotificationPager: local store first, server pages only when it runs out.
  * - Tap an item: mark as read; if bookingId in payload -> open BookingDetailActivity.
  * - "Mark all as read" button clears all.
  * - On dismiss: emits fragment result "notifDismiss" so Dashboard can refresh badge.
@@ -43,10 +46,12 @@ public final class NotificationsDialog extends DialogFragment {
 
   private RecyclerView rv;
   private ProgressBar progress;
-  private TextView tvEmpty, btnMarkAll;
+  private TextView tvEmpty, btnMarkAll, btnShowAll;
 
   private final List<NotifRow> rows = new ArrayList<>();
   private Adapter adapter;
+  private NotificationPager pager;
+  private boolean showAll = false;
 
   @NonNull @Override
   public Dialog onCreateDialog(@Nullable Bundle savedInstanceState) {
@@ -57,12 +62,19 @@ public final class NotificationsDialog extends DialogFragment {
     progress = content.findViewById(R.id.progress);
     tvEmpty = content.findViewById(R.id.tvEmpty);
     btnMarkAll = content.findViewById(R.id.btnMarkAll);
+    btnShowAll = content.findViewById(R.id.btnShowAll);
 
     rv.setLayoutManager(new LinearLayoutManager(requireContext()));
-    adapter = new Adapter(rows, (id, bookingId) -> onClickItem(id, bookingId));
+    adapter = new Adapter(rows, (id, bookingId) -> onClickItem(id, bookingId),
+      pos -> { if (pager != null) pager.onItemBound(pos); });
     rv.setAdapter(adapter);
 
     btnMarkAll.setOnClickListener(v -> markAllRead());
+    btnShowAll.setOnClickListener(v -> {
+      showAll = !showAll;
+      btnShowAll.setText(showAll ? "Unread only" : "Show all");
+      restartPager();
+    });
 
     AlertDialog dlg = new AlertDialog.Builder(requireContext())
       .setView(content)
@@ -73,6 +85,12 @@ public final class NotificationsDialog extends DialogFragment {
     return dlg;
   }
 
+  @Override
+  public void onDestroyView() {
+    if (pager != null) { pager.close(); pager = null; }
+    super.onDestroyView();
+  }
+
   @Override
   public void onDismiss(@NonNull android.content.DialogInterface dialog) {
     super.onDismiss(dialog);
@@ -89,7 +107,7 @@ public final class NotificationsDialog extends DialogFragment {
     final String message;
     final String bookingId;    // from payload.bookingId (if present)
     final String createdAtUtc;
-    boolean read;              // not used now (we load unreadOnly), but we gray out after click
+    boolean read;              // dimmed in the list
 
     NotifRow(String id, String subject, String message, String bookingId, String createdAtUtc, boolean read) {
       this.id = id; this.subject = subject; this.message = message;
@@ -97,62 +115,79 @@ public final class NotificationsDialog extends DialogFragment {
     }
   }
 
-  // ------- Networking -------
+  // ------- Data -------
+
+  /** Start paging from the local store, then sync in the background if the store is stale. */
   private void load() {
-    setBusy(true);
+    final Context appCtx = requireContext().getApplicationContext();
+    final NotificationStore store = NotificationStore.get(appCtx);
+    restartPager();
+    if (!store.needsSync()) return;
+
+    final ApiClient api = ApiClient.get(appCtx).boundTo(this);
     new Thread(() -> {
-      try {
-        ApiClient api = new ApiClient(requireContext().getApplicationContext());
-        // unreadOnly=true, first page, up to 20
-        com.evcharge.app.core.net.HttpClient.Response r = api.notificationsListRaw(true, 1, 20);
-        final List<NotifRow> tmp = new ArrayList<>();
-
-        if (r != null && r.jsonObject != null) {
-          JSONArray items = r.jsonObject.optJSONArray("items");
-          if (items != null) {
-            for (int i = 0; i < items.length(); i++) {
-              JSONObject o = items.optJSONObject(i); if (o == null) continue;
-              String id = JsonUtils.optString(o, "id");
-              String subj = JsonUtils.optString(o, "subject");
-              String msg = JsonUtils.optString(o, "message");
-              String created = JsonUtils.optString(o, "createdAtUtc");
-              String bookingId = null;
-              JSONObject payload = o.optJSONObject("payload");
-              if (payload != null) {
-                bookingId = JsonUtils.optString(payload, "bookingId");
-              }
-              boolean read = o.has("readAtUtc") && !o.isNull("readAtUtc");
-              if (id != null) tmp.add(new NotifRow(id, subj, msg, bookingId, created, read));
-            }
-          }
-        }
+      boolean ok = store.sync(api);
+      List<NotificationRecord> newest = store.list(!showAll, 1, null);
+      if (!isAdded()) return;
+      requireActivity().runOnUiThread(() -> {
+        if (!ok) { toast("Couldn't refresh notifications"); return; }
+        // Something new arrived on top: reload from the first page
+        String top = rows.isEmpty() ? null : rows.get(0).id;
+        String newTop = newest.isEmpty() ? null : newest.get(0).id;
+        if (newTop != null && !newTop.equals(top)) restartPager();
+      });
+    }).start();
+  }
 
-        requireActivity().runOnUiThread(() -> {
-          rows.clear(); rows.addAll(tmp);
-          adapter.notifyDataSetChanged();
-          tvEmpty.setVisibility(rows.isEmpty() ? View.VISIBLE : View.GONE);
+  private void restartPager() {
+    if (pager != null) pager.close();
+    rows.clear();
+    adapter.notifyDataSetChanged();
+    tvEmpty.setVisibility(View.GONE);
+    setBusy(true);
+
+    final Context appCtx = requireContext().getApplicationContext();
+    pager = new NotificationPager(NotificationStore.get(appCtx), ApiClient.get(appCtx), !showAll,
+      new NotificationPager.Listener() {
+        @Override public void onItems(List<NotificationRecord> items, boolean endReached) {
+          int start = rows.size();
+          for (int i = start; i < items.size(); i++) rows.add(toRow(items.get(i)));
+          if (items.size() > start) adapter.notifyItemRangeInserted(start, items.size() - start);
+          tvEmpty.setVisibility(rows.isEmpty() && endReached ? View.VISIBLE : View.GONE);
           setBusy(false);
-        });
-      } catch (Exception e) {
-        requireActivity().runOnUiThread(() -> {
-          toast("Notifications error: " + e.getMessage());
+        }
+        @Override public void onError(String message) {
           setBusy(false);
-        });
-      }
-    }).start();
+          toast(message);
+        }
+      });
+    pager.start();
+  }
+
+  private static NotifRow toRow(NotificationRecord r) {
+    String bookingId = null;
+    JSONObject payload = (r.payloadJson != null) ? JsonUtils.parseObject(r.payloadJson) : null;
+    if (payload != null) bookingId = JsonUtils.optString(payload, "bookingId");
+    return new NotifRow(r.id, r.subject, r.message, bookingId, r.createdAtUtc, r.isRead());
   }
 
   private void markAllRead() {
     setBusy(true);
+    final Context appCtx = requireContext().getApplicationContext();
     new Thread(() -> {
-      ApiClient api = new ApiClient(requireContext().getApplicationContext());
-      ApiClient.Result r = api.notificationsMarkAllRead();
+      ApiClient.Result r = ApiClient.get(appCtx).unbound().notificationsMarkAllRead();
+      if (r.ok) NotificationStore.get(appCtx).markAllReadLocal();
+      if (!isAdded()) return;
       requireActivity().runOnUiThread(() -> {
         setBusy(false);
         if (r.ok) {
-          rows.clear();
+          if (showAll) {
+            for (NotifRow row : rows) row.read = true;
+          } else {
+            rows.clear();
+            tvEmpty.setVisibility(View.VISIBLE);
+          }
           adapter.notifyDataSetChanged();
-          tvEmpty.setVisibility(View.VISIBLE);
           toast("Marked all as read");
         } else {
           toast("Failed: " + r.code);
@@ -167,13 +202,12 @@ public final class NotificationsDialog extends DialogFragment {
     for (int i = 0; i < rows.size(); i++) {
       if (id.equals(rows.get(i).id)) { idx = i; break; }
     }
+    final Context appCtx = requireContext().getApplicationContext();
+    if (idx >= 0 && !rows.get(idx).read) NotificationStore.get(appCtx).decrementUnread();
     if (idx >= 0) { rows.get(idx).read = true; adapter.notifyItemChanged(idx); }
 
-    // Mark read on server
-    new Thread(() -> {
-      ApiClient api = new ApiClient(requireContext().getApplicationContext());
-      api.notificationMarkRead(id); // ignore result (best-effort)
-    }).start();
+    // Local store + persisted queue; ReadBatcher sends it with other taps in one call
+    new Thread(() -> NotificationStore.get(appCtx).markReadLocal(id)).start();
 
     // Deep link if bookingId present
     if (bookingId != null && !bookingId.isEmpty()) {
@@ -202,15 +236,19 @@ public final class NotificationsDialog extends DialogFragment {
   // ------- Adapter -------
   private static final class Adapter extends RecyclerView.Adapter<Adapter.VH> {
     interface Click { void onClick(String id, @Nullable String bookingId); }
-    private final List<NotifRow> rows; private final Click click;
-    Adapter(List<NotifRow> rows, Click click){ this.rows = rows; this.click = click; }
+    interface Bound { void onBound(int position); }
+    private final List<NotifRow> rows; private final Click click; private final Bound bound;
+    Adapter(List<NotifRow> rows, Click click, Bound bound){ this.rows = rows; this.click = click; this.bound = bound; }
 
     @NonNull @Override public VH onCreateViewHolder(@NonNull ViewGroup p, int vType) {
       View v = LayoutInflater.from(p.getContext()).inflate(R.layout.item_notif, p, false);
       return new VH(v, click);
     }
 
-    @Override public void onBindViewHolder(@NonNull VH h, int pos) { h.bind(rows.get(pos)); }
+    @Override public void onBindViewHolder(@NonNull VH h, int pos) {
+      h.bind(rows.get(pos));
+      bound.onBound(pos); // prefetch trigger
+    }
 
     @Override public int getItemCount() { return rows.size(); }
 
@@ -234,7 +272,7 @@ public final class NotificationsDialog extends DialogFragment {
         tvMsg.setText(r.message != null ? r.message : "");
         tvTime.setText(relTime(r.createdAtUtc));
 
-        // Dim if read (defensive; list is unread, but we dim after click)
+        // Dim read items ("Show all" mode, or right after a click)
         itemView.setAlpha(r.read ? 0.5f : 1f);
       }
 
@@ -11,7 +11,6 @@ import android.os.Vibrator;
 import android.text.InputType;
 import android.view.LayoutInflater;
 import android.view.View;
-import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.LinearLayout;
@@ -29,11 +28,17 @@ import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.InboxCache;
+import com.evcharge.app.core.geo.StationPoint;
 import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.perf.StartupTracer;
+import com.evcharge.app.core.platform.AndroidPlatform;
+import com.evcharge.app.core.startup.StartupPrewarm;
+import com.evcharge.app.core.sync.SyncScheduler;
 import com.evcharge.app.core.prefs.AppPrefs;
-import com.evcharge.app.core.security.JwtStore;
 import com.evcharge.app.core.util.JsonUtils;
 import com.evcharge.app.ui.auth.LoginActivity;
+import com.evcharge.app.ui.stations.StationSearchAdapter;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import org.json.JSONArray;
@@ -115,6 +120,7 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
   private final Map<String, Station> stationsById = new HashMap<>();
   private final List<Station> stationList = new ArrayList<>();
   private Station selectedStation = null;
+  private StationSearchAdapter stationSearchAdapter;
 
   // Inbox cache (raw)
   private JSONArray inboxRaw = new JSONArray();
@@ -125,9 +131,10 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
+    StartupTracer.mark(StartupTracer.HOME_CREATE);
     setContentView(R.layout.activity_operator_one);
 
-    api = new ApiClient(getApplicationContext());
+    api = ApiClient.get(getApplicationContext());
     prefs = new AppPrefs(getApplicationContext());
 
     stationSearch = findViewById(R.id.stationSearch);
@@ -147,7 +154,7 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
     btnScanClose = findViewById(R.id.btnScanClose);
 
     // Guard auth
-    if (!new JwtStore(getApplicationContext()).isValid()) {
+    if (!AndroidPlatform.jwtStore(this).isValid()) {
       toast("Session expired. Please log in again.");
       startActivity(new Intent(this, LoginActivity.class));
       finish();
@@ -188,7 +195,9 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
 
   private void doLogout() {
     try { stopScanning(); } catch (Exception ignore) {}
-    try { new JwtStore(getApplicationContext()).clear(); } catch (Exception ignore) {}
+    try { AndroidPlatform.jwtStore(this).clear(); } catch (Exception ignore) {}
+    try { SyncScheduler.cancel(getApplicationContext()); } catch (Exception ignore) {}
+    try { InboxCache.get(getApplicationContext()).clear(); } catch (Exception ignore) {}
     try {
       AppPrefs p = new AppPrefs(getApplicationContext());
       p.clearActiveUser();
@@ -216,11 +225,12 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
       return;
     }
 
-    // Load meta for each station (authed GET /api/Station/{id})
+    // Load meta for each station (authed GET /api/Station/{id}); leaving the screen aborts the rest
+    final ApiClient reads = api.boundTo(this);
     new Thread(() -> {
       for (String id : ids) {
         try {
-          ApiClient.Result r = api.stationDetailAuthed(id);
+          ApiClient.Result r = reads.stationDetailAuthed(id);
           if (r.ok && r.json != null) {
             String name = JsonUtils.optString(r.json, "name");
             double lat = 6.9271, lng = 79.8612;
@@ -250,22 +260,31 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
   }
 
   private void bindStationDropdown() {
-    List<String> names = new ArrayList<>();
-    for (Station s : stationList) names.add(s.name != null ? s.name : s.id);
-    ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, names);
+    // FTS-backed search limited to this operator's stations; details fetched above cover any
+    // station missing from the cached public catalogue
+    List<StationPoint> mine = new ArrayList<>();
+    for (Station s : stationList) mine.add(new StationPoint(s.id, s.name, null, null, null, s.lat, s.lng, 0, 0, null));
+    StationSearchAdapter adapter = new StationSearchAdapter(this, stationsById.keySet(), false);
+    adapter.setExtras(mine);
+    stationSearchAdapter = adapter;
     stationSearch.setAdapter(adapter);
+    stationSearch.setThreshold(1);
     stationSearch.setOnItemClickListener((parent, view, position, id) -> {
-      if (position >= 0 && position < stationList.size()) {
-        setSelectedStation(stationList.get(position));
+      Station s = stationsById.get(adapter.getItem(position).station.id);
+      if (s != null) {
+        setSelectedStation(s);
         refreshInbox();
       }
     });
-    // Enable type-to-filter
-    stationSearch.setOnFocusChangeListener((v, hasFocus) -> { if (hasFocus) stationSearch.showDropDown(); });
+    // Focus shows every assigned station (nearest to the current one first)
+    stationSearch.setOnFocusChangeListener((v, hasFocus) -> {
+      if (hasFocus) { adapter.getFilter().filter(null); stationSearch.showDropDown(); }
+    });
   }
 
   private void setSelectedStation(Station s) {
     selectedStation = s;
+    if (stationSearchAdapter != null) stationSearchAdapter.setOrigin(s.lat, s.lng);
     stationSearch.setText(s.name != null ? s.name : s.id, false);
     updateMapPin();
   }
@@ -281,9 +300,19 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
   private void refreshInbox() {
     if (selectedStation == null) { swipe.setRefreshing(false); return; }
     final String today = todayYmd();
+    final ApiClient reads = api.boundTo(this);
 
     new Thread(() -> {
-      ApiClient.Result r = api.operatorInbox(today);
+      // Paint the background-synced copy first if we have nothing on screen yet
+      if (inboxRaw == null || inboxRaw.length() == 0) {
+        JSONArray cached = InboxCache.get(getApplicationContext()).forDay(today);
+        if (cached != null) runOnUiThread(() -> { inboxRaw = cached; applyFiltersAndRender(); });
+      }
+      ApiClient.Result r = fetchInbox(reads, today);
+      if (r.ok) {
+        JSONArray fresh = tryParseArray(r.body);
+        if (fresh != null) InboxCache.get(getApplicationContext()).put(today, fresh);
+      }
       runOnUiThread(() -> {
         swipe.setRefreshing(false);
         if (!r.ok) {
@@ -395,7 +424,7 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
         body.put("bookingId", bookingId);
         body.put("reason", reason);
         body.put("notes", notes);
-        ApiClient.Result r = api.postAuthed("/api/Operator/exception", body);
+        ApiClient.Result r = api.unbound().postAuthed("/api/Operator/exception", body);
         runOnUiThread(() -> {
           setBusy(false);
           if (r.ok) {
@@ -500,11 +529,12 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
   private void onTokenCaptured(String qrToken) {
     // Verify then confirm flow
     setBusy(true);
+    final ApiClient reads = api.boundTo(this); // verify has no side effects; confirm below does
     new Thread(() -> {
       try {
         JSONObject body = new JSONObject();
         body.put("qrToken", qrToken);
-        ApiClient.Result vr = api.postAuthed("/api/Qr/verify", body);
+        ApiClient.Result vr = reads.postAuthed("/api/Qr/verify", body);
         runOnUiThread(() -> {
           if (!vr.ok || vr.json == null) {
             setBusy(false);
@@ -552,7 +582,7 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
         JSONObject body = new JSONObject();
         body.put("qrToken", qrToken);
         body.put("bookingId", bookingId);
-        ApiClient.Result r = api.postAuthed("/api/Operator/scan", body);
+        ApiClient.Result r = api.unbound().postAuthed("/api/Operator/scan", body);
         runOnUiThread(() -> {
           setBusy(false);
           if (r.ok) {
@@ -588,6 +618,15 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
 
   private void toast(String m) { Toast.makeText(this, m, Toast.LENGTH_LONG).show(); }
   private int dp(int v) { return Math.round(v * getResources().getDisplayMetrics().density); }
+  /** First load after the splash reuses the prewarmed request; later loads go to the network. */
+  private ApiClient.Result fetchInbox(ApiClient reads, String ymd) {
+    java.util.concurrent.Future<ApiClient.Result> pre = StartupPrewarm.takeOperatorInbox(ymd);
+    if (pre != null) {
+      try { return pre.get(); } catch (Exception ignored) {}
+    }
+    return reads.operatorInbox(ymd);
+  }
+
   private String todayYmd() { java.text.SimpleDateFormat f = new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.US); return f.format(new java.util.Date()); }
 
   private void vibrateShort() {
@@ -636,6 +675,7 @@ public final class OperatorOneActivity extends ComponentActivity implements OnMa
     @Override public void onBindViewHolder(@NonNull BookingVH h, int pos) {
       JSONObject b = items.get(pos);
       h.bind(b);
+      if (StartupTracer.markOnce(StartupTracer.FIRST_ROW_BIND)) StartupTracer.flush(h.itemView.getContext());
     }
     @Override public int getItemCount(){ return items.size(); }
   }
@@ -58,10 +58,11 @@ public final class OwnerProfileActivity extends AppCompatActivity {
     if (nic.isEmpty()) { toast("Enter NIC"); return; }
 
     btnLoad.setEnabled(false);
+    final ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this);
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
       ApiClient.Result r = api.ownerGet(nic);
       runOnUiThread(() -> {
+        if (isDestroyed()) return;
         btnLoad.setEnabled(true);
         if (!r.ok || r.json == null) {
           toast(r.message != null ? r.message : "Load failed");
@@ -107,9 +108,9 @@ public final class OwnerProfileActivity extends AppCompatActivity {
     } catch (Exception ignored) {}
 
     btnSave.setEnabled(false);
+    final ApiClient api = ApiClient.get(getApplicationContext());
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
-      ApiClient.Result r = api.ownerUpdate(nic, body);
+      ApiClient.Result r = api.unbound().ownerUpdate(nic, body);
       runOnUiThread(() -> {
         btnSave.setEnabled(true);
         String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
@@ -135,9 +136,9 @@ public final class OwnerProfileActivity extends AppCompatActivity {
   /** Actual API call **/
   private void doDeactivate(String nic) {
     btnDeactivate.setEnabled(false);
+    final ApiClient api = ApiClient.get(getApplicationContext());
     new Thread(() -> {
-      ApiClient api = new ApiClient(getApplicationContext());
-      ApiClient.Result r = api.ownerDeactivate(nic);
+      ApiClient.Result r = api.unbound().ownerDeactivate(nic);
       runOnUiThread(() -> {
         btnDeactivate.setEnabled(true);
         String detail = (r.body != null ? r.body : (r.message != null ? r.message : ""));
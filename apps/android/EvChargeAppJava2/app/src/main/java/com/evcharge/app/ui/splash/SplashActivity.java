@@ -4,22 +4,28 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.view.View;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.perf.StartupTracer;
+import com.evcharge.app.core.platform.AndroidPlatform;
 import com.evcharge.app.core.prefs.AppPrefs;
 import com.evcharge.app.core.security.JwtStore;
+import com.evcharge.app.core.startup.StartupPrewarm;
 import com.evcharge.app.ui.auth.LoginActivity;
 import com.evcharge.app.ui.main.MainActivity;
 import com.evcharge.app.ui.onboarding.OnboardingActivity;
 import com.evcharge.app.ui.operator.OperatorOneActivity;
 
 /**
- * Shows a short 3-stage intro sequence (after system splash), then routes.
- *   Stage 1 -> Stage 2 -> Stage 3 -> navigate (unchanged business logic).
+ * Startup stage shown after the system splash.
+ *   - Prewarms (ApiClient, DB, cached stations/bookings, first destination fetch) while animating
+ *   - Routes as soon as the prewarm is done (after MIN_SHOW_MS), or on tap
+ *   - The full 3-stage sequence is only the upper bound if prewarm is slow
  */
 public final class SplashActivity extends AppCompatActivity {
 
@@ -29,6 +35,9 @@ public final class SplashActivity extends AppCompatActivity {
   // Durations (tweak if you want a faster/slower sequence)
   private static final long STAGE_DURATION = 800L;
   private static final long FADE_DURATION  = 300L;
+  // Avoid a one-frame flash of the intro when prewarm is instant
+  private static final long MIN_SHOW_MS = 400L;
+  private long shownAt;
 
 
   // Keep a flag to avoid double navigation if the Activity is destroyed
@@ -37,6 +46,7 @@ public final class SplashActivity extends AppCompatActivity {
   @Override
   protected void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
+    StartupTracer.launchStarted();
 
     // 1) Inflate our in-app sequence view (system splash has already shown)
     setContentView(R.layout.splash_sequence);
@@ -47,17 +57,45 @@ public final class SplashActivity extends AppCompatActivity {
 
     // 2) Precompute where to go (your existing logic — unchanged)
     final Class<?> next = computeNextScreen();
+    shownAt = SystemClock.uptimeMillis();
 
-    // 3) Play the three quick stages, then route
+    // 3) Prewarm in the background; route once it's done
+    StartupPrewarm.start(getApplicationContext(), destinationOf(next), todayYmd(),
+      () -> handler.post(() -> onPrewarmDone(next)));
+
+    // Tap anywhere to skip the intro
+    View root = findViewById(R.id.splashRoot);
+    if (root != null) root.setOnClickListener(v -> navigate(next));
+
+    // 4) Play the three quick stages (upper bound), then route
     playSequenceThenNavigate(next);
   }
 
+  private void onPrewarmDone(Class<?> next) {
+    long wait = MIN_SHOW_MS - (SystemClock.uptimeMillis() - shownAt);
+    handler.postDelayed(() -> navigate(next), Math.max(0L, wait));
+  }
+
+  private static StartupPrewarm.Destination destinationOf(Class<?> next) {
+    if (next == MainActivity.class) return StartupPrewarm.Destination.OWNER_HOME;
+    if (next == OperatorOneActivity.class) return StartupPrewarm.Destination.OPERATOR_HOME;
+    return StartupPrewarm.Destination.OTHER;
+  }
+
+  private static String todayYmd() {
+    return new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.US).format(new java.util.Date());
+  }
+
   private Class<?> computeNextScreen() {
+    long t = StartupTracer.now();
     AppPrefs prefs = new AppPrefs(getApplicationContext());
-    JwtStore jwt = new JwtStore(getApplicationContext());
-
     final boolean hasOnboarded = prefs.hasOnboarded();
+    StartupTracer.end(StartupTracer.PREFS_LOAD, t);
+
+    t = StartupTracer.now();
+    JwtStore jwt = AndroidPlatform.jwtStore(this);
     final boolean jwtOk = jwt.isValid();
+    StartupTracer.end(StartupTracer.JWT_CHECK, t);
 
     if (!hasOnboarded) {
       return OnboardingActivity.class;
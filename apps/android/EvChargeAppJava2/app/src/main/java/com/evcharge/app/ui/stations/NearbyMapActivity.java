@@ -3,7 +3,10 @@ package com.evcharge.app.ui.stations;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.location.Location;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.TextureView;
 import android.view.View;
 import android.view.ViewParent;
@@ -19,8 +22,10 @@ import androidx.core.content.ContextCompat;
 import androidx.core.view.ViewCompat;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.geo.GeoMath;
+import com.evcharge.app.core.geo.StationPoint;
 import com.evcharge.app.core.net.ApiClient;
-import com.evcharge.app.core.util.JsonUtils;
+import com.evcharge.app.core.station.StationCatalog;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.SupportMapFragment;
@@ -30,16 +35,28 @@ import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public final class NearbyMapActivity extends AppCompatActivity {
 
+  /** Catalogue lookups are local but not free; wait for the camera to settle a little first. */
+  private static final long LOCAL_DEBOUNCE_MS = 150L;
+
   private GoogleMap map;
+  private NearbyTileLoader loader;
+  private final Map<String, Marker> markers = new HashMap<>();
+  // Snippet parts per station: the catalogue knows the type, the live endpoint today's availability
+  private final Map<String, String> types = new HashMap<>();
+  private final Map<String, String> availability = new HashMap<>();
+  private final Handler main = new Handler(Looper.getMainLooper());
+  private final ExecutorService localWorker = Executors.newSingleThreadExecutor(); // one catalogue query at a time
+  private Runnable pendingLocal;
 
   private final ActivityResultLauncher<String> reqFineLocation =
     registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> {
@@ -66,6 +83,11 @@ public final class NearbyMapActivity extends AppCompatActivity {
 
       // Basic map UI
       map.getUiSettings().setZoomControlsEnabled(true);
+      map.setOnMarkerClickListener(marker -> {
+        Object tag = marker.getTag();
+        if (tag instanceof String) marker.setSnippet(snippetFor((String) tag)); // distance from where the user is now
+        return false;
+      });
       map.setOnInfoWindowClickListener(marker -> {
         Object tag = marker.getTag();
         if (tag instanceof String) {
@@ -76,11 +98,22 @@ public final class NearbyMapActivity extends AppCompatActivity {
         }
       });
 
+      // Incremental loading: debounce camera idle, query the viewport only when some of it is unseen
+      loader = new NearbyTileLoader(ApiClient.get(getApplicationContext()), new NearbyTileLoader.Listener() {
+        @Override public void onStations(List<StationTileStore.Station> stations) { addLive(stations); }
+        @Override public void onRemoved(List<String> stationIds) { for (String id : stationIds) removeMarker(id); }
+        @Override public void onError(String message) { toast(message); }
+      });
+      map.setOnCameraMoveStartedListener(reason -> {
+        loader.onCameraMoveStarted();
+        if (pendingLocal != null) { main.removeCallbacks(pendingLocal); pendingLocal = null; }
+      });
+      map.setOnCameraIdleListener(this::onCameraIdle);
+      refreshCatalogIfStale();
+
       tryEnableMyLocation();
       LatLng colombo = new LatLng(6.9271, 79.8612);
       map.moveCamera(CameraUpdateFactory.newLatLngZoom(colombo, 13f));
-
-      refreshNearby();
     });
 
     // Wire up overlay controls (must exist in activity_nearby_map.xml)
@@ -163,128 +196,135 @@ public final class NearbyMapActivity extends AppCompatActivity {
   }
 
   private void refreshNearby() {
-    if (map == null) return;
-    LatLng center = map.getCameraPosition().target;
-    final double lat = center.latitude;
-    final double lng = center.longitude;
+    if (map == null || loader == null) return;
+    LatLngBounds b = map.getProjection().getVisibleRegion().latLngBounds;
+    loader.refresh(b.southwest.latitude, b.southwest.longitude, b.northeast.latitude, b.northeast.longitude);
+    toast("Refreshing nearby stations…");
+  }
 
-    new Thread(() -> {
-      try {
-        ApiClient api = new ApiClient(getApplicationContext());
-        com.evcharge.app.core.net.HttpClient.Response r =
-          api.stationsNearbyRaw(lat, lng, 5, "AC");
-        if (!(r.code >= 200 && r.code < 300)) {
-          runOnUiThread(() -> toast("Nearby failed: " + r.code));
-          return;
-        }
+  /** Camera settled: show catalogue stations at once, then let the loader fetch only unseen tiles. */
+  private void onCameraIdle() {
+    if (map == null || loader == null) return;
+    LatLngBounds b = map.getProjection().getVisibleRegion().latLngBounds;
+    showLocal(b);
+    loader.onCameraIdle(b.southwest.latitude, b.southwest.longitude, b.northeast.latitude, b.northeast.longitude);
+  }
 
-        JSONArray arr = r.jsonArray;
-        if (arr == null && r.body != null && !r.body.trim().isEmpty()) {
-          try { arr = new JSONArray(r.body); } catch (Exception ignored) {}
-        }
-        if (arr == null) {
-          runOnUiThread(() -> toast("Nearby parse error"));
-          return;
-        }
+  /** Offline-capable: stations in view straight from the local catalogue index (debounced, latest viewport wins). */
+  private void showLocal(LatLngBounds b) {
+    final double s = b.southwest.latitude, w = b.southwest.longitude;
+    final double n = b.northeast.latitude, e = b.northeast.longitude;
+    if (pendingLocal != null) main.removeCallbacks(pendingLocal);
+    pendingLocal = () -> {
+      pendingLocal = null;
+      if (isDestroyed()) return;
+      localWorker.execute(() -> {
+        List<StationPoint> local = StationCatalog.get(getApplicationContext()).index().within(s, w, n, e, false);
+        if (local.isEmpty()) return;
+        runOnUiThread(() -> addLocal(local));
+      });
+    };
+    main.postDelayed(pendingLocal, LOCAL_DEBOUNCE_MS);
+  }
 
-        final List<StationMarker> toShow = new ArrayList<>();
-
-        for (int i = 0; i < arr.length(); i++) {
-          JSONObject o = arr.optJSONObject(i); if (o == null) continue;
-          String id = JsonUtils.optString(o, "id");
-          String name = JsonUtils.optString(o, "name");
-
-          String status = JsonUtils.optString(o, "status");
-          if (status == null) status = JsonUtils.optString(o, "Status");
-
-          double sLat = o.optDouble("lat", Double.NaN);
-          double sLng = o.optDouble("lng", Double.NaN);
-
-          if ((Double.isNaN(sLat) || Double.isNaN(sLng) || status == null) && id != null) {
-            try {
-              com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(id);
-              if (d.jsonObject != null) {
-                if (status == null) {
-                  status = JsonUtils.optString(d.jsonObject, "status");
-                  if (status == null) status = JsonUtils.optString(d.jsonObject, "Status");
-                }
-                if (Double.isNaN(sLat) || Double.isNaN(sLng)) {
-                  sLat = d.jsonObject.optDouble("lat", sLat);
-                  sLng = d.jsonObject.optDouble("lng", sLng);
-                  if (Double.isNaN(sLat) || Double.isNaN(sLng)) {
-                    JSONObject loc = d.jsonObject.optJSONObject("Location");
-                    if (loc != null) {
-                      JSONArray coords = loc.optJSONArray("coordinates");
-                      if (coords != null && coords.length() >= 2) {
-                        double lng2 = coords.optDouble(0, Double.NaN);
-                        double lat2 = coords.optDouble(1, Double.NaN);
-                        if (!Double.isNaN(lat2) && !Double.isNaN(lng2)) {
-                          sLat = lat2; sLng = lng2;
-                        }
-                      }
-                    }
-                  }
-                }
-              }
-            } catch (Exception ignored) {}
-          }
-
-          if (status == null || !"active".equalsIgnoreCase(status)) continue;
-
-          if (!Double.isNaN(sLat) && !Double.isNaN(sLng)) {
-            String snippet = "";
-            double distanceKm = o.optDouble("distanceKm", -1);
-            if (distanceKm >= 0) snippet = String.format(Locale.US, "%.1f km", distanceKm);
-            JSONArray summary = o.optJSONArray("availabilitySummary");
-            if (summary != null && summary.length() > 0) {
-              JSONObject first = summary.optJSONObject(0);
-              if (first != null) {
-                int slots = first.optInt("availableSlots", -1);
-                if (slots >= 0) snippet = (snippet.isEmpty() ? "" : snippet + " · ") + "Today: " + slots;
-              }
-            }
-            StationMarker sm = new StationMarker(id, name != null ? name : "Station", snippet, sLat, sLng);
-            toShow.add(sm);
-          }
-        }
+  /** Refresh the catalogue in the background when it is missing or old, then redraw from it. */
+  private void refreshCatalogIfStale() {
+    // Not bound to this screen: other screens may be waiting on the same catalogue refresh
+    final ApiClient api = ApiClient.get(getApplicationContext()).unbound();
+    new Thread(() -> {
+      boolean changed = StationCatalog.get(getApplicationContext()).refreshIfStale(api);
+      if (changed) runOnUiThread(() -> {
+        if (map != null && !isDestroyed()) showLocal(map.getProjection().getVisibleRegion().latLngBounds);
+      });
+    }).start();
+  }
 
-        runOnUiThread(() -> {
-          map.clear();
-          if (toShow.isEmpty()) { toast("Nearby: 0 station(s)"); return; }
-
-          LatLngBounds.Builder b = new LatLngBounds.Builder();
-          for (StationMarker sm : toShow) {
-            MarkerOptions mo = new MarkerOptions()
-              .position(new LatLng(sm.lat, sm.lng))
-              .title(sm.title)
-              .snippet(sm.snippet)
-              .icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN));
-            Marker m = map.addMarker(mo);
-            if (m != null && sm.id != null) m.setTag(sm.id);
-            b.include(new LatLng(sm.lat, sm.lng));
-          }
-          map.setOnMapLoadedCallback(() ->
-            map.animateCamera(CameraUpdateFactory.newLatLngBounds(b.build(), 80))
-          );
-          toast("Nearby: " + toShow.size() + " station(s)");
-
-          // Reassert overlays on top after map draws (defensive)
-          bringOverlaysToFront(findViewById(R.id.cardControls),
-            findViewById(R.id.btnClose));
-        });
-
-      } catch (Exception e) {
-        runOnUiThread(() -> toast("Nearby error: " + e.getMessage()));
+  /**
+   * Catalogue stations in view: active ones get a marker, deactivated ones lose theirs unless the live
+   * endpoint still lists them; stations the live endpoint dropped stay hidden even if the catalogue is older.
+   */
+  private void addLocal(List<StationPoint> local) {
+    if (map == null || isDestroyed()) return;
+    StationTileStore live = StationTileStore.get();
+    for (StationPoint p : local) {
+      if (p.type != null) types.put(p.id, p.type);
+      if (!p.isActive() || live.isDropped(p.id)) {
+        if (!live.has(p.id)) removeMarker(p.id);
+        continue;
       }
-    }).start();
+      Marker existing = markers.get(p.id);
+      if (existing != null) existing.setSnippet(snippetFor(p.id));
+      else addMarker(p.id, p.name != null ? p.name : "Station", p.lat, p.lng);
+    }
+    bringOverlaysToFront(findViewById(R.id.cardControls), findViewById(R.id.btnClose));
+  }
+
+  /** Stations from the live endpoint: add the unseen ones, refresh availability on the rest. */
+  private void addLive(List<StationTileStore.Station> stations) {
+    if (map == null || isDestroyed()) return;
+    for (StationTileStore.Station sm : stations) {
+      if (sm.id == null) continue;
+      if (sm.availability != null && !sm.availability.isEmpty()) availability.put(sm.id, sm.availability);
+      Marker existing = markers.get(sm.id);
+      if (existing != null) existing.setSnippet(snippetFor(sm.id));
+      else addMarker(sm.id, sm.title, sm.lat, sm.lng);
+    }
+
+    // Reassert overlays on top after map draws (defensive)
+    bringOverlaysToFront(findViewById(R.id.cardControls),
+      findViewById(R.id.btnClose));
+  }
+
+  private void addMarker(String id, String title, double lat, double lng) {
+    MarkerOptions mo = new MarkerOptions()
+      .position(new LatLng(lat, lng))
+      .title(title)
+      .snippet(snippetFor(id, lat, lng))
+      .icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN));
+    Marker m = map.addMarker(mo);
+    if (m != null) { m.setTag(id); markers.put(id, m); }
   }
 
-  private static final class StationMarker {
-    final String id, title, snippet; final double lat, lng;
-    StationMarker(String id, String title, String snippet, double lat, double lng) {
-      this.id = id; this.title = title; this.snippet = snippet; this.lat = lat; this.lng = lng;
+  private void removeMarker(String id) {
+    Marker m = markers.remove(id);
+    if (m != null) m.remove();
+    availability.remove(id);
+  }
+
+  private String snippetFor(String id) {
+    Marker m = markers.get(id);
+    if (m == null) return "";
+    LatLng at = m.getPosition();
+    return snippetFor(id, at.latitude, at.longitude);
+  }
+
+  /** "2.4 km · DC · Today: 3": distance from the user's last fix (when known), type, today's free slots. */
+  private String snippetFor(String id, double lat, double lng) {
+    List<String> parts = new ArrayList<>(3);
+    Location me = myLocation();
+    if (me != null) parts.add(String.format(Locale.US, "%.1f km", GeoMath.haversineKm(me.getLatitude(), me.getLongitude(), lat, lng)));
+    String type = types.get(id);
+    if (type != null && !type.isEmpty()) parts.add(type);
+    String avail = availability.get(id);
+    if (avail != null) parts.add(avail);
+    return String.join(" · ", parts);
+  }
+
+  private Location myLocation() {
+    try {
+      return (map != null && map.isMyLocationEnabled()) ? map.getMyLocation() : null;
+    } catch (SecurityException e) {
+      return null;
     }
   }
 
+  @Override
+  protected void onDestroy() {
+    if (loader != null) loader.close();
+    if (pendingLocal != null) main.removeCallbacks(pendingLocal);
+    localWorker.shutdownNow();
+    super.onDestroy();
+  }
+
   private void toast(String m) { Toast.makeText(this, m, Toast.LENGTH_SHORT).show(); }
 }
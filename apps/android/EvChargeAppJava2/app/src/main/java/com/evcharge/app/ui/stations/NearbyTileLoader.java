@@ -0,0 +1,227 @@
+package com.evcharge.app.ui.stations;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.evcharge.app.core.geo.GeoMath;
+import com.evcharge.app.core.geo.StationPoint;
+import com.evcharge.app.core.net.ApiClient;
+import com.evcharge.app.core.net.Call;
+import com.evcharge.app.core.net.HttpClient;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Camera-driven incremental loader for NearbyMapActivity.
+ * - Debounces camera-idle events before touching the network
+ * - Serves whatever StationTileStore holds for the viewport at once, and asks the server only when some
+ *   tile in view is missing or expired: one GET /api/Station/nearby whose circle covers the bounding box
+ *   of those tiles (a pan re-queries the new strip, not the whole viewport); the whole viewport when zoomed
+ *   too far out to track tiles
+ * - Only one query is in flight; a newer viewport (or close()) cancels it, socket included
+ * - Delivers stations on the main thread, and the ids of stations that dropped out so their markers go too
+ */
+final class NearbyTileLoader {
+
+  interface Listener {
+    /** Stations listed for the viewport (main thread); may include ones already on the map. */
+    void onStations(List<StationTileStore.Station> stations);
+    /** Stations the server no longer lists (main thread). */
+    void onRemoved(List<String> stationIds);
+    /** The query failed (main thread). */
+    void onError(String message);
+  }
+
+  static final long DEBOUNCE_MS = 350L;
+  /** Zoomed out beyond this the query is clipped to the nearest stations around the centre. */
+  static final double MAX_RADIUS_KM = 50.0;
+  /** StationRepository.NearbyAsync answers at most this many stations, nearest first. */
+  static final int SERVER_LIMIT = 100;
+  /** Past this many tiles in view (zoomed far out) the viewport is queried without tile bookkeeping. */
+  static final long MAX_TRACKED_TILES = 2_500;
+
+  /** The query in flight: the worker future plus the Call that owns its socket. */
+  private static final class Query {
+    final Call call;
+    final ApiClient api;
+    final List<Long> visible;
+    final double lat, lng, radiusKm;
+    final boolean clipped;
+    Future<?> future;
+
+    Query(ApiClient base, List<Long> visible, double lat, double lng, double radiusKm, boolean clipped) {
+      this.call = base.newCall();
+      this.api = base.withCall(call);
+      this.visible = visible;
+      this.lat = lat; this.lng = lng; this.radiusKm = radiusKm;
+      this.clipped = clipped;
+    }
+
+    void cancel() {
+      call.cancel();
+      if (future != null) future.cancel(true);
+    }
+  }
+
+  private final ApiClient api;
+  private final Listener listener;
+  private final StationTileStore store = StationTileStore.get();
+  private final Handler main = new Handler(Looper.getMainLooper());
+  private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+  // main thread only
+  private Query inFlight;
+  private Runnable pending;
+  private boolean closed = false;
+
+  NearbyTileLoader(ApiClient api, Listener listener) {
+    this.api = api;
+    this.listener = listener;
+  }
+
+  /** Schedule a (debounced) load for the visible bounds. */
+  void onCameraIdle(double south, double west, double north, double east) {
+    cancelPending();
+    pending = () -> load(south, west, north, east, false);
+    main.postDelayed(pending, DEBOUNCE_MS);
+  }
+
+  /** Camera started moving again: drop the pending debounce. */
+  void onCameraMoveStarted() { cancelPending(); }
+
+  /** Force a fresh query for the viewport (Refresh button). */
+  void refresh(double south, double west, double north, double east) {
+    cancelPending();
+    load(south, west, north, east, true);
+  }
+
+  void close() {
+    closed = true;
+    cancelPending();
+    cancelInFlight();
+    worker.shutdownNow();
+  }
+
+  private void cancelPending() {
+    if (pending != null) { main.removeCallbacks(pending); pending = null; }
+  }
+
+  private void cancelInFlight() {
+    if (inFlight != null) { inFlight.cancel(); inFlight = null; }
+  }
+
+  private void load(double south, double west, double north, double east, boolean force) {
+    pending = null;
+    if (closed) return;
+    boolean tracked = StationTileStore.tileCount(south, west, north, east) <= MAX_TRACKED_TILES;
+    List<Long> visible = tracked ? StationTileStore.tilesFor(south, west, north, east) : new ArrayList<>();
+
+    // Whatever we already hold renders instantly
+    List<StationTileStore.Station> cached = store.stationsIn(visible);
+    if (!cached.isEmpty()) listener.onStations(cached);
+
+    if (force) store.invalidate(visible);
+    cancelInFlight(); // answers for the old viewport are no longer wanted
+    double s = south, w = west, n = north, e = east;
+    if (tracked) {
+      List<Long> stale = store.stale(visible);
+      if (stale.isEmpty()) return;
+      // Whole tiles, so the circle can cover them completely and they become fresh (see coveredTiles)
+      double d = StationTileStore.TILE_DEG;
+      s = w = Double.POSITIVE_INFINITY;
+      n = e = Double.NEGATIVE_INFINITY;
+      for (Long k : stale) {
+        double ts = StationTileStore.southOf(k), tw = StationTileStore.westOf(k);
+        s = Math.min(s, ts); n = Math.max(n, ts + d);
+        w = Math.min(w, tw); e = Math.max(e, tw + d);
+      }
+    }
+
+    double cLat = (s + n) / 2.0, cLng = (w + e) / 2.0;
+    // farthest corner: the edge nearer the equator is the wider one
+    double toCorner = Math.max(GeoMath.haversineKm(cLat, cLng, n, e), GeoMath.haversineKm(cLat, cLng, s, e)) + 0.1;
+    final Query q = new Query(api, visible, cLat, cLng, Math.min(toCorner, MAX_RADIUS_KM), toCorner > MAX_RADIUS_KM);
+    inFlight = q;
+    q.future = worker.submit(() -> fetch(q));
+  }
+
+  private void fetch(Query q) {
+    try {
+      HttpClient.Response r = q.api.stationsNearbyRaw(q.lat, q.lng, q.radiusKm, null);
+      if (q.call.isCanceled() || Thread.currentThread().isInterrupted()) return;
+      if (!r.is2xx()) { post(q, null, null, "Nearby failed: " + r.code); return; }
+
+      JSONArray arr = r.jsonArray;
+      if (arr == null && r.body != null && !r.body.trim().isEmpty()) {
+        try { arr = new JSONArray(r.body); } catch (Exception ignored) {}
+      }
+      if (arr == null) { post(q, null, null, "Nearby parse error"); return; }
+
+      // The list items carry status and position, so no per-station lookups are needed
+      List<StationTileStore.Station> parsed = new ArrayList<>();
+      for (int i = 0; i < arr.length(); i++) {
+        JSONObject o = arr.optJSONObject(i); if (o == null) continue;
+        StationTileStore.Station s = parseStation(o);
+        if (s != null) parsed.add(s);
+      }
+      // A clipped or truncated answer says nothing about the stations it left out
+      boolean complete = !q.clipped && arr.length() < SERVER_LIMIT;
+      post(q, complete ? coveredTiles(q) : new ArrayList<>(), parsed, null);
+    } catch (Exception e) {
+      if (!q.call.isCanceled() && !Thread.currentThread().isInterrupted()) post(q, null, null, "Nearby error: " + e.getMessage());
+    } finally {
+      q.call.finish();
+    }
+  }
+
+  /** Merge + deliver on the main thread, unless the query was cancelled meanwhile. */
+  private void post(Query q, List<Long> covered, List<StationTileStore.Station> parsed, String error) {
+    main.post(() -> {
+      if (closed || inFlight != q) return; // cancelled or superseded
+      inFlight = null;
+      if (parsed == null) { if (error != null) listener.onError(error); return; }
+      List<String> removed = store.merge(covered, parsed);
+      if (!parsed.isEmpty()) listener.onStations(parsed);
+      if (!removed.isEmpty()) listener.onRemoved(removed);
+    });
+  }
+
+  private static StationTileStore.Station parseStation(JSONObject o) {
+    StationPoint p = StationPoint.parse(o);
+    if (p == null || !p.isActive()) return null;
+    if (Double.isNaN(p.lat) || Double.isNaN(p.lng)) return null;
+
+    String availability = "";
+    JSONArray summary = o.optJSONArray("availabilitySummary");
+    if (summary != null && summary.length() > 0) {
+      JSONObject first = summary.optJSONObject(0);
+      if (first != null) {
+        int slots = first.optInt("availableSlots", -1);
+        if (slots >= 0) availability = "Today: " + slots;
+      }
+    }
+    return new StationTileStore.Station(p.id, p.name != null ? p.name : "Station", availability, p.lat, p.lng);
+  }
+
+  /** Visible tiles lying wholly inside the query circle (all four corners within its radius). */
+  private static List<Long> coveredTiles(Query q) {
+    List<Long> out = new ArrayList<>();
+    double d = StationTileStore.TILE_DEG;
+    for (Long k : q.visible) {
+      double s = StationTileStore.southOf(k), w = StationTileStore.westOf(k);
+      if (within(q, s, w) && within(q, s + d, w) && within(q, s, w + d) && within(q, s + d, w + d)) out.add(k);
+    }
+    return out;
+  }
+
+  private static boolean within(Query q, double lat, double lng) {
+    return GeoMath.haversineKm(q.lat, q.lng, lat, lng) <= q.radiusKm;
+  }
+}
@@ -10,6 +10,8 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.evcharge.app.R;
+import com.evcharge.app.core.booking.BookingCache;
+import com.evcharge.app.core.booking.SlotAvailability;
 import com.evcharge.app.core.net.ApiClient;
 import com.evcharge.app.core.util.JsonUtils;
 import com.evcharge.app.ui.booking.CreateBookingActivity;
@@ -17,6 +19,8 @@ import com.evcharge.app.ui.booking.CreateBookingActivity;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.List;
+
 public final class StationDetailActivity extends AppCompatActivity {
 
     private String stationId;
@@ -50,8 +54,8 @@ public final class StationDetailActivity extends AppCompatActivity {
     }
 
     private void load() {
+        ApiClient api = ApiClient.get(getApplicationContext()).boundTo(this); // leaving the screen aborts both requests
         new Thread(() -> {
-            ApiClient api = new ApiClient(getApplicationContext());
             try {
                 // Detail
                 com.evcharge.app.core.net.HttpClient.Response d = api.stationDetailRaw(stationId);
@@ -67,6 +71,7 @@ public final class StationDetailActivity extends AppCompatActivity {
 
                 runOnUiThread(() -> render(detail, schedule));
             } catch (Exception e) {
+                if (api.call().isCanceled()) return;
                 runOnUiThread(() -> toast("Error: " + e.getMessage()));
             }
         }).start();
@@ -143,6 +148,14 @@ public final class StationDetailActivity extends AppCompatActivity {
                     sb.append(date).append(": ").append(closed ? "Closed" : "Open").append("\n");
                 }
             }
+
+            // Next free slots, computed locally from the schedule (own bookings counted against capacity)
+            SlotAvailability avail = SlotAvailability.from(detail, schedule);
+            avail.addBookingsFrom(BookingCache.get(this).mine(), stationId);
+            List<SlotAvailability.Slot> next = avail.nextFree(5, avail.now());
+            sb.append("\nNext available:\n");
+            if (next.isEmpty()) sb.append("No free slots in the next ").append(SlotAvailability.HORIZON_DAYS).append(" days\n");
+            for (SlotAvailability.Slot slot : next) sb.append(slot).append("\n");
             tvSchedule.setText(sb.toString().trim());
         } else {
             tvSchedule.setText("No schedule configured.");
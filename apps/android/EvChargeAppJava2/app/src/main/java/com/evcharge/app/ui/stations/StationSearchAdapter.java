@@ -0,0 +1,130 @@
+package com.evcharge.app.ui.stations;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.TextView;
+
+import com.evcharge.app.core.geo.StationIndex;
+import com.evcharge.app.core.geo.StationPoint;
+import com.evcharge.app.core.station.StationSearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Type-to-search dropdown for AutoCompleteTextView station pickers.
+ * - Filtering runs StationSearch (FTS) on the Filter's worker thread
+ * - Results are ranked by distance from the current origin (setOrigin)
+ * - Optional extras are matched in memory when they aren't in the local catalogue
+ * Positions in item-click callbacks refer to the filtered results: use getItem(position).
+ */
+public final class StationSearchAdapter extends BaseAdapter implements Filterable {
+
+  private static final int MAX_RESULTS = 30;
+
+  private final Context appCtx;
+  private final LayoutInflater inflater;
+  private final Set<String> onlyIds;     // null = whole catalogue
+  private final boolean activeOnly;
+  private final List<StationPoint> extras = new ArrayList<>();
+
+  private volatile double originLat = Double.NaN, originLng = Double.NaN;
+  private List<StationIndex.Hit> items = Collections.emptyList();
+
+  /**
+   * @param onlyIds restrict results to these ids (operator's own stations), or null for all
+   * @param activeOnly hide stations that are not Active (booking)
+   */
+  public StationSearchAdapter(Context context, Set<String> onlyIds, boolean activeOnly) {
+    this.appCtx = context.getApplicationContext();
+    this.inflater = LayoutInflater.from(context);
+    this.onlyIds = onlyIds != null ? new HashSet<>(onlyIds) : null;
+    this.activeOnly = activeOnly;
+  }
+
+  /** Stations known to the screen but possibly missing from the cached catalogue. */
+  public void setExtras(List<StationPoint> list) {
+    synchronized (extras) {
+      extras.clear();
+      if (list != null) extras.addAll(list);
+    }
+  }
+
+  /** Rank by distance from here (NaN = by name only). */
+  public void setOrigin(double lat, double lng) {
+    originLat = lat;
+    originLng = lng;
+  }
+
+  @Override public int getCount() { return items.size(); }
+  @Override public StationIndex.Hit getItem(int position) { return items.get(position); }
+  @Override public long getItemId(int position) { return position; }
+
+  @Override
+  public View getView(int position, View convertView, ViewGroup parent) {
+    TextView tv = (TextView) (convertView != null ? convertView
+        : inflater.inflate(android.R.layout.simple_dropdown_item_1line, parent, false));
+    tv.setText(label(getItem(position)));
+    return tv;
+  }
+
+  /** "Name · City · DC · 2.4 km" (missing parts skipped). */
+  public static String label(StationIndex.Hit h) {
+    StationPoint p = h.station;
+    StringBuilder sb = new StringBuilder(p.name != null ? p.name : p.id);
+    if (p.city != null) sb.append(" · ").append(p.city);
+    if (p.type != null) sb.append(" · ").append(p.type);
+    if (!Double.isInfinite(h.distanceKm)) sb.append(String.format(Locale.US, " · %.1f km", h.distanceKm));
+    return sb.toString();
+  }
+
+  @Override
+  public Filter getFilter() {
+    return new Filter() {
+      @Override
+      protected FilterResults performFiltering(CharSequence constraint) {
+        String q = constraint != null ? constraint.toString() : null;
+        List<StationIndex.Hit> hits = StationSearch.get(appCtx)
+            .search(q, originLat, originLng, onlyIds, activeOnly, MAX_RESULTS);
+        addExtras(q, hits);
+        FilterResults r = new FilterResults();
+        r.values = hits;
+        r.count = hits.size();
+        return r;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      protected void publishResults(CharSequence constraint, FilterResults results) {
+        items = results.values != null ? (List<StationIndex.Hit>) results.values : Collections.emptyList();
+        if (results.count > 0) notifyDataSetChanged(); else notifyDataSetInvalidated();
+      }
+
+      @Override
+      public CharSequence convertResultToString(Object resultValue) {
+        StationPoint p = ((StationIndex.Hit) resultValue).station;
+        return p.name != null ? p.name : p.id;
+      }
+    };
+  }
+
+  private void addExtras(String query, List<StationIndex.Hit> hits) {
+    Set<String> seen = new HashSet<>();
+    for (StationIndex.Hit h : hits) seen.add(h.station.id);
+    synchronized (extras) {
+      for (StationPoint p : extras) {
+        if (seen.contains(p.id) || !StationSearch.matches(p, query)) continue;
+        hits.add(new StationIndex.Hit(p, StationSearch.distanceKm(p, originLat, originLng)));
+      }
+    }
+  }
+}
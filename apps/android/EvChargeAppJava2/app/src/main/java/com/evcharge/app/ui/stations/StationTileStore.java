@@ -0,0 +1,142 @@
+package com.evcharge.app.ui.stations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide in-memory store of nearby stations, bucketed by fixed-size lat/lng tiles.
+ * - Filled by NearbyTileLoader from one GET /api/Station/nearby per settled viewport; each station lands
+ *   in the tile its own position falls in
+ * - A tile counts as loaded only when a response covered all of it; its station set is then replaced, so
+ *   stations the server stopped listing (deactivated, deleted) are dropped and reported
+ * - Tiles expire after TILE_TTL_MS so availability snippets don't go stale forever
+ */
+final class StationTileStore {
+
+  /** Tile edge in degrees (~5.5 km at Sri Lankan latitudes). */
+  static final double TILE_DEG = 0.05;
+  static final long TILE_TTL_MS = 5 * 60_000L;
+
+  private static final StationTileStore INSTANCE = new StationTileStore();
+  static StationTileStore get() { return INSTANCE; }
+
+  /** A station as the live endpoint reports it; availability is e.g. "Today: 4", or "" when unknown. */
+  static final class Station {
+    final String id, title, availability; final double lat, lng;
+    Station(String id, String title, String availability, double lat, double lng) {
+      this.id = id; this.title = title; this.availability = availability; this.lat = lat; this.lng = lng;
+    }
+  }
+
+  private final Map<Long, Long> loadedAt = new HashMap<>();        // tileKey -> loaded epoch ms
+  private final Map<Long, Set<String>> tileIds = new HashMap<>();  // tileKey -> station ids
+  private final Map<String, Station> byId = new HashMap<>();
+  private final Set<String> dropped = new HashSet<>();             // listed once, gone from a later full answer
+
+  private StationTileStore() {}
+
+  // ---- tile math ----
+  static long tileKey(int row, int col) { return (((long) row) << 32) | (col & 0xffffffffL); }
+  static int rowOf(double lat) { return (int) Math.floor(lat / TILE_DEG); }
+  static int colOf(double lng) { return (int) Math.floor(lng / TILE_DEG); }
+  static int rowOfKey(long key) { return (int) (key >> 32); }
+  static int colOfKey(long key) { return (int) key; }
+  static double southOf(long key) { return rowOfKey(key) * TILE_DEG; }
+  static double westOf(long key) { return colOfKey(key) * TILE_DEG; }
+  static long tileOf(double lat, double lng) { return tileKey(rowOf(lat), colOf(lng)); }
+
+  static long tileCount(double south, double west, double north, double east) {
+    return (long) (rowOf(north) - rowOf(south) + 1) * (colOf(east) - colOf(west) + 1);
+  }
+
+  /** Tiles covering the given bounds (row-major, inclusive). */
+  static List<Long> tilesFor(double south, double west, double north, double east) {
+    List<Long> out = new ArrayList<>();
+    int r0 = rowOf(south), r1 = rowOf(north);
+    int c0 = colOf(west), c1 = colOf(east);
+    for (int r = r0; r <= r1; r++) {
+      for (int c = c0; c <= c1; c++) out.add(tileKey(r, c));
+    }
+    return out;
+  }
+
+  // ---- store ----
+  synchronized boolean isFresh(long key) {
+    Long at = loadedAt.get(key);
+    return at != null && (System.currentTimeMillis() - at) < TILE_TTL_MS;
+  }
+
+  /** The keys that are missing or expired, in the given order. */
+  synchronized List<Long> stale(List<Long> keys) {
+    List<Long> out = new ArrayList<>();
+    for (Long k : keys) if (!isFresh(k)) out.add(k);
+    return out;
+  }
+
+  synchronized void invalidate(List<Long> keys) {
+    for (Long k : keys) loadedAt.remove(k);
+  }
+
+  /** True for stations a full answer no longer listed (hide them even if the catalogue still has them). */
+  synchronized boolean isDropped(String id) { return dropped.contains(id); }
+
+  /** True while a live answer lists the station. */
+  synchronized boolean has(String id) { return byId.containsKey(id); }
+
+  /**
+   * Merge a viewport response. {@code covered} are the tiles the query fully covered: they become fresh
+   * and hold exactly the stations listed in them. Returns the ids that dropped out of those tiles.
+   */
+  synchronized List<String> merge(List<Long> covered, List<Station> stations) {
+    Map<Long, Set<String>> listed = new HashMap<>();
+    for (Station s : stations) {
+      if (s.id == null) continue;
+      byId.put(s.id, s);
+      dropped.remove(s.id);
+      long k = tileOf(s.lat, s.lng);
+      Set<String> in = listed.get(k);
+      if (in == null) { in = new HashSet<>(); listed.put(k, in); }
+      in.add(s.id);
+    }
+    long now = System.currentTimeMillis();
+    List<String> removed = new ArrayList<>();
+    for (Long k : covered) {
+      Set<String> fresh = listed.remove(k);
+      if (fresh == null) fresh = new HashSet<>();
+      Set<String> before = tileIds.put(k, fresh);
+      loadedAt.put(k, now);
+      if (before == null) continue;
+      for (String id : before) {
+        if (fresh.contains(id)) continue;
+        byId.remove(id);
+        dropped.add(id);
+        removed.add(id);
+      }
+    }
+    // Partly covered tiles only gain stations; a later full answer settles them
+    for (Map.Entry<Long, Set<String>> e : listed.entrySet()) {
+      Set<String> ids = tileIds.get(e.getKey());
+      if (ids == null) tileIds.put(e.getKey(), e.getValue()); else ids.addAll(e.getValue());
+    }
+    return removed;
+  }
+
+  /** Stations already held for the given tiles (served instantly while panning). */
+  synchronized List<Station> stationsIn(List<Long> keys) {
+    List<Station> out = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    for (Long k : keys) {
+      Set<String> ids = tileIds.get(k);
+      if (ids == null) continue;
+      for (String id : ids) {
+        Station s = byId.get(id);
+        if (s != null && seen.add(id)) out.add(s);
+      }
+    }
+    return out;
+  }
+}
@@ -0,0 +1,55 @@
+package com.evcharge.app.benchmarks;
+
+import com.evcharge.app.core.platform.MapKeyValueStore;
+import com.evcharge.app.core.security.AuthGuard;
+import com.evcharge.app.core.security.JwtStore;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** The check ApiClient runs before every authenticated request, plus the login-time token save. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class AuthGuardBenchmark {
+
+    private static final String EXPIRES_AT = "2075-10-15T08:30:00.123456Z";
+
+    private String token;
+    private JwtStore store;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        token = Fixtures.jwt();
+        store = new JwtStore(new MapKeyValueStore());
+        store.save(token);
+        now = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public int guardOwner() {
+        return AuthGuard.check(store, "Owner", EXPIRES_AT, now);
+    }
+
+    @Benchmark
+    public int guardNoServerExpiry() {
+        return AuthGuard.check(store, "Operator", null, now);
+    }
+
+    @Benchmark
+    public JSONObject decodePayload() {
+        return JwtStore.decodePayload(token);
+    }
+
+    @Benchmark
+    public JwtStore save() {
+        JwtStore s = new JwtStore(new MapKeyValueStore());
+        s.save(token);
+        return s;
+    }
+}
@@ -0,0 +1,80 @@
+package com.evcharge.app.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Random;
+
+/** Deterministic payloads shaped like the backend's responses (fixed seed, fixed "today"). */
+final class Fixtures {
+
+    static final LocalDate TODAY = LocalDate.of(2025, 10, 15);
+    private static final String[] STATUSES = {"Pending", "Approved", "Cancelled", "Completed", "CheckedIn"};
+
+    private Fixtures() {}
+
+    static String objectId(Random r) {
+        StringBuilder sb = new StringBuilder(24);
+        for (int i = 0; i < 24; i++) sb.append(Character.forDigit(r.nextInt(16), 16));
+        return sb.toString();
+    }
+
+    /** /api/Station body: Mongo-style ids and GeoJSON locations, as the catalogue sync receives it. */
+    static String stationsJson(int n) {
+        Random r = new Random(42);
+        JSONArray arr = new JSONArray();
+        for (int i = 0; i < n; i++) {
+            JSONObject o = new JSONObject();
+            o.put("id", objectId(r));
+            o.put("name", "Station " + i + " - " + (r.nextBoolean() ? "Colombo" : "Kandy") + " Mall");
+            o.put("type", r.nextBoolean() ? "AC" : "DC");
+            o.put("status", r.nextInt(10) == 0 ? "Deactivated" : "Active");
+            o.put("defaultSlotMinutes", r.nextBoolean() ? 30 : 60);
+            JSONObject loc = new JSONObject();
+            loc.put("type", "Point");
+            loc.put("coordinates", new JSONArray().put(79.8 + r.nextDouble()).put(6.9 + r.nextDouble()));
+            o.put("Location", loc);
+            o.put("address", new JSONObject().put("city", "City " + (i % 40)));
+            arr.put(o);
+        }
+        return arr.toString();
+    }
+
+    /** /api/Booking/mine body spread over the weeks around TODAY, mixing the start-time field shapes. */
+    static String bookingsJson(int n) {
+        Random r = new Random(7);
+        JSONArray arr = new JSONArray();
+        for (int i = 0; i < n; i++) {
+            JSONObject o = new JSONObject();
+            o.put("id", objectId(r));
+            o.put("stationId", objectId(r));
+            o.put("status", STATUSES[r.nextInt(STATUSES.length)]);
+            LocalDate d = TODAY.plusDays(r.nextInt(42) - 21);
+            int h = 6 + r.nextInt(14), m = r.nextBoolean() ? 0 : 30;
+            switch (i % 4) {
+                case 0: o.put("startUtc", String.format(Locale.US, "%sT%02d:%02d:00Z", d, h, m)); break;
+                case 1: o.put("slotStartUtc", String.format(Locale.US, "%sT%02d:%02d:00.000+05:30", d, h, m)); break;
+                case 2: o.put("slotStartLocal", String.format(Locale.US, "%s %02d:%02d", d, h, m)); break;
+                default: o.put("localDate", d.toString()); o.put("startTime", String.format(Locale.US, "%02d:%02d", h, m));
+            }
+            arr.put(o);
+        }
+        return arr.toString();
+    }
+
+    /** Unsigned JWT with the claims JwtStore reads (exp far in the future). */
+    static String jwt() {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        String header = enc.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        long exp = TODAY.plusYears(50).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        JSONObject claims = new JSONObject().put("sub", "199012345678").put("nic", "199012345678")
+                .put("role", "Owner").put("exp", exp);
+        String payload = enc.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".c2lnbmF0dXJl";
+    }
+}
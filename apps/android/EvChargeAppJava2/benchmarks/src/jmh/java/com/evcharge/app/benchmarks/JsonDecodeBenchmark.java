@@ -0,0 +1,43 @@
+package com.evcharge.app.benchmarks;
+
+import com.evcharge.app.core.geo.StationPoint;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/** Body string -> model: the station catalogue sync and the bookings list. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class JsonDecodeBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private String stations;
+    private String bookings;
+
+    @Setup
+    public void setUp() {
+        stations = Fixtures.stationsJson(size);
+        bookings = Fixtures.bookingsJson(size);
+    }
+
+    @Benchmark
+    public List<StationPoint> stations() {
+        return StationPoint.parseAll(JsonUtils.parseArray(stations));
+    }
+
+    @Benchmark
+    public JSONArray bookings() {
+        return JsonUtils.parseArray(bookings);
+    }
+}
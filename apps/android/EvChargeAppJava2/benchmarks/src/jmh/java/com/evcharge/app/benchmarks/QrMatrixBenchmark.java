@@ -0,0 +1,27 @@
+package com.evcharge.app.benchmarks;
+
+import com.evcharge.app.features.qr.QrMatrix;
+
+import com.google.zxing.WriterException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Booking QR: encode + pixel fill (BookingDetailActivity renders at 800 px). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class QrMatrixBenchmark {
+
+    @Param({"400", "800"})
+    public int sizePx;
+
+    private final String token = Fixtures.jwt();
+
+    @Benchmark
+    public int[] pixels() throws WriterException {
+        return QrMatrix.pixels(token, sizePx);
+    }
+}
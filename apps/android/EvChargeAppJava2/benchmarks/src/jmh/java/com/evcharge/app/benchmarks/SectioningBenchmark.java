@@ -0,0 +1,45 @@
+package com.evcharge.app.benchmarks;
+
+import com.evcharge.app.core.booking.BookingSections;
+
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+/** "My bookings" grouping from an already-decoded array (what runs on every refresh and filter change). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class SectioningBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Colombo");
+
+    @Param({"50", "500"})
+    public int size;
+
+    private JSONArray bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = new JSONArray(Fixtures.bookingsJson(size));
+    }
+
+    @Benchmark
+    public List<BookingSections.Section> all() {
+        return BookingSections.build(bookings, Collections.emptyMap(), "All", null, null, ZONE, Fixtures.TODAY);
+    }
+
+    @Benchmark
+    public List<BookingSections.Section> filtered() {
+        return BookingSections.build(bookings, Collections.emptyMap(), "Approved",
+                Fixtures.TODAY.minusDays(7), Fixtures.TODAY.plusDays(7), ZONE, Fixtures.TODAY);
+    }
+}
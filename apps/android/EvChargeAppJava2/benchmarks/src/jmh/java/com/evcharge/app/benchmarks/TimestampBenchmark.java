@@ -0,0 +1,55 @@
+package com.evcharge.app.benchmarks;
+
+import com.evcharge.app.core.booking.BookingSections;
+import com.evcharge.app.core.util.Timestamps;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/** Server timestamps: the auth guard's expiry check and the booking start-time fallbacks. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class TimestampBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Colombo");
+
+    private JSONObject startUtc, slotStartOffset, slotStartLocal, localDateTime;
+
+    @Setup
+    public void setUp() {
+        startUtc = new JSONObject().put("startUtc", "2025-10-15T08:30:00Z");
+        slotStartOffset = new JSONObject().put("slotStartUtc", "2025-10-15T08:30:00.000+05:30");
+        slotStartLocal = new JSONObject().put("slotStartLocal", "2025-10-15 08:30");
+        localDateTime = new JSONObject().put("localDate", "2025-10-15").put("startTime", "08:30");
+    }
+
+    @Benchmark
+    public Long isoInstant() { return Timestamps.parseIsoToMillis("2025-10-08T16:14:07.059889Z"); }
+
+    @Benchmark
+    public Long isoOffset() { return Timestamps.parseIsoToMillis("2025-10-08T21:44:07+05:30"); }
+
+    /** Falls all the way through to SimpleDateFormat. */
+    @Benchmark
+    public Long isoNoZone() { return Timestamps.parseIsoToMillis("2025-10-08T16:14:07"); }
+
+    @Benchmark
+    public LocalDateTime bookingStartUtc() { return BookingSections.parseStartLocal(startUtc, ZONE); }
+
+    @Benchmark
+    public LocalDateTime bookingStartOffset() { return BookingSections.parseStartLocal(slotStartOffset, ZONE); }
+
+    @Benchmark
+    public LocalDateTime bookingSlotLocal() { return BookingSections.parseStartLocal(slotStartLocal, ZONE); }
+
+    @Benchmark
+    public LocalDateTime bookingDateAndTime() { return BookingSections.parseStartLocal(localDateTime, ZONE); }
+}
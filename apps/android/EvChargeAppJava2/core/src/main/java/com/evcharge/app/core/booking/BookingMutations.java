@@ -0,0 +1,204 @@
+package com.evcharge.app.core.booking;
+
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Booking writes the user has made but the server hasn't confirmed yet, and how they look in the
+ * /api/Booking/mine list meanwhile.
+ * - Each op is one logical action with one Idempotency-Key; every retry resends that key
+ * - overlay() paints pending ops over the last server copy, oldest first, so dropping an op
+ *   (confirmed or rejected) is all it takes to show the server's answer again
+ * - A create is listed under a local id (LOCAL_PREFIX + opId) until the server assigns one
+ * Pure Java: BookingOutbox persists and drains the ops.
+ */
+public final class BookingMutations {
+
+    public static final String CREATE = "create";
+    public static final String MODIFY = "modify";
+    public static final String CANCEL = "cancel";
+
+    public static final String LOCAL_PREFIX = "local-";
+
+    /** Present (value = kind) on rows that show an op the server hasn't confirmed. */
+    public static final String PENDING_FIELD = "pendingSync";
+
+    // Server-computed start fields; stale once a modify moves the slot locally
+    private static final String[] UTC_FIELDS = {"startUtc", "startTimeUtc", "slotStartUtc", "SlotStartUtc", "slotEndUtc"};
+
+    /** One queued write. Immutable; attempts is the count when it was read from the queue. */
+    public static final class Op {
+        public final String opId;
+        public final String kind;
+        public final String bookingId;        // null for CREATE
+        public final JSONObject payload;      // request body (empty for CANCEL)
+        public final String idempotencyKey;
+        public final long queuedAtMs;
+        public final int attempts;
+
+        public Op(String opId, String kind, String bookingId, JSONObject payload,
+                  String idempotencyKey, long queuedAtMs, int attempts) {
+            this.opId = opId;
+            this.kind = kind;
+            this.bookingId = bookingId;
+            this.payload = payload != null ? payload : new JSONObject();
+            this.idempotencyKey = idempotencyKey;
+            this.queuedAtMs = queuedAtMs;
+            this.attempts = attempts;
+        }
+
+        public String localId() { return LOCAL_PREFIX + opId; }
+
+        /** Row this op paints: its local id for a create, otherwise the booking it targets. */
+        public String targetId() { return CREATE.equals(kind) ? localId() : bookingId; }
+
+        @Override public String toString() { return kind + " " + targetId(); }
+    }
+
+    private BookingMutations() {}
+
+    // ---- ops ----
+
+    /** opId comes from the screen so a second tap on the same screen is the same op (same key). */
+    public static Op create(String opId, JSONObject payload, long nowMs) {
+        return new Op(opId, CREATE, null, payload, UUID.randomUUID().toString(), nowMs, 0);
+    }
+
+    public static Op modify(String bookingId, JSONObject payload, long nowMs) {
+        return new Op(UUID.randomUUID().toString(), MODIFY, bookingId, payload, UUID.randomUUID().toString(), nowMs, 0);
+    }
+
+    public static Op cancel(String bookingId, long nowMs) {
+        return new Op(UUID.randomUUID().toString(), CANCEL, bookingId, null, UUID.randomUUID().toString(), nowMs, 0);
+    }
+
+    /** True for ids of creates the server hasn't confirmed (no detail, QR or edits yet). */
+    public static boolean isLocalId(String id) { return id != null && id.startsWith(LOCAL_PREFIX); }
+
+    // ---- list view ----
+
+    /** Server rows with the pending ops applied, oldest first. Never modifies {@code server}. */
+    public static JSONArray overlay(JSONArray server, List<Op> pending) {
+        if (pending == null || pending.isEmpty()) return server;
+        JSONArray out = new JSONArray();
+        if (server != null) {
+            for (int i = 0; i < server.length(); i++) {
+                JSONObject o = server.optJSONObject(i);
+                if (o != null) out.put(copy(o));
+            }
+        }
+        for (Op op : pending) apply(out, op);
+        return out;
+    }
+
+    /** A single row (booking detail) with the pending ops that target it applied. */
+    public static JSONObject overlay(JSONObject row, List<Op> pending) {
+        if (row == null || pending == null || pending.isEmpty()) return row;
+        JSONArray one = new JSONArray().put(copy(row));
+        for (Op op : pending) apply(one, op);
+        return one.optJSONObject(0);
+    }
+
+    /** Applies one op to {@code rows} in place; ops whose booking isn't listed are skipped. */
+    public static void apply(JSONArray rows, Op op) {
+        if (CREATE.equals(op.kind)) {
+            if (indexOf(rows, op.localId()) < 0) rows.put(optimisticCreate(op));
+            return;
+        }
+        int i = indexOf(rows, op.bookingId);
+        if (i < 0) return;
+        JSONObject row = rows.optJSONObject(i);
+        if (MODIFY.equals(op.kind)) {
+            setSlot(row, op.payload);
+            row.put("status", "Pending");     // the server sends modified bookings back for approval
+        } else if (CANCEL.equals(op.kind)) {
+            row.put("status", "Cancelled");
+        }
+        row.put(PENDING_FIELD, op.kind);
+    }
+
+    // ---- reconciliation ----
+
+    /**
+     * Folds a confirmed op into the server copy: the booking the server returned replaces the row the
+     * op painted (for a create, the local row). Without a returned booking a modify/cancel is applied as
+     * sent; a create can't be (its server id is unknown), so false tells the caller to refetch the list.
+     */
+    public static boolean reconcile(JSONArray rows, Op op, JSONObject serverRow) {
+        String id = serverRow != null ? idOf(serverRow) : null;
+        if (id != null) {
+            if (CREATE.equals(op.kind)) remove(rows, op.localId());
+            int i = indexOf(rows, id);
+            if (i >= 0) rows.put(i, serverRow); else rows.put(serverRow);
+            return true;
+        }
+        if (CREATE.equals(op.kind)) return false;
+        apply(rows, op);
+        int i = indexOf(rows, op.bookingId);
+        if (i >= 0) rows.optJSONObject(i).remove(PENDING_FIELD);
+        return true;
+    }
+
+    public static int indexOf(JSONArray rows, String id) {
+        if (rows == null || id == null) return -1;
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject o = rows.optJSONObject(i);
+            if (o != null && id.equals(idOf(o))) return i;
+        }
+        return -1;
+    }
+
+    public static String idOf(JSONObject o) {
+        String id = JsonUtils.optString(o, "id");
+        return id != null ? id : JsonUtils.optString(o, "bookingId");
+    }
+
+    // ---- internals ----
+
+    /** Enough of a BookingResponse for the lists, the availability grid and the detail screen. */
+    private static JSONObject optimisticCreate(Op op) {
+        JSONObject row = new JSONObject();
+        row.put("id", op.localId());
+        row.put("stationId", JsonUtils.optString(op.payload, "stationId"));
+        row.put("status", "Pending");
+        setSlot(row, op.payload);
+        String notes = JsonUtils.optString(op.payload, "notes");
+        if (notes != null) row.put("notes", notes);
+        row.put(PENDING_FIELD, CREATE);
+        return row;
+    }
+
+    private static void setSlot(JSONObject row, JSONObject payload) {
+        String date = JsonUtils.optString(payload, "localDate");
+        String time = JsonUtils.optString(payload, "startTime");
+        if (date == null || time == null) return;
+        int minutes = payload.optInt("minutes", row.optInt("slotMinutes", 60));
+        for (String f : UTC_FIELDS) row.remove(f);
+        row.put("localDate", date);
+        row.put("startTime", time);
+        row.put("minutes", minutes);
+        row.put("slotStartLocal", date + "T" + time);
+        row.put("slotMinutes", minutes);
+    }
+
+    private static void remove(JSONArray rows, String id) {
+        int i = indexOf(rows, id);
+        if (i >= 0) rows.remove(i);
+    }
+
+    /** Shallow copy: ops only replace top-level fields. */
+    private static JSONObject copy(JSONObject o) {
+        JSONObject c = new JSONObject();
+        for (Iterator<String> it = o.keys(); it.hasNext(); ) {
+            String k = it.next();
+            c.put(k, o.opt(k));
+        }
+        return c;
+    }
+}
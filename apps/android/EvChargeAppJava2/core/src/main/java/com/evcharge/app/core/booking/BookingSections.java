@@ -0,0 +1,245 @@
+package com.evcharge.app.core.booking;
+
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the /api/Booking/mine payload into the "My bookings" sections
+ * (Today, Yesterday, This Week, Upcoming, Older, Other), applying the status and date filters.
+ * - Start time comes from the first parseable of startUtc / slotStartUtc / slotStartLocal / localDate+startTime
+ * - Bookings whose start can't be parsed land in "Other" (date filters don't apply to them)
+ * Pure Java: the fragment maps sections to adapter rows.
+ */
+public final class BookingSections {
+
+    private static final DateTimeFormatter WHEN_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final DateTimeFormatter WHEN_TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter SLOT_LOCAL = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final DateTimeFormatter[] COMMON_PATTERNS = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm")
+    };
+
+    public static final class Item {
+        public final String id;
+        public final String station;
+        public final String when;
+        public final String status;
+        Item(String id, String station, String when, String status) {
+            this.id = id; this.station = station; this.when = when; this.status = status;
+        }
+    }
+
+    public static final class Section {
+        public final String title;
+        public final List<Item> items;
+        Section(String title, List<Item> items) { this.title = title; this.items = Collections.unmodifiableList(items); }
+    }
+
+    private BookingSections() {}
+
+    /**
+     * @param statusFilter null or "All" keeps every status
+     * @param from / to    inclusive local-date bounds, null = open
+     * @param today        "today" in {@code zone} (a parameter so runs are reproducible)
+     */
+    public static List<Section> build(JSONArray arr, Map<String, String> idToName, String statusFilter,
+                                      LocalDate from, LocalDate to, ZoneId zone, LocalDate today) {
+        boolean filterByStatus = statusFilter != null && !"All".equalsIgnoreCase(statusFilter);
+
+        LocalDate yesterday = today.minusDays(1);
+        WeekFields wf = WeekFields.ISO;
+        LocalDate weekStart = today.with(wf.dayOfWeek(), 1);
+        LocalDate weekEnd   = today.with(wf.dayOfWeek(), 7);
+
+        List<Item> todayList = new ArrayList<>();
+        List<Item> yList     = new ArrayList<>();
+        List<Item> weekList  = new ArrayList<>();
+        List<Item> upcoming  = new ArrayList<>();
+        List<Item> older     = new ArrayList<>();
+        List<Item> other     = new ArrayList<>();
+
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject o = arr.optJSONObject(i);
+            if (o == null) continue;
+            String id = JsonUtils.optString(o, "id");
+            if (id == null) id = JsonUtils.optString(o, "bookingId");
+            if (id == null) id = JsonUtils.optString(o, "BookingId");
+            if (id == null) id = JsonUtils.optString(o, "BookingCode");
+            if (id == null) continue;
+
+            String status = JsonUtils.optString(o, "status");
+            if (status == null) status = JsonUtils.optString(o, "Status");
+            if (filterByStatus && (status == null || !statusFilter.equalsIgnoreCase(status))) continue;
+
+            String station = stationName(o, idToName);
+            LocalDateTime ldt = parseStartLocal(o, zone);
+
+            if (ldt == null) {
+                other.add(new Item(id, station, displayWhen(o, null), status));
+                continue;
+            }
+
+            LocalDate d = ldt.toLocalDate();
+            if (from != null && d.isBefore(from)) continue;
+            if (to   != null && d.isAfter(to))    continue;
+
+            Item item = new Item(id, station, displayWhen(o, ldt), status);
+            if (d.equals(today)) {
+                todayList.add(item);
+            } else if (d.equals(yesterday)) {
+                yList.add(item);
+            } else if (!d.isBefore(weekStart) && !d.isAfter(weekEnd)) {
+                weekList.add(item);
+            } else if (d.isAfter(weekEnd)) {
+                upcoming.add(item);
+            } else {
+                older.add(item);
+            }
+        }
+
+        List<Section> out = new ArrayList<>(6);
+        addIfAny(out, "Today", todayList);
+        addIfAny(out, "Yesterday", yList);
+        addIfAny(out, "This Week", weekList);
+        addIfAny(out, "Upcoming", upcoming);
+        addIfAny(out, "Older", older);
+        addIfAny(out, "Other", other);
+        return out;
+    }
+
+    private static void addIfAny(List<Section> out, String title, List<Item> items) {
+        if (!items.isEmpty()) out.add(new Section(title, items));
+    }
+
+    private static String stationName(JSONObject o, Map<String, String> idToName) {
+        String station = JsonUtils.optString(o, "stationName");
+        if (station == null) station = JsonUtils.optString(o, "StationName");
+        if (station != null) return station;
+        String sid = extractStationId(o);
+        if (sid != null && idToName != null && idToName.containsKey(sid)) return idToName.get(sid);
+        if (sid != null) return "Station " + (sid.length() > 6 ? sid.substring(0, 6) : sid);
+        return "Station";
+    }
+
+    /** Booking start in local time, or null if none of the known fields parse. */
+    public static LocalDateTime parseStartLocal(JSONObject o, ZoneId zone) {
+        String s = startUtcField(o);
+        if (!isEmpty(s)) {
+            LocalDateTime ldt = tryParseInstantLike(s, zone);
+            if (ldt != null) return ldt;
+            ldt = tryCommonDateTimePatterns(s);
+            if (ldt != null) return ldt;
+        }
+
+        String d = JsonUtils.optString(o, "localDate");
+        String t = JsonUtils.optString(o, "startTime");
+        String slotLocal = JsonUtils.optString(o, "slotStartLocal");
+        if (slotLocal == null) slotLocal = JsonUtils.optString(o, "SlotStartLocal");
+        if (!isEmpty(slotLocal)) {
+            try {
+                return LocalDateTime.parse(slotLocal.replace(" ", "T"), SLOT_LOCAL);
+            } catch (Exception ignored) {}
+        }
+        if (!isEmpty(d) && !isEmpty(t)) {
+            try {
+                return LocalDateTime.of(LocalDate.parse(d), LocalTime.parse(t));
+            } catch (Exception ignored) {}
+        }
+        return null;
+    }
+
+    private static LocalDateTime tryParseInstantLike(String s, ZoneId zone) {
+        String v = s.replace(" ", "T");
+        try {
+            if (s.endsWith("Z") || s.contains("+")) {
+                return LocalDateTime.ofInstant(Instant.parse(v), zone);
+            }
+        } catch (Exception ignored) {}
+        try {
+            return OffsetDateTime.parse(v).atZoneSameInstant(zone).toLocalDateTime();
+        } catch (Exception ignored) {}
+        try {
+            return ZonedDateTime.parse(v).withZoneSameInstant(zone).toLocalDateTime();
+        } catch (Exception ignored) {}
+        return null;
+    }
+
+    private static LocalDateTime tryCommonDateTimePatterns(String s) {
+        String v = s.replace(" ", "T");
+        for (DateTimeFormatter f : COMMON_PATTERNS) {
+            try {
+                return LocalDateTime.parse(v, f);
+            } catch (DateTimeParseException ignored) {}
+        }
+        return null;
+    }
+
+    /** "dd MMM yyyy · HH:mm" when parsed, otherwise the best raw field, otherwise "(time unknown)". */
+    public static String displayWhen(JSONObject o, LocalDateTime ldt) {
+        if (ldt != null) {
+            return WHEN_DATE.format(ldt.toLocalDate()) + " · " + WHEN_TIME.format(ldt.toLocalTime());
+        }
+        String s = startUtcField(o);
+        if (!isEmpty(s)) return s;
+        String d = JsonUtils.optString(o, "localDate");
+        String t = JsonUtils.optString(o, "startTime");
+        String l = JsonUtils.optString(o, "slotStartLocal");
+        if (l == null) l = JsonUtils.optString(o, "SlotStartLocal");
+        if (!isEmpty(l)) return l;
+        if (!isEmpty(d) && !isEmpty(t)) return d + " · " + t;
+        if (!isEmpty(d)) return d;
+        return "(time unknown)";
+    }
+
+    /** stationId in any of the shapes the backend has used (plain, Mongo {$oid}, nested station). */
+    public static String extractStationId(JSONObject o) {
+        // Objects first: optString() would return an {$oid} object as its JSON text
+        JSONObject node = o.optJSONObject("StationId");
+        if (node != null) {
+            String oid = JsonUtils.optString(node, "$oid");
+            if (oid != null) return oid;
+        }
+        String sid = JsonUtils.optString(o, "stationId");
+        if (sid == null && node == null) sid = JsonUtils.optString(o, "StationId");
+        if (sid != null) return sid;
+
+        JSONObject st = o.optJSONObject("station");
+        if (st != null) {
+            String id = JsonUtils.optString(st, "id");
+            if (id != null) return id;
+            JSONObject _id = st.optJSONObject("_id");
+            if (_id != null) return JsonUtils.optString(_id, "$oid");
+            return JsonUtils.optString(st, "_id");
+        }
+        return null;
+    }
+
+    private static String startUtcField(JSONObject o) {
+        String s = JsonUtils.optString(o, "startUtc");
+        if (s == null) s = JsonUtils.optString(o, "startTimeUtc");
+        if (s == null) s = JsonUtils.optString(o, "slotStartUtc");
+        if (s == null) s = JsonUtils.optString(o, "SlotStartUtc");
+        return s;
+    }
+
+    private static boolean isEmpty(String s) { return s == null || s.isEmpty(); }
+}
@@ -0,0 +1,260 @@
+package com.evcharge.app.core.booking;
+
+import com.evcharge.app.core.geo.StationPoint;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local booking availability for one station, built from GET /api/Station/{id}/schedule plus the station's
+ * connectors, defaultSlotMinutes and hoursTimezone (catalogue entry or station detail).
+ * Mirrors the server's create checks (BookingService.CreateAsync / PolicyService):
+ * - minutes must equal the station's defaultSlotMinutes
+ * - [start, start+minutes) must fit inside one weekly window of that weekday
+ * - closed exceptions and capacity overrides (connectors) per date
+ * - not in the past, not beyond the booking horizon (end of today + HORIZON_DAYS)
+ * Known bookings (the owner's own, from BookingCache) are merged in: a slot whose overlapping
+ * bookings already use every connector is reported as full.
+ * Build once per station (from + addBookingsFrom), then query: queries are pure and cheap enough
+ * for the main thread.
+ */
+public final class SlotAvailability {
+
+    /** PolicyOptions.MaxBookingHorizonDays on the server. */
+    public static final int HORIZON_DAYS = 7;
+    /** InventoryService.ResolveTz: a blank or unknown hoursTimezone means UTC on the server. */
+    public static final ZoneId DEFAULT_ZONE = ZoneId.of("UTC");
+
+    private static final String[] DAY_KEYS = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    /** A bookable interval on the station's local clock. */
+    public static final class Slot {
+        public final LocalDate date;
+        public final LocalTime start;
+        public final int minutes;
+        public final int free;       // connectors left after known bookings
+
+        Slot(LocalDate date, LocalTime start, int minutes, int free) {
+            this.date = date; this.start = start; this.minutes = minutes; this.free = free;
+        }
+
+        public String ymd() { return date.toString(); }
+        public String hm() { return String.format(Locale.US, "%02d:%02d", start.getHour(), start.getMinute()); }
+        @Override public String toString() { return ymd() + " " + hm(); }
+    }
+
+    private final Map<DayOfWeek, List<int[]>> weekly = new EnumMap<>(DayOfWeek.class); // minute-of-day [start, end)
+    private final Set<LocalDate> closed = new HashSet<>();
+    private final Map<LocalDate, Integer> capacityOverrides = new HashMap<>();
+    private final List<LocalDateTime[]> bookings = new ArrayList<>();                  // [start, end)
+    private final int connectors;
+    private final int slotMinutes;
+    private final ZoneId zone;
+
+    public SlotAvailability(int connectors, int slotMinutes, ZoneId zone) {
+        this.connectors = Math.max(0, connectors);
+        this.slotMinutes = slotMinutes > 0 ? slotMinutes : 60;
+        this.zone = zone != null ? zone : DEFAULT_ZONE;
+        for (DayOfWeek d : DayOfWeek.values()) weekly.put(d, new ArrayList<>());
+    }
+
+    // ---- building ----
+
+    /**
+     * From the station detail (connectors, defaultSlotMinutes, hoursTimezone) and its schedule.
+     * A null schedule means "not configured": the server rejects every booking, so nothing is free.
+     */
+    public static SlotAvailability from(JSONObject detail, JSONObject schedule) {
+        int conn = detail != null ? detail.optInt("connectors", detail.optInt("Connectors", 1)) : 1;
+        int slot = detail != null ? detail.optInt("defaultSlotMinutes", detail.optInt("DefaultSlotMinutes", 60)) : 60;
+        String tz = detail != null ? JsonUtils.optString(detail, "hoursTimezone") : null;
+        return withSchedule(new SlotAvailability(conn, slot, zoneOf(tz)), schedule);
+    }
+
+    /** Same, from a catalogue entry; use it only when the entry knows connectors and slot minutes. */
+    public static SlotAvailability from(StationPoint station, JSONObject schedule) {
+        return withSchedule(new SlotAvailability(station.connectors, station.defaultSlotMinutes,
+                zoneOf(station.hoursTimezone)), schedule);
+    }
+
+    /** The station's zone; blank or unknown ids fall back to UTC like the server. */
+    static ZoneId zoneOf(String tz) {
+        if (tz == null || tz.trim().isEmpty()) return DEFAULT_ZONE;
+        try { return ZoneId.of(tz.trim()); } catch (Exception e) { return DEFAULT_ZONE; }
+    }
+
+    private static SlotAvailability withSchedule(SlotAvailability a, JSONObject schedule) {
+        if (schedule == null) return a;
+
+        JSONObject w = schedule.optJSONObject("weekly");
+        if (w != null) {
+            for (int i = 0; i < DAY_KEYS.length; i++) {
+                JSONArray ranges = w.optJSONArray(DAY_KEYS[i]);
+                if (ranges == null) continue;
+                for (int j = 0; j < ranges.length(); j++) {
+                    JSONObject r = ranges.optJSONObject(j);
+                    if (r == null) continue;
+                    int s = minuteOfDay(r.optString("start", null)), e = minuteOfDay(r.optString("end", null));
+                    if (s >= 0 && e > s) a.weekly.get(DayOfWeek.of(i + 1)).add(new int[]{s, e});
+                }
+            }
+        }
+        JSONArray ex = schedule.optJSONArray("exceptions");
+        if (ex != null) {
+            for (int i = 0; i < ex.length(); i++) {
+                JSONObject e = ex.optJSONObject(i);
+                LocalDate d = e != null ? parseDate(e.optString("date", null)) : null;
+                if (d != null && e.optBoolean("closed", false)) a.closed.add(d);
+            }
+        }
+        JSONArray ov = schedule.optJSONArray("capacityOverrides");
+        if (ov != null) {
+            for (int i = 0; i < ov.length(); i++) {
+                JSONObject o = ov.optJSONObject(i);
+                LocalDate d = o != null ? parseDate(o.optString("date", null)) : null;
+                int c = o != null ? o.optInt("connectors", 0) : 0;
+                if (d != null && c > 0) a.capacityOverrides.put(d, c);
+            }
+        }
+        return a;
+    }
+
+    /** Count a known booking against capacity. */
+    public void addBooking(LocalDateTime localStart, int minutes) {
+        if (localStart == null || minutes <= 0) return;
+        bookings.add(new LocalDateTime[]{localStart, localStart.plusMinutes(minutes)});
+    }
+
+    /**
+     * Merge bookings for this station from a /api/Booking/mine array.
+     * Only statuses that hold a connector count (Pending, Approved, CheckedIn).
+     */
+    public void addBookingsFrom(JSONArray mine, String stationId) {
+        if (mine == null || stationId == null) return;
+        for (int i = 0; i < mine.length(); i++) {
+            JSONObject o = mine.optJSONObject(i);
+            if (o == null || !stationId.equals(JsonUtils.optString(o, "stationId"))) continue;
+            String status = JsonUtils.optString(o, "status");
+            if (status == null || !(status.equalsIgnoreCase("Pending") || status.equalsIgnoreCase("Approved")
+                    || status.equalsIgnoreCase("CheckedIn"))) continue;
+            String local = JsonUtils.optString(o, "slotStartLocal");
+            if (local == null || local.length() < 16) continue;
+            try {
+                addBooking(LocalDateTime.parse(local.substring(0, 16)), o.optInt("slotMinutes", slotMinutes));
+            } catch (Exception ignored) {}
+        }
+    }
+
+    // ---- queries ----
+
+    public int slotMinutes() { return slotMinutes; }
+
+    public ZonedDateTime now() { return ZonedDateTime.now(zone); }
+
+    /** Why this booking would be rejected, or null if it looks valid. Messages match the server's wording. */
+    public String check(LocalDate date, LocalTime start, int minutes, ZonedDateTime now) {
+        if (minutes != slotMinutes) return "Minutes must be " + slotMinutes + ".";
+        LocalDateTime ls = LocalDateTime.of(date, start);
+        LocalDateTime nowLocal = now.withZoneSameInstant(zone).toLocalDateTime();
+        if (ls.isBefore(nowLocal)) return "Cannot create a booking in the past.";
+        if (date.isAfter(nowLocal.toLocalDate().plusDays(HORIZON_DAYS))) {
+            return "Cannot book more than " + HORIZON_DAYS + " day(s) ahead.";
+        }
+        int s = start.getHour() * 60 + start.getMinute(), e = s + minutes;
+        if (e > 24 * 60 || !insideWindow(date, s, e)) return "Requested time is outside station open hours.";
+        if (capacity(date) <= 0) return "Station is closed on that date.";
+        if (freeAt(ls, minutes) <= 0) return "The selected slot is full.";
+        return null;
+    }
+
+    /** Grid slots (window start + k * slotMinutes) on one date that are still open and not full. */
+    public List<Slot> slotsOn(LocalDate date, ZonedDateTime now) {
+        List<Slot> out = new ArrayList<>();
+        if (capacity(date) <= 0) return out;
+        LocalDateTime nowLocal = now.withZoneSameInstant(zone).toLocalDateTime();
+        List<int[]> ranges = new ArrayList<>(weekly.get(date.getDayOfWeek()));
+        ranges.sort((x, y) -> Integer.compare(x[0], y[0]));
+        for (int[] r : ranges) {
+            for (int m = r[0]; m + slotMinutes <= r[1]; m += slotMinutes) {
+                LocalDateTime ls = LocalDateTime.of(date, LocalTime.of(m / 60, m % 60));
+                if (ls.isBefore(nowLocal)) continue;
+                int free = freeAt(ls, slotMinutes);
+                if (free > 0) out.add(new Slot(date, ls.toLocalTime(), slotMinutes, free));
+            }
+        }
+        return out;
+    }
+
+    /** First {@code n} free slots at or after {@code from} (station local), within the booking horizon. */
+    public List<Slot> nextFree(int n, LocalDateTime from, ZonedDateTime now) {
+        List<Slot> out = new ArrayList<>();
+        LocalDate today = now.withZoneSameInstant(zone).toLocalDate();
+        LocalDate start = from != null && from.toLocalDate().isAfter(today) ? from.toLocalDate() : today;
+        for (LocalDate d = start; !d.isAfter(today.plusDays(HORIZON_DAYS)) && out.size() < n; d = d.plusDays(1)) {
+            for (Slot s : slotsOn(d, now)) {
+                if (from != null && LocalDateTime.of(s.date, s.start).isBefore(from)) continue;
+                out.add(s);
+                if (out.size() >= n) break;
+            }
+        }
+        return out;
+    }
+
+    public List<Slot> nextFree(int n, ZonedDateTime now) { return nextFree(n, null, now); }
+
+    // ---- internals ----
+
+    private boolean insideWindow(LocalDate date, int s, int e) {
+        for (int[] r : weekly.get(date.getDayOfWeek())) if (r[0] <= s && e <= r[1]) return true;
+        return false;
+    }
+
+    private int capacity(LocalDate date) {
+        if (closed.contains(date)) return 0;
+        Integer ov = capacityOverrides.get(date);
+        return ov != null ? ov : connectors;
+    }
+
+    private int freeAt(LocalDateTime start, int minutes) {
+        LocalDateTime end = start.plusMinutes(minutes);
+        int used = 0;
+        for (LocalDateTime[] b : bookings) if (b[0].isBefore(end) && start.isBefore(b[1])) used++;
+        return capacity(start.toLocalDate()) - used;
+    }
+
+    /** "HH:mm" -> minute of day; -1 if malformed. */
+    static int minuteOfDay(String hm) {
+        if (hm == null || hm.length() < 4) return -1;
+        int colon = hm.indexOf(':');
+        if (colon < 1) return -1;
+        try {
+            int h = Integer.parseInt(hm.substring(0, colon).trim());
+            int m = Integer.parseInt(hm.substring(colon + 1).trim());
+            if (h < 0 || h > 23 || m < 0 || m > 59) return -1; // server parses "hh:mm" (no 24:00)
+            return h * 60 + m;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static LocalDate parseDate(String ymd) {
+        if (ymd == null || ymd.length() < 10) return null;
+        try { return LocalDate.parse(ymd.substring(0, 10)); } catch (Exception e) { return null; }
+    }
+}
@@ -0,0 +1,78 @@
+package com.evcharge.app.core.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding kept as interleaved bits in a long (5 bits per character).
+ * - encode(): bit form, used as bucket key by StationIndex
+ * - toBase32(): textual form for logs/debugging
+ * - cover(): cells overlapping a lat/lng box
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {}
+
+    /** Interleaved geohash bits (longitude first) for the given precision in characters (1..12). */
+    public static long encode(double lat, double lng, int precision) {
+        int bits = precision * 5;
+        double latLo = -90, latHi = 90, lngLo = -180, lngHi = 180;
+        long hash = 0L;
+        for (int i = 0; i < bits; i++) {
+            hash <<= 1;
+            if ((i & 1) == 0) {
+                double mid = (lngLo + lngHi) / 2;
+                if (lng >= mid) { hash |= 1; lngLo = mid; } else { lngHi = mid; }
+            } else {
+                double mid = (latLo + latHi) / 2;
+                if (lat >= mid) { hash |= 1; latLo = mid; } else { latHi = mid; }
+            }
+        }
+        return hash;
+    }
+
+    public static String toBase32(long hash, int precision) {
+        char[] out = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            out[i] = BASE32[(int) (hash & 31)];
+            hash >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /** Cell height in degrees of latitude. */
+    public static double cellHeightDeg(int precision) {
+        return 180.0 / (1L << ((precision * 5) / 2));
+    }
+
+    /** Cell width in degrees of longitude. */
+    public static double cellWidthDeg(int precision) {
+        return 360.0 / (1L << ((precision * 5 + 1) / 2));
+    }
+
+    /** Number of cells cover() would return for the box (cheap pre-check). */
+    public static long cellCount(double south, double west, double north, double east, int precision) {
+        long rows = (long) Math.floor(north / cellHeightDeg(precision)) - (long) Math.floor(south / cellHeightDeg(precision)) + 1;
+        long cols = (long) Math.floor(east / cellWidthDeg(precision)) - (long) Math.floor(west / cellWidthDeg(precision)) + 1;
+        return Math.max(0, rows) * Math.max(0, cols);
+    }
+
+    /** Geohash cells overlapping the box (no antimeridian wrap). */
+    public static List<Long> cover(double south, double west, double north, double east, int precision) {
+        double h = cellHeightDeg(precision), w = cellWidthDeg(precision);
+        List<Long> out = new ArrayList<>();
+        double lat0 = (Math.floor(south / h) + 0.5) * h;
+        double lng0 = (Math.floor(west / w) + 0.5) * w;
+        for (double lat = lat0; lat - h / 2 <= north; lat += h) {
+            for (double lng = lng0; lng - w / 2 <= east; lng += w) {
+                out.add(encode(clampLat(lat), clampLng(lng), precision));
+            }
+        }
+        return out;
+    }
+
+    private static double clampLat(double v) { return Math.max(-90, Math.min(90 - 1e-9, v)); }
+    private static double clampLng(double v) { return Math.max(-180, Math.min(180 - 1e-9, v)); }
+}
@@ -0,0 +1,36 @@
+package com.evcharge.app.core.geo;
+
+/**
+ * Small spherical-earth helpers (no external libs).
+ * - Haversine great-circle distance in km
+ * - Degree spans for a radius, used to build bounding boxes
+ */
+public final class GeoMath {
+
+    /** IUGG mean earth radius. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEG_LAT = 111.32;
+
+    private GeoMath() {}
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double sLat = Math.sin(dLat / 2);
+        double sLng = Math.sin(dLng / 2);
+        double a = sLat * sLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sLng * sLng;
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /** Latitude span (degrees) covered by radiusKm. */
+    public static double latDegreesFor(double radiusKm) {
+        return radiusKm / KM_PER_DEG_LAT;
+    }
+
+    /** Longitude span (degrees) covered by radiusKm at the given latitude. */
+    public static double lngDegreesFor(double radiusKm, double atLat) {
+        double cos = Math.cos(Math.toRadians(atLat));
+        if (cos < 1e-6) return 180.0;
+        return Math.min(180.0, radiusKm / (KM_PER_DEG_LAT * cos));
+    }
+}
@@ -0,0 +1,113 @@
+package com.evcharge.app.core.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable geohash-bucketed spatial index over the station catalogue.
+ * - Buckets are precision-5 geohash cells (~4.9 km x 4.9 km)
+ * - Radius queries visit only the cells overlapping the query box, then filter by haversine
+ * - Very wide queries fall back to a linear scan (still cheap for a few thousand stations)
+ * Rebuild a new instance when the catalogue changes; reads need no locking.
+ */
+public final class StationIndex {
+
+    public static final int PRECISION = 5;
+    private static final int MAX_CELLS_PER_QUERY = 64;
+
+    public static final class Hit {
+        public final StationPoint station;
+        public final double distanceKm;
+        public Hit(StationPoint station, double distanceKm) { this.station = station; this.distanceKm = distanceKm; }
+    }
+
+    private final List<StationPoint> all;
+    private final Map<Long, List<StationPoint>> buckets = new HashMap<>();
+    private final Map<String, StationPoint> byId = new HashMap<>();
+
+    public StationIndex(Collection<StationPoint> stations) {
+        List<StationPoint> list = new ArrayList<>();
+        if (stations != null) {
+            for (StationPoint s : stations) {
+                if (s == null) continue;
+                if (s.id != null) byId.put(s.id, s);
+                if (Double.isNaN(s.lat) || Double.isNaN(s.lng)) continue;
+                list.add(s);
+                long cell = GeoHash.encode(s.lat, s.lng, PRECISION);
+                List<StationPoint> b = buckets.get(cell);
+                if (b == null) { b = new ArrayList<>(4); buckets.put(cell, b); }
+                b.add(s);
+            }
+        }
+        this.all = Collections.unmodifiableList(list);
+    }
+
+    public static StationIndex empty() { return new StationIndex(null); }
+
+    public int size() { return all.size(); }
+
+    public List<StationPoint> all() { return all; }
+
+    /** Every station with an id, including those without coordinates (search indexing). */
+    public Collection<StationPoint> withIds() { return Collections.unmodifiableCollection(byId.values()); }
+
+    /** Lookup by station id (includes stations without coordinates); null if unknown. */
+    public StationPoint byId(String id) { return id != null ? byId.get(id) : null; }
+
+    /**
+     * Stations within radiusKm of (lat,lng), nearest first.
+     * @param type "AC"/"DC" filter (case-insensitive) or null for any
+     * @param activeOnly skip stations whose status is not Active
+     * @param limit max results (<= 0 for no limit)
+     */
+    public List<Hit> nearby(double lat, double lng, double radiusKm, String type, boolean activeOnly, int limit) {
+        double dLat = GeoMath.latDegreesFor(radiusKm);
+        double dLng = GeoMath.lngDegreesFor(radiusKm, lat);
+        double s = lat - dLat, n = lat + dLat, w = lng - dLng, e = lng + dLng;
+
+        List<Hit> hits = new ArrayList<>();
+        if (GeoHash.cellCount(s, w, n, e, PRECISION) > MAX_CELLS_PER_QUERY) {
+            for (StationPoint p : all) collect(p, lat, lng, radiusKm, type, activeOnly, hits);
+        } else {
+            for (Long cell : GeoHash.cover(s, w, n, e, PRECISION)) {
+                List<StationPoint> b = buckets.get(cell);
+                if (b == null) continue;
+                for (StationPoint p : b) collect(p, lat, lng, radiusKm, type, activeOnly, hits);
+            }
+        }
+        Collections.sort(hits, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return (limit > 0 && hits.size() > limit) ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /** Stations inside a lat/lng box (map viewport), unsorted. */
+    public List<StationPoint> within(double south, double west, double north, double east, boolean activeOnly) {
+        List<StationPoint> out = new ArrayList<>();
+        if (GeoHash.cellCount(south, west, north, east, PRECISION) > MAX_CELLS_PER_QUERY) {
+            for (StationPoint p : all) if (inBox(p, south, west, north, east, activeOnly)) out.add(p);
+            return out;
+        }
+        for (Long cell : GeoHash.cover(south, west, north, east, PRECISION)) {
+            List<StationPoint> b = buckets.get(cell);
+            if (b == null) continue;
+            for (StationPoint p : b) if (inBox(p, south, west, north, east, activeOnly)) out.add(p);
+        }
+        return out;
+    }
+
+    private static void collect(StationPoint p, double lat, double lng, double radiusKm,
+                                String type, boolean activeOnly, List<Hit> out) {
+        if (activeOnly && !p.isActive()) return;
+        if (type != null && !type.isEmpty() && !type.equalsIgnoreCase(p.type)) return;
+        double d = GeoMath.haversineKm(lat, lng, p.lat, p.lng);
+        if (d <= radiusKm) out.add(new Hit(p, d));
+    }
+
+    private static boolean inBox(StationPoint p, double s, double w, double n, double e, boolean activeOnly) {
+        if (activeOnly && !p.isActive()) return false;
+        return p.lat >= s && p.lat <= n && p.lng >= w && p.lng <= e;
+    }
+}
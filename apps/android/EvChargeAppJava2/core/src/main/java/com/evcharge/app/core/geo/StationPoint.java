@@ -0,0 +1,92 @@
+package com.evcharge.app.core.geo;
+
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Immutable station entry of the local catalogue (what the index and pickers need). */
+public final class StationPoint {
+    public final String id;
+    public final String name;
+    public final String type;     // "AC" | "DC" | null
+    public final String city;     // null unless the API sends one
+    public final String status;   // "Active" | "Deactivated" | null
+    public final double lat;
+    public final double lng;
+    public final int defaultSlotMinutes; // 0 if unknown
+    public final int connectors;         // 0 if unknown
+    public final String hoursTimezone;   // IANA id, or null if unknown
+
+    public StationPoint(String id, String name, String type, String city, String status,
+                        double lat, double lng, int defaultSlotMinutes, int connectors, String hoursTimezone) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.city = city;
+        this.status = status;
+        this.lat = lat;
+        this.lng = lng;
+        this.defaultSlotMinutes = defaultSlotMinutes;
+        this.connectors = connectors;
+        this.hoursTimezone = hoursTimezone;
+    }
+
+    public boolean isActive() { return status == null || "active".equalsIgnoreCase(status); }
+
+    /** Stations of an API array; entries without an id are skipped. */
+    public static List<StationPoint> parseAll(JSONArray arr) {
+        List<StationPoint> out = new ArrayList<>();
+        if (arr == null) return out;
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject o = arr.optJSONObject(i);
+            if (o == null) continue;
+            StationPoint p = parse(o);
+            if (p != null) out.add(p);
+        }
+        return out;
+    }
+
+    /** One station from the API (camelCase, PascalCase or Mongo shapes); null without an id. */
+    public static StationPoint parse(JSONObject o) {
+        String id = JsonUtils.optString(o, "id");
+        if (id == null) {
+            JSONObject m = o.optJSONObject("_id");
+            if (m != null) id = JsonUtils.optString(m, "$oid");
+        }
+        if (id == null) id = JsonUtils.optString(o, "stationId");
+        if (id == null) return null;
+
+        String name = JsonUtils.optString(o, "name");
+        if (name == null) name = JsonUtils.optString(o, "Name");
+        String type = JsonUtils.optString(o, "type");
+        if (type == null) type = JsonUtils.optString(o, "Type");
+        String status = JsonUtils.optString(o, "status");
+        if (status == null) status = JsonUtils.optString(o, "Status");
+        String city = JsonUtils.optString(o, "city");
+        if (city == null) {
+            JSONObject addr = o.optJSONObject("address");
+            if (addr == null) addr = o.optJSONObject("Address");
+            if (addr != null) city = JsonUtils.optString(addr, "city");
+        }
+
+        double lat = o.optDouble("lat", Double.NaN);
+        double lng = o.optDouble("lng", Double.NaN);
+        if (Double.isNaN(lat) || Double.isNaN(lng)) {
+            JSONObject loc = o.optJSONObject("Location");
+            JSONArray coords = (loc != null ? loc.optJSONArray("coordinates") : null);
+            if (coords != null && coords.length() >= 2) {
+                lng = coords.optDouble(0, Double.NaN);
+                lat = coords.optDouble(1, Double.NaN);
+            }
+        }
+        int slot = o.optInt("defaultSlotMinutes", o.optInt("DefaultSlotMinutes", 0));
+        int connectors = o.optInt("connectors", o.optInt("Connectors", 0));
+        String tz = JsonUtils.optString(o, "hoursTimezone");
+        if (tz == null) tz = JsonUtils.optString(o, "HoursTimezone");
+        return new StationPoint(id, name, type, city, status, lat, lng, slot, connectors, tz);
+    }
+}
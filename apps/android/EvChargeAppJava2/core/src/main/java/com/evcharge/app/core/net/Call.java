@@ -0,0 +1,156 @@
+package com.evcharge.app.core.net;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancellation + total deadline for one or more requests made on a worker thread.
+ * - The deadline covers connect, write, read and retry back-off together; per-stage timeouts are
+ *   clamped to what is left, and a watchdog disconnects the socket when it runs out
+ * - cancel() disconnects the in-flight connection immediately (blocked reads fail at once)
+ * - CallLifecycle.cancelOnDestroy(call, owner) (app module) ties the call to a screen
+ * - finish() when the work is over: stops the watchdog now instead of at the deadline
+ * After cancel/expiry/finish every request made with this call fails fast with an IOException.
+ */
+public final class Call {
+
+    /** Used by ApiClient.newCall(): generous for a slow link, short enough to free a stuck thread. */
+    public static final long DEFAULT_DEADLINE_MS = 30_000L;
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "call-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+    static { WATCHDOG.setRemoveOnCancelPolicy(true); }
+
+    /** Runs socket disconnects off the canceling thread (disconnect may block on some stacks); idle threads exit. */
+    private static final ThreadPoolExecutor ABORTER = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+        Thread t = new Thread(r, "call-abort");
+        t.setDaemon(true);
+        return t;
+    });
+    static { ABORTER.allowCoreThreadTimeOut(true); }
+
+    private final long deadlineAt;          // nowMs() clock
+    private final ScheduledFuture<?> timer;
+    private volatile boolean canceled = false;
+    private volatile boolean expired = false;
+    private volatile boolean finished = false;
+    private HttpURLConnection conn;         // guarded by this
+    private final List<Call> children = new CopyOnWriteArrayList<>();
+
+    private Call(long totalMs) {
+        long ms = Math.max(1, totalMs);
+        this.deadlineAt = nowMs() + ms;
+        this.timer = WATCHDOG.schedule(this::expire, ms, TimeUnit.MILLISECONDS);
+    }
+
+    public static Call withDeadline(long totalMs) { return new Call(totalMs); }
+
+    public void cancel() {
+        if (canceled) return;
+        canceled = true;
+        timer.cancel(false);
+        abort();
+    }
+
+    /**
+     * The owner has no more requests to make: the deadline watchdog is dropped at once (rather than holding
+     * the call until the deadline) and children are released. Not a cancel: isCanceled() stays false.
+     */
+    public void finish() {
+        if (finished || canceled) return;
+        finished = true;
+        timer.cancel(false);
+        for (Call c : children) c.cancel();
+        children.clear();
+    }
+
+    public boolean isCanceled() { return canceled; }
+
+    /** Canceled, finished or past its deadline. */
+    public boolean isDone() { return canceled || finished || expired || remainingMs() <= 0; }
+
+    public long remainingMs() { return Math.max(0, deadlineAt - nowMs()); }
+
+    // ---- used by HttpClient ----
+
+    /** Throws the matching IOException if the call can no longer make requests. */
+    void throwIfDone() throws IOException {
+        if (canceled) throw new InterruptedIOException("canceled");
+        if (finished) throw new InterruptedIOException("call already finished");
+        if (expired || remainingMs() <= 0) throw new SocketTimeoutException("deadline exceeded");
+    }
+
+    /** Stage timeout clamped to the time left (at least 1 ms; 0 would mean "infinite"). */
+    int clamp(int stageTimeoutMs) {
+        return (int) Math.max(1, Math.min(stageTimeoutMs, remainingMs()));
+    }
+
+    synchronized void attach(HttpURLConnection c) throws IOException {
+        throwIfDone();
+        conn = c;
+    }
+
+    synchronized void detach(HttpURLConnection c) {
+        if (conn == c) conn = null;
+    }
+
+    /**
+     * A call for one of several parallel requests (hedging): it ends when this one is canceled or expires,
+     * and can be canceled on its own. Pass it to release() when done.
+     */
+    Call child() {
+        Call c = new Call(remainingMs());
+        children.add(c);
+        if (isDone()) c.cancel();
+        return c;
+    }
+
+    void release(Call child) {
+        children.remove(child);
+        child.cancel();
+    }
+
+    /** Back-off sleep that wakes on cancel; fails if the deadline would pass first. */
+    synchronized void sleep(long ms) throws IOException {
+        if (ms > remainingMs()) throw new SocketTimeoutException("deadline exceeded");
+        long until = nowMs() + ms;
+        try {
+            for (long left = ms; left > 0 && !canceled; left = until - nowMs()) wait(left);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("retry interrupted");
+        }
+        throwIfDone();
+    }
+
+    /** Monotonic milliseconds (System.nanoTime based; unaffected by wall-clock changes). */
+    private static long nowMs() { return System.nanoTime() / 1_000_000L; }
+
+    private void expire() {
+        expired = true;
+        abort();
+    }
+
+    private synchronized void abort() {
+        notifyAll();
+        for (Call c : children) c.cancel();
+        if (conn != null) {
+            HttpURLConnection c = conn;
+            conn = null;
+            ABORTER.execute(c::disconnect);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.evcharge.app.core.net;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint circuit breaker (one instance per endpoint name, shared process-wide).
+ * - CLOSED: requests flow; {@code failureThreshold} consecutive failures open it
+ * - OPEN: requests fail fast with CircuitOpenException for {@code openMs}
+ * - HALF_OPEN: one probe is let through; success closes, failure re-opens
+ * A "failure" is an IOException or a 5xx/408/429 — a 4xx means the backend answered fine.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MS = 30_000L;
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    /** The shared breaker for this endpoint (created with defaults on first use). */
+    public static CircuitBreaker forEndpoint(String name) {
+        return BREAKERS.computeIfAbsent(name, n -> new CircuitBreaker(n, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MS));
+    }
+
+    public final String name;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMs = 0;
+    private boolean probeInFlight = false;
+
+    CircuitBreaker(String name, int failureThreshold, long openMs) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0, openMs);
+    }
+
+    /** Throws if the circuit is open; otherwise the caller may send one request. */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN) {
+            long left = openedAtMs + openMs - nowMs();
+            if (left > 0) throw new CircuitOpenException(name, left);
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) throw new CircuitOpenException(name, 0);
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = nowMs();
+            consecutiveFailures = 0;
+        }
+    }
+
+    /** The request ended without telling us anything (caller canceled): free a half-open probe slot. */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() { return state; }
+
+    private static long nowMs() { return System.nanoTime() / 1_000_000L; }
+}
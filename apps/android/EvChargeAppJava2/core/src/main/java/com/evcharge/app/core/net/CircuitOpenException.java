@@ -0,0 +1,16 @@
+package com.evcharge.app.core.net;
+
+import java.io.IOException;
+
+/** Thrown instead of sending a request while the endpoint's circuit breaker is open. */
+public final class CircuitOpenException extends IOException {
+
+    public final String endpoint;
+    public final long retryAfterMs;
+
+    public CircuitOpenException(String endpoint, long retryAfterMs) {
+        super("server unavailable, try again " + (retryAfterMs > 1000 ? "in " + (retryAfterMs / 1000) + "s" : "shortly"));
+        this.endpoint = endpoint;
+        this.retryAfterMs = retryAfterMs;
+    }
+}
@@ -0,0 +1,172 @@
+package com.evcharge.app.core.net;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * HttpClient.Interceptor that plays a NetworkProfile over a real connection, so timeouts, retries,
+ * breakers and caches can be watched on a bad link from a good one.
+ * All pauses go through the request's Call when there is one, so cancel and deadlines still work.
+ */
+public final class ConditionedLink implements HttpClient.Interceptor {
+
+    private static final int CHUNK = 1024;   // bytes per shaped read/write; stalls are rolled per chunk
+    private static final String PORTAL_PAGE = "<!DOCTYPE html><html><head><title>Sign in to Wi-Fi</title></head>"
+            + "<body><form action=\"/login\" method=\"post\"><p>Please accept the terms to continue.</p>"
+            + "<button>Connect</button></form></body></html>";
+
+    private final NetworkProfile profile;
+    private final Random rnd;
+
+    public ConditionedLink(NetworkProfile profile) {
+        this(profile, new Random());
+    }
+
+    /** Seeded, for runs that should see the same stalls and drops. */
+    public ConditionedLink(NetworkProfile profile, Random rnd) {
+        this.profile = profile;
+        this.rnd = rnd;
+    }
+
+    public NetworkProfile profile() { return profile; }
+
+    @Override
+    public HttpClient.Response intercept(String method, String url, Call call) throws IOException {
+        if (!profile.captivePortal) return null;
+        pause(jittered(), call);
+        Map<String, List<String>> h = new HashMap<>();
+        h.put("Content-Type", Collections.singletonList("text/html; charset=UTF-8"));
+        return new HttpClient.Response(200, PORTAL_PAGE, null, null, h);
+    }
+
+    @Override
+    public void awaitResponse(int readTimeoutMs, Call call) throws IOException {
+        long rtt = jittered();
+        if (rtt >= readTimeoutMs) {
+            pause(readTimeoutMs, call);
+            throw new SocketTimeoutException("Read timed out (simulated latency)");
+        }
+        pause(rtt, call);
+    }
+
+    @Override
+    public OutputStream requestBody(OutputStream out, Call call) {
+        if (profile.upBytesPerSec <= 0) return out;
+        return new FilterOutputStream(out) {
+            private final Pacer pacer = new Pacer(profile.upBytesPerSec);
+
+            @Override public void write(int b) throws IOException {
+                pacer.take(1, call);
+                out.write(b);
+            }
+
+            @Override public void write(byte[] b, int off, int len) throws IOException {
+                while (len > 0) {
+                    int n = Math.min(len, CHUNK);
+                    pacer.take(n, call);
+                    out.write(b, off, n);
+                    off += n;
+                    len -= n;
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream responseBody(InputStream in, long contentLength, int readTimeoutMs, Call call) {
+        long cutAt = -1;
+        if (profile.dropRate > 0 && rnd.nextDouble() < profile.dropRate) {
+            // Unknown length (chunked): somewhere in the first few KB, which covers most of our JSON
+            long span = contentLength > 0 ? contentLength : 4 * CHUNK;
+            cutAt = (long) (rnd.nextDouble() * span);
+        }
+        if (cutAt < 0 && profile.downBytesPerSec <= 0 && profile.stallRate <= 0) return in;
+        final long cut = cutAt;
+        return new FilterInputStream(in) {
+            private final Pacer pacer = profile.downBytesPerSec > 0 ? new Pacer(profile.downBytesPerSec) : null;
+            private long read;
+
+            @Override public int read() throws IOException {
+                byte[] one = new byte[1];
+                int n = read(one, 0, 1);
+                return n <= 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) return 0;
+                if (cut >= 0 && read >= cut) throw new SocketException("Connection reset (simulated)");
+                int want = Math.min(len, CHUNK);
+                if (cut >= 0) want = (int) Math.max(1, Math.min(want, cut - read));
+                int n = in.read(b, off, want);
+                if (n <= 0) return n;
+                read += n;
+                if (pacer != null) pacer.take(n, call);
+                maybeStall(readTimeoutMs, call);
+                return n;
+            }
+
+            @Override public long skip(long n) throws IOException {
+                byte[] sink = new byte[(int) Math.min(n, CHUNK)];
+                int k = read(sink, 0, sink.length);
+                return Math.max(0, k);
+            }
+
+            @Override public int available() { return 0; }
+        };
+    }
+
+    // ---- internals ----
+
+    private long jittered() {
+        long j = profile.jitterMs > 0 ? (long) ((rnd.nextDouble() * 2 - 1) * profile.jitterMs) : 0;
+        return Math.max(0, profile.latencyMs + j);
+    }
+
+    private void maybeStall(int readTimeoutMs, Call call) throws IOException {
+        if (profile.stallRate <= 0 || rnd.nextDouble() >= profile.stallRate) return;
+        long ms = profile.stallMinMs + (long) (rnd.nextDouble() * (profile.stallMaxMs - profile.stallMinMs));
+        if (ms >= readTimeoutMs) {
+            pause(readTimeoutMs, call);
+            throw new SocketTimeoutException("Read timed out (simulated stall)");
+        }
+        pause(ms, call);
+    }
+
+    private static void pause(long ms, Call call) throws IOException {
+        if (ms <= 0) return;
+        if (call != null) { call.sleep(ms); return; }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted");
+        }
+    }
+
+    /** Token bucket over elapsed time: sleeps so the average rate stays under the cap. */
+    private static final class Pacer {
+        private final long bytesPerSec;
+        private final long startNanos = System.nanoTime();
+        private long sent;
+
+        Pacer(long bytesPerSec) { this.bytesPerSec = bytesPerSec; }
+
+        void take(int n, Call call) throws IOException {
+            sent += n;
+            long dueMs = sent * 1000L / bytesPerSec;
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000L;
+            pause(dueMs - elapsedMs, call);
+        }
+    }
+}
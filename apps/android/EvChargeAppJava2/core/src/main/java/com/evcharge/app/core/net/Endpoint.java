@@ -0,0 +1,34 @@
+package com.evcharge.app.core.net;
+
+/**
+ * Resilience settings for one ApiClient method: its breaker (shared by name), retry policy and
+ * whether slow GETs are hedged (see HedgedRequest).
+ * Declared once per method in ApiClient and passed to HttpClient.request.
+ */
+public final class Endpoint {
+
+    public final String name;
+    public final RetryPolicy retry;
+    public final CircuitBreaker breaker;
+    public final boolean hedged;
+
+    private Endpoint(String name, RetryPolicy retry, boolean hedged) {
+        this.name = name;
+        this.retry = retry != null ? retry : RetryPolicy.NONE;
+        this.breaker = CircuitBreaker.forEndpoint(name);
+        this.hedged = hedged;
+    }
+
+    public static Endpoint of(String name, RetryPolicy retry) { return new Endpoint(name, retry, false); }
+
+    public static Endpoint read(String name) { return new Endpoint(name, RetryPolicy.READ, false); }
+
+    /** A read on a screen's critical path: retried like read(), and hedged when slower than its usual p90. */
+    public static Endpoint hedgedRead(String name) { return new Endpoint(name, RetryPolicy.READ, true); }
+
+    /** Keyed write to a handler that de-duplicates by Idempotency-Key (see RetryPolicy.IDEMPOTENT_WRITE). */
+    public static Endpoint write(String name) { return new Endpoint(name, RetryPolicy.IDEMPOTENT_WRITE, false); }
+
+    /** Same name and breaker, a single attempt and no hedging (the hedge leg of HedgedRequest). */
+    Endpoint singleAttempt() { return new Endpoint(name, RetryPolicy.NONE, false); }
+}
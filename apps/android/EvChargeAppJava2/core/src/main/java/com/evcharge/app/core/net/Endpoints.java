@@ -0,0 +1,58 @@
+package com.evcharge.app.core.net;
+
+/**
+ * ApiClient's per-method Endpoint table: names, retry policies and which reads are hedged, in one place.
+ * - APP is the app's own set; breakers are keyed by name, so it is shared process-wide
+ * - forDevice() builds the same table under a "<device>#" prefix, so each virtual device of the devtools
+ *   scenario runner gets its own breakers the way separate phones would; label() strips the prefix
+ * Retries only apply to GETs and to writes that carry an Idempotency-Key (see HttpClient.request); the only
+ * writes on Endpoint.write are the booking ones, whose backend handlers de-duplicate by key (IdempotencyRepository).
+ */
+public final class Endpoints {
+
+    public static final Endpoints APP = new Endpoints("");
+
+    public final Endpoint login, register;
+    public final Endpoint stationList, stationNearby, stationDetail, stationSchedule;
+    public final Endpoint bookingMine, bookingDetail, bookingCreate, bookingModify, bookingCancel;
+    public final Endpoint qrIssue, qrVerify, operatorInbox, operatorScan;
+    public final Endpoint ownerGet, ownerUpdate, ownerDeactivate;
+    public final Endpoint notifList, notifRead, notifReadBatch, notifReadAll;
+
+    private Endpoints(String p) {
+        login           = Endpoint.of(p + "auth.login", RetryPolicy.NONE);
+        register        = Endpoint.of(p + "owner.register", RetryPolicy.NONE);
+        stationList     = Endpoint.read(p + "station.list");
+        stationNearby   = Endpoint.read(p + "station.nearby");
+        // Critical path of StationDetailActivity / CreateBookingActivity: hedged past their p90 (HedgedRequest)
+        stationDetail   = Endpoint.hedgedRead(p + "station.detail");
+        stationSchedule = Endpoint.hedgedRead(p + "station.schedule");
+        bookingMine     = Endpoint.read(p + "booking.mine");
+        bookingDetail   = Endpoint.read(p + "booking.detail");
+        bookingCreate   = Endpoint.write(p + "booking.create");
+        // BookingOutbox sends a fixed key per op, so modify/cancel may retry too (keyless calls never do)
+        bookingModify   = Endpoint.write(p + "booking.modify");
+        bookingCancel   = Endpoint.write(p + "booking.cancel");
+        qrIssue         = Endpoint.of(p + "qr.issue", RetryPolicy.NONE);
+        // Sent through ApiClient.postAuthed, whose generic("POST", path, NONE) endpoint has this name
+        qrVerify        = Endpoint.of(p + "POST /api/Qr/verify", RetryPolicy.NONE);
+        operatorScan    = Endpoint.of(p + "POST /api/Operator/scan", RetryPolicy.NONE);
+        operatorInbox   = Endpoint.read(p + "operator.inbox");
+        ownerGet        = Endpoint.read(p + "owner.get");
+        ownerUpdate     = Endpoint.of(p + "owner.update", RetryPolicy.NONE);
+        ownerDeactivate = Endpoint.of(p + "owner.deactivate", RetryPolicy.NONE);
+        notifList       = Endpoint.read(p + "notifications.list");
+        notifRead       = Endpoint.of(p + "notifications.read", RetryPolicy.NONE);
+        notifReadBatch  = Endpoint.of(p + "notifications.readBatch", RetryPolicy.NONE);
+        notifReadAll    = Endpoint.of(p + "notifications.readAll", RetryPolicy.NONE);
+    }
+
+    /** The same table with breakers of its own (e.g. one virtual device in a load scenario). */
+    public static Endpoints forDevice(String device) { return new Endpoints(device + "#"); }
+
+    /** Endpoint name without a forDevice() prefix, for reports. */
+    public static String label(Endpoint ep) {
+        int i = ep.name.indexOf('#');
+        return i >= 0 ? ep.name.substring(i + 1) : ep.name;
+    }
+}
@@ -0,0 +1,41 @@
+package com.evcharge.app.core.net;
+
+/**
+ * Caps hedged requests to a share of hedgeable ones (token bucket).
+ * Every hedgeable request earns {@code ratio} of a token, a hedge spends a whole one, and at most
+ * {@code maxTokens} are banked — so over time hedges stay under ratio x requests, with a small burst
+ * allowed after a quiet spell. When the backend slows down across the board the bucket drains and
+ * hedging stops instead of doubling the load.
+ */
+public final class HedgeBudget {
+
+    /** Shared by every hedged endpoint: about 5% extra requests. */
+    public static final HedgeBudget GLOBAL = new HedgeBudget(0.05, 10);
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+    private long requests, hedges, denied;
+
+    public HedgeBudget(double ratio, double maxTokens) {
+        this.ratio = Math.max(0, ratio);
+        this.maxTokens = Math.max(1, maxTokens);
+    }
+
+    synchronized void onRequest() {
+        requests++;
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) { denied++; return false; }
+        tokens -= 1;
+        hedges++;
+        return true;
+    }
+
+    public synchronized long requests() { return requests; }
+    public synchronized long hedges() { return hedges; }
+    /** Hedges that were due (past p90) but not sent for lack of budget. */
+    public synchronized long denied() { return denied; }
+}
@@ -0,0 +1,136 @@
+package com.evcharge.app.core.net;
+
+import com.evcharge.app.core.perf.NetMetrics;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One hedged GET (Endpoint.hedgedRead):
+ * - The first request runs on the caller's thread, with its usual retries
+ * - If it hasn't answered by the endpoint's observed p90 (NetMetrics total, once MIN_SAMPLES are in) and
+ *   HedgeBudget.GLOBAL allows, the same GET is sent again on a pool thread, once (no retries: the budget
+ *   pays for one extra request per hedge, and a backend slow enough to hedge should not get a second retry loop)
+ * - The first response wins; the other request's child Call is canceled, which disconnects its socket
+ * - An exception from one request waits for the other; the caller's Call (if any) cancels both
+ */
+final class HedgedRequest {
+
+    /** Fewer samples than this and p90 means little: no hedging yet. */
+    static final long MIN_SAMPLES = 20;
+    /** Never hedge sooner than this (a p90 in the lowest buckets is mostly noise). */
+    static final long MIN_DELAY_MS = 50;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "http-hedge-timer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "http-hedge");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final HttpClient client;
+    private final String url;
+    private final Map<String, String> headers;
+    private final Endpoint ep;
+    private final Endpoint hedgeEp;
+    private final NetMetrics.Endpoint metrics;
+    private final Call root;
+    private final Call first;
+    private final CompletableFuture<HttpClient.Response> hedgeResult = new CompletableFuture<>();
+    private Call hedge;              // guarded by this
+    private boolean firstFinished;   // guarded by this
+
+    private HedgedRequest(HttpClient client, String url, Map<String, String> headers, Endpoint ep,
+                          NetMetrics.Endpoint metrics, Call root) {
+        this.client = client;
+        this.url = url;
+        this.headers = headers;
+        this.ep = ep;
+        this.hedgeEp = ep.singleAttempt();
+        this.metrics = metrics;
+        this.root = root;
+        this.first = root.child();
+    }
+
+    static HttpClient.Response run(HttpClient client, String url, Map<String, String> headers, Endpoint ep,
+                                   Call call) throws Exception {
+        HedgeBudget.GLOBAL.onRequest();
+        NetMetrics.Endpoint m = NetMetrics.get().endpoint("GET", url);
+        long p90 = m.percentileMs(NetMetrics.TOTAL, 90, MIN_SAMPLES);
+        if (p90 < 0 || p90 == Long.MAX_VALUE) return client.send("GET", url, null, headers, ep, call);
+
+        Call root = call != null ? call : Call.withDeadline(legBudgetMs(ep));
+        HedgedRequest h = new HedgedRequest(client, url, headers, ep, m, root);
+        try {
+            return h.await(Math.max(MIN_DELAY_MS, p90), call);
+        } finally {
+            if (call == null) root.finish();
+        }
+    }
+
+    private HttpClient.Response await(long hedgeAfterMs, Call call) throws Exception {
+        ScheduledFuture<?> trigger = TIMER.schedule(this::launchHedge, hedgeAfterMs, TimeUnit.MILLISECONDS);
+        try {
+            return client.send("GET", url, null, headers, ep, first);
+        } catch (Exception firstError) {
+            if (call != null) call.throwIfDone();   // the caller gave up: report that, not the race
+            Call h;
+            synchronized (this) { firstFinished = true; h = hedge; }
+            if (h == null) throw firstError;         // nothing else in flight
+            try {
+                return hedgeResult.get();
+            } catch (ExecutionException e) {
+                throw firstError;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("hedge interrupted");
+            }
+        } finally {
+            trigger.cancel(false);
+            Call h;
+            synchronized (this) { firstFinished = true; h = hedge; }
+            if (h != null) root.release(h);          // stops a hedge that lost; no-op for one that won
+            root.release(first);
+        }
+    }
+
+    /** Timer thread: send the second request unless the first one has finished or the budget is spent. */
+    private void launchHedge() {
+        Call c;
+        synchronized (this) {
+            if (firstFinished || first.isDone() || !HedgeBudget.GLOBAL.tryAcquire()) return;
+            c = root.child();
+            hedge = c;
+        }
+        POOL.execute(() -> {
+            try {
+                HttpClient.Response r = client.send("GET", url, null, headers, hedgeEp, c);
+                boolean won;
+                synchronized (this) { won = !firstFinished; }
+                metrics.onHedge(won);
+                hedgeResult.complete(r);
+                if (won) first.cancel();   // the caller's thread then picks up hedgeResult
+            } catch (Throwable t) {
+                metrics.onHedge(false);
+                hedgeResult.completeExceptionally(t);
+            }
+        });
+    }
+
+    /** Without a caller deadline: enough for the endpoint's attempts at full stage timeouts. */
+    private static long legBudgetMs(Endpoint ep) {
+        return ep.retry.maxAttempts * (long) (HttpClient.CONNECT_TIMEOUT_MS + HttpClient.READ_TIMEOUT_MS)
+                + (ep.retry.maxAttempts - 1) * ep.retry.maxDelayMs;
+    }
+}
@@ -0,0 +1,75 @@
+package com.evcharge.app.core.net;
+
+import java.util.Locale;
+
+/**
+ * Named link conditions for ConditionedLink (debug builds and dev tools only).
+ * - latency/jitter: added once per request, between sending it and reading the status line
+ * - down/up: bandwidth caps in bytes per second (0 = unlimited)
+ * - stalls: per KB of body, a pause of stallMinMs..stallMaxMs (a lost packet waiting on retransmit);
+ *   a pause that outlasts the read timeout ends in SocketTimeoutException like a real one
+ * - dropRate: share of responses cut off partway through the body (connection reset)
+ * - captivePortal: every request is answered with the portal's HTML login page
+ */
+public final class NetworkProfile {
+
+    public static final NetworkProfile NONE =
+            new NetworkProfile("none", 0, 0, 0, 0, 0.0, 0, 0, 0.0, false);
+
+    /** EDGE-class link: long round trips, ~6 KB/s down, frequent multi-second stalls. */
+    public static final NetworkProfile EDGE_2G =
+            new NetworkProfile("2g", 650, 250, 6_000, 3_000, 0.04, 2_000, 8_000, 0.03, false);
+
+    /** Full cell in a car park: decent bandwidth, high and very uneven latency, occasional stalls. */
+    public static final NetworkProfile CONGESTED_4G =
+            new NetworkProfile("congested-4g", 180, 220, 150_000, 40_000, 0.01, 800, 4_000, 0.01, false);
+
+    /** Joined Wi-Fi that hasn't been signed in to: fast, but nothing gets past the portal. */
+    public static final NetworkProfile CAPTIVE_PORTAL =
+            new NetworkProfile("captive-portal", 30, 10, 0, 0, 0.0, 0, 0, 0.0, true);
+
+    public final String name;
+    public final long latencyMs, jitterMs;
+    public final long downBytesPerSec, upBytesPerSec;
+    public final double stallRate;
+    public final long stallMinMs, stallMaxMs;
+    public final double dropRate;
+    public final boolean captivePortal;
+
+    public NetworkProfile(String name, long latencyMs, long jitterMs, long downBytesPerSec, long upBytesPerSec,
+                          double stallRate, long stallMinMs, long stallMaxMs, double dropRate, boolean captivePortal) {
+        this.name = name;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.downBytesPerSec = downBytesPerSec;
+        this.upBytesPerSec = upBytesPerSec;
+        this.stallRate = stallRate;
+        this.stallMinMs = stallMinMs;
+        this.stallMaxMs = Math.max(stallMinMs, stallMaxMs);
+        this.dropRate = dropRate;
+        this.captivePortal = captivePortal;
+    }
+
+    /** Profile for a name ("2g", "congested-4g", "captive-portal", "none"); null for null or blank. */
+    public static NetworkProfile byName(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none":           return NONE;
+            case "2g":             return EDGE_2G;
+            case "congested-4g":   return CONGESTED_4G;
+            case "captive-portal": return CAPTIVE_PORTAL;
+            default: throw new IllegalArgumentException("unknown network profile: " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s (rtt %d+/-%dms, down %s, up %s, stalls %.0f%%/KB, drops %.0f%%%s)",
+                name, latencyMs, jitterMs, rate(downBytesPerSec), rate(upBytesPerSec), stallRate * 100, dropRate * 100,
+                captivePortal ? ", captive portal" : "");
+    }
+
+    private static String rate(long bps) {
+        return bps <= 0 ? "unlimited" : (bps / 1000) + " KB/s";
+    }
+}
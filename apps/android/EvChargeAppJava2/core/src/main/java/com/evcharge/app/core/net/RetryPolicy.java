@@ -0,0 +1,41 @@
+package com.evcharge.app.core.net;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How many times an endpoint is retried and how long to wait in between.
+ * - Delays use "decorrelated jitter": next = random(base, prev * 3), capped — clients that failed
+ *   together do not come back together
+ * - Only GET/HEAD and requests carrying an Idempotency-Key are retried (HttpClient enforces that), and
+ *   a keyed write only as often as its endpoint's policy says. A key alone proves nothing: the handler
+ *   must de-duplicate by it, so every other write stays on NONE
+ */
+public final class RetryPolicy {
+
+    /** Single attempt (logins, non-idempotent writes). */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+    /** Reads: lists, details, schedules. */
+    public static final RetryPolicy READ = new RetryPolicy(3, 250, 2_000);
+    /**
+     * Keyed writes whose backend handler stores the key and answers a repeat from that store (booking
+     * create / modify / cancel, IdempotencyRepository), so a replay is harmless. Nothing else.
+     */
+    public static final RetryPolicy IDEMPOTENT_WRITE = new RetryPolicy(3, 500, 4_000);
+
+    public final int maxAttempts;
+    public final long baseDelayMs;
+    public final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(0, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+
+    /** Delay before the next attempt, given the previous delay (0 before the first retry). */
+    public long nextDelayMs(long previousDelayMs) {
+        if (baseDelayMs == 0) return 0;
+        long upper = Math.max(baseDelayMs + 1, Math.min(maxDelayMs, Math.max(previousDelayMs, baseDelayMs) * 3));
+        return Math.min(maxDelayMs, ThreadLocalRandom.current().nextLong(baseDelayMs, upper + 1));
+    }
+}
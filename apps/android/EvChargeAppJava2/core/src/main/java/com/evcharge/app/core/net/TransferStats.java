@@ -0,0 +1,54 @@
+package com.evcharge.app.core.net;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide byte counters for HttpClient, on the wire (compressed) and after decoding.
+ * - "sent" counts request bodies, "received" counts response bodies (headers excluded)
+ * - wire == decoded for requests/responses that were not compressed
+ */
+public final class TransferStats {
+
+    private static final TransferStats INSTANCE = new TransferStats();
+
+    public static TransferStats get() { return INSTANCE; }
+
+    private final AtomicLong sentWire = new AtomicLong();
+    private final AtomicLong sentDecoded = new AtomicLong();
+    private final AtomicLong receivedWire = new AtomicLong();
+    private final AtomicLong receivedDecoded = new AtomicLong();
+
+    private TransferStats() {}
+
+    void onSent(long wireBytes, long decodedBytes) {
+        sentWire.addAndGet(wireBytes);
+        sentDecoded.addAndGet(decodedBytes);
+    }
+
+    void onReceived(long wireBytes, long decodedBytes) {
+        receivedWire.addAndGet(wireBytes);
+        receivedDecoded.addAndGet(decodedBytes);
+    }
+
+    public long sentWireBytes() { return sentWire.get(); }
+    public long sentDecodedBytes() { return sentDecoded.get(); }
+    public long receivedWireBytes() { return receivedWire.get(); }
+    public long receivedDecodedBytes() { return receivedDecoded.get(); }
+
+    public void reset() {
+        sentWire.set(0); sentDecoded.set(0);
+        receivedWire.set(0); receivedDecoded.set(0);
+    }
+
+    /** "rx 120.4 KB -> 812.0 KB (6.7x), tx 2.1 KB -> 9.8 KB (4.7x)" */
+    @Override
+    public String toString() {
+        return "rx " + line(receivedWire.get(), receivedDecoded.get()) + ", tx " + line(sentWire.get(), sentDecoded.get());
+    }
+
+    private static String line(long wire, long decoded) {
+        double ratio = wire > 0 ? (double) decoded / wire : 1.0;
+        return String.format(Locale.US, "%.1f KB -> %.1f KB (%.1fx)", wire / 1024.0, decoded / 1024.0, ratio);
+    }
+}
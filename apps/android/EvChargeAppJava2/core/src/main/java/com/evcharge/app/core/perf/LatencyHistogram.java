@@ -0,0 +1,63 @@
+package com.evcharge.app.core.perf;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram (milliseconds), lock-free: one LongAdder per bucket.
+ * Bucket i counts samples <= BOUNDS_MS[i] (and above the previous bound); the last bucket is overflow.
+ * Percentiles are bucket upper bounds — coarse, but stable and cheap to record from any thread.
+ */
+public final class LatencyHistogram {
+
+    public static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder sumMs = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long ms) {
+        if (ms < 0) return;
+        buckets[bucketOf(ms)].increment();
+        sumMs.add(ms);
+    }
+
+    /** Copy of the bucket counts (length BOUNDS_MS.length + 1). */
+    public long[] counts() {
+        long[] out = new long[buckets.length];
+        for (int i = 0; i < out.length; i++) out[i] = buckets[i].sum();
+        return out;
+    }
+
+    public long sumMs() { return sumMs.sum(); }
+
+    public void reset() {
+        for (LongAdder b : buckets) b.reset();
+        sumMs.reset();
+    }
+
+    /** Upper bound (ms) of the bucket holding the p-th percentile of {@code counts}; -1 if empty. */
+    public static long percentile(long[] counts, double p) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return -1;
+        long rank = (long) Math.ceil(p / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i < BOUNDS_MS.length ? BOUNDS_MS[i] : Long.MAX_VALUE;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    static int bucketOf(long ms) {
+        int lo = 0, hi = BOUNDS_MS.length; // first bound >= ms, or overflow
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (BOUNDS_MS[mid] < ms) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
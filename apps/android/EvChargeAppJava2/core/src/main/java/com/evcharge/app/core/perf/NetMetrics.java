@@ -0,0 +1,264 @@
+package com.evcharge.app.core.perf;
+
+import com.evcharge.app.core.platform.Platform;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Per-endpoint network metrics, populated by HttpClient for every attempt.
+ * - Endpoints are "METHOD /templated/path": ids in the path become {id}, the query string is dropped
+ * - Counters are LongAdders and latencies fixed-bucket histograms: recording never takes a lock
+ * - Phases: connect (name lookup + TCP + TLS, ~0 on a reused connection), ttfb (flushed request to the
+ *   status line), download (body read + decode), total (incl. the request body write)
+ * - snapshot() copies everything; startPeriodicDump() writes it to files/net_metrics.json. The package is
+ *   com.evcharge.app plus the flavor's suffix (.emu, .lan, .iis, .netsim); run-as needs a debug build:
+ *     adb shell run-as com.evcharge.app.emu cat files/net_metrics.json
+ * - Debug builds pass an export dir too (EvChargeApp: the external files dir), readable without run-as:
+ *     adb pull /sdcard/Android/data/com.evcharge.app.emu/files/net_metrics.json
+ */
+public final class NetMetrics {
+
+    private static final String TAG = "NetMetrics";
+    public static final String FILE_NAME = "net_metrics.json";
+    public static final long DUMP_PERIOD_MS = 5 * 60_000L;
+
+    public static final String[] PHASES = {"connect", "ttfb", "download", "total"};
+    public static final int CONNECT = 0, TTFB = 1, DOWNLOAD = 2, TOTAL = 3;
+
+    /** Live counters for one endpoint. */
+    public static final class Endpoint {
+        public final String key;
+        final LongAdder attempts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder errors = new LongAdder();       // IOException, no status
+        final LongAdder[] status = new LongAdder[6];    // index = code / 100 (1..5)
+        final LongAdder bytesOut = new LongAdder();     // request body, on the wire
+        final LongAdder bytesIn = new LongAdder();      // response body, on the wire
+        final LongAdder hedges = new LongAdder();       // second requests sent by HttpClient hedging
+        final LongAdder hedgeWins = new LongAdder();    // ... that answered before the first one
+        final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+        Endpoint(String key) {
+            this.key = key;
+            for (int i = 0; i < status.length; i++) status[i] = new LongAdder();
+            for (int i = 0; i < phases.length; i++) phases[i] = new LatencyHistogram();
+        }
+
+        /** One attempt; {@code attempt} > 1 counts as a retry. */
+        public void onAttempt(int attempt) {
+            attempts.increment();
+            if (attempt > 1) retries.increment();
+        }
+
+        public void onStatus(int code) {
+            int cls = code / 100;
+            if (cls >= 1 && cls <= 5) status[cls].increment(); else errors.increment();
+        }
+
+        public void onError() { errors.increment(); }
+
+        public void onBytes(long out, long in) {
+            if (out > 0) bytesOut.add(out);
+            if (in > 0) bytesIn.add(in);
+        }
+
+        /** Phase duration in ms (PHASES index); negative = phase did not happen. */
+        public void onPhase(int phase, long ms) {
+            if (ms >= 0) phases[phase].record(ms);
+        }
+
+        public void onHedge(boolean won) {
+            hedges.increment();
+            if (won) hedgeWins.increment();
+        }
+
+        /** Live percentile of a phase (bucket upper bound); -1 until {@code minSamples} have been recorded. */
+        public long percentileMs(int phase, double p, long minSamples) {
+            long[] counts = phases[phase].counts();
+            long n = 0;
+            for (long c : counts) n += c;
+            return n < Math.max(1, minSamples) ? -1 : LatencyHistogram.percentile(counts, p);
+        }
+    }
+
+    /** Immutable copy of one endpoint's counters. */
+    public static final class EndpointSnapshot {
+        public final String key;
+        public final long attempts, retries, errors, bytesOut, bytesIn, hedges, hedgeWins;
+        public final long[] statusClasses;   // index = code / 100
+        public final long[][] phaseCounts;   // [PHASES index][bucket]
+        public final long[] phaseSumMs;
+
+        EndpointSnapshot(Endpoint e) {
+            key = e.key;
+            attempts = e.attempts.sum(); retries = e.retries.sum(); errors = e.errors.sum();
+            bytesOut = e.bytesOut.sum(); bytesIn = e.bytesIn.sum();
+            hedges = e.hedges.sum(); hedgeWins = e.hedgeWins.sum();
+            statusClasses = new long[e.status.length];
+            for (int i = 0; i < statusClasses.length; i++) statusClasses[i] = e.status[i].sum();
+            phaseCounts = new long[PHASES.length][];
+            phaseSumMs = new long[PHASES.length];
+            for (int i = 0; i < PHASES.length; i++) {
+                phaseCounts[i] = e.phases[i].counts();
+                phaseSumMs[i] = e.phases[i].sumMs();
+            }
+        }
+
+        public long percentileMs(int phase, double p) { return LatencyHistogram.percentile(phaseCounts[phase], p); }
+
+        JSONObject toJson() throws Exception {
+            JSONObject o = new JSONObject();
+            o.put("endpoint", key);
+            o.put("attempts", attempts);
+            o.put("retries", retries);
+            o.put("errors", errors);
+            JSONObject st = new JSONObject();
+            for (int i = 1; i < statusClasses.length; i++) if (statusClasses[i] > 0) st.put(i + "xx", statusClasses[i]);
+            o.put("status", st);
+            o.put("bytesOut", bytesOut);
+            o.put("bytesIn", bytesIn);
+            if (hedges > 0) {
+                o.put("hedges", hedges);
+                o.put("hedgeWins", hedgeWins);
+            }
+            JSONObject ph = new JSONObject();
+            for (int i = 0; i < PHASES.length; i++) {
+                long n = 0;
+                for (long c : phaseCounts[i]) n += c;
+                if (n == 0) continue;
+                JSONObject h = new JSONObject();
+                h.put("count", n);
+                h.put("meanMs", phaseSumMs[i] / n);
+                h.put("p50Ms", percentileMs(i, 50));
+                h.put("p90Ms", percentileMs(i, 90));
+                h.put("p99Ms", percentileMs(i, 99));
+                h.put("buckets", new JSONArray(phaseCounts[i]));
+                ph.put(PHASES[i], h);
+            }
+            o.put("phases", ph);
+            return o;
+        }
+    }
+
+    private static final NetMetrics INSTANCE = new NetMetrics();
+
+    public static NetMetrics get() { return INSTANCE; }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService dumper;
+
+    private NetMetrics() {}
+
+    /** Counters for this request's templated endpoint (created on first use). */
+    public Endpoint endpoint(String method, String url) {
+        String key = method + " " + template(url);
+        Endpoint e = endpoints.get(key);
+        return e != null ? e : endpoints.computeIfAbsent(key, Endpoint::new);
+    }
+
+    /** Sorted by endpoint key. */
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> out = new ArrayList<>();
+        for (Endpoint e : new TreeMap<>(endpoints).values()) out.add(new EndpointSnapshot(e));
+        return Collections.unmodifiableList(out);
+    }
+
+    public void reset() { endpoints.clear(); }
+
+    // ---- templating ----
+
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{24}");
+    private static final Pattern UUID_LIKE = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F-]{27}");
+    private static final Pattern NUMERIC = Pattern.compile("\\d+");
+    private static final Pattern NIC = Pattern.compile("\\d{9}[VvXx]|\\d{12}");
+
+    /** "http://h:8085/api/Station/68e4...c1/schedule?x=1" -> "/api/Station/{id}/schedule". */
+    public static String template(String url) {
+        if (url == null) return "";
+        int start = url.indexOf("://");
+        start = start >= 0 ? url.indexOf('/', start + 3) : 0;
+        if (start < 0) return "/";
+        int end = url.indexOf('?', start);
+        String path = end >= 0 ? url.substring(start, end) : url.substring(start);
+        StringBuilder sb = new StringBuilder(path.length());
+        for (String seg : path.split("/")) {
+            if (seg.isEmpty()) continue;
+            sb.append('/').append(isId(seg) ? "{id}" : seg);
+        }
+        return sb.length() > 0 ? sb.toString() : "/";
+    }
+
+    private static boolean isId(String seg) {
+        return OBJECT_ID.matcher(seg).matches() || UUID_LIKE.matcher(seg).matches()
+                || NUMERIC.matcher(seg).matches() || NIC.matcher(seg).matches();
+    }
+
+    // ---- dumping ----
+
+    public JSONObject toJson() throws Exception {
+        JSONObject root = new JSONObject();
+        root.put("dumpedAtMs", System.currentTimeMillis());
+        root.put("bucketBoundsMs", new JSONArray(LatencyHistogram.BOUNDS_MS));
+        JSONArray arr = new JSONArray();
+        for (EndpointSnapshot s : snapshot()) arr.put(s.toJson());
+        root.put("endpoints", arr);
+        return root;
+    }
+
+    /** Write the current snapshot to files/net_metrics.json (temp file + rename). */
+    public void dump(File dir) {
+        try {
+            File tmp = new File(dir, FILE_NAME + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                out.write(toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+            }
+            if (!tmp.renameTo(new File(dir, FILE_NAME))) Platform.log().w(TAG, "rename failed");
+        } catch (Exception e) {
+            Platform.log().w(TAG, "dump failed: " + e.getMessage());
+        }
+    }
+
+    /** Dump into dir (the app's files dir) every DUMP_PERIOD_MS on a daemon thread; later calls are no-ops. */
+    public void startPeriodicDump(File dir) { startPeriodicDump(() -> dir, null); }
+
+    /**
+     * Same, with the directories resolved on the dump thread before each dump (Context.getFilesDir and
+     * getExternalFilesDir touch the disk, so callers on the main thread pass them unresolved); exportDir
+     * may be null (release builds) or yield null (storage unavailable), and is then skipped.
+     */
+    public void startPeriodicDump(Supplier<File> dir, Supplier<File> exportDir) {
+        if (dumper != null) return;
+        synchronized (this) {
+            if (dumper != null) return;
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "net-metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            s.scheduleWithFixedDelay(() -> {
+                File d = dir.get();
+                if (d != null) dump(d);
+                File e = exportDir != null ? exportDir.get() : null;
+                if (e != null) dump(e);
+            }, DUMP_PERIOD_MS, DUMP_PERIOD_MS, TimeUnit.MILLISECONDS);
+            dumper = s;
+        }
+    }
+}
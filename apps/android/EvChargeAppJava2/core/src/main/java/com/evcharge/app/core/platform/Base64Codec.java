@@ -0,0 +1,7 @@
+package com.evcharge.app.core.platform;
+
+/** Base64 decoding for :core code (android.util.Base64 on device, java.util.Base64 on the JVM). */
+public interface Base64Codec {
+    /** Decodes URL-safe Base64 with or without padding (JWT segments). */
+    byte[] decodeUrlSafe(String s);
+}
@@ -0,0 +1,22 @@
+package com.evcharge.app.core.platform;
+
+/**
+ * Small persistent key/value store: the subset of SharedPreferences :core needs.
+ * Android wraps SharedPreferences; JVM code (benchmarks, tools) can use MapKeyValueStore.
+ */
+public interface KeyValueStore {
+
+    String getString(String key, String defValue);
+
+    long getLong(String key, long defValue);
+
+    Editor edit();
+
+    /** Batched writes, applied together (asynchronously on Android). */
+    interface Editor {
+        Editor putString(String key, String value);
+        Editor putLong(String key, long value);
+        Editor clear();
+        void apply();
+    }
+}
@@ -0,0 +1,7 @@
+package com.evcharge.app.core.platform;
+
+/** Log sink for :core code (android.util.Log on device, stderr on the JVM). */
+public interface Logger {
+    void d(String tag, String msg);
+    void w(String tag, String msg);
+}
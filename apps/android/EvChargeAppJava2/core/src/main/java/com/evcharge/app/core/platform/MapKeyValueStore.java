@@ -0,0 +1,45 @@
+package com.evcharge.app.core.platform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** In-memory KeyValueStore (JVM runs, benchmarks). Thread-safe; nothing is persisted. */
+public final class MapKeyValueStore implements KeyValueStore {
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    @Override
+    public String getString(String key, String defValue) {
+        Object v = values.get(key);
+        return v instanceof String ? (String) v : defValue;
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        Object v = values.get(key);
+        return v instanceof Long ? (Long) v : defValue;
+    }
+
+    @Override
+    public Editor edit() {
+        return new Editor() {
+            private final Map<String, Object> pending = new HashMap<>();
+            private boolean clear = false;
+
+            @Override public Editor putString(String key, String value) { pending.put(key, value); return this; }
+            @Override public Editor putLong(String key, long value) { pending.put(key, value); return this; }
+            @Override public Editor clear() { clear = true; return this; }
+
+            @Override
+            public void apply() {
+                synchronized (values) {
+                    if (clear) values.clear();
+                    for (Map.Entry<String, Object> e : pending.entrySet()) {
+                        if (e.getValue() == null) values.remove(e.getKey()); else values.put(e.getKey(), e.getValue());
+                    }
+                }
+            }
+        };
+    }
+}
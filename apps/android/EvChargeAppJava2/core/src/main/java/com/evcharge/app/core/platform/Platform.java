@@ -0,0 +1,29 @@
+package com.evcharge.app.core.platform;
+
+import java.util.Base64;
+
+/**
+ * Platform adapters used by :core. Defaults are plain-JVM implementations (which also work on
+ * Android: stderr ends up in logcat, java.util.Base64 exists from API 26); the app installs the
+ * Android ones at startup (EvChargeApp).
+ */
+public final class Platform {
+
+    private static volatile Logger logger = new Logger() {
+        @Override public void d(String tag, String msg) { }
+        @Override public void w(String tag, String msg) { System.err.println("W/" + tag + ": " + msg); }
+    };
+
+    private static volatile Base64Codec base64 = s -> Base64.getUrlDecoder().decode(s); // padding optional
+
+    private Platform() {}
+
+    public static void install(Logger log, Base64Codec codec) {
+        if (log != null) logger = log;
+        if (codec != null) base64 = codec;
+    }
+
+    public static Logger log() { return logger; }
+
+    public static Base64Codec base64() { return base64; }
+}
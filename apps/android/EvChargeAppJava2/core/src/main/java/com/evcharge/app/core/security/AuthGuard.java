@@ -0,0 +1,36 @@
+package com.evcharge.app.core.security;
+
+import com.evcharge.app.core.util.Timestamps;
+
+/**
+ * Client-side session freshness check run before every authenticated request (ApiClient).
+ * 1) JWT exp from the token
+ * 2) server-issued expiry cached at login (operator snapshot / owner last-login)
+ * 3) only the Owner and Operator roles are accepted
+ */
+public final class AuthGuard {
+
+    public static final int FRESH = 0;
+    public static final int EXPIRED = 401;
+    public static final int FORBIDDEN = 403;
+
+    public static final long CLOCK_SKEW_MS = 30_000L; // aligns with JwtStore
+
+    private AuthGuard() {}
+
+    /** FRESH, EXPIRED or FORBIDDEN (the latter two double as the HTTP status ApiClient reports). */
+    public static int check(JwtStore jwt, String role, String serverExpiresAtUtc, long nowMs) {
+        if (!jwt.isValid()) return EXPIRED;
+
+        if (serverExpiresAtUtc != null && !serverExpiresAtUtc.trim().isEmpty()) {
+            Long ms = Timestamps.parseIsoToMillis(serverExpiresAtUtc.trim());
+            if (ms != null && ms <= nowMs + CLOCK_SKEW_MS) return EXPIRED;
+            // If unparsable, be lenient (fall back to JWT validity only)
+        }
+
+        if (role != null && !role.equalsIgnoreCase("Owner") && !role.equalsIgnoreCase("Operator")) {
+            return FORBIDDEN;
+        }
+        return FRESH;
+    }
+}
@@ -1,8 +1,7 @@
 package com.evcharge.app.core.security;
 
-import android.content.Context;
-import android.content.SharedPreferences;
-import android.util.Base64;
+import com.evcharge.app.core.platform.KeyValueStore;
+import com.evcharge.app.core.platform.Platform;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -15,10 +14,11 @@ import java.net.HttpURLConnection;
  * - Persists token
  * - Extracts exp (epoch seconds) and roles from JWT payload
  * - Validity check with small clock skew
+ * Storage is a KeyValueStore: SharedPreferences(PREFS_NAME) on device (AndroidPlatform.jwtStore).
  */
 public final class JwtStore {
 
-    private static final String PREFS_NAME = "jwt_store";
+    public static final String PREFS_NAME = "jwt_store";
 
     private static final String KEY_TOKEN = "token";
     private static final String KEY_EXP_EPOCH_SEC = "exp_epoch_sec";
@@ -26,11 +26,10 @@ public final class JwtStore {
 
     private static final long CLOCK_SKEW_SEC = 30L;
 
-    private final SharedPreferences prefs;
+    private final KeyValueStore prefs;
 
-    public JwtStore(Context context) {
-        this.prefs = context.getApplicationContext()
-                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    public JwtStore(KeyValueStore prefs) {
+        this.prefs = prefs;
     }
 
     /** Save raw JWT and derived claims (exp, roles). */
@@ -59,7 +58,7 @@ public final class JwtStore {
             }
         } catch (Exception ignored) { /* be lenient */ }
 
-        SharedPreferences.Editor e = prefs.edit();
+        KeyValueStore.Editor e = prefs.edit();
         e.putString(KEY_TOKEN, jwt);
         e.putLong(KEY_EXP_EPOCH_SEC, exp);
         e.putString(KEY_ROLES_JSON, roles.toString());
@@ -133,11 +132,12 @@ public final class JwtStore {
 
     // ---- helpers ----
 
-    private static JSONObject decodePayload(String jwt) {
+    /** Payload (claims) of a JWT without verifying it; null if malformed. */
+    public static JSONObject decodePayload(String jwt) {
         try {
             String[] parts = jwt.split("\\.");
             if (parts.length < 2) return null;
-            byte[] decoded = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+            byte[] decoded = Platform.base64().decodeUrlSafe(parts[1]);
             String json = new String(decoded, StandardCharsets.UTF_8);
             return new JSONObject(json);
         } catch (Exception e) {
@@ -0,0 +1,247 @@
+package com.evcharge.app.core.station;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned, columnar binary snapshot of the station catalogue (replaces re-parsing JSON at startup).
+ *
+ * Layout (little-endian):
+ *   header   magic "EVCS" | version u16 | reserved u16 | count i32 | savedAtMs i64
+ *   dict     n u8, then n x (len u16, UTF-8)         - distinct type/status/timezone strings
+ *   lat      count x i32   (micro-degrees, NO_COORD when unknown)
+ *   lng      count x i32
+ *   slot     count x u16   (default slot minutes, 0 = unknown)
+ *   conn     count x u16   (connectors, 0 = unknown)
+ *   type     count x u8    (dict index, NULL_CODE = null)
+ *   status   count x u8
+ *   tz       count x u8    (hours timezone)
+ *   ids      (count+1) x i32 offsets, then UTF-8 bytes   - same for names and cities
+ *   crc      i32 CRC32 of everything before it
+ *
+ * Written to a temp file, fsynced and renamed; read back through a read-only memory map.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x53435645; // "EVCS" little-endian
+    static final int VERSION = 2;     // 2: connectors + hours timezone
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 4 + 8;
+    private static final int NO_COORD = Integer.MIN_VALUE;
+    private static final int NULL_CODE = 0xFF;
+    private static final double MICRO = 1_000_000.0;
+
+    /** Decoded snapshot: stations in file order plus the time they were saved. */
+    public static final class Loaded {
+        public final List<StationPoint> stations;
+        public final long savedAtMs;
+        public Loaded(List<StationPoint> stations, long savedAtMs) { this.stations = stations; this.savedAtMs = savedAtMs; }
+    }
+
+    private CatalogSnapshot() {}
+
+    // ---- write ----
+
+    /** Encodes the stations (skipping ones without an id) into a snapshot buffer. */
+    public static byte[] encode(Collection<StationPoint> stations, long savedAtMs) {
+        List<StationPoint> list = new ArrayList<>();
+        for (StationPoint p : stations) if (p != null && p.id != null) list.add(p);
+        int n = list.size();
+
+        Map<String, Integer> dict = new LinkedHashMap<>();
+        byte[] types = new byte[n], statuses = new byte[n], zones = new byte[n];
+        for (int i = 0; i < n; i++) {
+            types[i] = code(dict, list.get(i).type);
+            statuses[i] = code(dict, list.get(i).status);
+            zones[i] = code(dict, list.get(i).hoursTimezone);
+        }
+        byte[][] ids = new byte[n][], names = new byte[n][], cities = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            StationPoint p = list.get(i);
+            ids[i] = utf8(p.id);
+            names[i] = utf8(p.name);
+            cities[i] = utf8(p.city);
+        }
+
+        int dictBytes = 1;
+        for (String s : dict.keySet()) dictBytes += 2 + utf8(s).length;
+        int size = HEADER_BYTES + dictBytes + n * (4 + 4 + 2 + 2 + 1 + 1 + 1)
+                + stringColumnBytes(ids) + stringColumnBytes(names) + stringColumnBytes(cities) + 4;
+
+        ByteBuffer b = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putInt(n).putLong(savedAtMs);
+        b.put((byte) dict.size());
+        for (String s : dict.keySet()) {
+            byte[] u = utf8(s);
+            b.putShort((short) u.length).put(u);
+        }
+        for (StationPoint p : list) b.putInt(fixed(p.lat));
+        for (StationPoint p : list) b.putInt(fixed(p.lng));
+        for (StationPoint p : list) b.putShort(u16(p.defaultSlotMinutes));
+        for (StationPoint p : list) b.putShort(u16(p.connectors));
+        b.put(types).put(statuses).put(zones);
+        putStringColumn(b, ids);
+        putStringColumn(b, names);
+        putStringColumn(b, cities);
+
+        CRC32 crc = new CRC32();
+        crc.update(b.array(), 0, b.position());
+        b.putInt((int) crc.getValue());
+        return b.array();
+    }
+
+    /** Write-to-temp, fsync, rename: readers only ever see a complete snapshot. */
+    public static void writeAtomically(File file, Collection<StationPoint> stations, long savedAtMs) throws IOException {
+        byte[] bytes = encode(stations, savedAtMs);
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("rename failed: " + file);
+        }
+    }
+
+    // ---- read ----
+
+    /** Maps the file read-only and decodes it; null if missing, truncated, corrupt or another version. */
+    public static Loaded read(File file) {
+        if (!file.exists() || file.length() < HEADER_BYTES + 5) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel ch = raf.getChannel()) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return decode(map.order(ByteOrder.LITTLE_ENDIAN));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static Loaded decode(ByteBuffer b) {
+        int len = b.limit();
+        if (len < HEADER_BYTES + 5) return null;
+        if (!crcMatches(b, len)) return null;
+
+        b.position(0);
+        if (b.getInt() != MAGIC || (b.getShort() & 0xFFFF) != VERSION) return null;
+        b.getShort();
+        int n = b.getInt();
+        long savedAtMs = b.getLong();
+        if (n < 0) return null;
+
+        int dictSize = b.get() & 0xFF;
+        String[] dict = new String[dictSize];
+        for (int i = 0; i < dictSize; i++) {
+            int sLen = b.getShort() & 0xFFFF;
+            dict[i] = string(b, b.position(), sLen, true);
+        }
+
+        int latAt = b.position(), lngAt = latAt + 4 * n, slotAt = lngAt + 4 * n, connAt = slotAt + 2 * n;
+        int typeAt = connAt + 2 * n, statusAt = typeAt + n, tzAt = statusAt + n;
+        b.position(tzAt + n);
+        String[] ids = stringColumn(b, n), names = stringColumn(b, n), cities = stringColumn(b, n);
+
+        List<StationPoint> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new StationPoint(ids[i], names[i],
+                    dictAt(dict, b.get(typeAt + i)), cities[i], dictAt(dict, b.get(statusAt + i)),
+                    unfixed(b.getInt(latAt + 4 * i)), unfixed(b.getInt(lngAt + 4 * i)),
+                    b.getShort(slotAt + 2 * i) & 0xFFFF, b.getShort(connAt + 2 * i) & 0xFFFF,
+                    dictAt(dict, b.get(tzAt + i))));
+        }
+        return new Loaded(out, savedAtMs);
+    }
+
+    // ---- helpers ----
+
+    private static boolean crcMatches(ByteBuffer b, int len) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = b.duplicate();
+        body.position(0).limit(len - 4);
+        crc.update(body);
+        return (int) crc.getValue() == b.getInt(len - 4);
+    }
+
+    private static byte code(Map<String, Integer> dict, String s) {
+        if (s == null) return (byte) NULL_CODE;
+        Integer c = dict.get(s);
+        if (c == null) {
+            if (dict.size() >= NULL_CODE) return (byte) NULL_CODE; // absurd number of distinct values: drop
+            c = dict.size();
+            dict.put(s, c);
+        }
+        return (byte) (int) c;
+    }
+
+    private static String dictAt(String[] dict, byte code) {
+        int c = code & 0xFF;
+        return c < dict.length ? dict[c] : null;
+    }
+
+    private static short u16(int v) { return (short) Math.max(0, Math.min(0xFFFF, v)); }
+
+    private static int fixed(double deg) {
+        return Double.isNaN(deg) ? NO_COORD : (int) Math.round(deg * MICRO);
+    }
+
+    private static double unfixed(int v) {
+        return v == NO_COORD ? Double.NaN : v / MICRO;
+    }
+
+    private static final byte[] NULL_STRING = new byte[0];
+
+    /** null is stored as an empty string (no station field is meaningfully empty). */
+    private static byte[] utf8(String s) {
+        return s == null ? NULL_STRING : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringColumnBytes(byte[][] col) {
+        int total = 4 * (col.length + 1);
+        for (byte[] s : col) total += s.length;
+        return total;
+    }
+
+    private static void putStringColumn(ByteBuffer b, byte[][] col) {
+        int off = 0;
+        b.putInt(0);
+        for (byte[] s : col) { off += s.length; b.putInt(off); }
+        for (byte[] s : col) b.put(s);
+    }
+
+    private static String[] stringColumn(ByteBuffer b, int n) {
+        int offsetsAt = b.position();
+        int dataAt = offsetsAt + 4 * (n + 1);
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            int start = b.getInt(offsetsAt + 4 * i), end = b.getInt(offsetsAt + 4 * (i + 1));
+            out[i] = string(b, dataAt + start, end - start, false);
+        }
+        b.position(dataAt + b.getInt(offsetsAt + 4 * n));
+        return out;
+    }
+
+    /** Decodes len bytes at pos; advance=true moves the buffer past them (sequential sections). */
+    private static String string(ByteBuffer b, int pos, int len, boolean advance) {
+        if (advance) b.position(pos + len);
+        if (len == 0) return null;
+        byte[] tmp = new byte[len];
+        ByteBuffer d = b.duplicate();
+        d.position(pos);
+        d.get(tmp);
+        return new String(tmp, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,215 @@
+package com.evcharge.app.core.station;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Station id -> name/coords table behind StationLookup (app module), which stores it in
+ * files/station_lookup.bin and memory-maps it.
+ * - Open-addressing hash table (linear probing, load <= 0.5) of fixed-width records, keyed by FNV-1a of the id
+ * - find() and the getters allocate nothing; names are decoded straight into the caller's StringBuilder
+ * - Immutable: a rebuild produces a new table, so a slot from find() stays valid for the getters of the
+ *   table that returned it however long the caller holds it
+ *
+ * Layout (little-endian):
+ *   header   magic "EVLT" | version u16 | reserved u16 | capacity i32 | count i32
+ *   records  capacity x RECORD_BYTES:
+ *            hash i64 (0 = empty) | idLen u8 | id ID_BYTES | lat i32 | lng i32 (micro-degrees) |
+ *            slot u16 | flags u8 | nameLen u8 | name NAME_BYTES (UTF-8, truncated on a char boundary)
+ */
+public final class StationTable {
+
+    static final int MAGIC = 0x544C5645; // "EVLT" little-endian
+    static final int VERSION = 2;     // 2: FLAG_NAME_TRUNCATED
+    static final int HEADER_BYTES = 16;
+
+    static final int ID_BYTES = 24;    // Mongo ObjectId hex
+    public static final int NAME_BYTES = 51;
+    static final int RECORD_BYTES = 96;
+    private static final int OFF_HASH = 0, OFF_ID_LEN = 8, OFF_ID = 9;
+    private static final int OFF_LAT = OFF_ID + ID_BYTES, OFF_LNG = OFF_LAT + 4, OFF_SLOT = OFF_LNG + 4;
+    private static final int OFF_FLAGS = OFF_SLOT + 2, OFF_NAME_LEN = OFF_FLAGS + 1, OFF_NAME = OFF_NAME_LEN + 1;
+
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_NAME_TRUNCATED = 2;  // longer than NAME_BYTES; StationLookup.nameOf() asks StationIndex
+    private static final int NO_COORD = Integer.MIN_VALUE;
+
+    /** Returned by find() when the id is not in the table. Slots are only valid in the table that found them. */
+    public static final int MISSING = -1;
+
+    private final ByteBuffer recs;
+    private final int capacity;
+
+    private StationTable(ByteBuffer recs) {
+        this.recs = recs;
+        this.capacity = recs.capacity() / RECORD_BYTES;
+    }
+
+    /**
+     * The table in {@code image} (an encode() result, e.g. memory-mapped), or null when the header, version
+     * or size is wrong (older formats, a torn write). The buffer is read in place, not copied.
+     */
+    public static StationTable wrap(ByteBuffer image) {
+        ByteBuffer m = image.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (m.capacity() < HEADER_BYTES) return null;
+        int cap = m.getInt(8);
+        boolean valid = m.getInt(0) == MAGIC && (m.getShort(4) & 0xFFFF) == VERSION
+                && cap > 0 && (cap & (cap - 1)) == 0 && m.capacity() == HEADER_BYTES + (long) cap * RECORD_BYTES;
+        return valid ? new StationTable(slice(m)) : null;
+    }
+
+    // ---- lookups (allocation-free) ----
+
+    /** Record slot for this station id, or MISSING. */
+    public int find(CharSequence id) { return id == null ? MISSING : probe(recs, capacity, id); }
+
+    /** Latitude of a found slot; NaN when the station has no coordinates. */
+    public double lat(int slot) { return coord(slot, OFF_LAT); }
+
+    public double lng(int slot) { return coord(slot, OFF_LNG); }
+
+    public int slotMinutes(int slot) { return recs.getShort(slot * RECORD_BYTES + OFF_SLOT) & 0xFFFF; }
+
+    public boolean isActive(int slot) { return (flags(slot) & FLAG_ACTIVE) != 0; }
+
+    /** The stored name was cut at NAME_BYTES; appendName() gives only its start. */
+    public boolean isNameTruncated(int slot) { return (flags(slot) & FLAG_NAME_TRUNCATED) != 0; }
+
+    public boolean hasName(int slot) { return (recs.get(slot * RECORD_BYTES + OFF_NAME_LEN) & 0xFF) != 0; }
+
+    /** Appends the (possibly truncated) name to {@code out}; no allocation beyond the builder's own growth. */
+    public void appendName(int slot, StringBuilder out) {
+        int base = slot * RECORD_BYTES;
+        decodeUtf8(recs, base + OFF_NAME, recs.get(base + OFF_NAME_LEN) & 0xFF, out);
+    }
+
+    private int flags(int slot) { return recs.get(slot * RECORD_BYTES + OFF_FLAGS) & 0xFF; }
+
+    private double coord(int slot, int off) {
+        int v = recs.getInt(slot * RECORD_BYTES + off);
+        return v == NO_COORD ? Double.NaN : v / 1_000_000.0;
+    }
+
+    // ---- build ----
+
+    /** Table image for these stations; ids that do not fit a record (see fits()) are left out. */
+    public static byte[] encode(Collection<StationPoint> stations) {
+        int n = 0;
+        for (StationPoint p : stations) if (fits(p)) n++;
+        int cap = 16;
+        while (cap < n * 2) cap <<= 1;
+
+        ByteBuffer b = ByteBuffer.allocate(HEADER_BYTES + cap * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(0, MAGIC);
+        b.putShort(4, (short) VERSION);
+        b.putInt(8, cap);
+        b.putInt(12, n);
+        ByteBuffer recs = slice(b);
+        for (StationPoint p : stations) {
+            if (!fits(p)) continue;
+            long h = hash(p.id);
+            int slot = (int) (h & (cap - 1));
+            while (recs.getLong(slot * RECORD_BYTES + OFF_HASH) != 0) {
+                if (idEquals(recs, slot * RECORD_BYTES, p.id)) break; // duplicate id: last one wins
+                slot = (slot + 1) & (cap - 1);
+            }
+            int base = slot * RECORD_BYTES;
+            recs.putLong(base + OFF_HASH, h);
+            recs.put(base + OFF_ID_LEN, (byte) p.id.length());
+            for (int i = 0; i < p.id.length(); i++) recs.put(base + OFF_ID + i, (byte) p.id.charAt(i));
+            recs.putInt(base + OFF_LAT, fixed(p.lat));
+            recs.putInt(base + OFF_LNG, fixed(p.lng));
+            recs.putShort(base + OFF_SLOT, (short) Math.max(0, Math.min(0xFFFF, p.defaultSlotMinutes)));
+            byte[] name = truncatedUtf8(p.name, NAME_BYTES);
+            boolean cut = p.name != null && name.length < p.name.getBytes(StandardCharsets.UTF_8).length;
+            recs.put(base + OFF_FLAGS, (byte) ((p.isActive() ? FLAG_ACTIVE : 0) | (cut ? FLAG_NAME_TRUNCATED : 0)));
+            recs.put(base + OFF_NAME_LEN, (byte) name.length);
+            for (int i = 0; i < name.length; i++) recs.put(base + OFF_NAME + i, name[i]);
+        }
+        return b.array();
+    }
+
+    /** Ids must be short ASCII to live in the fixed-width slot; others fall back to StationIndex. */
+    static boolean fits(StationPoint p) {
+        if (p == null || p.id == null || p.id.isEmpty() || p.id.length() > ID_BYTES) return false;
+        for (int i = 0; i < p.id.length(); i++) if (p.id.charAt(i) > 0x7F) return false;
+        return true;
+    }
+
+    // ---- internals ----
+
+    private static ByteBuffer slice(ByteBuffer whole) {
+        ByteBuffer d = whole.duplicate();
+        d.position(HEADER_BYTES);
+        return d.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int probe(ByteBuffer t, int cap, CharSequence id) {
+        long h = hash(id);
+        int slot = (int) (h & (cap - 1));
+        for (int n = 0; n < cap; n++) {
+            int base = slot * RECORD_BYTES;
+            long stored = t.getLong(base + OFF_HASH);
+            if (stored == 0) return MISSING;
+            if (stored == h && idEquals(t, base, id)) return slot;
+            slot = (slot + 1) & (cap - 1);
+        }
+        return MISSING;
+    }
+
+    /** FNV-1a over the chars; never 0 (0 marks an empty slot). */
+    static long hash(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private static boolean idEquals(ByteBuffer t, int base, CharSequence id) {
+        int len = t.get(base + OFF_ID_LEN) & 0xFF;
+        if (len != id.length()) return false;
+        for (int i = 0; i < len; i++) if ((t.get(base + OFF_ID + i) & 0xFF) != id.charAt(i)) return false;
+        return true;
+    }
+
+    private static int fixed(double deg) {
+        return Double.isNaN(deg) ? NO_COORD : (int) Math.round(deg * 1_000_000.0);
+    }
+
+    static byte[] truncatedUtf8(String s, int max) {
+        if (s == null) return new byte[0];
+        byte[] u = s.getBytes(StandardCharsets.UTF_8);
+        if (u.length <= max) return u;
+        int end = max;
+        while (end > 0 && (u[end] & 0xC0) == 0x80) end--; // don't split a multi-byte char
+        byte[] out = new byte[end];
+        System.arraycopy(u, 0, out, 0, end);
+        return out;
+    }
+
+    /** Minimal UTF-8 decoder straight into the builder (BMP + surrogate pairs). */
+    static void decodeUtf8(ByteBuffer t, int pos, int len, StringBuilder out) {
+        int end = pos + len;
+        while (pos < end) {
+            int b0 = t.get(pos) & 0xFF;
+            if (b0 < 0x80) { out.append((char) b0); pos++; }
+            else if (b0 < 0xE0 && pos + 1 < end) {
+                out.append((char) (((b0 & 0x1F) << 6) | (t.get(pos + 1) & 0x3F))); pos += 2;
+            } else if (b0 < 0xF0 && pos + 2 < end) {
+                out.append((char) (((b0 & 0x0F) << 12) | ((t.get(pos + 1) & 0x3F) << 6) | (t.get(pos + 2) & 0x3F))); pos += 3;
+            } else if (pos + 3 < end) {
+                int cp = ((b0 & 0x07) << 18) | ((t.get(pos + 1) & 0x3F) << 12)
+                        | ((t.get(pos + 2) & 0x3F) << 6) | (t.get(pos + 3) & 0x3F);
+                out.appendCodePoint(cp); pos += 4;
+            } else {
+                break; // truncated tail
+            }
+        }
+    }
+}
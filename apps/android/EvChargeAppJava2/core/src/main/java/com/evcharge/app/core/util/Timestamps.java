@@ -0,0 +1,40 @@
+package com.evcharge.app.core.util;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/** Server timestamp parsing shared by the auth guard and the booking lists. */
+public final class Timestamps {
+
+    private Timestamps() {}
+
+    /**
+     * Epoch millis of an ISO-8601 instant ("2025-10-08T16:14:07.059889Z", "+05:30" offsets, or a plain
+     * "yyyy-MM-ddTHH:mm:ss" taken as UTC); null if it can't be parsed.
+     */
+    public static Long parseIsoToMillis(String iso) {
+        if (iso == null) return null;
+        try {
+            return Instant.parse(iso).toEpochMilli();
+        } catch (Exception ignored1) {
+            try {
+                return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+            } catch (Exception ignored2) {
+                try {
+                    // best-effort fallback for plain seconds (append Z if missing)
+                    String s = iso.endsWith("Z") ? iso : (iso + "Z");
+                    SimpleDateFormat f = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+                    f.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    Date d = f.parse(s);
+                    return (d != null) ? d.getTime() : null;
+                } catch (Exception ignored3) {
+                    return null;
+                }
+            }
+        }
+    }
+}
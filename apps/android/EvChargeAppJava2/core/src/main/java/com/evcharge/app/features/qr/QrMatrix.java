@@ -0,0 +1,27 @@
+package com.evcharge.app.features.qr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+/** QR code as ARGB pixels (row-major, sizePx x sizePx); QrRenderer turns them into a Bitmap. */
+public final class QrMatrix {
+    public static final int BLACK = 0xFF000000;
+    public static final int WHITE = 0xFFFFFFFF;
+
+    private QrMatrix(){}
+
+    public static int[] pixels(String token, int sizePx) throws WriterException {
+        BitMatrix m = new QRCodeWriter().encode(token, BarcodeFormat.QR_CODE, sizePx, sizePx);
+        int w = m.getWidth(), h = m.getHeight();
+        int[] px = new int[sizePx * sizePx];
+        for (int y = 0; y < sizePx; y++) {
+            int row = y * sizePx;
+            for (int x = 0; x < sizePx; x++) {
+                px[row + x] = (x < w && y < h && m.get(x, y)) ? BLACK : WHITE;
+            }
+        }
+        return px;
+    }
+}
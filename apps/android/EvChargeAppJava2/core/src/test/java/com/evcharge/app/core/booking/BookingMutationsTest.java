@@ -0,0 +1,132 @@
+package com.evcharge.app.core.booking;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class BookingMutationsTest {
+
+    private static JSONArray server() {
+        return new JSONArray()
+                .put(new JSONObject().put("id", "b1").put("stationId", "s1").put("status", "Approved")
+                        .put("slotStartUtc", "2030-01-07T03:30:00Z").put("slotStartLocal", "2030-01-07T09:00")
+                        .put("slotMinutes", 60))
+                .put(new JSONObject().put("id", "b2").put("stationId", "s2").put("status", "Pending"));
+    }
+
+    private static JSONObject slot(String date, String time, int minutes) {
+        return new JSONObject().put("stationId", "s1").put("localDate", date).put("startTime", time).put("minutes", minutes);
+    }
+
+    @Test
+    public void ops_carryTheirIdsAndKeys() {
+        BookingMutations.Op c = BookingMutations.create("screen-1", slot("2030-01-07", "10:00", 60), 1L);
+        assertEquals("local-screen-1", c.targetId());
+        assertTrue(BookingMutations.isLocalId(c.localId()));
+        assertNull(c.bookingId);
+        assertNotNull(c.idempotencyKey);
+
+        BookingMutations.Op m = BookingMutations.modify("b1", slot("2030-01-07", "10:00", 60), 2L);
+        assertEquals("b1", m.targetId());
+        assertNotEquals(m.opId, m.idempotencyKey);
+        assertFalse(BookingMutations.isLocalId("b1"));
+        assertFalse(BookingMutations.isLocalId(null));
+    }
+
+    @Test
+    public void overlay_withoutOpsReturnsServerCopy() {
+        JSONArray s = server();
+        assertSame(s, BookingMutations.overlay(s, Collections.<BookingMutations.Op>emptyList()));
+    }
+
+    @Test
+    public void overlay_paintsCreateModifyCancelWithoutTouchingServer() {
+        JSONArray s = server();
+        String before = s.toString();
+        BookingMutations.Op create = BookingMutations.create("op1", slot("2030-01-08", "11:00", 60).put("notes", "bay 2"), 1L);
+        BookingMutations.Op modify = BookingMutations.modify("b1", slot("2030-01-07", "10:00", 30), 2L);
+        BookingMutations.Op cancel = BookingMutations.cancel("b2", 3L);
+
+        JSONArray out = BookingMutations.overlay(s, Arrays.asList(create, modify, cancel));
+        assertEquals(before, s.toString());
+        assertEquals(3, out.length());
+
+        JSONObject b1 = out.getJSONObject(BookingMutations.indexOf(out, "b1"));
+        assertEquals("Pending", b1.getString("status"));
+        assertEquals("2030-01-07T10:00", b1.getString("slotStartLocal"));
+        assertEquals(30, b1.getInt("slotMinutes"));
+        assertFalse(b1.has("slotStartUtc"));
+        assertEquals(BookingMutations.MODIFY, b1.getString(BookingMutations.PENDING_FIELD));
+
+        JSONObject b2 = out.getJSONObject(BookingMutations.indexOf(out, "b2"));
+        assertEquals("Cancelled", b2.getString("status"));
+
+        JSONObject local = out.getJSONObject(BookingMutations.indexOf(out, "local-op1"));
+        assertEquals("s1", local.getString("stationId"));
+        assertEquals("Pending", local.getString("status"));
+        assertEquals("bay 2", local.getString("notes"));
+        assertEquals(BookingMutations.CREATE, local.getString(BookingMutations.PENDING_FIELD));
+    }
+
+    @Test
+    public void overlay_skipsOpsForUnlistedBookings() {
+        JSONArray out = BookingMutations.overlay(server(), Collections.singletonList(BookingMutations.cancel("gone", 1L)));
+        assertEquals(server().toString(), out.toString());
+    }
+
+    @Test
+    public void overlay_createIsNotDuplicated() {
+        BookingMutations.Op create = BookingMutations.create("op1", slot("2030-01-08", "11:00", 60), 1L);
+        JSONArray rows = server();
+        BookingMutations.apply(rows, create);
+        BookingMutations.apply(rows, create);
+        assertEquals(3, rows.length());
+    }
+
+    @Test
+    public void overlay_singleRow() {
+        JSONObject row = server().getJSONObject(0);
+        JSONObject out = BookingMutations.overlay(row, Collections.singletonList(BookingMutations.cancel("b1", 1L)));
+        assertEquals("Cancelled", out.getString("status"));
+        assertEquals("Approved", row.getString("status"));
+    }
+
+    @Test
+    public void reconcile_createReplacesLocalRowWithServerRow() {
+        BookingMutations.Op create = BookingMutations.create("op1", slot("2030-01-08", "11:00", 60), 1L);
+        JSONArray rows = BookingMutations.overlay(server(), Collections.singletonList(create));
+        JSONObject confirmed = new JSONObject().put("id", "b3").put("stationId", "s1").put("status", "Approved");
+
+        assertTrue(BookingMutations.reconcile(rows, create, confirmed));
+        assertEquals(-1, BookingMutations.indexOf(rows, "local-op1"));
+        assertEquals("Approved", rows.getJSONObject(BookingMutations.indexOf(rows, "b3")).getString("status"));
+    }
+
+    @Test
+    public void reconcile_createWithoutServerRowAsksForRefetch() {
+        BookingMutations.Op create = BookingMutations.create("op1", slot("2030-01-08", "11:00", 60), 1L);
+        assertFalse(BookingMutations.reconcile(server(), create, null));
+    }
+
+    @Test
+    public void reconcile_modifyWithoutServerRowAppliesAsSent() {
+        BookingMutations.Op cancel = BookingMutations.cancel("b1", 1L);
+        JSONArray rows = server();
+        assertTrue(BookingMutations.reconcile(rows, cancel, new JSONObject()));
+        JSONObject b1 = rows.getJSONObject(0);
+        assertEquals("Cancelled", b1.getString("status"));
+        assertFalse(b1.has(BookingMutations.PENDING_FIELD));
+    }
+
+    @Test
+    public void idOf_acceptsBookingId() {
+        assertEquals("x", BookingMutations.idOf(new JSONObject().put("bookingId", "x")));
+        assertEquals("y", BookingMutations.idOf(new JSONObject().put("id", "y").put("bookingId", "x")));
+        assertNull(BookingMutations.idOf(new JSONObject()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.evcharge.app.core.booking;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BookingSectionsTest {
+
+    private static final ZoneId COLOMBO = ZoneId.of("Asia/Colombo");
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 9); // Wednesday
+
+    private static JSONObject booking(String id, String status, String slotStartLocal) {
+        JSONObject o = new JSONObject().put("id", id).put("status", status).put("stationId", "68e4a1b2c3d4e5f6a7b8c9d0");
+        if (slotStartLocal != null) o.put("slotStartLocal", slotStartLocal);
+        return o;
+    }
+
+    private static JSONArray mine() {
+        return new JSONArray()
+                .put(booking("today", "Approved", "2030-01-09T10:00"))
+                .put(booking("yesterday", "Completed", "2030-01-08T09:00"))
+                .put(booking("monday", "Approved", "2030-01-07T08:00"))
+                .put(booking("sunday", "Pending", "2030-01-13T18:00"))
+                .put(booking("next-week", "Pending", "2030-01-14T08:00"))
+                .put(booking("last-week", "Cancelled", "2030-01-02T08:00"))
+                .put(booking("unknown", "Pending", null))
+                .put(new JSONObject().put("status", "Approved"));         // no id: dropped
+    }
+
+    private static List<BookingSections.Section> build(String status, LocalDate from, LocalDate to) {
+        return BookingSections.build(mine(), Collections.<String, String>emptyMap(), status, from, to, COLOMBO, TODAY);
+    }
+
+    @Test
+    public void build_groupsIntoSectionsInOrder() {
+        List<BookingSections.Section> s = build("All", null, null);
+        assertEquals(6, s.size());
+        assertSection(s.get(0), "Today", "today");
+        assertSection(s.get(1), "Yesterday", "yesterday");
+        assertSection(s.get(2), "This Week", "monday", "sunday");
+        assertSection(s.get(3), "Upcoming", "next-week");
+        assertSection(s.get(4), "Older", "last-week");
+        assertSection(s.get(5), "Other", "unknown");
+    }
+
+    @Test
+    public void build_statusFilterIsCaseInsensitive() {
+        List<BookingSections.Section> s = build("pending", null, null);
+        assertEquals(3, s.size());
+        assertSection(s.get(0), "This Week", "sunday");
+        assertSection(s.get(1), "Upcoming", "next-week");
+        assertSection(s.get(2), "Other", "unknown");
+    }
+
+    @Test
+    public void build_dateRangeLeavesUnparseableBookings() {
+        List<BookingSections.Section> s = build(null, TODAY.minusDays(1), TODAY);
+        assertEquals(3, s.size());
+        assertSection(s.get(0), "Today", "today");
+        assertSection(s.get(1), "Yesterday", "yesterday");
+        assertSection(s.get(2), "Other", "unknown");
+    }
+
+    @Test
+    public void build_namesStationsFromTheMap() {
+        JSONArray one = new JSONArray().put(booking("b", "Approved", "2030-01-09T10:00"));
+        List<BookingSections.Section> s = BookingSections.build(one,
+                Collections.singletonMap("68e4a1b2c3d4e5f6a7b8c9d0", "Fort"), null, null, null, COLOMBO, TODAY);
+        assertEquals("Fort", s.get(0).items.get(0).station);
+
+        s = BookingSections.build(one, Collections.<String, String>emptyMap(), null, null, null, COLOMBO, TODAY);
+        assertEquals("Station 68e4a1", s.get(0).items.get(0).station);
+    }
+
+    @Test
+    public void parseStartLocal_prefersUtcConvertedToZone() {
+        JSONObject o = new JSONObject().put("slotStartUtc", "2030-01-09T04:30:00Z").put("slotStartLocal", "2030-01-09T08:00");
+        assertEquals(LocalDateTime.of(2030, 1, 9, 10, 0), BookingSections.parseStartLocal(o, COLOMBO));
+    }
+
+    @Test
+    public void parseStartLocal_fallsBackToLocalFields() {
+        assertEquals(LocalDateTime.of(2030, 1, 9, 7, 30),
+                BookingSections.parseStartLocal(new JSONObject().put("SlotStartLocal", "2030-01-09 07:30"), COLOMBO));
+        assertEquals(LocalDateTime.of(2030, 1, 9, 7, 30),
+                BookingSections.parseStartLocal(new JSONObject().put("localDate", "2030-01-09").put("startTime", "07:30"), COLOMBO));
+        assertNull(BookingSections.parseStartLocal(new JSONObject().put("slotStartLocal", "soon"), COLOMBO));
+    }
+
+    @Test
+    public void displayWhen_formatsOrFallsBack() {
+        assertEquals("09 Jan 2030 · 10:00", BookingSections.displayWhen(new JSONObject(), LocalDateTime.of(2030, 1, 9, 10, 0)));
+        assertEquals("2030-01-09 · 07:30",
+                BookingSections.displayWhen(new JSONObject().put("localDate", "2030-01-09").put("startTime", "07:30"), null));
+        assertEquals("(time unknown)", BookingSections.displayWhen(new JSONObject(), null));
+    }
+
+    @Test
+    public void extractStationId_acceptsMongoShape() {
+        JSONObject o = new JSONObject().put("StationId", new JSONObject().put("$oid", "68e4a1b2c3d4e5f6a7b8c9d0"));
+        assertEquals("68e4a1b2c3d4e5f6a7b8c9d0", BookingSections.extractStationId(o));
+
+        JSONObject nested = new JSONObject().put("station",
+                new JSONObject().put("_id", new JSONObject().put("$oid", "68e4a1b2c3d4e5f6a7b8c9d1")));
+        assertEquals("68e4a1b2c3d4e5f6a7b8c9d1", BookingSections.extractStationId(nested));
+        assertNull(BookingSections.extractStationId(new JSONObject()));
+    }
+
+    private static void assertSection(BookingSections.Section s, String title, String... ids) {
+        assertEquals(title, s.title);
+        assertEquals(ids.length, s.items.size());
+        for (int i = 0; i < ids.length; i++) assertEquals(ids[i], s.items.get(i).id);
+    }
+}
@@ -0,0 +1,154 @@
+package com.evcharge.app.core.booking;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SlotAvailabilityTest {
+
+    private static final ZoneId COLOMBO = ZoneId.of("Asia/Colombo");
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    /** Sunday morning before MONDAY, station time. */
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2030, 1, 6, 10, 0, 0, 0, COLOMBO);
+
+    private static JSONObject detail(int connectors, int slotMinutes, String tz) {
+        JSONObject d = new JSONObject().put("connectors", connectors).put("defaultSlotMinutes", slotMinutes);
+        if (tz != null) d.put("hoursTimezone", tz);
+        return d;
+    }
+
+    /** Mondays 08:00-12:00, plus the given exceptions / overrides. */
+    private static JSONObject schedule(JSONArray exceptions, JSONArray overrides) {
+        JSONObject weekly = new JSONObject()
+                .put("mon", new JSONArray().put(new JSONObject().put("start", "08:00").put("end", "12:00")));
+        JSONObject s = new JSONObject().put("weekly", weekly);
+        if (exceptions != null) s.put("exceptions", exceptions);
+        if (overrides != null) s.put("capacityOverrides", overrides);
+        return s;
+    }
+
+    private static SlotAvailability station(int connectors) {
+        return SlotAvailability.from(detail(connectors, 60, "Asia/Colombo"), schedule(null, null));
+    }
+
+    @Test
+    public void check_acceptsSlotInsideWindow() {
+        assertNull(station(1).check(MONDAY, LocalTime.of(9, 0), 60, NOW));
+        assertNull(station(1).check(MONDAY, LocalTime.of(11, 0), 60, NOW));
+    }
+
+    @Test
+    public void check_mirrorsServerRejections() {
+        SlotAvailability a = station(1);
+        assertEquals("Minutes must be 60.", a.check(MONDAY, LocalTime.of(9, 0), 30, NOW));
+        assertEquals("Requested time is outside station open hours.", a.check(MONDAY, LocalTime.of(11, 30), 60, NOW));
+        assertEquals("Requested time is outside station open hours.", a.check(MONDAY.plusDays(1), LocalTime.of(9, 0), 60, NOW));
+        assertEquals("Cannot create a booking in the past.", a.check(NOW.toLocalDate(), LocalTime.of(9, 0), 60, NOW));
+        assertEquals("Cannot book more than 7 day(s) ahead.", a.check(MONDAY.plusDays(7), LocalTime.of(9, 0), 60, NOW));
+    }
+
+    @Test
+    public void check_countsKnownBookingsAgainstConnectors() {
+        SlotAvailability a = station(2);
+        a.addBooking(LocalDateTime.of(MONDAY, LocalTime.of(9, 0)), 60);
+        assertNull(a.check(MONDAY, LocalTime.of(9, 0), 60, NOW));
+        a.addBooking(LocalDateTime.of(MONDAY, LocalTime.of(8, 30)), 60);  // overlaps 09:00-09:30
+        assertEquals("The selected slot is full.", a.check(MONDAY, LocalTime.of(9, 0), 60, NOW));
+    }
+
+    @Test
+    public void closedExceptionAndCapacityOverride() {
+        JSONArray closed = new JSONArray().put(new JSONObject().put("date", MONDAY.toString()).put("closed", true));
+        SlotAvailability a = SlotAvailability.from(detail(1, 60, "Asia/Colombo"), schedule(closed, null));
+        assertEquals("Station is closed on that date.", a.check(MONDAY, LocalTime.of(9, 0), 60, NOW));
+        assertTrue(a.slotsOn(MONDAY, NOW).isEmpty());
+
+        JSONArray more = new JSONArray().put(new JSONObject().put("date", MONDAY.toString()).put("connectors", 3));
+        SlotAvailability b = SlotAvailability.from(detail(1, 60, "Asia/Colombo"), schedule(null, more));
+        assertEquals(3, b.slotsOn(MONDAY, NOW).get(0).free);
+    }
+
+    @Test
+    public void nullScheduleMeansNothingIsBookable() {
+        SlotAvailability a = SlotAvailability.from(detail(1, 60, "Asia/Colombo"), null);
+        assertTrue(a.nextFree(5, NOW).isEmpty());
+    }
+
+    @Test
+    public void slotsOn_walksTheGridAndSkipsFullSlots() {
+        SlotAvailability a = station(1);
+        a.addBooking(LocalDateTime.of(MONDAY, LocalTime.of(10, 0)), 60);
+        List<SlotAvailability.Slot> slots = a.slotsOn(MONDAY, NOW);
+        assertEquals(3, slots.size());
+        assertEquals("08:00", slots.get(0).hm());
+        assertEquals("09:00", slots.get(1).hm());
+        assertEquals("11:00", slots.get(2).hm());
+        assertEquals("2030-01-07", slots.get(0).ymd());
+    }
+
+    @Test
+    public void nextFree_startsAtTheGivenTime() {
+        SlotAvailability a = station(1);
+        List<SlotAvailability.Slot> next = a.nextFree(2, LocalDateTime.of(MONDAY, LocalTime.of(9, 30)), NOW);
+        assertEquals(2, next.size());
+        assertEquals("10:00", next.get(0).hm());
+        assertEquals("11:00", next.get(1).hm());
+    }
+
+    @Test
+    public void addBookingsFrom_onlyCountsHoldingStatusesForThisStation() {
+        SlotAvailability a = station(1);
+        JSONArray mine = new JSONArray()
+                .put(row("s1", "Cancelled", "2030-01-07T08:00"))
+                .put(row("s2", "Approved", "2030-01-07T09:00"))
+                .put(row("s1", "Approved", "2030-01-07T10:00"))
+                .put(row("s1", "Pending", "2030-01-07T11:00"));
+        a.addBookingsFrom(mine, "s1");
+        List<SlotAvailability.Slot> slots = a.slotsOn(MONDAY, NOW);
+        assertEquals(2, slots.size());
+        assertEquals("08:00", slots.get(0).hm());
+        assertEquals("09:00", slots.get(1).hm());
+    }
+
+    @Test
+    public void zone_fallsBackToUtcLikeTheServer() {
+        assertEquals(ZoneId.of("UTC"), SlotAvailability.from(detail(1, 60, null), null).now().getZone());
+        assertEquals(ZoneId.of("UTC"), SlotAvailability.from(detail(1, 60, "  "), null).now().getZone());
+        assertEquals(ZoneId.of("UTC"), SlotAvailability.from(detail(1, 60, "Nowhere/Town"), null).now().getZone());
+        assertEquals(COLOMBO, SlotAvailability.from(detail(1, 60, "Asia/Colombo"), null).now().getZone());
+    }
+
+    @Test
+    public void fromCatalogueEntry() {
+        StationPoint p = new StationPoint("s1", "One", "AC", null, "Active", 6.9, 79.8, 30, 2, "Asia/Colombo");
+        SlotAvailability a = SlotAvailability.from(p, schedule(null, null));
+        assertEquals(30, a.slotMinutes());
+        assertEquals(8, a.slotsOn(MONDAY, NOW).size());
+        assertEquals(2, a.slotsOn(MONDAY, NOW).get(0).free);
+    }
+
+    @Test
+    public void minuteOfDay_parsesServerFormat() {
+        assertEquals(0, SlotAvailability.minuteOfDay("00:00"));
+        assertEquals(23 * 60 + 59, SlotAvailability.minuteOfDay("23:59"));
+        assertEquals(-1, SlotAvailability.minuteOfDay("24:00"));
+        assertEquals(-1, SlotAvailability.minuteOfDay("9am"));
+        assertEquals(-1, SlotAvailability.minuteOfDay(null));
+    }
+
+    private static JSONObject row(String stationId, String status, String slotStartLocal) {
+        return new JSONObject().put("stationId", stationId).put("status", status)
+                .put("slotStartLocal", slotStartLocal).put("slotMinutes", 60);
+    }
+}
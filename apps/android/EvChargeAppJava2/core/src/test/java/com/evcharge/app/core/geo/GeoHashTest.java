@@ -0,0 +1,54 @@
+package com.evcharge.app.core.geo;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeoHashTest {
+
+    @Test
+    public void encode_matchesReferenceGeohash() {
+        // Reference value from the original geohash.org example
+        assertEquals("u4pruydqqvj", GeoHash.toBase32(GeoHash.encode(57.64911, 10.40744, 11), 11));
+    }
+
+    @Test
+    public void encode_shorterPrecisionIsPrefix() {
+        long p7 = GeoHash.encode(6.9271, 79.8612, 7);
+        long p5 = GeoHash.encode(6.9271, 79.8612, 5);
+        assertEquals(p5, p7 >>> 10);
+    }
+
+    @Test
+    public void cellSizes_followTheBitSplit() {
+        // odd bit counts give longitude the extra bit
+        assertEquals(45.0, GeoHash.cellWidthDeg(1), 1e-12);
+        assertEquals(45.0, GeoHash.cellHeightDeg(1), 1e-12);
+        assertEquals(11.25, GeoHash.cellWidthDeg(2), 1e-12);
+        assertEquals(5.625, GeoHash.cellHeightDeg(2), 1e-12);
+    }
+
+    @Test
+    public void cover_boxInsideOneCell() {
+        double h = GeoHash.cellHeightDeg(5), w = GeoHash.cellWidthDeg(5);
+        double south = Math.floor(6.9 / h) * h + h / 4, west = Math.floor(79.8 / w) * w + w / 4;
+        List<Long> cells = GeoHash.cover(south, west, south + h / 4, west + w / 4, 5);
+        assertEquals(1, cells.size());
+        assertEquals(GeoHash.encode(south, west, 5), (long) cells.get(0));
+    }
+
+    @Test
+    public void cover_matchesCellCountAndContainsCorners() {
+        double south = 6.80, west = 79.80, north = 7.00, east = 80.05;
+        List<Long> cells = GeoHash.cover(south, west, north, east, 5);
+        assertEquals(GeoHash.cellCount(south, west, north, east, 5), cells.size());
+        assertEquals(cells.size(), new HashSet<>(cells).size());
+        assertTrue(cells.contains(GeoHash.encode(south, west, 5)));
+        assertTrue(cells.contains(GeoHash.encode(north, east, 5)));
+        assertTrue(cells.contains(GeoHash.encode(south, east, 5)));
+        assertTrue(cells.contains(GeoHash.encode(north, west, 5)));
+    }
+}
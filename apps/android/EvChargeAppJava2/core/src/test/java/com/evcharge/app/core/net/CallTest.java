@@ -0,0 +1,200 @@
+package com.evcharge.app.core.net;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CallTest {
+
+    @Test
+    public void cancelFailsFastAsInterrupted() {
+        Call c = Call.withDeadline(60_000);
+        assertFalse(c.isDone());
+        c.cancel();
+        assertTrue(c.isCanceled());
+        assertTrue(c.isDone());
+        try {
+            c.throwIfDone();
+            fail("canceled call still usable");
+        } catch (IOException e) {
+            assertTrue(e instanceof InterruptedIOException);
+            assertFalse(e instanceof SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void finishEndsTheCallWithoutCancelingIt() {
+        Call c = Call.withDeadline(60_000);
+        Call child = c.child();
+        c.finish();
+        assertTrue(c.isDone());
+        assertFalse(c.isCanceled());
+        assertTrue(child.isCanceled());
+        try {
+            c.throwIfDone();
+            fail("finished call still usable");
+        } catch (IOException e) {
+            assertTrue(e instanceof InterruptedIOException);
+            assertFalse(e instanceof SocketTimeoutException);
+        }
+        c.cancel();                                   // still allowed, e.g. from a screen closing late
+        assertTrue(c.isCanceled());
+    }
+
+    @Test
+    public void expiredDeadlineFailsAsTimeout() throws Exception {
+        Call c = Call.withDeadline(20);
+        Thread.sleep(60);
+        assertTrue(c.isDone());
+        assertFalse(c.isCanceled());
+        assertEquals(0, c.remainingMs());
+        try {
+            c.throwIfDone();
+            fail("expired call still usable");
+        } catch (SocketTimeoutException expected) {
+            // fine
+        }
+    }
+
+    @Test
+    public void stageTimeoutsAreClampedToWhatIsLeft() throws Exception {
+        Call c = Call.withDeadline(500);
+        int t = c.clamp(HttpClient.READ_TIMEOUT_MS);
+        assertTrue(t > 0 && t <= 500);
+        c.cancel();
+
+        Call expired = Call.withDeadline(1);
+        Thread.sleep(20);
+        assertEquals(1, expired.clamp(HttpClient.READ_TIMEOUT_MS));   // never 0, which means "no timeout"
+    }
+
+    @Test
+    public void sleepLongerThanTheDeadlineFailsAtOnce() throws Exception {
+        Call c = Call.withDeadline(200);
+        long start = System.nanoTime();
+        try {
+            c.sleep(5_000);
+            fail("slept past the deadline");
+        } catch (SocketTimeoutException expected) {
+            assertTrue(msSince(start) < 100);
+        } finally {
+            c.cancel();
+        }
+    }
+
+    @Test
+    public void cancelWakesABackOffSleep() throws Exception {
+        Call c = Call.withDeadline(60_000);
+        cancelLater(c, 50);
+        long start = System.nanoTime();
+        try {
+            c.sleep(10_000);
+            fail("sleep survived cancel");
+        } catch (InterruptedIOException expected) {
+            assertTrue(msSince(start) < 2_000);
+        }
+    }
+
+    @Test
+    public void childEndsWithItsParentButNotTheOtherWayRound() {
+        Call parent = Call.withDeadline(60_000);
+        Call a = parent.child();
+        Call b = parent.child();
+        assertTrue(a.remainingMs() <= parent.remainingMs());
+
+        parent.release(a);
+        assertTrue(a.isCanceled());
+        assertFalse(parent.isDone());
+        assertFalse(b.isDone());
+
+        parent.cancel();
+        assertTrue(b.isCanceled());
+        assertTrue(parent.child().isCanceled());   // born after the parent ended
+    }
+
+    @Test
+    public void deadlineAbortsABlockedRead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = stallingServer(release);
+        try {
+            Call c = Call.withDeadline(300);
+            long start = System.nanoTime();
+            try {
+                new HttpClient().get(url(server), null, null, c);
+                fail("answered without a response");
+            } catch (SocketTimeoutException expected) {
+                assertTrue("took " + msSince(start) + " ms", msSince(start) < 3_000);
+            }
+        } finally {
+            release.countDown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void cancelAbortsABlockedRead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = stallingServer(release);
+        try {
+            Call c = Call.withDeadline(60_000);
+            cancelLater(c, 200);
+            long start = System.nanoTime();
+            try {
+                new HttpClient().get(url(server), null, null, c);
+                fail("answered without a response");
+            } catch (InterruptedIOException e) {
+                assertFalse(e instanceof SocketTimeoutException);
+                assertTrue("took " + msSince(start) + " ms", msSince(start) < 3_000);
+            }
+        } finally {
+            release.countDown();
+            server.stop(0);
+        }
+    }
+
+    // ---- helpers ----
+
+    /** Accepts requests and holds them until {@code release} opens. */
+    private static HttpServer stallingServer(CountDownLatch release) throws IOException {
+        HttpServer s = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        s.setExecutor(Executors.newCachedThreadPool());
+        s.createContext("/", ex -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            ex.sendResponseHeaders(204, -1);
+            ex.close();
+        });
+        s.start();
+        return s;
+    }
+
+    private static String url(HttpServer s) {
+        return "http://127.0.0.1:" + s.getAddress().getPort() + "/";
+    }
+
+    private static void cancelLater(Call c, long ms) {
+        Thread t = new Thread(() -> {
+            try { Thread.sleep(ms); } catch (InterruptedException ignored) { }
+            c.cancel();
+        });
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static long msSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
@@ -0,0 +1,77 @@
+package com.evcharge.app.core.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void opensAfterConsecutiveFailures() throws Exception {
+        CircuitBreaker b = new CircuitBreaker("test", 3, 60_000);
+        b.acquire(); b.onFailure();
+        b.acquire(); b.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, b.state());
+        b.acquire(); b.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, b.state());
+        try {
+            b.acquire();
+            fail("open circuit let a request through");
+        } catch (CircuitOpenException e) {
+            assertEquals("test", e.endpoint);
+            assertTrue(e.retryAfterMs > 0);
+        }
+    }
+
+    @Test
+    public void successResetsTheFailureCount() throws Exception {
+        CircuitBreaker b = new CircuitBreaker("test", 2, 60_000);
+        b.acquire(); b.onFailure();
+        b.acquire(); b.onSuccess();
+        b.acquire(); b.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, b.state());
+    }
+
+    @Test
+    public void halfOpenLetsOneProbeThrough() throws Exception {
+        CircuitBreaker b = new CircuitBreaker("test", 1, 0);
+        b.acquire(); b.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, b.state());
+
+        b.acquire();                      // open period over: this is the probe
+        assertEquals(CircuitBreaker.State.HALF_OPEN, b.state());
+        try {
+            b.acquire();
+            fail("second request while the probe is in flight");
+        } catch (CircuitOpenException expected) {
+            // fine
+        }
+        b.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, b.state());
+        b.acquire();
+    }
+
+    @Test
+    public void failedProbeReopens() throws Exception {
+        CircuitBreaker b = new CircuitBreaker("test", 5, 0);
+        for (int i = 0; i < 5; i++) { b.acquire(); b.onFailure(); }
+        b.acquire();
+        b.onFailure();                    // one failure is enough in HALF_OPEN
+        assertEquals(CircuitBreaker.State.OPEN, b.state());
+    }
+
+    @Test
+    public void releaseFreesTheProbeSlot() throws Exception {
+        CircuitBreaker b = new CircuitBreaker("test", 1, 0);
+        b.acquire(); b.onFailure();
+        b.acquire();
+        b.release();                      // probe canceled by its caller
+        b.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, b.state());
+    }
+
+    @Test
+    public void forEndpointIsShared() {
+        assertSame(CircuitBreaker.forEndpoint("GET /api/Test"), CircuitBreaker.forEndpoint("GET /api/Test"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.evcharge.app.core.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HedgeBudgetTest {
+
+    @Test
+    public void startsEmpty() {
+        HedgeBudget b = new HedgeBudget(0.5, 4);
+        assertFalse(b.tryAcquire());
+        assertEquals(1, b.denied());
+        assertEquals(0, b.hedges());
+    }
+
+    @Test
+    public void earnsRatioPerRequest() {
+        HedgeBudget b = new HedgeBudget(0.25, 4);
+        for (int i = 0; i < 3; i++) b.onRequest();
+        assertFalse(b.tryAcquire());
+        b.onRequest();
+        assertTrue(b.tryAcquire());
+        assertFalse(b.tryAcquire());
+        assertEquals(4, b.requests());
+        assertEquals(1, b.hedges());
+        assertEquals(2, b.denied());
+    }
+
+    @Test
+    public void bankIsCapped() {
+        HedgeBudget b = new HedgeBudget(1.0, 2);
+        for (int i = 0; i < 100; i++) b.onRequest();
+        assertTrue(b.tryAcquire());
+        assertTrue(b.tryAcquire());
+        assertFalse(b.tryAcquire());
+    }
+
+    @Test
+    public void hedgesStayUnderRatioOverTime() {
+        HedgeBudget b = new HedgeBudget(0.05, 10);
+        for (int i = 0; i < 10_000; i++) {
+            b.onRequest();
+            b.tryAcquire();               // worst case: every request wants a hedge
+        }
+        assertTrue(b.hedges() <= 0.05 * b.requests() + 1);
+        assertTrue(b.hedges() >= 0.05 * b.requests() - 1);
+    }
+
+    @Test
+    public void zeroRatioNeverHedges() {
+        HedgeBudget b = new HedgeBudget(0, 10);
+        for (int i = 0; i < 1_000; i++) b.onRequest();
+        assertFalse(b.tryAcquire());
+    }
+}
@@ -0,0 +1,190 @@
+package com.evcharge.app.core.net;
+
+import com.evcharge.app.core.perf.NetMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HedgedRequestTest {
+
+    private static final long STALL = -1;
+
+    private HttpServer server;
+    private final List<Long> delays = new CopyOnWriteArrayList<>();   // per request, in arrival order; STALL = until stop()
+    private final List<Integer> codes = new CopyOnWriteArrayList<>(); // per request; 200 beyond the list
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final HttpClient client = new HttpClient();
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @After
+    public void stop() {
+        stopped.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void hedgeWinsAndTheStalledFirstRequestIsCanceled() throws Exception {
+        String url = url("/hedge/winner");
+        warmUp(url);
+        delays.add(STALL);
+        delays.add(0L);
+
+        long start = System.nanoTime();
+        HttpClient.Response r = client.get(url, null, Endpoint.hedgedRead("hedge-winner"), Call.withDeadline(10_000));
+        assertEquals(200, r.code);
+        assertEquals(1, r.jsonObject.getInt("n"));   // the second request's answer
+        assertTrue("took " + msSince(start) + " ms", msSince(start) < 3_000);
+
+        NetMetrics.EndpointSnapshot s = snapshot(url);
+        assertEquals(1, s.hedges);
+        assertEquals(1, s.hedgeWins);
+        assertEquals(0, s.errors);                    // the canceled loser is no error
+    }
+
+    @Test
+    public void firstAnswerWinsAndTheHedgeIsCanceled() throws Exception {
+        String url = url("/hedge/loser");
+        warmUp(url);
+        delays.add(300L);
+        delays.add(STALL);
+
+        long start = System.nanoTime();
+        HttpClient.Response r = client.get(url, null, Endpoint.hedgedRead("hedge-loser"), Call.withDeadline(10_000));
+        assertEquals(200, r.code);
+        assertEquals(0, r.jsonObject.getInt("n"));
+        assertTrue("took " + msSince(start) + " ms", msSince(start) < 3_000);
+        assertEquals(2, hits.get());                  // the hedge was sent ...
+
+        NetMetrics.EndpointSnapshot s = awaitHedges(url, 1);
+        assertEquals(0, s.hedgeWins);                 // ... lost, and was canceled rather than waited for
+        assertEquals(0, s.errors);
+    }
+
+    @Test
+    public void callerCancelStopsBothRequests() throws Exception {
+        String url = url("/hedge/canceled");
+        warmUp(url);
+        delays.add(STALL);
+        delays.add(STALL);
+
+        Call c = Call.withDeadline(10_000);
+        Thread t = new Thread(() -> {
+            try { Thread.sleep(400); } catch (InterruptedException ignored) { }
+            c.cancel();
+        });
+        t.setDaemon(true);
+        t.start();
+        long start = System.nanoTime();
+        try {
+            client.get(url, null, Endpoint.hedgedRead("hedge-canceled"), c);
+            fail("answered without a response");
+        } catch (InterruptedIOException e) {
+            assertFalse(e instanceof SocketTimeoutException);
+            assertTrue("took " + msSince(start) + " ms", msSince(start) < 3_000);
+        }
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void hedgeIsASingleAttempt() throws Exception {
+        String url = url("/hedge/single");
+        warmUp(url);
+        delays.add(STALL);
+        codes.add(200);
+        codes.add(503);
+
+        HttpClient.Response r = client.get(url, null, Endpoint.hedgedRead("hedge-single"), Call.withDeadline(10_000));
+        assertEquals(503, r.code);                    // the hedge answered first, and was not retried
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void noHedgeUntilThereIsEnoughHistory() throws Exception {
+        String url = url("/hedge/cold");
+        delays.add(300L);
+        HttpClient.Response r = client.get(url, null, Endpoint.hedgedRead("hedge-cold"), Call.withDeadline(10_000));
+        assertEquals(200, r.code);
+        assertEquals(1, hits.get());
+        assertEquals(0, snapshot(url).hedges);
+    }
+
+    // ---- helpers ----
+
+    /** Fast history (p90 well under the hedge floor) and enough budget for one hedge. */
+    private static void warmUp(String url) {
+        NetMetrics.Endpoint m = NetMetrics.get().endpoint("GET", url);
+        for (int i = 0; i < HedgedRequest.MIN_SAMPLES; i++) m.onPhase(NetMetrics.TOTAL, 5);
+        for (int i = 0; i < 20; i++) HedgeBudget.GLOBAL.onRequest();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        int n = hits.getAndIncrement();
+        long delay = n < delays.size() ? delays.get(n) : 0;
+        try {
+            if (delay == STALL) stopped.await(10, TimeUnit.SECONDS);
+            else if (delay > 0) Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int code = n < codes.size() ? codes.get(n) : 200;
+        byte[] body = ("{\"n\":" + n + "}").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        try (OutputStream os = ex.getResponseBody()) {
+            ex.sendResponseHeaders(code, body.length);
+            os.write(body);
+        } catch (IOException ignored) {
+            // the client hung up: a canceled request
+        }
+    }
+
+    private static NetMetrics.EndpointSnapshot snapshot(String url) {
+        String key = "GET " + NetMetrics.template(url);
+        for (NetMetrics.EndpointSnapshot s : NetMetrics.get().snapshot()) if (s.key.equals(key)) return s;
+        throw new AssertionError("no metrics for " + key);
+    }
+
+    /** The losing hedge reports on its pool thread once its socket is closed. */
+    private static NetMetrics.EndpointSnapshot awaitHedges(String url, long n) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        NetMetrics.EndpointSnapshot s = snapshot(url);
+        while (s.hedges < n && System.nanoTime() < until) {
+            Thread.sleep(10);
+            s = snapshot(url);
+        }
+        return s;
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static long msSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
@@ -0,0 +1,279 @@
+package com.evcharge.app.core.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class HttpClientTest {
+
+    private static final RetryPolicy FAST = new RetryPolicy(3, 1, 5);
+    private static final AtomicInteger NAMES = new AtomicInteger();
+
+    private HttpServer server;
+    private final Deque<Integer> statuses = new ArrayDeque<>();   // next status codes; 200 once empty
+    private final List<String> keys = new ArrayList<>();          // Idempotency-Key of every request seen
+    private final HttpClient client = new HttpClient();
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.createContext("/encoded", this::handleEncoded);
+        server.start();
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getIsRetriedOnServerErrors() throws Exception {
+        answer(503, 502);
+        HttpClient.Response r = client.get(url(), null, Endpoint.of(name(), FAST));
+        assertEquals(200, r.code);
+        assertEquals(3, hits());
+    }
+
+    @Test
+    public void writeWithoutAKeyIsSentOnce() throws Exception {
+        answer(503, 503, 503);
+        HttpClient.Response r = client.post(url(), new JSONObject().put("a", 1), null, Endpoint.of(name(), FAST));
+        assertEquals(503, r.code);
+        assertEquals(1, hits());
+    }
+
+    @Test
+    public void keyedWriteIsRetriedWithTheSameKey() throws Exception {
+        answer(503, 429);
+        Map<String, String> h = HttpClient.headers();
+        h.put("Idempotency-Key", "k-1");
+        HttpClient.Response r = client.post(url(), new JSONObject().put("a", 1), h, Endpoint.of(name(), FAST));
+        assertEquals(200, r.code);
+        assertEquals(3, hits());
+        for (String k : keys) assertEquals("k-1", k);
+    }
+
+    @Test
+    public void clientErrorsAreAnswersNotFailures() throws Exception {
+        answer(404, 404, 404);
+        Endpoint ep = Endpoint.of(name(), FAST);
+        HttpClient.Response r = client.get(url(), null, ep);
+        assertEquals(404, r.code);
+        assertEquals(1, hits());
+        assertEquals(CircuitBreaker.State.CLOSED, ep.breaker.state());
+    }
+
+    @Test
+    public void lastResponseIsReturnedWhenAttemptsRunOut() throws Exception {
+        answer(500, 500, 500, 500);
+        HttpClient.Response r = client.get(url(), null, Endpoint.of(name(), FAST));
+        assertEquals(500, r.code);
+        assertEquals(3, hits());
+    }
+
+    @Test
+    public void breakerOpensAndStopsSendingAfterRepeatedFailures() throws Exception {
+        Endpoint ep = Endpoint.of(name(), RetryPolicy.NONE);
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            answer(500);
+            assertEquals(500, client.get(url(), null, ep).code);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, ep.breaker.state());
+        try {
+            client.get(url(), null, ep);
+            fail("open breaker let a request through");
+        } catch (CircuitOpenException expected) {
+            assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, hits());
+        }
+    }
+
+    @Test
+    public void retriesCountAgainstTheBreaker() throws Exception {
+        Endpoint ep = Endpoint.of(name(), new RetryPolicy(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, 1, 5));
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) answer(503);
+        assertEquals(503, client.get(url(), null, ep).code);
+        assertEquals(CircuitBreaker.State.OPEN, ep.breaker.state());
+    }
+
+    @Test
+    public void successResetsTheBreaker() throws Exception {
+        Endpoint ep = Endpoint.of(name(), RetryPolicy.NONE);
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD - 1; i++) {
+            answer(500);
+            client.get(url(), null, ep);
+        }
+        client.get(url(), null, ep);                 // 200
+        answer(500);
+        client.get(url(), null, ep);
+        assertEquals(CircuitBreaker.State.CLOSED, ep.breaker.state());
+    }
+
+    @Test
+    public void decoderHandlesGzipZlibAndRawDeflate() throws Exception {
+        byte[] raw = payload().getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(HttpClient.gzip(raw)), "gzip")));
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(HttpClient.gzip(raw)), " X-GZIP ")));
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(deflate(raw, false)), "deflate")));
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(deflate(raw, true)), "deflate")));
+    }
+
+    @Test
+    public void decoderPassesThroughIdentityAndEmptyBodies() throws Exception {
+        byte[] raw = "{}".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(raw), null)));
+        assertArrayEquals(raw, readAll(HttpClient.decoder(new ByteArrayInputStream(raw), "br")));
+        assertEquals(0, readAll(HttpClient.decoder(new ByteArrayInputStream(new byte[0]), "gzip")).length);
+    }
+
+    @Test
+    public void compressedResponsesAreDecoded() throws Exception {
+        for (String enc : new String[]{"gzip", "deflate", "raw-deflate"}) {
+            HttpClient.Response r = client.get(url("/encoded?enc=" + enc), null);
+            assertEquals(enc, 200, r.code);
+            assertNotNull(enc, r.jsonObject);
+            assertEquals(enc, payload(), r.jsonObject.getString("text"));
+        }
+    }
+
+    @Test
+    public void truncatedGzipBodyFailsTheAttempt() throws Exception {
+        try {
+            client.get(url("/encoded?enc=truncated"), null);
+            fail("a cut-off gzip body passed for a response");
+        } catch (IOException expected) {
+            // fine: retryable, not an empty 200
+        }
+    }
+
+    @Test
+    public void largeRequestBodiesAreGzippedOnceEnabled() throws Exception {
+        client.gzipRequestsAbove(HttpClient.DEFAULT_GZIP_MIN_BYTES);
+        JSONObject big = new JSONObject().put("text", payload());
+        HttpClient.Response r = client.post(url("/encoded?enc=echo"), big, null);
+        assertEquals("gzip", r.jsonObject.getString("requestEncoding"));
+        assertEquals(payload(), r.jsonObject.getJSONObject("received").getString("text"));
+
+        r = client.post(url("/encoded?enc=echo"), new JSONObject().put("a", 1), null);
+        assertEquals("", r.jsonObject.getString("requestEncoding"));   // below the threshold: sent as-is
+    }
+
+    // ---- helpers ----
+
+    private void handle(HttpExchange ex) throws IOException {
+        int code;
+        synchronized (this) {
+            keys.add(ex.getRequestHeaders().getFirst("Idempotency-Key"));
+            Integer next = statuses.poll();
+            code = next != null ? next : 200;
+        }
+        ex.getRequestBody().readAllBytes();
+        byte[] body = ("{\"status\":" + code + "}").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(code, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /** ?enc=gzip|deflate|raw-deflate|truncated: {"text": payload()} encoded so; ?enc=echo: the decoded request. */
+    private void handleEncoded(HttpExchange ex) throws IOException {
+        String enc = ex.getRequestURI().getQuery().substring("enc=".length());
+        byte[] body;
+        String contentEncoding;
+        if (enc.equals("echo")) {
+            String reqEnc = ex.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream in = "gzip".equals(reqEnc) ? new GZIPInputStream(ex.getRequestBody()) : ex.getRequestBody();
+            JSONObject echo = new JSONObject()
+                    .put("requestEncoding", reqEnc != null ? reqEnc : "")
+                    .put("received", new JSONObject(new String(readAll(in), StandardCharsets.UTF_8)));
+            body = echo.toString().getBytes(StandardCharsets.UTF_8);
+            contentEncoding = null;
+        } else {
+            byte[] raw = new JSONObject().put("text", payload()).toString().getBytes(StandardCharsets.UTF_8);
+            switch (enc) {
+                case "gzip": body = HttpClient.gzip(raw); contentEncoding = "gzip"; break;
+                case "deflate": body = deflate(raw, false); contentEncoding = "deflate"; break;
+                case "raw-deflate": body = deflate(raw, true); contentEncoding = "deflate"; break;
+                default:
+                    byte[] gz = HttpClient.gzip(raw);
+                    body = Arrays.copyOf(gz, gz.length / 2);
+                    contentEncoding = "gzip";
+            }
+        }
+        if (contentEncoding != null) ex.getResponseHeaders().set("Content-Encoding", contentEncoding);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /** Compressible, and well over the gzip threshold. */
+    private static String payload() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 400; i++) sb.append("Station ").append(i).append(" · ");
+        return sb.toString();
+    }
+
+    private static byte[] deflate(byte[] raw, boolean nowrap) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream d = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap))) {
+            d.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream i = in) {
+            return i.readAllBytes();
+        }
+    }
+
+    private synchronized void answer(int... codes) {
+        for (int c : codes) statuses.add(c);
+    }
+
+    private synchronized int hits() {
+        return keys.size();
+    }
+
+    private String url() {
+        return url("/api/test");
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /** Breakers are shared by endpoint name: a fresh one per test. */
+    private static String name() {
+        return "test-" + NAMES.incrementAndGet();
+    }
+}
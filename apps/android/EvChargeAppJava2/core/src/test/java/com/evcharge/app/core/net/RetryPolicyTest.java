@@ -0,0 +1,46 @@
+package com.evcharge.app.core.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void none_neverWaits() {
+        assertEquals(1, RetryPolicy.NONE.maxAttempts);
+        assertEquals(0, RetryPolicy.NONE.nextDelayMs(0));
+        assertEquals(0, RetryPolicy.NONE.nextDelayMs(5_000));
+    }
+
+    @Test
+    public void constructor_clampsArguments() {
+        RetryPolicy p = new RetryPolicy(0, -5, -10);
+        assertEquals(1, p.maxAttempts);
+        assertEquals(0, p.baseDelayMs);
+        assertEquals(0, p.maxDelayMs);
+
+        RetryPolicy q = new RetryPolicy(3, 500, 100);
+        assertEquals(500, q.maxDelayMs);
+    }
+
+    @Test
+    public void delays_stayBetweenBaseAndCap() {
+        RetryPolicy p = RetryPolicy.READ;
+        long prev = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long d = p.nextDelayMs(prev);
+            assertTrue("delay " + d, d >= p.baseDelayMs && d <= p.maxDelayMs);
+            prev = (i % 7 == 0) ? 0 : d;
+        }
+    }
+
+    @Test
+    public void delays_decorrelatedUpToThreeTimesPrevious() {
+        RetryPolicy p = new RetryPolicy(5, 100, 1_000_000);
+        for (int i = 0; i < 10_000; i++) {
+            long d = p.nextDelayMs(400);
+            assertTrue("delay " + d, d >= 100 && d <= 1_200);
+        }
+    }
+}
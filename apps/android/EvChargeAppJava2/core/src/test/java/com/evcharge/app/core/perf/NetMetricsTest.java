@@ -0,0 +1,52 @@
+package com.evcharge.app.core.perf;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NetMetricsTest {
+
+    @Test
+    public void template_replacesObjectIds() {
+        assertEquals("/api/Station/{id}/schedule",
+                NetMetrics.template("http://10.0.2.2:8085/api/Station/68e4a1b2c3d4e5f6a7b8c9d0/schedule"));
+    }
+
+    @Test
+    public void template_dropsQueryString() {
+        assertEquals("/api/Station/nearby",
+                NetMetrics.template("https://host/api/Station/nearby?lat=6.9&lng=79.8&radiusKm=5"));
+        assertEquals("/api/Notifications", NetMetrics.template("http://h/api/Notifications?page=2"));
+    }
+
+    @Test
+    public void template_replacesNicsNumbersAndUuids() {
+        assertEquals("/api/Owner/{id}", NetMetrics.template("http://h/api/Owner/199012345678"));
+        assertEquals("/api/Owner/{id}", NetMetrics.template("http://h/api/Owner/901234567V"));
+        assertEquals("/api/Booking/{id}", NetMetrics.template("http://h/api/Booking/42"));
+        assertEquals("/api/Qr/issue/{id}",
+                NetMetrics.template("http://h/api/Qr/issue/123e4567-e89b-12d3-a456-426614174000"));
+    }
+
+    @Test
+    public void template_keepsWordsAndDate() {
+        assertEquals("/api/Booking/mine", NetMetrics.template("http://h/api/Booking/mine"));
+        assertEquals("/api/Operator/inbox", NetMetrics.template("http://h/api/Operator/inbox?date=2030-01-09"));
+    }
+
+    @Test
+    public void template_edgeCases() {
+        assertEquals("", NetMetrics.template(null));
+        assertEquals("/", NetMetrics.template("http://host"));
+        assertEquals("/", NetMetrics.template("http://host/"));
+        assertEquals("/api/Station", NetMetrics.template("/api/Station//"));
+    }
+
+    @Test
+    public void endpoint_sharesCountersPerTemplate() {
+        NetMetrics m = NetMetrics.get();
+        assertSame(m.endpoint("GET", "http://h/api/Booking/68e4a1b2c3d4e5f6a7b8c9d0"),
+                m.endpoint("GET", "http://h/api/Booking/68e4a1b2c3d4e5f6a7b8c9d1?x=1"));
+        assertNotSame(m.endpoint("GET", "http://h/api/Booking/1"), m.endpoint("DELETE", "http://h/api/Booking/1"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.evcharge.app.core.station;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CatalogSnapshotTest {
+
+    private static final List<StationPoint> STATIONS = Arrays.asList(
+            new StationPoint("68e4a1b2c3d4e5f6a7b8c9d0", "Colombo Fort Supercharger", "DC", "Colombo", "Active",
+                    6.934512, 79.842283, 30, 4, "Asia/Colombo"),
+            new StationPoint("68e4a1b2c3d4e5f6a7b8c9d1", "Kandy – Lake Road ⚡", "AC", null, "Deactivated",
+                    7.2906, 80.6337, 60, 2, "UTC"),
+            new StationPoint("68e4a1b2c3d4e5f6a7b8c9d2", null, null, null, null,
+                    Double.NaN, Double.NaN, 0, 0, null));
+
+    @Test
+    public void roundTrip_keepsEveryField() {
+        CatalogSnapshot.Loaded back = decode(CatalogSnapshot.encode(STATIONS, 1_700_000_000_000L));
+        assertNotNull(back);
+        assertEquals(1_700_000_000_000L, back.savedAtMs);
+        assertEquals(STATIONS.size(), back.stations.size());
+        for (int i = 0; i < STATIONS.size(); i++) {
+            StationPoint a = STATIONS.get(i), b = back.stations.get(i);
+            assertEquals(a.id, b.id);
+            assertEquals(a.name, b.name);
+            assertEquals(a.type, b.type);
+            assertEquals(a.city, b.city);
+            assertEquals(a.status, b.status);
+            assertEquals(a.lat, b.lat, 1e-6);
+            assertEquals(a.lng, b.lng, 1e-6);
+            assertEquals(a.defaultSlotMinutes, b.defaultSlotMinutes);
+            assertEquals(a.connectors, b.connectors);
+            assertEquals(a.hoursTimezone, b.hoursTimezone);
+        }
+    }
+
+    @Test
+    public void encode_skipsStationsWithoutId() {
+        StationPoint noId = new StationPoint(null, "Ghost", "AC", null, null, 7, 80, 60, 1, null);
+        CatalogSnapshot.Loaded back = decode(CatalogSnapshot.encode(Arrays.asList(noId, STATIONS.get(0)), 0L));
+        assertEquals(1, back.stations.size());
+        assertEquals(STATIONS.get(0).id, back.stations.get(0).id);
+    }
+
+    @Test
+    public void decode_emptyCatalogue() {
+        CatalogSnapshot.Loaded back = decode(CatalogSnapshot.encode(Arrays.<StationPoint>asList(), 5L));
+        assertNotNull(back);
+        assertTrue(back.stations.isEmpty());
+    }
+
+    @Test
+    public void decode_rejectsCorruptBytes() {
+        byte[] bytes = CatalogSnapshot.encode(STATIONS, 0L);
+        bytes[bytes.length / 2] ^= 0x40;
+        assertNull(decode(bytes));
+    }
+
+    @Test
+    public void decode_rejectsTruncatedFile() {
+        byte[] bytes = CatalogSnapshot.encode(STATIONS, 0L);
+        assertNull(decode(Arrays.copyOf(bytes, bytes.length - 9)));
+    }
+
+    @Test
+    public void decode_rejectsOtherVersion() {
+        byte[] bytes = CatalogSnapshot.encode(STATIONS, 0L);
+        ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        b.putShort(4, (short) (CatalogSnapshot.VERSION + 1));
+        // fix the CRC so only the version differs
+        java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        b.putInt(bytes.length - 4, (int) crc.getValue());
+        assertNull(decode(bytes));
+    }
+
+    private static CatalogSnapshot.Loaded decode(byte[] bytes) {
+        return CatalogSnapshot.decode(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+    }
+}
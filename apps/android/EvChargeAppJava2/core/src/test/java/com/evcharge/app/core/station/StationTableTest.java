@@ -0,0 +1,160 @@
+package com.evcharge.app.core.station;
+
+import com.evcharge.app.core.geo.StationPoint;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StationTableTest {
+
+    private static final List<StationPoint> STATIONS = Arrays.asList(
+            station("68e4a1b2c3d4e5f6a7b8c9d0", "Colombo Fort Supercharger", "Active", 6.934512, 79.842283, 30),
+            station("68e4a1b2c3d4e5f6a7b8c9d1", "Kandy – Lake Road ⚡", "Deactivated", 7.2906, 80.6337, 60),
+            station("68e4a1b2c3d4e5f6a7b8c9d2", null, null, Double.NaN, Double.NaN, 0));
+
+    @Test
+    public void roundTrip_keepsEveryField() {
+        StationTable t = table(STATIONS);
+        for (StationPoint p : STATIONS) {
+            int slot = t.find(p.id);
+            assertTrue(p.id, slot != StationTable.MISSING);
+            assertEquals(p.lat, t.lat(slot), 1e-6);
+            assertEquals(p.lng, t.lng(slot), 1e-6);
+            assertEquals(p.defaultSlotMinutes, t.slotMinutes(slot));
+            assertEquals(p.isActive(), t.isActive(slot));
+            assertEquals(p.name != null, t.hasName(slot));
+            assertFalse(t.isNameTruncated(slot));
+            if (p.name != null) assertEquals(p.name, name(t, slot));
+        }
+        assertTrue(Double.isNaN(t.lat(t.find(STATIONS.get(2).id))));
+    }
+
+    @Test
+    public void unknownIdsAreMissing() {
+        StationTable t = table(STATIONS);
+        assertEquals(StationTable.MISSING, t.find("68e4a1b2c3d4e5f6a7b8c9ff"));
+        assertEquals(StationTable.MISSING, t.find(""));
+        assertEquals(StationTable.MISSING, t.find(null));
+        assertEquals(StationTable.MISSING, table(new ArrayList<>()).find(STATIONS.get(0).id));
+    }
+
+    @Test
+    public void collidingIdsAreAllFound() {
+        // Ids whose hashes land in the same home slot of the smallest (16-slot) table, plus one probe miss
+        List<String> ids = new ArrayList<>();
+        long home = StationTable.hash("s0") & 15;
+        for (int i = 0; ids.size() < 8; i++) {
+            if ((StationTable.hash("s" + i) & 15) == home) ids.add("s" + i);
+        }
+        String absent = null;
+        for (int i = 10_000; absent == null; i++) if ((StationTable.hash("s" + i) & 15) == home) absent = "s" + i;
+
+        List<StationPoint> stations = new ArrayList<>();
+        for (String id : ids) stations.add(station(id, "Station " + id, "Active", 7, 80, 30));
+        StationTable t = table(stations);
+        for (String id : ids) {
+            int slot = t.find(id);
+            assertTrue(id, slot != StationTable.MISSING);
+            assertEquals("Station " + id, name(t, slot));
+        }
+        assertEquals(StationTable.MISSING, t.find(absent));
+    }
+
+    @Test
+    public void duplicateIdKeepsTheLastOne() {
+        StationTable t = table(Arrays.asList(
+                station("dup", "First", "Active", 1, 1, 30),
+                station("dup", "Second", "Active", 2, 2, 45)));
+        int slot = t.find("dup");
+        assertEquals("Second", name(t, slot));
+        assertEquals(45, t.slotMinutes(slot));
+    }
+
+    @Test
+    public void idsThatDoNotFitAreLeftOut() {
+        String tooLong = "0123456789abcdef012345678";   // 25 > ID_BYTES
+        StationTable t = table(Arrays.asList(
+                station(tooLong, "Long", "Active", 1, 1, 30),
+                station("stätion", "Non-ASCII", "Active", 1, 1, 30),
+                station("ok", "Fits", "Active", 1, 1, 30)));
+        assertEquals(StationTable.MISSING, t.find(tooLong));
+        assertEquals(StationTable.MISSING, t.find("stätion"));
+        assertEquals("Fits", name(t, t.find("ok")));
+    }
+
+    @Test
+    public void longNamesAreCutOnACharBoundary() {
+        // 2-, 3- and 4-byte chars straddling NAME_BYTES at every offset
+        String[] units = {"é", "–", "⚡", "🔌"};   // the last one is a surrogate pair
+        for (String unit : units) {
+            for (int pad = 0; pad < 4; pad++) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < pad; i++) sb.append('x');
+                while (sb.toString().getBytes(StandardCharsets.UTF_8).length <= StationTable.NAME_BYTES) sb.append(unit);
+                String full = sb.toString();
+
+                StationTable t = table(Arrays.asList(station("id", full, "Active", 1, 1, 30)));
+                int slot = t.find("id");
+                String stored = name(t, slot);
+                assertTrue(unit + "/" + pad, t.isNameTruncated(slot));
+                assertTrue(unit + "/" + pad + ": " + stored, full.startsWith(stored));
+                assertTrue(stored.getBytes(StandardCharsets.UTF_8).length <= StationTable.NAME_BYTES);
+                assertTrue(stored.getBytes(StandardCharsets.UTF_8).length > StationTable.NAME_BYTES - 4);
+                assertFalse(Character.isHighSurrogate(stored.charAt(stored.length() - 1)));
+            }
+        }
+    }
+
+    @Test
+    public void nameOfExactlyNameBytesIsKept() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < StationTable.NAME_BYTES - 3) sb.append('a');
+        sb.append("⚡");                                    // 3 bytes: exactly NAME_BYTES in all
+        StationTable t = table(Arrays.asList(station("id", sb.toString(), "Active", 1, 1, 30)));
+        int slot = t.find("id");
+        assertFalse(t.isNameTruncated(slot));
+        assertEquals(sb.toString(), name(t, slot));
+    }
+
+    @Test
+    public void wrap_rejectsOtherFormats() {
+        byte[] good = StationTable.encode(STATIONS);
+        assertNotNull(StationTable.wrap(ByteBuffer.wrap(good)));
+
+        byte[] badVersion = good.clone();
+        badVersion[4] = (byte) (StationTable.VERSION + 1);
+        assertNull(StationTable.wrap(ByteBuffer.wrap(badVersion)));
+
+        byte[] badMagic = good.clone();
+        badMagic[0] ^= 0x01;
+        assertNull(StationTable.wrap(ByteBuffer.wrap(badMagic)));
+
+        assertNull(StationTable.wrap(ByteBuffer.wrap(Arrays.copyOf(good, good.length - 1))));   // torn write
+        assertNull(StationTable.wrap(ByteBuffer.wrap(new byte[4])));
+    }
+
+    // ---- helpers ----
+
+    private static StationPoint station(String id, String name, String status, double lat, double lng, int slot) {
+        return new StationPoint(id, name, "AC", null, status, lat, lng, slot, 1, null);
+    }
+
+    private static StationTable table(List<StationPoint> stations) {
+        StationTable t = StationTable.wrap(ByteBuffer.wrap(StationTable.encode(stations)));
+        assertNotNull(t);
+        return t;
+    }
+
+    private static String name(StationTable t, int slot) {
+        StringBuilder sb = new StringBuilder();
+        t.appendName(slot, sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.evcharge.devtools.fleet;
+
+import com.evcharge.app.core.net.NetworkProfile;
+import com.evcharge.devtools.scenario.Credentials;
+import com.evcharge.devtools.scenario.Recorder;
+import com.evcharge.devtools.scenario.Session;
+import com.evcharge.devtools.standin.Faults;
+import com.evcharge.devtools.standin.StandInData;
+import com.evcharge.devtools.standin.StandInServer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Capacity test: N owner and M operator virtual devices, each on its own thread with its own Session,
+ * running weighted journeys with think time for a fixed duration. Prints throughput and error rate per
+ * interval while running, then per-endpoint latency and totals.
+ *
+ *   ./gradlew :devtools:fleet --args="--owners 200 --operators 10 --duration 120 --ramp 30"
+ *   ./gradlew :devtools:fleet --args="--owners 500 --base https://staging.example --owner-nics nics.txt"
+ *   ./gradlew :devtools:fleet --args="--owners 200 --net-profile congested-4g"
+ *
+ * Errors are 5xx, 429 and transport failures (what a capacity problem looks like); other 4xx, such as two
+ * operators racing for the same car, are counted as rejected. Without --base an embedded stand-in is
+ * started and the Faults flags apply to it. Logins use Credentials (--password, --owner-password,
+ * --operator-password, --staff-user, --staff-password); operators scan only when a staff account can issue
+ * the cars' QR tokens (the stand-in has one built in).
+ */
+public final class FleetSimulator {
+
+    private FleetSimulator() {}
+
+    public static void main(String[] args) throws Exception {
+        int owners = 50, operators = 2;
+        long durationSec = 60, rampSec = 10, thinkMs = 3000, minThinkMs = 300, reportSec = 5, seed = 1;
+        String base = null, jsonOut = null, nicsFile = null, operatorEmail = StandInData.OPERATOR_EMAIL;
+        NetworkProfile link = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--owners":         owners = Integer.parseInt(args[++i]); break;
+                case "--operators":      operators = Integer.parseInt(args[++i]); break;
+                case "--duration":       durationSec = Long.parseLong(args[++i]); break;
+                case "--ramp":           rampSec = Long.parseLong(args[++i]); break;
+                case "--think":          thinkMs = Long.parseLong(args[++i]); break;
+                case "--min-think":      minThinkMs = Long.parseLong(args[++i]); break;
+                case "--report":         reportSec = Math.max(1, Long.parseLong(args[++i])); break;
+                case "--seed":           seed = Long.parseLong(args[++i]); break;
+                case "--base":           base = args[++i]; break;
+                case "--owner-nics":     nicsFile = args[++i]; break;
+                case "--operator-email": operatorEmail = args[++i]; break;
+                case "--json":           jsonOut = args[++i]; break;
+                case "--net-profile":    link = NetworkProfile.byName(args[++i]); break;
+                default: break;
+            }
+        }
+        // One JVM stands in for many phones: let the keep-alive cache hold a connection per device
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, owners + operators)));
+
+        Credentials creds = Credentials.fromArgs(args);
+        StandInServer server = null;
+        if (base == null) {
+            server = new StandInServer(new StandInData(42, 200, Math.max(owners, 500), 60, 3600), Faults.fromArgs(args))
+                    .start("127.0.0.1", 0);
+            base = server.baseUrl();
+            creds = creds.withStaffDefault(StandInData.STAFF_USER);
+        } else if (operators > 0 && creds.staffUser == null) {
+            System.out.println("No --staff-user: operators will open the inbox but scan no cars.\n");
+        }
+        List<String> nics = nicsFile != null ? readNics(nicsFile) : new ArrayList<>();
+        for (int i = nics.size(); i < owners; i++) nics.add(StandInData.ownerNic(i));
+
+        Recorder rec = new Recorder();
+        ThinkTime think = new ThinkTime(thinkMs, minThinkMs);
+        long start = System.currentTimeMillis();
+        long deadline = start + rampSec * 1000 + durationSec * 1000;
+        int devices = owners + operators;
+        List<Thread> threads = new ArrayList<>();
+        for (int d = 0; d < devices; d++) {
+            boolean op = d >= owners;
+            Mix mix = op ? Mix.operator(operatorEmail, creds) : Mix.owner(nics.get(d), creds);
+            long startAt = start + (rampSec * 1000L * d) / Math.max(1, devices);
+            VirtualDevice vd = new VirtualDevice(new Session(base, rec).link(link), mix, think, rec, seed * 7919 + d, startAt, deadline);
+            Thread t = new Thread(vd, (op ? "operator-" : "owner-") + d);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+
+        System.out.printf(Locale.US, "Fleet: %d owners + %d operators against %s, ramp %ds, steady %ds, think ~%dms%s%n%n",
+                owners, operators, base, rampSec, durationSec, thinkMs, server != null ? " [" + server.faults() + "]" : "");
+        if (link != null) System.out.println("Devices on a simulated link: " + link + "\n");
+        System.out.printf(Locale.US, "%7s %8s %9s %8s %8s %9s%n", "t", "req/s", "journeys/s", "errors", "rejected", "p95(all)");
+        JSONArray intervals = new JSONArray();
+        Tally prev = new Tally();
+        long prevAt = start;
+        while (alive(threads)) {
+            long wake = Math.min(deadline + 5000, prevAt + reportSec * 1000);
+            Thread.sleep(Math.max(1, wake - System.currentTimeMillis()));
+            long now = System.currentTimeMillis();
+            Tally cur = Tally.of(rec);
+            double secs = Math.max(0.001, (now - prevAt) / 1000.0);
+            long req = cur.requests - prev.requests;
+            double reqPerSec = req / secs, journeysPerSec = (cur.journeys - prev.journeys) / secs;
+            double errPct = req == 0 ? 0 : 100.0 * (cur.errors - prev.errors) / req;
+            double rejPct = req == 0 ? 0 : 100.0 * (cur.rejected - prev.rejected) / req;
+            System.out.printf(Locale.US, "%6ds %8.1f %9.1f %7.2f%% %7.2f%% %7dms%n",
+                    (now - start) / 1000, reqPerSec, journeysPerSec, errPct, rejPct, cur.p95);
+            intervals.put(new JSONObject().put("tSec", (now - start) / 1000).put("reqPerSec", reqPerSec)
+                    .put("journeysPerSec", journeysPerSec).put("errorPct", errPct).put("rejectedPct", rejPct));
+            prev = cur;
+            prevAt = now;
+            if (now > deadline + 5000) break;   // a device stuck in a long request shouldn't hold the report
+        }
+
+        Tally total = Tally.of(rec);
+        double wallSec = Math.max(0.001, (System.currentTimeMillis() - start) / 1000.0);
+        System.out.printf(Locale.US, "%nTotal: %d requests (%.1f req/s), %d journeys, errors %.2f%%, rejected %.2f%%%n%n",
+                total.requests, total.requests / wallSec, total.journeys,
+                total.requests == 0 ? 0 : 100.0 * total.errors / total.requests,
+                total.requests == 0 ? 0 : 100.0 * total.rejected / total.requests);
+        System.out.print(rec.table());
+
+        JSONObject report = new JSONObject().put("owners", owners).put("operators", operators).put("base", base)
+                .put("rampSec", rampSec).put("durationSec", durationSec).put("thinkMs", thinkMs)
+                .put("netProfile", link != null ? link.name : "none")
+                .put("requests", total.requests).put("journeys", total.journeys).put("errors", total.errors)
+                .put("rejected", total.rejected).put("reqPerSec", total.requests / wallSec)
+                .put("intervals", intervals).put("series", rec.toJson());
+        if (server != null) {
+            System.out.printf(Locale.US, "%nServer hits:%n");
+            for (Map.Entry<String, Long> e : server.hits().entrySet()) {
+                System.out.printf(Locale.US, "  %-40s %8d  (%.1f/s)%n", e.getKey(), e.getValue(), e.getValue() / wallSec);
+            }
+            report.put("serverHits", new JSONObject(server.hits()));
+            server.stop();
+        }
+        if (jsonOut != null) {
+            Files.write(new File(jsonOut).toPath(), report.toString(2).getBytes(StandardCharsets.UTF_8));
+            System.out.println("\nWrote " + jsonOut);
+        }
+    }
+
+    /** Cumulative counts over the API series (journeys are kept apart). */
+    static final class Tally {
+        long requests, errors, rejected, journeys, p95;
+
+        static Tally of(Recorder rec) {
+            Tally t = new Tally();
+            for (Map.Entry<String, Recorder.Series> e : rec.series().entrySet()) {
+                Recorder.Series s = e.getValue();
+                if (e.getKey().startsWith("journey:")) { t.journeys += s.count(); continue; }
+                t.requests += s.count();
+                t.p95 = Math.max(t.p95, s.percentile(95));
+                for (Map.Entry<String, Long> o : s.outcomes().entrySet()) {
+                    if (isError(o.getKey())) t.errors += o.getValue();
+                    else if (o.getKey().startsWith("4")) t.rejected += o.getValue();
+                }
+            }
+            return t;
+        }
+    }
+
+    static boolean isError(String outcome) {
+        return outcome.startsWith("5") || outcome.equals("429") || !Character.isDigit(outcome.charAt(0));
+    }
+
+    /** One owner NIC per line; blank lines and #comments are skipped. */
+    private static List<String> readNics(String path) throws Exception {
+        List<String> out = new ArrayList<>();
+        for (String line : Files.readAllLines(new File(path).toPath(), StandardCharsets.UTF_8)) {
+            String t = line.trim();
+            if (!t.isEmpty() && !t.startsWith("#")) out.add(t);
+        }
+        return out;
+    }
+
+    private static boolean alive(List<Thread> threads) {
+        for (Thread t : threads) if (t.isAlive()) return true;
+        return false;
+    }
+}
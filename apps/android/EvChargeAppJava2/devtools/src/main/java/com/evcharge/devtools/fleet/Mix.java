@@ -0,0 +1,52 @@
+package com.evcharge.devtools.fleet;
+
+import com.evcharge.devtools.scenario.Credentials;
+import com.evcharge.devtools.scenario.Journey;
+import com.evcharge.devtools.scenario.Journeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Weighted journey choice for one kind of device. */
+final class Mix {
+
+    private final List<Journey> journeys = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();
+    private int total;
+
+    /**
+     * An owner session: the dashboard on every app open, some browsing, the odd booking.
+     * Weights are rough shares of journeys, not of requests.
+     */
+    static Mix owner(String nic, Credentials c) {
+        return new Mix()
+                .add(Journeys.ownerDashboard(nic, c), 50)
+                .add(Journeys.stationBrowse(nic, c), 25)
+                .add(Journeys.notifications(nic, c), 15)
+                .add(Journeys.bookingCreate(nic, c), 10);
+    }
+
+    /** An operator at the bay: mostly scanning, with the screen re-opened now and then. */
+    static Mix operator(String email, Credentials c) {
+        return new Mix()
+                .add(Journeys.operatorScan(email, c), 85)
+                .add(Journeys.operatorQueue(email, c, 0), 15);
+    }
+
+    Mix add(Journey j, int weight) {
+        journeys.add(j);
+        weights.add(weight);
+        total += weight;
+        return this;
+    }
+
+    Journey pick(Random rnd) {
+        int r = rnd.nextInt(total);
+        for (int i = 0; i < journeys.size(); i++) {
+            r -= weights.get(i);
+            if (r < 0) return journeys.get(i);
+        }
+        return journeys.get(journeys.size() - 1);
+    }
+}
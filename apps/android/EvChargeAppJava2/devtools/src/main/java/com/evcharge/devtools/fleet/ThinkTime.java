@@ -0,0 +1,24 @@
+package com.evcharge.devtools.fleet;
+
+import java.util.Random;
+
+/**
+ * Pause between a device's journeys: exponential around the mean (most pauses short, a few long),
+ * clamped to [min, 5 x mean] so a single draw can't park a device for the whole run.
+ */
+final class ThinkTime {
+
+    final long meanMs;
+    final long minMs;
+
+    ThinkTime(long meanMs, long minMs) {
+        this.meanMs = Math.max(0, meanMs);
+        this.minMs = Math.max(0, Math.min(minMs, this.meanMs));
+    }
+
+    long next(Random rnd) {
+        if (meanMs == 0) return 0;
+        double draw = -Math.log(1.0 - rnd.nextDouble()) * meanMs;
+        return (long) Math.max(minMs, Math.min(meanMs * 5.0, draw));
+    }
+}
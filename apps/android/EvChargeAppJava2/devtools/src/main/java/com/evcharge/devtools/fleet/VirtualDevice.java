@@ -0,0 +1,60 @@
+package com.evcharge.devtools.fleet;
+
+import com.evcharge.devtools.scenario.Journey;
+import com.evcharge.devtools.scenario.Recorder;
+import com.evcharge.devtools.scenario.Session;
+
+import java.util.Random;
+
+/**
+ * One simulated phone: its own Session (token, breakers, local catalogue) running journeys from its Mix
+ * with think time in between until the deadline. The first journey doubles as the cold app start.
+ */
+final class VirtualDevice implements Runnable {
+
+    private final Session session;
+    private final Mix mix;
+    private final ThinkTime think;
+    private final Recorder recorder;
+    private final Random rnd;
+    private final long startAtMs, deadlineMs;
+
+    VirtualDevice(Session session, Mix mix, ThinkTime think, Recorder recorder, long seed, long startAtMs, long deadlineMs) {
+        this.session = session;
+        this.mix = mix;
+        this.think = think;
+        this.recorder = recorder;
+        this.rnd = new Random(seed);
+        this.startAtMs = startAtMs;
+        this.deadlineMs = deadlineMs;
+    }
+
+    @Override
+    public void run() {
+        if (!sleepUntil(startAtMs)) return;
+        while (System.currentTimeMillis() < deadlineMs) {
+            Journey j = mix.pick(rnd);
+            long t0 = System.nanoTime();
+            String outcome = "ok";
+            try {
+                j.run(session);
+            } catch (Exception e) {
+                outcome = e.getClass().getSimpleName();
+            }
+            recorder.record("journey:" + j.name(), (System.nanoTime() - t0) / 1_000_000L, outcome, !"ok".equals(outcome));
+            if (!sleepUntil(Math.min(deadlineMs, System.currentTimeMillis() + think.next(rnd)))) return;
+        }
+    }
+
+    private static boolean sleepUntil(long atMs) {
+        long wait = atMs - System.currentTimeMillis();
+        if (wait <= 0) return true;
+        try {
+            Thread.sleep(wait);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.evcharge.devtools.scenario;
+
+/**
+ * What the journeys log in with:
+ *   --password p                                     owners and operator
+ *   --owner-password p, --operator-password p        one side only
+ *   --staff-user u --staff-password p                BackOffice/Admin account that issues the QR tokens the
+ *                                                    operator journeys scan (QrController.Issue lets staff
+ *                                                    issue for any booking, owners only for their own)
+ * The stand-in accepts any non-empty password, so the defaults only matter against a real backend.
+ */
+public final class Credentials {
+
+    public static final String DEFAULT_PASSWORD = "password";
+
+    public final String ownerPassword;
+    public final String operatorPassword;
+    public final String staffUser;       // null: operator journeys read the inbox but scan nothing
+    public final String staffPassword;
+
+    public Credentials(String ownerPassword, String operatorPassword, String staffUser, String staffPassword) {
+        this.ownerPassword = ownerPassword;
+        this.operatorPassword = operatorPassword;
+        this.staffUser = staffUser;
+        this.staffPassword = staffPassword;
+    }
+
+    public static Credentials defaults() {
+        return new Credentials(DEFAULT_PASSWORD, DEFAULT_PASSWORD, null, DEFAULT_PASSWORD);
+    }
+
+    public static Credentials fromArgs(String[] args) {
+        String owner = DEFAULT_PASSWORD, operator = DEFAULT_PASSWORD, staffUser = null, staff = DEFAULT_PASSWORD;
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--password":          owner = operator = args[++i]; break;
+                case "--owner-password":    owner = args[++i]; break;
+                case "--operator-password": operator = args[++i]; break;
+                case "--staff-user":        staffUser = args[++i]; break;
+                case "--staff-password":    staff = args[++i]; break;
+                default: break;
+            }
+        }
+        return new Credentials(owner, operator, staffUser, staff);
+    }
+
+    /** These credentials with a staff account, unless one was given already. */
+    public Credentials withStaffDefault(String user) {
+        return staffUser != null ? this : new Credentials(ownerPassword, operatorPassword, user, staffPassword);
+    }
+}
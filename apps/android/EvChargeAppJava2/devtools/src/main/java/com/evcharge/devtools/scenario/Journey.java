@@ -0,0 +1,11 @@
+package com.evcharge.devtools.scenario;
+
+/** One recorded user journey, replayed against a Session. */
+public interface Journey {
+
+    /** Report name ("journey:" + name()). */
+    String name();
+
+    /** Log in on first use, then issue the screen's requests in the app's order. */
+    void run(Session s) throws Exception;
+}
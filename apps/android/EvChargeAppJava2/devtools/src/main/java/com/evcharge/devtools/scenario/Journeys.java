@@ -0,0 +1,220 @@
+package com.evcharge.devtools.scenario;
+
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The journeys the harness replays, written from the screens' request patterns:
+ * - owner-dashboard: DashboardFragment.onResume (today's bookings, stations tab, unread badge)
+ * - operator-queue:  OperatorOneActivity open + verify/scan/refresh for each car in today's inbox
+ * - station-browse:  StationDetailActivity (detail, then schedule) for a random catalogue station
+ * - booking-create:  CreateBookingActivity slot fetch, BookingSummaryActivity.doCreate, then My bookings
+ * - notifications:   NotificationsDialog (first page, then mark all read)
+ * - operator-scan:   one car at the operator's bay (inbox, verify, scan, inbox)
+ * A cold session has no local catalogue, so unnamed bookings cost one station detail each (the N+1).
+ * The cars at the bay are the operator's inbox (Approved bookings today); their QR tokens are issued through
+ * the staff account in Credentials, standing in for the owners' phones, so the operator journeys run the
+ * same way against the stand-in and a real backend.
+ */
+public final class Journeys {
+
+    private Journeys() {}
+
+    public static Journey byName(String name, String user, Credentials c, int cars) {
+        switch (name) {
+            case "owner-dashboard": return ownerDashboard(user, c);
+            case "operator-queue":  return operatorQueue(user, c, cars);
+            case "station-browse":  return stationBrowse(user, c);
+            case "booking-create":  return bookingCreate(user, c);
+            case "notifications":   return notifications(user, c);
+            case "operator-scan":   return operatorScan(user, c);
+            default: throw new IllegalArgumentException("unknown journey: " + name);
+        }
+    }
+
+    public static Journey ownerDashboard(String nic, Credentials c) {
+        return new Journey() {
+            @Override public String name() { return "owner-dashboard"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, nic, c.ownerPassword);
+                s.parallel(() -> bookingsToday(s), () -> stationsActive(s), () -> unreadBadge(s));
+            }
+        };
+    }
+
+    public static Journey operatorQueue(String email, Credentials c, int cars) {
+        return new Journey() {
+            @Override public String name() { return "operator-queue"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, email, c.operatorPassword);
+                for (String id : s.operatorStationIds()) s.get("/api/Station/" + id, s.ep.stationDetail, true);
+                JSONArray waiting = inbox(s);
+
+                for (int i = 0; i < Math.min(cars, waiting.length()); i++) {
+                    String token = qrFor(s, c, waiting.optJSONObject(i));
+                    if (token == null) continue;
+                    HttpClient.Response v = s.post("/api/Qr/verify", new JSONObject().put("qrToken", token), s.ep.qrVerify, true);
+                    String bookingId = v.jsonObject != null ? JsonUtils.optString(v.jsonObject, "bookingId") : null;
+                    if (!v.is2xx() || bookingId == null) continue;
+                    HttpClient.Response r = s.post("/api/Operator/scan",
+                            new JSONObject().put("qrToken", token).put("bookingId", bookingId), s.ep.operatorScan, true);
+                    if (r.is2xx()) inbox(s);
+                }
+            }
+        };
+    }
+
+    public static Journey stationBrowse(String nic, Credentials c) {
+        return new Journey() {
+            @Override public String name() { return "station-browse"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, nic, c.ownerPassword);
+                String id = randomStation(s);
+                if (id == null) return;
+                HttpClient.Response d = s.get("/api/Station/" + id, s.ep.stationDetail, false);
+                if (d.is2xx()) s.get("/api/Station/" + id + "/schedule", s.ep.stationSchedule, false);
+            }
+        };
+    }
+
+    public static Journey bookingCreate(String nic, Credentials c) {
+        return new Journey() {
+            @Override public String name() { return "booking-create"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, nic, c.ownerPassword);
+                String id = randomStation(s);
+                if (id == null) return;
+                // fetchAndApplySlot; the server only accepts the station's own slot length
+                HttpClient.Response d = s.get("/api/Station/" + id, s.ep.stationDetail, false);
+                if (!d.is2xx() || d.jsonObject == null) return;
+                int minutes = d.jsonObject.optInt("defaultSlotMinutes", d.jsonObject.optInt("DefaultSlotMinutes", 0));
+                if (minutes <= 0) minutes = 60;
+                s.get("/api/Station/" + id + "/schedule", s.ep.stationSchedule, false);
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                JSONObject payload = new JSONObject().put("stationId", id)
+                        .put("localDate", LocalDate.now().plusDays(1 + rnd.nextInt(5)).toString())
+                        .put("startTime", String.format(Locale.US, "%02d:00", 7 + rnd.nextInt(12)))
+                        .put("minutes", minutes);
+                HttpClient.Response r = s.postIdempotent("/api/Booking", payload, s.ep.bookingCreate);
+                if (r.is2xx()) s.get("/api/Booking/mine", s.ep.bookingMine, true);
+            }
+        };
+    }
+
+    public static Journey notifications(String nic, Credentials c) {
+        return new Journey() {
+            @Override public String name() { return "notifications"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, nic, c.ownerPassword);
+                HttpClient.Response r = s.get("/api/Notifications?unreadOnly=false&page=1&pageSize=50", s.ep.notifList, true);
+                if (r.is2xx()) s.put("/api/Notifications/read-all", new JSONObject(), s.ep.notifReadAll, true);
+            }
+        };
+    }
+
+    public static Journey operatorScan(String email, Credentials c) {
+        return new Journey() {
+            @Override public String name() { return "operator-scan"; }
+
+            @Override public void run(Session s) throws Exception {
+                logIn(s, email, c.operatorPassword);
+                JSONArray waiting = inbox(s);
+                if (waiting.length() == 0) return;
+                String token = qrFor(s, c, waiting.optJSONObject(ThreadLocalRandom.current().nextInt(waiting.length())));
+                if (token == null) return;
+                HttpClient.Response v = s.post("/api/Qr/verify", new JSONObject().put("qrToken", token), s.ep.qrVerify, true);
+                String bookingId = v.jsonObject != null ? JsonUtils.optString(v.jsonObject, "bookingId") : null;
+                if (!v.is2xx() || bookingId == null) return;
+                HttpClient.Response r = s.post("/api/Operator/scan",
+                        new JSONObject().put("qrToken", token).put("bookingId", bookingId), s.ep.operatorScan, true);
+                if (r.is2xx()) inbox(s);
+            }
+        };
+    }
+
+    private static void logIn(Session s, String user, String password) throws Exception {
+        if (!s.ensureLoggedIn() && !s.login(user, password)) throw new IllegalStateException("login failed");
+    }
+
+    /**
+     * The QR token the car with this inbox row would show: POST /api/Qr/issue/{id} from the staff session
+     * (what the owner's BookingDetailActivity does). Null without a staff account or when the server refuses.
+     */
+    private static String qrFor(Session s, Credentials c, JSONObject row) throws Exception {
+        String bookingId = row != null ? JsonUtils.optString(row, "id") : null;
+        Session staff = bookingId != null ? s.staff(c) : null;
+        if (staff == null) return null;
+        HttpClient.Response r = staff.post("/api/Qr/issue/" + bookingId, new JSONObject(), staff.ep.qrIssue, true);
+        return r.is2xx() && r.jsonObject != null ? JsonUtils.optString(r.jsonObject, "qrToken") : null;
+    }
+
+    /** A station the session has seen in the catalogue, fetching the catalogue first if it hasn't. */
+    private static String randomStation(Session s) throws Exception {
+        if (s.knownStations().isEmpty()) stationsActive(s);
+        List<String> ids = s.knownStations();
+        return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    // ---- owner dashboard pieces ----
+
+    /** refreshBookingsToday + buildTodayRows: names from the booking, then the catalogue, then a detail call. */
+    private static void bookingsToday(Session s) throws Exception {
+        HttpClient.Response r = s.get("/api/Booking/mine", s.ep.bookingMine, true);
+        if (!r.is2xx() || r.jsonArray == null) return;
+        String today = LocalDate.now().toString();
+        for (int i = 0; i < r.jsonArray.length(); i++) {
+            JSONObject o = r.jsonArray.optJSONObject(i);
+            if (o == null) continue;
+            String local = JsonUtils.optString(o, "slotStartLocal");
+            if (local == null) local = JsonUtils.optString(o, "slotStartUtc");
+            if (local == null || !local.startsWith(today)) continue;
+            if (JsonUtils.optString(o, "stationName") != null) continue;
+            String stId = JsonUtils.optString(o, "stationId");
+            if (stId == null || s.stationName(stId) != null) continue;
+            s.get("/api/Station/" + stId, s.ep.stationDetail, false);
+        }
+    }
+
+    /** refreshStationsActive; the list also stands in for the catalogue sync that fills StationLookup. */
+    private static void stationsActive(Session s) throws Exception {
+        HttpClient.Response r = s.get("/api/Station", s.ep.stationList, false);
+        JSONArray arr = r.jsonArray;
+        if (arr == null && r.jsonObject != null) arr = r.jsonObject.optJSONArray("items");
+        if (arr == null) return;
+        List<String> missingStatus = new ArrayList<>();
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject o = arr.optJSONObject(i);
+            String id = o != null ? JsonUtils.optString(o, "id") : null;
+            if (id == null) continue;
+            String name = JsonUtils.optString(o, "name");
+            if (name != null) s.rememberStation(id, name);
+            if (JsonUtils.optString(o, "status") == null) missingStatus.add(id);
+        }
+        for (String id : missingStatus) s.get("/api/Station/" + id, s.ep.stationDetail, false);
+    }
+
+    /** NotificationStore.syncIfStale: first page of unread items. */
+    private static void unreadBadge(Session s) throws Exception {
+        s.get("/api/Notifications?unreadOnly=true&page=1&pageSize=50", s.ep.notifList, true);
+    }
+
+    /** Today's inbox rows (empty when the request fails). */
+    private static JSONArray inbox(Session s) throws Exception {
+        HttpClient.Response r = s.get("/api/Operator/inbox?date=" + LocalDate.now(), s.ep.operatorInbox, true);
+        return r.is2xx() && r.jsonArray != null ? r.jsonArray : new JSONArray();
+    }
+}
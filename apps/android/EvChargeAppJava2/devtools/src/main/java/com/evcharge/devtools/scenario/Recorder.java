@@ -0,0 +1,77 @@
+package com.evcharge.devtools.scenario;
+
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact latency samples per name (endpoint or "journey:<name>"), shared by all sessions of a run.
+ * Unlike NetMetrics' fixed buckets, percentiles here are taken from the sorted samples.
+ */
+public final class Recorder {
+
+    /** Samples and outcome counts for one name. */
+    public static final class Series {
+        private long[] samples = new long[64];
+        private int n;
+        private long errors;
+        private final Map<String, Long> outcomes = new TreeMap<>();  // "200", "503", "SocketTimeoutException", ...
+
+        synchronized void add(long ms, String outcome, boolean error) {
+            if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+            samples[n++] = ms;
+            if (error) errors++;
+            outcomes.merge(outcome, 1L, Long::sum);
+        }
+
+        public synchronized int count() { return n; }
+
+        public synchronized long errors() { return errors; }
+
+        public synchronized Map<String, Long> outcomes() { return new TreeMap<>(outcomes); }
+
+        /** Nearest-rank percentile in ms (0 when empty). */
+        public synchronized long percentile(double p) {
+            if (n == 0) return 0;
+            long[] s = Arrays.copyOf(samples, n);
+            Arrays.sort(s);
+            int rank = (int) Math.ceil(p / 100.0 * n);
+            return s[Math.max(0, Math.min(n - 1, rank - 1))];
+        }
+    }
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public void record(String name, long ms, String outcome, boolean error) {
+        series.computeIfAbsent(name, k -> new Series()).add(ms, outcome, error);
+    }
+
+    /** Snapshot sorted by name. */
+    public Map<String, Series> series() { return new TreeMap<>(series); }
+
+    public String table() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-34s %7s %6s %7s %7s %7s  %s%n", "name", "count", "errors", "p50", "p95", "p99", "outcomes"));
+        for (Map.Entry<String, Series> e : series().entrySet()) {
+            Series s = e.getValue();
+            sb.append(String.format(Locale.US, "%-34s %7d %6d %5dms %5dms %5dms  %s%n", e.getKey(), s.count(), s.errors(),
+                    s.percentile(50), s.percentile(95), s.percentile(99), s.outcomes()));
+        }
+        return sb.toString();
+    }
+
+    public JSONObject toJson() {
+        JSONObject root = new JSONObject();
+        for (Map.Entry<String, Series> e : series().entrySet()) {
+            Series s = e.getValue();
+            root.put(e.getKey(), new JSONObject().put("count", s.count()).put("errors", s.errors())
+                    .put("p50", s.percentile(50)).put("p95", s.percentile(95)).put("p99", s.percentile(99))
+                    .put("outcomes", new JSONObject(s.outcomes())));
+        }
+        return root;
+    }
+}
@@ -0,0 +1,128 @@
+package com.evcharge.devtools.scenario;
+
+import com.evcharge.app.core.net.NetworkProfile;
+import com.evcharge.devtools.standin.Faults;
+import com.evcharge.devtools.standin.StandInData;
+import com.evcharge.devtools.standin.StandInServer;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replays a journey with N concurrent users and prints per-endpoint p50/p95/p99 plus server hits per journey.
+ *
+ *   ./gradlew :devtools:scenario --args="--journey owner-dashboard --users 20 --iterations 10 --cold"
+ *   ./gradlew :devtools:scenario --args="--journey operator-queue --cars 50 --latency 80 --jitter 40"
+ *   ./gradlew :devtools:scenario --args="--journey owner-dashboard --net-profile 2g"
+ *   ./gradlew :devtools:scenario --args="--journey operator-queue --base https://staging.example
+ *       --operator-email op@example.lk --password ... --staff-user bo@example.lk --staff-password ..."
+ *
+ * Without --base an embedded StandInServer is started (Faults flags apply to it); with --base the journeys
+ * run against that server instead and only client-side numbers are reported. Logins use Credentials
+ * (--password, --staff-user, ...); the operator journeys need a staff account to issue the cars' QR tokens. --net-profile puts every
+ * session on a simulated link (NetworkProfile), on the client side like the app's netsim flavor.
+ */
+public final class ScenarioRunner {
+
+    private ScenarioRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        String journeyName = "owner-dashboard", base = null, jsonOut = null, operatorEmail = StandInData.OPERATOR_EMAIL;
+        int users = 1, iterations = 5, cars = 50;
+        boolean cold = false;
+        NetworkProfile link = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--journey":    journeyName = args[++i]; break;
+                case "--users":      users = Integer.parseInt(args[++i]); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--cars":       cars = Integer.parseInt(args[++i]); break;
+                case "--cold":       cold = true; break;
+                case "--base":       base = args[++i]; break;
+                case "--json":       jsonOut = args[++i]; break;
+                case "--operator-email": operatorEmail = args[++i]; break;
+                case "--net-profile": link = NetworkProfile.byName(args[++i]); break;
+                default: break;
+            }
+        }
+
+        Credentials creds = Credentials.fromArgs(args);
+        StandInServer server = null;
+        if (base == null) {
+            int queue = Math.max(cars, 60);
+            server = new StandInServer(new StandInData(42, 200, Math.max(users, 500), queue, 3600), Faults.fromArgs(args))
+                    .start("127.0.0.1", 0);
+            base = server.baseUrl();
+            creds = creds.withStaffDefault(StandInData.STAFF_USER);
+        } else if (journeyName.startsWith("operator") && creds.staffUser == null) {
+            System.out.println("No --staff-user: the operator journeys will open the inbox but scan no cars.\n");
+        }
+
+        Recorder rec = new Recorder();
+        long wall = run(journeyName, base, operatorEmail, creds, users, iterations, cars, cold, link, rec, server);
+
+        System.out.printf(Locale.US, "%s: %d users x %d iterations%s against %s in %d ms%s%s%n%n", journeyName, users,
+                iterations, cold ? " (cold)" : "", base, wall, server != null ? " [" + server.faults() + "]" : "",
+                link != null ? "\nlink: " + link : "");
+        System.out.print(rec.table());
+
+        JSONObject report = new JSONObject().put("journey", journeyName).put("users", users)
+                .put("iterations", iterations).put("cold", cold).put("wallMs", wall)
+                .put("netProfile", link != null ? link.name : "none").put("series", rec.toJson());
+        if (server != null) {
+            long journeys = Math.max(1, rec.series().get("journey:" + journeyName).count());
+            System.out.printf(Locale.US, "%nServer hits per journey (%d journeys):%n", journeys);
+            JSONObject perJourney = new JSONObject();
+            for (Map.Entry<String, Long> e : server.hits().entrySet()) {
+                double each = e.getValue() / (double) journeys;
+                System.out.printf(Locale.US, "  %-40s %8.2f%n", e.getKey(), each);
+                perJourney.put(e.getKey(), each);
+            }
+            report.put("hitsPerJourney", perJourney);
+            server.stop();
+        }
+        if (jsonOut != null) {
+            Files.write(new File(jsonOut).toPath(), report.toString(2).getBytes(StandardCharsets.UTF_8));
+            System.out.println("\nWrote " + jsonOut);
+        }
+    }
+
+    /** Runs the users on their own threads; returns wall time in ms. */
+    static long run(String journeyName, String base, String operatorEmail, Credentials creds, int users, int iterations,
+                    int cars, boolean cold, NetworkProfile link, Recorder rec, StandInServer server) throws InterruptedException {
+        boolean operator = journeyName.startsWith("operator");
+        List<Thread> threads = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int u = 0; u < users; u++) {
+            String user = operator ? operatorEmail : StandInData.ownerNic(u);
+            Journey j = Journeys.byName(journeyName, user, creds, cars);
+            Session s = new Session(base, rec).link(link);
+            Thread t = new Thread(() -> {
+                for (int it = 0; it < iterations; it++) {
+                    // Scanning consumes the queue; refill it between passes when the fixtures are ours
+                    if (operator && server != null && it > 0) server.data().reset();
+                    if (cold) s.forgetLocalState();
+                    long start = System.nanoTime();
+                    String outcome = "ok";
+                    try {
+                        j.run(s);
+                    } catch (Exception e) {
+                        outcome = e.getClass().getSimpleName();
+                    }
+                    rec.record("journey:" + j.name(), (System.nanoTime() - start) / 1_000_000L, outcome, !"ok".equals(outcome));
+                }
+            }, "user-" + u);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        return (System.nanoTime() - t0) / 1_000_000L;
+    }
+}
@@ -0,0 +1,179 @@
+package com.evcharge.devtools.scenario;
+
+import com.evcharge.app.core.net.ConditionedLink;
+import com.evcharge.app.core.net.Endpoint;
+import com.evcharge.app.core.net.Endpoints;
+import com.evcharge.app.core.net.HttpClient;
+import com.evcharge.app.core.net.NetworkProfile;
+import com.evcharge.app.core.platform.MapKeyValueStore;
+import com.evcharge.app.core.security.AuthGuard;
+import com.evcharge.app.core.security.JwtStore;
+import com.evcharge.app.core.util.JsonUtils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One virtual device: the :core HttpClient (same retries, breakers, compression and timeouts as the app),
+ * its own JwtStore over a MapKeyValueStore, and the small local state the screens keep between visits
+ * (station names from the catalogue). Every request is timed into the run's Recorder under its endpoint name.
+ */
+public final class Session {
+
+    private static final AtomicInteger DEVICES = new AtomicInteger();
+
+    private static final ExecutorService PARALLEL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "session-parallel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String baseUrl;
+    private final Recorder recorder;
+    private final HttpClient http = new HttpClient().gzipRequestsAbove(HttpClient.DEFAULT_GZIP_MIN_BYTES);
+    private final JwtStore jwt = new JwtStore(new MapKeyValueStore());
+    private NetworkProfile link;
+    private Session staff;   // the staff account's device, created on first use
+    public final Endpoints ep = Endpoints.forDevice("d" + DEVICES.incrementAndGet());
+
+    private String user, password, role;
+    private String expiresAtUtc;
+    private List<String> operatorStationIds = new ArrayList<>();
+    private volatile boolean unauthorized;
+
+    /** stationId -> name, filled by a catalogue fetch (what StationLookup gives the dashboard). */
+    private final Map<String, String> stationNames = new ConcurrentHashMap<>();
+
+    public Session(String baseUrl, Recorder recorder) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.recorder = recorder;
+    }
+
+    /** Put this device on a simulated link (null = the real one), like the app's netsim flavor. */
+    public Session link(NetworkProfile profile) {
+        link = profile;
+        http.intercept(profile != null ? new ConditionedLink(profile) : null);
+        return this;
+    }
+
+    // ---- auth ----
+
+    /** POST /api/Auth/login and keep the token (ApiClient.login minus the prefs snapshot). */
+    public boolean login(String username, String pass) throws Exception {
+        this.user = username;
+        this.password = pass;
+        JSONObject body = new JSONObject().put("username", username).put("password", pass);
+        HttpClient.Response r = send("POST", "/api/Auth/login", body, HttpClient.headers(), ep.login);
+        if (!r.is2xx() || r.jsonObject == null) return false;
+        String token = JsonUtils.optString(r.jsonObject, "accessToken");
+        if (token == null || !JsonUtils.looksLikeJwt(token)) return false;
+        jwt.save(token);
+        unauthorized = false;
+        expiresAtUtc = JsonUtils.optString(r.jsonObject, "expiresAtUtc");
+        JSONArray roles = r.jsonObject.optJSONArray("roles");
+        role = roles != null && roles.length() > 0 ? roles.optString(0) : "Owner";
+        operatorStationIds = new ArrayList<>();
+        JSONArray ids = r.jsonObject.optJSONArray("operatorStationIds");
+        if (ids != null) for (int i = 0; i < ids.length(); i++) operatorStationIds.add(ids.optString(i));
+        return true;
+    }
+
+    /** Re-login when the app's freshness guard, or a 401 since the last login, would show the login screen. */
+    public boolean ensureLoggedIn() throws Exception {
+        if (user == null) return false;
+        if (!unauthorized && AuthGuard.check(jwt, role, expiresAtUtc, System.currentTimeMillis()) == AuthGuard.FRESH) return true;
+        return login(user, password);
+    }
+
+    public List<String> operatorStationIds() { return operatorStationIds; }
+
+    /**
+     * The staff account's session on the same server, recorder and link, logged in on first use; null when
+     * Credentials has no staff user. Operator journeys issue the QR tokens the owners would show through it.
+     */
+    public synchronized Session staff(Credentials c) throws Exception {
+        if (c.staffUser == null) return null;
+        if (staff == null) staff = new Session(baseUrl, recorder).link(link);
+        // Not ensureLoggedIn(): the app's guard turns staff roles away, so only the token's expiry counts here
+        boolean fresh = staff.user != null && !staff.unauthorized
+                && AuthGuard.check(staff.jwt, null, staff.expiresAtUtc, System.currentTimeMillis()) == AuthGuard.FRESH;
+        if (!fresh && !staff.login(c.staffUser, c.staffPassword)) throw new IllegalStateException("staff login failed");
+        return staff;
+    }
+
+    public String stationName(String id) { return stationNames.get(id); }
+
+    public void rememberStation(String id, String name) { stationNames.put(id, name); }
+
+    public List<String> knownStations() { return new ArrayList<>(stationNames.keySet()); }
+
+    /** Cold start: drop the local catalogue (the token survives, like an app restart). */
+    public void forgetLocalState() { stationNames.clear(); }
+
+    // ---- requests ----
+
+    public HttpClient.Response get(String path, Endpoint e, boolean auth) throws Exception {
+        return send("GET", path, null, headers(auth), e);
+    }
+
+    public HttpClient.Response post(String path, JSONObject body, Endpoint e, boolean auth) throws Exception {
+        return send("POST", path, body, headers(auth), e);
+    }
+
+    /** POST with a fresh Idempotency-Key, like ApiClient.bookingCreate (only for key-aware handlers). */
+    public HttpClient.Response postIdempotent(String path, JSONObject body, Endpoint e) throws Exception {
+        Map<String, String> h = headers(true);
+        h.put("Idempotency-Key", UUID.randomUUID().toString());
+        return send("POST", path, body, h, e);
+    }
+
+    public HttpClient.Response put(String path, JSONObject body, Endpoint e, boolean auth) throws Exception {
+        return send("PUT", path, body, headers(auth), e);
+    }
+
+    /** Runs the tasks concurrently (like the screens' parallel threads) and waits for all of them. */
+    public void parallel(Task... tasks) throws Exception {
+        List<Future<?>> fs = new ArrayList<>();
+        for (Task t : tasks) fs.add(PARALLEL.submit(() -> { t.run(); return null; }));
+        Exception first = null;
+        for (Future<?> f : fs) {
+            try { f.get(); } catch (Exception e) { if (first == null) first = e; }
+        }
+        if (first != null) throw first;
+    }
+
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private Map<String, String> headers(boolean auth) {
+        Map<String, String> h = HttpClient.headers();
+        String t = auth ? jwt.getToken() : null;
+        if (t != null && !t.isEmpty()) h.put("Authorization", "Bearer " + t);
+        return h;
+    }
+
+    private HttpClient.Response send(String method, String path, JSONObject body, Map<String, String> headers,
+                                     Endpoint e) throws Exception {
+        long t0 = System.nanoTime();
+        try {
+            HttpClient.Response r = http.request(method, baseUrl + path, body, headers, e);
+            if (r.code == 401 && headers.containsKey("Authorization")) unauthorized = true;
+            recorder.record(Endpoints.label(e), (System.nanoTime() - t0) / 1_000_000L, String.valueOf(r.code), !r.is2xx());
+            return r;
+        } catch (Exception ex) {
+            recorder.record(Endpoints.label(e), (System.nanoTime() - t0) / 1_000_000L, ex.getClass().getSimpleName(), true);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.evcharge.devtools.standin;
+
+import java.util.Locale;
+
+/**
+ * Injected server behaviour, applied per request (admin routes excluded).
+ * - latency: fixed delay before the handler runs, plus uniform random jitter
+ * - bandwidth: response body written in chunks paced to bytesPerSec (0 = unthrottled)
+ * - errors: with probability errorRate the request is answered with errorStatus instead
+ * Immutable; the server swaps the whole object so a run can change conditions mid-way.
+ */
+public final class Faults {
+
+    public static final Faults NONE = new Faults(0, 0, 0, 0.0, 503);
+
+    public final long latencyMs;
+    public final long jitterMs;
+    public final long bytesPerSec;
+    public final double errorRate;
+    public final int errorStatus;
+
+    private Faults(long latencyMs, long jitterMs, long bytesPerSec, double errorRate, int errorStatus) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.bytesPerSec = Math.max(0, bytesPerSec);
+        this.errorRate = Math.max(0.0, Math.min(1.0, errorRate));
+        this.errorStatus = errorStatus;
+    }
+
+    public Faults withLatency(long ms, long jitter) { return new Faults(ms, jitter, bytesPerSec, errorRate, errorStatus); }
+
+    public Faults withBandwidth(long bps) { return new Faults(latencyMs, jitterMs, bps, errorRate, errorStatus); }
+
+    public Faults withErrors(double rate, int status) { return new Faults(latencyMs, jitterMs, bytesPerSec, rate, status); }
+
+    /** Reads --latency MS --jitter MS --kbps N --error-rate P --error-status CODE; unknown flags are ignored. */
+    public static Faults fromArgs(String[] args) {
+        Faults f = NONE;
+        long latency = 0, jitter = 0;
+        double rate = 0.0;
+        int status = 503;
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--latency":      latency = Long.parseLong(args[++i]); break;
+                case "--jitter":       jitter = Long.parseLong(args[++i]); break;
+                case "--kbps":         f = f.withBandwidth(Long.parseLong(args[++i]) * 1024 / 8); break;
+                case "--error-rate":   rate = Double.parseDouble(args[++i]); break;
+                case "--error-status": status = Integer.parseInt(args[++i]); break;
+                default: break;
+            }
+        }
+        return f.withLatency(latency, jitter).withErrors(rate, status);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "latency=%d+/-%dms bandwidth=%s errors=%.1f%% (status %d)",
+                latencyMs, jitterMs, bytesPerSec == 0 ? "unlimited" : (bytesPerSec * 8 / 1024) + "kbps",
+                errorRate * 100, errorStatus);
+    }
+}
@@ -0,0 +1,453 @@
+package com.evcharge.devtools.standin;
+
+import com.evcharge.app.core.geo.GeoMath;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Seeded fixture state behind the stand-in: stations, bookings, QR tokens and notifications,
+ * shaped like the backend DTOs (camelCase JSON).
+ * - Owners: NIC usernames OWNER_NIC_PREFIX + 0..owners-1; any non-empty password logs in
+ * - Operator: OPERATOR_EMAIL, assigned to the first OPERATOR_STATIONS stations, with a queue of
+ *   queueSize Approved bookings today (one QR token each, see queue())
+ * - Staff: STAFF_USER (BackOffice), which may issue QR tokens for any booking, like QrController.Issue
+ * - Owner booking writes follow BookingService: the same validation codes (Refusal) and the same
+ *   Idempotency-Key store per owner (a repeat returns the booking the first request produced)
+ * All mutators are synchronized; reset() reseeds everything (relative to "today" in the station zone).
+ */
+public final class StandInData {
+
+    public static final String OWNER_NIC_PREFIX = "19901234";
+    public static final String OPERATOR_EMAIL = "operator@evcharge.lk";
+    public static final String STAFF_USER = "backoffice@evcharge.lk";
+    public static final ZoneId ZONE = ZoneId.of("Asia/Colombo");
+    static final int OPERATOR_STATIONS = 2;
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter SLOT_LOCAL = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Negombo", "Jaffna", "Kurunegala"};
+
+    private final long seed;
+    private final int stationCount;
+    private final int owners;
+    private final int queueSize;
+    private final long tokenTtlSec;
+
+    private final Map<String, JSONObject> stations = new LinkedHashMap<>();
+    private final Map<String, JSONObject> schedules = new HashMap<>();
+    private final Map<String, JSONObject> bookings = new LinkedHashMap<>();
+    private final Map<String, String> qrToBooking = new HashMap<>();
+    private final Map<String, String> bookingToQr = new HashMap<>();
+    private final Map<String, String[]> idempotency = new HashMap<>(); // owner + "\n" + key -> {operation, targetId, bookingId, body}
+    private final Map<String, List<JSONObject>> notifications = new HashMap<>();
+    private LocalDate today;
+    private Random rnd;
+    private int codeSeq;
+
+    public StandInData(long seed, int stationCount, int owners, int queueSize, long tokenTtlSec) {
+        this.seed = seed;
+        this.stationCount = Math.max(OPERATOR_STATIONS, stationCount);
+        this.owners = Math.max(1, owners);
+        this.queueSize = Math.max(0, queueSize);
+        this.tokenTtlSec = tokenTtlSec;
+        reset();
+    }
+
+    /** 200 stations, 500 owners, a 60-car operator queue, 1 h tokens. */
+    public static StandInData defaults() { return new StandInData(42, 200, 500, 60, 3600); }
+
+    /** A request the backend refuses: HTTP status plus the { error, message } body BookingController sends. */
+    public static final class Refusal extends RuntimeException {
+        public final int status;
+        public final String code;
+
+        Refusal(int status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+
+    public synchronized void reset() {
+        stations.clear(); schedules.clear(); bookings.clear(); qrToBooking.clear(); bookingToQr.clear();
+        idempotency.clear(); notifications.clear();
+        rnd = new Random(seed);
+        codeSeq = 1000;
+        today = LocalDate.now(ZONE);
+
+        for (int i = 0; i < stationCount; i++) {
+            String id = objectId();
+            JSONObject s = new JSONObject();
+            s.put("id", id);
+            s.put("name", CITIES[i % CITIES.length] + " Charge Point " + (i + 1));
+            s.put("type", rnd.nextInt(3) == 0 ? "DC" : "AC");
+            s.put("connectors", 1 + rnd.nextInt(4));
+            s.put("status", rnd.nextInt(12) == 0 ? "Deactivated" : "Active");
+            s.put("autoApproveEnabled", rnd.nextBoolean());
+            s.put("lat", 6.85 + rnd.nextDouble() * 0.4);
+            s.put("lng", 79.80 + rnd.nextDouble() * 0.4);
+            s.put("defaultSlotMinutes", rnd.nextBoolean() ? 60 : 30);
+            s.put("hoursTimezone", ZONE.getId());
+            s.put("pricing", new JSONObject().put("model", "hourly").put("base", 0).put("perHour", 450)
+                    .put("perKwh", 0).put("taxPct", 0));
+            s.put("createdAtUtc", Instant.parse("2025-01-01T00:00:00Z").toString());
+            stations.put(id, s);
+            schedules.put(id, schedule());
+        }
+        List<String> ids = new ArrayList<>(stations.keySet());
+
+        for (int o = 0; o < owners; o++) {
+            String nic = ownerNic(o);
+            int[] dayOffsets = {0, 0, 1, -1, 3, -5};
+            for (int d : dayOffsets) {
+                String sid = ids.get(OPERATOR_STATIONS + rnd.nextInt(ids.size() - OPERATOR_STATIONS));
+                int hour = 7 + rnd.nextInt(12);
+                addBooking(nic, sid, today.plusDays(d).atTime(hour, 0), rnd.nextBoolean() ? "Approved" : "Pending");
+            }
+            List<JSONObject> inbox = new ArrayList<>();
+            for (int n = 0; n < 8; n++) {
+                JSONObject nn = new JSONObject();
+                nn.put("id", objectId());
+                nn.put("type", "BookingApproved");
+                nn.put("subject", "Booking approved");
+                nn.put("message", "Your booking has been approved.");
+                nn.put("createdAtUtc", Instant.now().minusSeconds(3600L * n).toString());
+                nn.put("readAtUtc", n < 3 ? JSONObject.NULL : Instant.now().minusSeconds(60).toString());
+                inbox.add(nn);
+            }
+            notifications.put(nic, inbox);
+        }
+
+        for (int q = 0; q < queueSize; q++) {
+            String sid = ids.get(q % OPERATOR_STATIONS);
+            LocalDateTime at = today.atTime(6, 0).plusMinutes(15L * q);
+            JSONObject b = addBooking(String.format(Locale.US, "2000%08d", q), sid, at, "Approved");
+            String token = "qr-" + b.getString("id");
+            qrToBooking.put(token, b.getString("id"));
+            bookingToQr.put(b.getString("id"), token);
+        }
+    }
+
+    public static String ownerNic(int i) { return OWNER_NIC_PREFIX + String.format(Locale.US, "%04d", i); }
+
+    public int ownerCount() { return owners; }
+
+    public synchronized LocalDate today() { return today; }
+
+    // ---- auth ----
+
+    /** JWT with a dummy signature (the app never verifies it) carrying sub/nic, role and exp. */
+    public String issueToken(String subject, String role) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        long exp = Instant.now().getEpochSecond() + tokenTtlSec;
+        JSONObject claims = new JSONObject().put("sub", subject).put("role", role).put("exp", exp);
+        if ("Owner".equals(role)) claims.put("nic", subject);
+        return enc.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + enc.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8)) + ".c3RhbmQtaW4";
+    }
+
+    public long tokenTtlSec() { return tokenTtlSec; }
+
+    public synchronized List<String> operatorStationIds() {
+        List<String> out = new ArrayList<>();
+        for (String id : stations.keySet()) {
+            if (out.size() == OPERATOR_STATIONS) break;
+            out.add(id);
+        }
+        return out;
+    }
+
+    // ---- stations ----
+
+    public synchronized JSONObject station(String id) { return stations.get(id); }
+
+    public synchronized JSONObject schedule(String id) { return schedules.get(id); }
+
+    /** StationListItem shape (with a 3-day availability summary). */
+    public synchronized JSONArray stationList() {
+        JSONArray out = new JSONArray();
+        for (JSONObject s : stations.values()) out.put(listItem(s));
+        return out;
+    }
+
+    public synchronized JSONArray nearby(double lat, double lng, double radiusKm, String type) {
+        JSONArray out = new JSONArray();
+        for (JSONObject s : stations.values()) {
+            if (type != null && !type.equalsIgnoreCase(s.getString("type"))) continue;
+            if (GeoMath.haversineKm(lat, lng, s.getDouble("lat"), s.getDouble("lng")) <= radiusKm) out.put(listItem(s));
+        }
+        return out;
+    }
+
+    private JSONObject listItem(JSONObject s) {
+        JSONObject o = new JSONObject();
+        for (String k : new String[]{"id", "name", "type", "connectors", "status", "autoApproveEnabled", "lat", "lng",
+                "defaultSlotMinutes", "hoursTimezone", "pricing"}) {
+            o.put(k, s.get(k));
+        }
+        JSONArray summary = new JSONArray();
+        for (int d = 0; d < 3; d++) {
+            summary.put(new JSONObject().put("date", today.plusDays(d).toString())
+                    .put("availableSlots", 8 + (s.getString("id").hashCode() & 7)));
+        }
+        o.put("availabilitySummary", summary);
+        return o;
+    }
+
+    // ---- bookings ----
+
+    public synchronized JSONObject booking(String id) { return bookings.get(id); }
+
+    /** BookingListItem shape for one owner, newest slot first. */
+    public synchronized JSONArray bookingsOf(String nic) {
+        List<JSONObject> mine = new ArrayList<>();
+        for (JSONObject b : bookings.values()) if (nic.equals(b.getString("ownerNic"))) mine.add(b);
+        mine.sort((a, b) -> b.getString("slotStartUtc").compareTo(a.getString("slotStartUtc")));
+        JSONArray out = new JSONArray();
+        for (JSONObject b : mine) {
+            JSONObject o = new JSONObject();
+            for (String k : new String[]{"id", "bookingCode", "stationId", "status", "slotStartUtc", "slotMinutes"}) o.put(k, b.get(k));
+            out.put(o);
+        }
+        return out;
+    }
+
+    /** BookingService.CreateAsync: slot minutes must equal the station's defaultSlotMinutes. */
+    public synchronized JSONObject createBooking(String nic, JSONObject req, String idempotencyKey) {
+        return idempotent(nic, idempotencyKey, "booking.create", null, req, () -> {
+            JSONObject st = stations.get(req.optString("stationId", ""));
+            if (st == null) throw new Refusal(400, "InvalidStation", "Station not found.");
+            if (!"Active".equals(st.getString("status"))) throw new Refusal(409, "StationNotActive", "Station is not active.");
+            checkMinutes(st, req);
+            JSONObject b = addBooking(nic, st.getString("id"), slotOf(req), "Pending");
+            if (!req.isNull("notes")) b.put("notes", req.optString("notes"));
+            return b;
+        });
+    }
+
+    /** BookingService.UpdateAsync: moves the slot and keeps the status. */
+    public synchronized JSONObject modifyBooking(String nic, String id, JSONObject req, String idempotencyKey) {
+        return idempotent(nic, idempotencyKey, "booking.update", id, req, () -> {
+            JSONObject b = ownBooking(nic, id);
+            // BookingController.Update doesn't map InvalidState, so the backend answers 500
+            if (!isOpen(b)) throw new Refusal(500, "InvalidState", "Only Pending or Approved bookings can be modified.");
+            checkMinutes(stations.get(b.getString("stationId")), req);
+            setSlot(b, slotOf(req), req.getInt("minutes"));
+            if (!req.isNull("notes") && !req.optString("notes").trim().isEmpty()) b.put("notes", req.optString("notes").trim());
+            b.put("updatedAtUtc", Instant.now().toString());
+            return b;
+        });
+    }
+
+    public synchronized JSONObject cancelBooking(String nic, String id, String idempotencyKey) {
+        return idempotent(nic, idempotencyKey, "booking.cancel", id, null, () -> {
+            JSONObject b = ownBooking(nic, id);
+            if (!isOpen(b)) throw new Refusal(409, "InvalidState", "Only Pending/Approved can be cancelled.");
+            b.put("status", "Cancelled");
+            b.put("updatedAtUtc", Instant.now().toString());
+            return b;
+        });
+    }
+
+    public synchronized JSONObject setStatus(String id, String status) {
+        JSONObject b = bookings.get(id);
+        if (b == null) return null;
+        b.put("status", status);
+        b.put("updatedAtUtc", Instant.now().toString());
+        return b;
+    }
+
+    /**
+     * BookingApprovalResponse; reuses the booking's token so verify/scan work afterwards. Like
+     * BookingService.IssueQrAsync: owners only for their own bookings, staff for any, Approved only.
+     */
+    public synchronized JSONObject issueQr(String subject, String role, String id) {
+        JSONObject b = bookings.get(id);
+        if (b == null) return null;
+        boolean staff = "BackOffice".equals(role) || "Admin".equals(role);
+        if (!staff && !b.getString("ownerNic").equals(subject)) throw new Refusal(403, "Forbidden", "Not your booking.");
+        if (!"Approved".equals(b.getString("status"))) throw new Refusal(400, "InvalidState", "Only Approved bookings can have QR issued.");
+        String token = bookingToQr.computeIfAbsent(id, k -> "qr-" + k);
+        qrToBooking.put(token, id);
+        String exp = Instant.now().plusSeconds(24 * 3600).toString();
+        b.put("qrExpiresAtUtc", exp);
+        return new JSONObject().put("id", id).put("status", b.getString("status")).put("qrToken", token).put("qrExpiresAtUtc", exp);
+    }
+
+    public synchronized JSONObject bookingForQr(String token) {
+        String id = qrToBooking.get(token);
+        return id != null ? bookings.get(id) : null;
+    }
+
+    /** OperatorInboxItem rows for the operator's stations on a date (Approved only, like the backend). */
+    public synchronized JSONArray inbox(LocalDate date) {
+        List<String> mine = operatorStationIds();
+        String ymd = date.toString();
+        JSONArray out = new JSONArray();
+        for (JSONObject b : bookings.values()) {
+            if (!mine.contains(b.getString("stationId"))) continue;
+            if (!"Approved".equals(b.getString("status"))) continue;
+            if (!b.getString("slotStartLocal").startsWith(ymd)) continue;
+            String nic = b.getString("ownerNic");
+            out.put(new JSONObject().put("id", b.get("id")).put("bookingCode", b.get("bookingCode"))
+                    .put("stationId", b.get("stationId")).put("slotStartUtc", b.get("slotStartUtc"))
+                    .put("slotMinutes", b.get("slotMinutes")).put("status", b.get("status"))
+                    .put("ownerNicMasked", "***-***-" + nic.substring(nic.length() - 4))
+                    .put("slotStartLocal", b.get("slotStartLocal")));
+        }
+        return out;
+    }
+
+    /** QR tokens of today's queue that are still Approved, in slot order (what the cars would show). */
+    public synchronized List<String> queue() {
+        List<String> out = new ArrayList<>();
+        JSONArray rows = inbox(today);
+        for (int i = 0; i < rows.length(); i++) {
+            String token = bookingToQr.get(rows.getJSONObject(i).getString("id"));
+            if (token != null) out.add(token);
+        }
+        return out;
+    }
+
+    // ---- notifications ----
+
+    public synchronized List<JSONObject> notificationsOf(String nic) {
+        List<JSONObject> l = notifications.get(nic);
+        return l != null ? l : Collections.emptyList();
+    }
+
+    public synchronized int markRead(String nic, List<String> ids) {
+        int changed = 0;
+        for (JSONObject n : notificationsOf(nic)) {
+            if (!n.isNull("readAtUtc")) continue;
+            if (ids == null || ids.contains(n.getString("id"))) {
+                n.put("readAtUtc", Instant.now().toString());
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    // ---- helpers ----
+
+    /**
+     * BookingService.RunIdempotentAsync: the first request with a key runs; a repeat gets the booking it
+     * produced (current state); a key reused for another operation, booking or body is refused. A refusal
+     * stores nothing, so the key can be used again.
+     */
+    private JSONObject idempotent(String nic, String key, String operation, String targetId, JSONObject body,
+                                  Supplier<JSONObject> run) {
+        if (key == null || key.trim().isEmpty()) return run.get();
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new Refusal(400, "InvalidIdempotencyKey", "Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+        }
+        String k = nic + "\n" + key;
+        String[] seen = idempotency.get(k);
+        if (seen != null) {
+            if (!seen[0].equals(operation) || !Objects.equals(seen[1], targetId) || !sameBody(seen[3], body)) {
+                throw new Refusal(422, "IdempotencyKeyReused", "Idempotency-Key was already used for a different request.");
+            }
+            return bookings.get(seen[2]);
+        }
+        JSONObject b = run.get();
+        idempotency.put(k, new String[]{operation, targetId, b.getString("id"), body != null ? body.toString() : null});
+        return b;
+    }
+
+    private static boolean sameBody(String stored, JSONObject body) {
+        if (stored == null || body == null) return stored == null && body == null;
+        return new JSONObject(stored).similar(body);
+    }
+
+    private JSONObject ownBooking(String nic, String id) {
+        JSONObject b = bookings.get(id);
+        if (b == null) throw new Refusal(404, "BookingNotFound", "Booking not found.");
+        if (!b.getString("ownerNic").equals(nic)) throw new Refusal(403, "Forbidden", "Not your booking.");
+        return b;
+    }
+
+    private static boolean isOpen(JSONObject b) {
+        String status = b.getString("status");
+        return "Pending".equals(status) || "Approved".equals(status);
+    }
+
+    private static void checkMinutes(JSONObject station, JSONObject req) {
+        int minutes = station.getInt("defaultSlotMinutes");
+        if (req.optInt("minutes", 0) != minutes) throw new Refusal(400, "InvalidMinutes", "Minutes must be " + minutes + ".");
+    }
+
+    private static LocalDateTime slotOf(JSONObject req) {
+        LocalTime time;
+        LocalDate date;
+        try {
+            time = LocalTime.parse(req.optString("startTime"), HH_MM);
+        } catch (DateTimeParseException e) {
+            throw new Refusal(400, "InvalidTime", "StartTime must be HH:mm.");
+        }
+        try {
+            date = LocalDate.parse(req.optString("localDate"));
+        } catch (DateTimeParseException e) {
+            throw new Refusal(400, "InvalidDate", "LocalDate must be yyyy-MM-dd.");
+        }
+        return date.atTime(time);
+    }
+
+    private JSONObject addBooking(String nic, String stationId, LocalDateTime at, String status) {
+        JSONObject b = new JSONObject();
+        b.put("id", objectId());
+        b.put("bookingCode", "BK-" + (codeSeq++));
+        b.put("ownerNic", nic);
+        b.put("stationId", stationId);
+        b.put("status", status);
+        setSlot(b, at, stations.get(stationId).getInt("defaultSlotMinutes"));
+        b.put("createdAtUtc", Instant.now().toString());
+        bookings.put(b.getString("id"), b);
+        return b;
+    }
+
+    private static void setSlot(JSONObject b, LocalDateTime at, int minutes) {
+        Instant start = at.atZone(ZONE).toInstant();
+        b.put("slotStartLocal", SLOT_LOCAL.format(at));
+        b.put("slotStartUtc", start.toString());
+        b.put("slotEndUtc", start.plusSeconds(60L * minutes).toString());
+        b.put("slotMinutes", minutes);
+    }
+
+    private JSONObject schedule() {
+        JSONObject weekly = new JSONObject();
+        for (String d : new String[]{"mon", "tue", "wed", "thu", "fri", "sat", "sun"}) {
+            JSONArray ranges = new JSONArray().put(new JSONObject().put("start", "06:00").put("end", "22:00"));
+            weekly.put(d, "sun".equals(d) && rnd.nextInt(4) == 0 ? new JSONArray() : ranges);
+        }
+        return new JSONObject().put("weekly", weekly).put("exceptions", new JSONArray())
+                .put("capacityOverrides", new JSONArray()).put("updatedAtUtc", Instant.parse("2025-01-01T00:00:00Z").toString());
+    }
+
+    private String objectId() {
+        StringBuilder sb = new StringBuilder(24);
+        for (int i = 0; i < 24; i++) sb.append(Character.forDigit(rnd.nextInt(16), 16));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,406 @@
+package com.evcharge.devtools.standin;
+
+import com.evcharge.app.core.security.JwtStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded HTTP stand-in for the ASP.NET backend, serving the contracts ApiClient uses
+ * (Auth login, Station, Booking, Qr, Operator, Notifications) from StandInData.
+ * - Fault injection per request (Faults): latency + jitter, bandwidth pacing, error responses
+ * - gzip responses above 1 KB when asked (like the backend's response compression), gzip request bodies
+ * - Per-route hit counters (GET /__standin/hits) so a journey's request count, e.g. an N+1, is visible
+ * Admin routes: GET /__standin/hits, POST /__standin/reset (fixtures + counters), GET /__standin/queue.
+ *
+ * Run: ./gradlew :devtools:standin --args="--port 8085"; the localEmu flavor (10.0.2.2:8085) then
+ * talks to it from the emulator, so the real ApiClient can be exercised end-to-end.
+ */
+public final class StandInServer {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    /** Parsed request handed to a route. */
+    static final class Req {
+        final String method;
+        final String[] params;
+        final Map<String, String> query;
+        final JSONObject body;
+        final String subject;   // JWT sub, null when unauthenticated
+        final String role;
+        final String idempotencyKey;
+
+        Req(String method, String[] params, Map<String, String> query, JSONObject body,
+            String subject, String role, String idempotencyKey) {
+            this.method = method; this.params = params; this.query = query; this.body = body;
+            this.subject = subject; this.role = role; this.idempotencyKey = idempotencyKey;
+        }
+
+        String q(String key, String def) { String v = query.get(key); return v != null ? v : def; }
+    }
+
+    static final class Reply {
+        final int status;
+        final Object json;  // JSONObject, JSONArray or null (no body)
+        Reply(int status, Object json) { this.status = status; this.json = json; }
+    }
+
+    private interface Handler {
+        Reply handle(Req r) throws Exception;
+    }
+
+    private static final class Route {
+        final String method;
+        final String template;
+        final Pattern pattern;
+        final boolean auth;
+        final Handler handler;
+
+        Route(String method, String template, boolean auth, Handler handler) {
+            this.method = method;
+            this.template = template;
+            this.pattern = Pattern.compile(template.replaceAll("\\{[^/]+}", "([^/]+)"));
+            this.auth = auth;
+            this.handler = handler;
+        }
+    }
+
+    private final StandInData data;
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private volatile Faults faults;
+    private HttpServer server;
+    private ExecutorService pool;
+
+    public StandInServer(StandInData data, Faults faults) {
+        this.data = data;
+        this.faults = faults;
+        registerRoutes();
+    }
+
+    /** Binds and starts serving; port 0 picks a free port (see port()). */
+    public StandInServer start(String host, int port) throws IOException {
+        // Headers and body go out as separate writes; without TCP_NODELAY every small reply waits on a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(host, port), 256);
+        pool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "standin-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(pool);
+        server.createContext("/", this::serve);
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (pool != null) pool.shutdownNow();
+    }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    public String baseUrl() { return "http://127.0.0.1:" + port(); }
+
+    public StandInData data() { return data; }
+
+    public Faults faults() { return faults; }
+
+    public void setFaults(Faults f) { this.faults = f; }
+
+    /** Requests served per route template ("GET /api/Station/{id}"), sorted. */
+    public Map<String, Long> hits() {
+        Map<String, Long> out = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : hits.entrySet()) out.put(e.getKey(), e.getValue().sum());
+        return out;
+    }
+
+    public void resetHits() { hits.clear(); }
+
+    // ---- routes ----
+
+    private void registerRoutes() {
+        // Auth
+        route("POST", "/api/Auth/login", false, r -> {
+            String user = r.body != null ? r.body.optString("username", "").trim() : "";
+            String pass = r.body != null ? r.body.optString("password", "") : "";
+            if (user.isEmpty() || pass.isEmpty()) return error(400, "Username and password are required.");
+            boolean operator = user.contains("@");
+            String role = StandInData.STAFF_USER.equalsIgnoreCase(user) ? "BackOffice" : operator ? "Operator" : "Owner";
+            String token = data.issueToken(operator ? user : user.toUpperCase(), role);
+            JSONObject res = new JSONObject();
+            res.put("accessToken", token);
+            res.put("tokenType", "Bearer");
+            res.put("expiresAtUtc", Instant.now().plusSeconds(data.tokenTtlSec()).toString());
+            res.put("nic", operator ? "" : user);
+            res.put("fullName", operator ? "Station " + role : "Owner " + user);
+            res.put("roles", new JSONArray().put(role));
+            res.put("email", operator ? user : "");
+            res.put("operatorStationIds", "Operator".equals(role) ? new JSONArray(data.operatorStationIds()) : new JSONArray());
+            return ok(res);
+        });
+
+        // Stations (public)
+        route("GET", "/api/Station", false, r -> {
+            JSONArray items = data.stationList();
+            return ok(new JSONObject().put("total", items.length()).put("items", items));
+        });
+        route("GET", "/api/Station/nearby", false, r -> ok(data.nearby(
+                Double.parseDouble(r.q("lat", "0")), Double.parseDouble(r.q("lng", "0")),
+                Double.parseDouble(r.q("radiusKm", "5")), r.query.get("type"))));
+        route("GET", "/api/Station/{id}", false, r -> orNotFound(data.station(r.params[0]), "Station not found."));
+        route("GET", "/api/Station/{id}/schedule", false, r -> orNotFound(data.schedule(r.params[0]), "Station not found."));
+
+        // Bookings (owner)
+        route("GET", "/api/Booking/mine", true, r -> ok(data.bookingsOf(r.subject)));
+        route("GET", "/api/Booking/{id}", true, r -> orNotFound(data.booking(r.params[0]), "Booking not found."));
+        route("POST", "/api/Booking", true, r ->
+                new Reply(201, data.createBooking(r.subject, r.body != null ? r.body : new JSONObject(), r.idempotencyKey)));
+        route("PUT", "/api/Booking/{id}", true, r ->
+                ok(data.modifyBooking(r.subject, r.params[0], r.body != null ? r.body : new JSONObject(), r.idempotencyKey)));
+        route("POST", "/api/Booking/{id}/cancel", true, r -> ok(data.cancelBooking(r.subject, r.params[0], r.idempotencyKey)));
+
+        // QR
+        route("POST", "/api/Qr/issue/{bookingId}", true, r -> orNotFound(data.issueQr(r.subject, r.role, r.params[0]), "Booking not found."));
+        route("POST", "/api/Qr/verify", true, r -> {
+            JSONObject b = data.bookingForQr(r.body != null ? r.body.optString("qrToken", "") : "");
+            JSONObject res = new JSONObject().put("valid", b != null);
+            if (b == null) return ok(res.put("message", "Unknown or expired QR."));
+            return ok(res.put("bookingId", b.get("id")).put("stationId", b.get("stationId"))
+                    .put("status", b.get("status")).put("expUtc", b.opt("slotEndUtc")));
+        });
+
+        // Operator
+        route("GET", "/api/Operator/inbox", true, r -> {
+            String ymd = r.query.get("date");
+            return ok(data.inbox(ymd != null ? LocalDate.parse(ymd) : data.today()));
+        });
+        route("POST", "/api/Operator/scan", true, r -> {
+            JSONObject b = data.bookingForQr(r.body != null ? r.body.optString("qrToken", "") : "");
+            if (b == null) return error(404, "Unknown QR.");
+            if (!"Approved".equals(b.getString("status"))) return error(409, "Booking is " + b.getString("status") + ".");
+            return ok(data.setStatus(b.getString("id"), "CheckedIn"));
+        });
+
+        // Notifications
+        route("GET", "/api/Notifications", true, r -> {
+            boolean unreadOnly = Boolean.parseBoolean(r.q("unreadOnly", "false"));
+            int page = Math.max(1, Integer.parseInt(r.q("page", "1")));
+            int size = Math.max(1, Math.min(100, Integer.parseInt(r.q("pageSize", "20"))));
+            List<JSONObject> all = new ArrayList<>();
+            for (JSONObject n : data.notificationsOf(r.subject)) if (!unreadOnly || n.isNull("readAtUtc")) all.add(n);
+            JSONArray items = new JSONArray();
+            for (int i = (page - 1) * size; i < Math.min(all.size(), page * size); i++) items.put(all.get(i));
+            return ok(new JSONObject().put("total", all.size()).put("page", page).put("pageSize", size).put("items", items));
+        });
+        route("PUT", "/api/Notifications/read-batch", true, r -> {
+            JSONArray ids = r.body != null ? r.body.optJSONArray("ids") : null;
+            List<String> list = new ArrayList<>();
+            if (ids != null) for (int i = 0; i < ids.length(); i++) list.add(ids.optString(i));
+            return ok(new JSONObject().put("updated", data.markRead(r.subject, list)));
+        });
+        route("PUT", "/api/Notifications/read-all", true, r ->
+                ok(new JSONObject().put("updated", data.markRead(r.subject, null))));
+        route("PUT", "/api/Notifications/{id}/read", true, r -> {
+            List<String> one = new ArrayList<>();
+            one.add(r.params[0]);
+            data.markRead(r.subject, one);
+            return new Reply(204, null);
+        });
+
+        // Admin (never delayed or failed by Faults)
+        route("GET", "/__standin/hits", false, r -> ok(new JSONObject(hits())));
+        route("POST", "/__standin/reset", false, r -> { data.reset(); resetHits(); return new Reply(204, null); });
+        route("GET", "/__standin/queue", false, r -> ok(new JSONArray(data.queue())));
+    }
+
+    private void route(String method, String template, boolean auth, Handler h) {
+        routes.add(new Route(method, template, auth, h));
+    }
+
+    private static Reply ok(Object json) { return new Reply(200, json); }
+
+    private static Reply orNotFound(JSONObject json, String message) {
+        return json != null ? ok(json) : error(404, message);
+    }
+
+    private static Reply error(int status, String message) {
+        return new Reply(status, new JSONObject().put("message", message));
+    }
+
+    // ---- serving ----
+
+    private void serve(HttpExchange ex) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath();
+            Route route = null;
+            Matcher m = null;
+            for (Route r : routes) {
+                if (!r.method.equals(method)) continue;
+                Matcher mm = r.pattern.matcher(path);
+                if (mm.matches()) { route = r; m = mm; break; }
+            }
+            if (route == null) {
+                write(ex, error(404, "No route for " + method + " " + path), Faults.NONE);
+                return;
+            }
+            boolean admin = route.template.startsWith("/__standin");
+            if (!admin) hits.computeIfAbsent(method + " " + route.template, k -> new LongAdder()).increment();
+
+            Faults f = admin ? Faults.NONE : faults;
+            if (f.latencyMs > 0 || f.jitterMs > 0) {
+                Thread.sleep(f.latencyMs + (f.jitterMs > 0 ? ThreadLocalRandom.current().nextLong(f.jitterMs + 1) : 0));
+            }
+            if (f.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < f.errorRate) {
+                write(ex, error(f.errorStatus, "Injected failure"), f);
+                return;
+            }
+
+            String[] params = new String[m.groupCount()];
+            for (int i = 0; i < params.length; i++) params[i] = URLDecoder.decode(m.group(i + 1), "UTF-8");
+
+            String subject = null, role = null;
+            String authz = ex.getRequestHeaders().getFirst("Authorization");
+            if (authz != null && authz.startsWith("Bearer ")) {
+                JSONObject claims = JwtStore.decodePayload(authz.substring(7).trim());
+                if (claims != null && claims.optLong("exp", 0) > Instant.now().getEpochSecond()) {
+                    subject = claims.optString("sub", null);
+                    role = claims.optString("role", null);
+                }
+            }
+            if (route.auth && subject == null) {
+                write(ex, error(401, "Unauthorized"), f);
+                return;
+            }
+
+            Req req = new Req(method, params, query(ex.getRequestURI().getRawQuery()), readBody(ex),
+                    subject, role, ex.getRequestHeaders().getFirst("Idempotency-Key"));
+            Reply reply;
+            try {
+                reply = route.handler.handle(req);
+            } catch (StandInData.Refusal e) {
+                // Forbid() has no body in BookingController
+                reply = e.status == 403 ? new Reply(403, null)
+                        : new Reply(e.status, new JSONObject().put("error", e.code).put("message", e.getMessage()));
+            }
+            write(ex, reply, f);
+        } catch (Exception e) {
+            try { write(ex, error(500, String.valueOf(e)), Faults.NONE); } catch (IOException ignored) {}
+        } finally {
+            ex.close();
+        }
+    }
+
+    private static JSONObject readBody(HttpExchange ex) throws IOException {
+        InputStream in = ex.getRequestBody();
+        if ("gzip".equalsIgnoreCase(ex.getRequestHeaders().getFirst("Content-Encoding"))) in = new GZIPInputStream(in);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] b = new byte[8192];
+        for (int n; (n = in.read(b)) > 0; ) buf.write(b, 0, n);
+        String s = buf.toString(StandardCharsets.UTF_8.name()).trim();
+        if (!s.startsWith("{")) return null;
+        return new JSONObject(s);
+    }
+
+    private void write(HttpExchange ex, Reply reply, Faults f) throws IOException {
+        byte[] body;
+        synchronized (data) { // fixtures are mutable; serialize under the data lock
+            body = reply.json != null ? reply.json.toString().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length >= GZIP_MIN_BYTES && accept != null && accept.contains("gzip")) {
+            ByteArrayOutputStream zipped = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gz = new GZIPOutputStream(zipped)) { gz.write(body); }
+            body = zipped.toByteArray();
+            ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if (reply.json != null) ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(reply.status, body.length == 0 ? -1 : body.length);
+        if (body.length == 0) return;
+
+        try (OutputStream out = ex.getResponseBody()) {
+            if (f.bytesPerSec <= 0) {
+                out.write(body);
+                return;
+            }
+            int chunk = (int) Math.max(256, f.bytesPerSec / 20);   // ~50 ms per chunk
+            for (int off = 0; off < body.length; off += chunk) {
+                int n = Math.min(chunk, body.length - off);
+                out.write(body, off, n);
+                out.flush();
+                Thread.sleep(n * 1000L / f.bytesPerSec);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> query(String raw) throws IOException {
+        Map<String, String> out = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return out;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(kv.substring(0, eq), "UTF-8"), URLDecoder.decode(kv.substring(eq + 1), "UTF-8"));
+        }
+        return out;
+    }
+
+    // ---- command line ----
+
+    /**
+     * --host 0.0.0.0 --port 8085 --seed 42 --stations 200 --owners 500 --queue 60 --token-ttl 3600
+     * plus the Faults flags (--latency, --jitter, --kbps, --error-rate, --error-status).
+     */
+    public static void main(String[] args) throws Exception {
+        String host = "0.0.0.0";
+        int port = 8085, stations = 200, owners = 500, queue = 60;
+        long seed = 42, ttl = 3600;
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--host":      host = args[++i]; break;
+                case "--port":      port = Integer.parseInt(args[++i]); break;
+                case "--seed":      seed = Long.parseLong(args[++i]); break;
+                case "--stations":  stations = Integer.parseInt(args[++i]); break;
+                case "--owners":    owners = Integer.parseInt(args[++i]); break;
+                case "--queue":     queue = Integer.parseInt(args[++i]); break;
+                case "--token-ttl": ttl = Long.parseLong(args[++i]); break;
+                default: break;
+            }
+        }
+        StandInServer s = new StandInServer(new StandInData(seed, stations, owners, queue, ttl), Faults.fromArgs(args))
+                .start(host, port);
+        System.out.println("Stand-in backend on http://" + host + ":" + s.port() + "  (" + s.faults() + ")");
+        System.out.println("Owners " + StandInData.ownerNic(0) + ".." + StandInData.ownerNic(owners - 1)
+                + ", operator " + StandInData.OPERATOR_EMAIL + "; any non-empty password. Ctrl-C to stop.");
+        Thread.currentThread().join();
+    }
+}
@@ -21,15 +21,20 @@ namespace EvCharge.Api.Controllers
         [ProducesResponseType(typeof(BookingResponse), StatusCodes.Status201Created)]
         [ProducesResponseType(StatusCodes.Status400BadRequest)]
         [ProducesResponseType(StatusCodes.Status409Conflict)]
-        public async Task<IActionResult> Create([FromBody] BookingCreateRequest req, CancellationToken ct)
+        [ProducesResponseType(StatusCodes.Status422UnprocessableEntity)]
+        public async Task<IActionResult> Create([FromBody] BookingCreateRequest req,
+            [FromHeader(Name = "Idempotency-Key")] string? idempotencyKey, CancellationToken ct)
         {
             try
             {
                 var nic = User.FindFirst(JwtRegisteredClaimNames.Sub)?.Value ?? User.Identity?.Name ?? "";
-                var res = await _service.CreateAsync(nic, req, ct);
+                var res = await _service.CreateAsync(nic, req, idempotencyKey, ct);
                 return CreatedAtAction(nameof(GetById), new { id = res.Id }, res);
             }
+            catch (ValidationException ex) when (ex.Code == "IdempotencyKeyReused")
+            { return UnprocessableEntity(new { error = ex.Code, message = ex.Message }); }
             catch (ValidationException ex) { return BadRequest(new { error = ex.Code, message = ex.Message }); }
+            catch (UpdateException ex) when (ex.Code == "IdempotencyInProgress") { return InProgress(ex); }
             catch (UpdateException ex) when (ex.Code is "CapacityFull" or "StationNotActive" or "StationClosed")
             { return Conflict(new { error = ex.Code, message = ex.Message }); }
         }
@@ -70,15 +75,20 @@ namespace EvCharge.Api.Controllers
         [ProducesResponseType(StatusCodes.Status400BadRequest)]
         [ProducesResponseType(StatusCodes.Status409Conflict)]
         [ProducesResponseType(StatusCodes.Status403Forbidden)]
-        public async Task<IActionResult> Update([FromRoute] string id, [FromBody] BookingUpdateRequest req, CancellationToken ct)
+        [ProducesResponseType(StatusCodes.Status422UnprocessableEntity)]
+        public async Task<IActionResult> Update([FromRoute] string id, [FromBody] BookingUpdateRequest req,
+            [FromHeader(Name = "Idempotency-Key")] string? idempotencyKey, CancellationToken ct)
         {
             try
             {
                 var nic = User.FindFirst(JwtRegisteredClaimNames.Sub)?.Value ?? User.Identity?.Name ?? "";
-                var res = await _service.UpdateAsync(id, nic, req, ct);
+                var res = await _service.UpdateAsync(id, nic, req, idempotencyKey, ct);
                 return Ok(res);
             }
+            catch (ValidationException ex) when (ex.Code == "IdempotencyKeyReused")
+            { return UnprocessableEntity(new { error = ex.Code, message = ex.Message }); }
             catch (ValidationException ex) { return BadRequest(new { error = ex.Code, message = ex.Message }); }
+            catch (UpdateException ex) when (ex.Code == "IdempotencyInProgress") { return InProgress(ex); }
             catch (UpdateException ex) when (ex.Code is "Forbidden") { return Forbid(); }
             catch (UpdateException ex) when (ex.Code is "CapacityFull" or "CancelCutoff")
             { return Conflict(new { error = ex.Code, message = ex.Message }); }
@@ -92,16 +102,22 @@ namespace EvCharge.Api.Controllers
 [ProducesResponseType(StatusCodes.Status409Conflict)]
 [ProducesResponseType(StatusCodes.Status403Forbidden)]
 [ProducesResponseType(StatusCodes.Status404NotFound)]
-public async Task<IActionResult> Cancel([FromRoute] string id, CancellationToken ct)
+[ProducesResponseType(StatusCodes.Status422UnprocessableEntity)]
+public async Task<IActionResult> Cancel([FromRoute] string id,
+    [FromHeader(Name = "Idempotency-Key")] string? idempotencyKey, CancellationToken ct)
 {
     try
     {
         var nic = User.FindFirst(JwtRegisteredClaimNames.Sub)?.Value
                   ?? User.Identity?.Name
                   ?? "";
-        var res = await _service.CancelAsync(id, nic, ct);
+        var res = await _service.CancelAsync(id, nic, idempotencyKey, ct);
         return Ok(res);
     }
+    catch (ValidationException ex) when (ex.Code == "IdempotencyKeyReused")
+    { return UnprocessableEntity(new { error = ex.Code, message = ex.Message }); }
+    catch (ValidationException ex) { return BadRequest(new { error = ex.Code, message = ex.Message }); }
+    catch (UpdateException ex) when (ex.Code == "IdempotencyInProgress") { return InProgress(ex); }
     catch (UpdateException ex) when (ex.Code is "Forbidden") { return Forbid(); }
     catch (UpdateException ex) when (ex.Code is "CancelCutoff" or "InvalidState")
     { return Conflict(new { error = ex.Code, message = ex.Message }); }
@@ -109,6 +125,13 @@ public async Task<IActionResult> Cancel([FromRoute] string id, CancellationToken
     { return NotFound(new { error = ex.Code, message = ex.Message }); }
 }
 
+        // The first request with this Idempotency-Key hasn't finished; the client retries with the same key
+        private IActionResult InProgress(UpdateException ex)
+        {
+            Response.Headers["Retry-After"] = "2";
+            return Conflict(new { error = ex.Code, message = ex.Message });
+        }
+
 
         // -------- BackOffice/Admin --------
         [Authorize(Roles = "BackOffice,Admin")]
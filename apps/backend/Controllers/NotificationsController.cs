@@ -69,6 +69,26 @@ namespace EvCharge.Api.Controllers
             return NoContent();
         }
 
+        // PUT /api/Notifications/read-batch  { "ids": ["...", ...] }  (max 100 ids)
+        // Idempotent: ids that are unknown, foreign or already read are skipped.
+        [HttpPut("read-batch")]
+        [ProducesResponseType(typeof(object), StatusCodes.Status200OK)]
+        [ProducesResponseType(StatusCodes.Status400BadRequest)]
+        public async Task<IActionResult> MarkReadBatch([FromBody] NotificationReadBatchRequest req, CancellationToken ct)
+        {
+            var nic = User.FindFirst(ClaimTypes.NameIdentifier)?.Value
+                      ?? User.FindFirst("sub")?.Value
+                      ?? string.Empty;
+            if (string.IsNullOrWhiteSpace(nic)) return Unauthorized();
+
+            var ids = req?.Ids?.Where(i => !string.IsNullOrWhiteSpace(i)).ToList() ?? new List<string>();
+            if (ids.Count == 0) return BadRequest(new { error = "EmptyBatch", message = "ids must not be empty." });
+            if (ids.Count > 100) return BadRequest(new { error = "BatchTooLarge", message = "At most 100 ids per call." });
+
+            var changed = await _notifications.MarkReadManyAsync(ids, nic, ct);
+            return Ok(new { updated = changed });
+        }
+
         // PUT /api/Notifications/read-all
         [HttpPut("read-all")]
         [ProducesResponseType(typeof(object), StatusCodes.Status200OK)]
@@ -20,6 +20,7 @@ namespace EvCharge.Api.Domain
 
         public string Status { get; set; } = "Pending"; // Pending|Approved|Rejected|Cancelled|NoShow|Aborted|Expired|CheckedIn|Completed
         public string? Notes { get; set; }
+        public string? IdempotencyKey { get; set; } // owner's Idempotency-Key on create (see IdempotencyRepository)
 
         public string? QrTokenHash { get; set; }
         public DateTime? QrExpiresAtUtc { get; set; }
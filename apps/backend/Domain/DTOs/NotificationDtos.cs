@@ -10,4 +10,10 @@ namespace EvCharge.Api.Domain.DTOs
         public DateTime CreatedAtUtc { get; set; }
         public DateTime? ReadAtUtc { get; set; }
     }
+
+    // PUT /api/Notifications/read-batch
+    public class NotificationReadBatchRequest
+    {
+        public List<string> Ids { get; set; } = new();
+    }
 }
@@ -64,6 +64,8 @@ namespace EvCharge.Api.Domain.DTOs
         public bool AutoApproveEnabled { get; set; }  // NEW
         public double Lat { get; set; }
         public double Lng { get; set; }
+        public int DefaultSlotMinutes { get; set; }
+        public string HoursTimezone { get; set; } = "Asia/Colombo";
         public PricingDto Pricing { get; set; } = new();
         public List<AvailabilitySummaryItem> AvailabilitySummary { get; set; } = new();
     }
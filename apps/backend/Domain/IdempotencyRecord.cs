@@ -0,0 +1,30 @@
+using MongoDB.Bson;
+using MongoDB.Bson.Serialization.Attributes;
+
+namespace EvCharge.Api.Domain
+{
+    // One Idempotency-Key sent by an owner on a booking write (create / modify / cancel).
+    // Unique per (OwnerNic, Key); expires after IdempotencyRepository.Retention.
+    public class IdempotencyRecord
+    {
+        [BsonId, BsonRepresentation(BsonType.ObjectId)]
+        public string? Id { get; set; }
+
+        public string OwnerNic { get; set; } = string.Empty;
+        public string Key { get; set; } = string.Empty;
+
+        // "booking.create" | "booking.update" | "booking.cancel"
+        public string Operation { get; set; } = string.Empty;
+        // booking id for update/cancel; null for create
+        public string? TargetId { get; set; }
+        // SHA-256 of the request body; a key reused with another body is refused (null on records from before)
+        public string? RequestHash { get; set; }
+
+        public string State { get; set; } = "Started"; // Started|Completed
+        // booking the first request produced; replays answer with its current state
+        public string? BookingId { get; set; }
+
+        public DateTime CreatedAtUtc { get; set; }
+        public DateTime? CompletedAtUtc { get; set; }
+    }
+}
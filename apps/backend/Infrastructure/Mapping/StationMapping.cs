@@ -94,6 +94,8 @@ namespace EvCharge.Api.Infrastructure.Mapping
                 AutoApproveEnabled = s.AutoApproveEnabled,
                 Lat = s.Location.Coordinates.Length == 2 ? s.Location.Coordinates[1] : 0,
                 Lng = s.Location.Coordinates.Length == 2 ? s.Location.Coordinates[0] : 0,
+                DefaultSlotMinutes = s.DefaultSlotMinutes,
+                HoursTimezone = s.HoursTimezone,
                 Pricing = new PricingDto
                 {
                     Model = s.Pricing.Model,
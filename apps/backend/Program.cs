@@ -101,6 +101,7 @@ builder.Services.AddScoped<IStationService, StationService>();
 builder.Services.AddScoped<ISessionService, SessionService>();
 // Booking module
 builder.Services.AddSingleton<IBookingRepository, BookingRepository>();
+builder.Services.AddSingleton<IIdempotencyRepository, IdempotencyRepository>();
 builder.Services.AddSingleton<IQrTokenService, QrTokenService>();
 builder.Services.AddScoped<IBookingService, BookingService>();
 builder.Services.AddScoped<ISessionService, SessionService>();
@@ -134,6 +135,17 @@ builder.Services.AddScoped<IAdminService, AdminService>();
 builder.Services.AddScoped<INotificationService, NotificationService>();
 
 
+// Compression: gzip/brotli JSON responses, accept gzip/deflate request bodies from the app.
+// Only the station/booking list routes are compressed (see UseWhen below): compressing responses that carry
+// secrets (auth tokens, QR payloads) over HTTPS would expose them to BREACH-style length attacks.
+builder.Services.AddResponseCompression(o =>
+{
+    o.EnableForHttps = true;
+    o.Providers.Add<Microsoft.AspNetCore.ResponseCompression.BrotliCompressionProvider>();
+    o.Providers.Add<Microsoft.AspNetCore.ResponseCompression.GzipCompressionProvider>();
+});
+builder.Services.AddRequestDecompression();
+
 // CORS
 var cors = builder.Configuration.GetSection("Cors").Get<CorsOptions>()!;
 builder.Services.AddCors(o =>
@@ -168,6 +180,15 @@ if (app.Environment.IsDevelopment())
 }
 
 // Kestrel URL is driven by appsettings.Development.json (http://localhost:8085)
+// The large list responses; none of them carries a token or a QR payload
+var compressedListRoutes = new HashSet<string>(StringComparer.OrdinalIgnoreCase)
+{
+    "/api/Station", "/api/Station/nearby", "/api/Booking", "/api/Booking/mine",
+};
+app.UseWhen(ctx => HttpMethods.IsGet(ctx.Request.Method)
+                   && compressedListRoutes.Contains(ctx.Request.Path.Value?.TrimEnd('/') ?? ""),
+    b => b.UseResponseCompression());
+app.UseRequestDecompression();
 app.UseCors("app");
 app.UseAuthentication();
 app.UseAuthorization();
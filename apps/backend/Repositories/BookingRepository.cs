@@ -1,4 +1,5 @@
 using EvCharge.Api.Domain;
+using MongoDB.Bson;
 using MongoDB.Driver;
 
 namespace EvCharge.Api.Repositories
@@ -8,6 +9,7 @@ namespace EvCharge.Api.Repositories
         Task EnsureIndexesAsync(CancellationToken ct);
         Task<string> CreateAsync(Booking b, CancellationToken ct);
         Task<Booking?> GetByIdAsync(string id, CancellationToken ct);
+        Task<Booking?> GetByIdempotencyKeyAsync(string ownerNic, string key, CancellationToken ct);
         Task<bool> ReplaceAsync(Booking b, CancellationToken ct);
 
         Task<List<Booking>> GetMineAsync(string ownerNic, string? status, DateTime? fromUtc, DateTime? toUtc, CancellationToken ct);
@@ -56,6 +58,25 @@ namespace EvCharge.Api.Repositories
                 );
             }
             catch { /* idempotent */ }
+
+            try
+            {
+                // At most one booking per owner + Idempotency-Key, so a takeover's "did the dead request insert?"
+                // lookup finds one row and a double insert fails. Partial on string keys: bookings without a key
+                // store null, which a sparse compound index would still cover.
+                try { await _bookings.Indexes.DropOneAsync("ix_owner_idem", ct); } catch { /* not there */ }
+                await _bookings.Indexes.CreateOneAsync(
+                    new CreateIndexModel<Booking>(
+                        Builders<Booking>.IndexKeys.Ascending(x => x.OwnerNic).Ascending(x => x.IdempotencyKey),
+                        new CreateIndexOptions<Booking>
+                        {
+                            Name = "ux_owner_idem",
+                            Unique = true,
+                            PartialFilterExpression = Builders<Booking>.Filter.Type(x => x.IdempotencyKey, BsonType.String)
+                        }),
+                    cancellationToken: ct);
+            }
+            catch { /* duplicates left by older versions keep the index from building; lookups still work */ }
         }
 
         public async Task<string> CreateAsync(Booking b, CancellationToken ct)
@@ -67,6 +88,9 @@ namespace EvCharge.Api.Repositories
         public async Task<Booking?> GetByIdAsync(string id, CancellationToken ct)
             => await _bookings.Find(x => x.Id == id).FirstOrDefaultAsync(ct);
 
+        public async Task<Booking?> GetByIdempotencyKeyAsync(string ownerNic, string key, CancellationToken ct)
+            => await _bookings.Find(x => x.OwnerNic == ownerNic && x.IdempotencyKey == key).FirstOrDefaultAsync(ct);
+
         public async Task<bool> ReplaceAsync(Booking b, CancellationToken ct)
         {
             var res = await _bookings.ReplaceOneAsync(x => x.Id == b.Id, b, cancellationToken: ct);
@@ -0,0 +1,94 @@
+using EvCharge.Api.Domain;
+using MongoDB.Driver;
+
+namespace EvCharge.Api.Repositories
+{
+    public interface IIdempotencyRepository
+    {
+        Task EnsureIndexesAsync(CancellationToken ct);
+
+        // Inserts a Started record. Returns null when this call owns the key, else the record already stored.
+        Task<IdempotencyRecord?> TryClaimAsync(string ownerNic, string key, string operation, string? targetId, string requestHash, CancellationToken ct);
+        // Re-claims a Started record older than the lease (its request died mid-way). False if someone else did.
+        Task<bool> TryTakeOverAsync(IdempotencyRecord stale, CancellationToken ct);
+        Task CompleteAsync(string ownerNic, string key, string bookingId, CancellationToken ct);
+        // The request was refused before anything was written: the key may be used again.
+        Task ReleaseAsync(string ownerNic, string key, CancellationToken ct);
+    }
+
+    public class IdempotencyRepository : IIdempotencyRepository
+    {
+        // Longer than any client retry window (BookingOutbox backs off up to 5 min, across app restarts)
+        public static readonly TimeSpan Retention = TimeSpan.FromHours(48);
+
+        private readonly IMongoCollection<IdempotencyRecord> _col;
+
+        public IdempotencyRepository(IMongoDatabase db)
+        {
+            _col = db.GetCollection<IdempotencyRecord>("idempotency_keys");
+            EnsureIndexesAsync(CancellationToken.None).GetAwaiter().GetResult();
+        }
+
+        public async Task EnsureIndexesAsync(CancellationToken ct)
+        {
+            try
+            {
+                await _col.Indexes.CreateManyAsync(new[]
+                {
+                    new CreateIndexModel<IdempotencyRecord>(
+                        Builders<IdempotencyRecord>.IndexKeys.Ascending(x => x.OwnerNic).Ascending(x => x.Key),
+                        new CreateIndexOptions { Name = "ux_owner_key", Unique = true }),
+                    new CreateIndexModel<IdempotencyRecord>(
+                        Builders<IdempotencyRecord>.IndexKeys.Ascending(x => x.CreatedAtUtc),
+                        new CreateIndexOptions { Name = "ttl_created", ExpireAfter = Retention })
+                }, cancellationToken: ct);
+            }
+            catch { /* idempotent */ }
+        }
+
+        public async Task<IdempotencyRecord?> TryClaimAsync(string ownerNic, string key, string operation, string? targetId, string requestHash, CancellationToken ct)
+        {
+            var rec = new IdempotencyRecord
+            {
+                OwnerNic = ownerNic,
+                Key = key,
+                Operation = operation,
+                TargetId = targetId,
+                RequestHash = requestHash,
+                State = "Started",
+                CreatedAtUtc = DateTime.UtcNow
+            };
+            try
+            {
+                await _col.InsertOneAsync(rec, cancellationToken: ct);
+                return null;
+            }
+            catch (MongoWriteException ex) when (ex.WriteError?.Category == ServerErrorCategory.DuplicateKey)
+            {
+                return await _col.Find(x => x.OwnerNic == ownerNic && x.Key == key).FirstOrDefaultAsync(ct)
+                       ?? rec; // expired between insert and read: treat as still running
+            }
+        }
+
+        public async Task<bool> TryTakeOverAsync(IdempotencyRecord stale, CancellationToken ct)
+        {
+            var res = await _col.UpdateOneAsync(
+                x => x.Id == stale.Id && x.State == "Started" && x.CreatedAtUtc == stale.CreatedAtUtc,
+                Builders<IdempotencyRecord>.Update.Set(x => x.CreatedAtUtc, DateTime.UtcNow),
+                cancellationToken: ct);
+            return res.ModifiedCount == 1;
+        }
+
+        public async Task CompleteAsync(string ownerNic, string key, string bookingId, CancellationToken ct)
+        {
+            var up = Builders<IdempotencyRecord>.Update
+                .Set(x => x.State, "Completed")
+                .Set(x => x.BookingId, bookingId)
+                .Set(x => x.CompletedAtUtc, DateTime.UtcNow);
+            await _col.UpdateOneAsync(x => x.OwnerNic == ownerNic && x.Key == key, up, cancellationToken: ct);
+        }
+
+        public async Task ReleaseAsync(string ownerNic, string key, CancellationToken ct)
+            => await _col.DeleteOneAsync(x => x.OwnerNic == ownerNic && x.Key == key && x.State == "Started", ct);
+    }
+}
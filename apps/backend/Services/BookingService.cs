@@ -1420,6 +1420,9 @@
 using System.Globalization;
 using System.Linq;
 using System.Collections.Generic;
+using System.Security.Cryptography;
+using System.Text;
+using System.Text.Json;
 using EvCharge.Api.Domain;
 using EvCharge.Api.Domain.DTOs;
 using EvCharge.Api.Infrastructure.Errors;
@@ -1432,11 +1435,12 @@ namespace EvCharge.Api.Services
 {
     public interface IBookingService
     {
-        Task<BookingResponse> CreateAsync(string ownerNic, BookingCreateRequest req, CancellationToken ct);
+        // idempotencyKey (optional): repeats with the same key return the first request's booking instead of writing again
+        Task<BookingResponse> CreateAsync(string ownerNic, BookingCreateRequest req, string? idempotencyKey, CancellationToken ct);
         Task<List<BookingListItem>> GetMineAsync(string ownerNic, string? status, DateTime? fromUtc, DateTime? toUtc, CancellationToken ct);
         Task<BookingResponse> GetByIdAsync(string id, string actorNic, bool isStaff, CancellationToken ct);
-        Task<BookingResponse> UpdateAsync(string id, string ownerNic, BookingUpdateRequest req, CancellationToken ct);
-        Task<BookingResponse> CancelAsync(string id, string ownerNic, CancellationToken ct);
+        Task<BookingResponse> UpdateAsync(string id, string ownerNic, BookingUpdateRequest req, string? idempotencyKey, CancellationToken ct);
+        Task<BookingResponse> CancelAsync(string id, string ownerNic, string? idempotencyKey, CancellationToken ct);
 
         Task<List<BookingListItem>> AdminListAsync(string? stationId, string? status, DateTime? fromUtc, DateTime? toUtc, CancellationToken ct);
         Task<BookingApprovalResponse> ApproveAsync(string id, string staffNic, CancellationToken ct);
@@ -1455,6 +1459,7 @@ namespace EvCharge.Api.Services
         private readonly IQrTokenService _qr;
         private readonly IPolicyService _policy;
         private readonly BookingOptions _opts;
+        private readonly IIdempotencyRepository _idem;
 
         // ===== emit points =====
         private readonly IAuditService _audit;
@@ -1469,7 +1474,8 @@ namespace EvCharge.Api.Services
             IPolicyService policy,
             IOptions<BookingOptions> opts,
             IAuditService audit,
-            INotificationService notify)
+            INotificationService notify,
+            IIdempotencyRepository idem)
         {
             _repo = repo;
             _stations = stations;
@@ -1480,9 +1486,105 @@ namespace EvCharge.Api.Services
             _opts = opts.Value;
             _audit = audit;
             _notify = notify;
+            _idem = idem;
         }
 
-        public async Task<BookingResponse> CreateAsync(string ownerNic, BookingCreateRequest req, CancellationToken ct)
+        // ===== Idempotency-Key (owner create / modify / cancel) =====
+        // The first request with a key runs; a repeat (client retry after a lost response) gets the booking that
+        // request produced, in its current state, instead of writing again. A refusal (validation, conflict) releases
+        // the key, since nothing was written. The key is bound to operation, target and a hash of the body: reusing it
+        // for anything else is refused. When a request died mid-way (lease expired), the one taking over first asks
+        // `applied` whether the dead one's change is already visible, so inventory isn't reserved or released twice.
+        private const string OpCreate = "booking.create";
+        private const string OpUpdate = "booking.update";
+        private const string OpCancel = "booking.cancel";
+        private const int MaxIdempotencyKeyLength = 128;
+        private static readonly TimeSpan IdempotencyLease = TimeSpan.FromMinutes(2);
+
+        private async Task<BookingResponse> RunIdempotentAsync(string ownerNic, string? key, string operation, string? targetId,
+            object? body, Func<Task<Booking?>> applied, Func<Task<Booking>> run, CancellationToken ct)
+        {
+            if (string.IsNullOrWhiteSpace(key)) return ToResponse(await run());
+            if (key.Length > MaxIdempotencyKeyLength)
+                throw new ValidationException("InvalidIdempotencyKey", $"Idempotency-Key must be at most {MaxIdempotencyKeyLength} characters.");
+
+            var requestHash = HashRequest(body);
+            var existing = await _idem.TryClaimAsync(ownerNic, key, operation, targetId, requestHash, ct);
+            if (existing != null)
+            {
+                if (existing.Operation != operation || existing.TargetId != targetId
+                    || (existing.RequestHash != null && existing.RequestHash != requestHash))
+                    throw new ValidationException("IdempotencyKeyReused", "Idempotency-Key was already used for a different request.");
+                if (existing.State == "Completed" && existing.BookingId != null)
+                {
+                    var done = await _repo.GetByIdAsync(existing.BookingId, ct)
+                               ?? throw new NotFoundException("BookingNotFound", "Booking not found.");
+                    return ToResponse(done);
+                }
+                // Started: still running, or its request died before completing (lease expired)
+                if (DateTime.UtcNow - existing.CreatedAtUtc < IdempotencyLease || !await _idem.TryTakeOverAsync(existing, ct))
+                    throw new UpdateException("IdempotencyInProgress", "A request with this Idempotency-Key is still being processed.");
+                // The dead request may have written its change before it stopped
+                var done = await applied();
+                if (done != null)
+                {
+                    await _idem.CompleteAsync(ownerNic, key, done.Id!, ct);
+                    return ToResponse(done);
+                }
+            }
+
+            Booking b;
+            try { b = await run(); }
+            catch (AppException)
+            {
+                await _idem.ReleaseAsync(ownerNic, key, CancellationToken.None);
+                throw;
+            }
+            await _idem.CompleteAsync(ownerNic, key, b.Id!, CancellationToken.None);
+            return ToResponse(b);
+        }
+
+        public Task<BookingResponse> CreateAsync(string ownerNic, BookingCreateRequest req, string? idempotencyKey, CancellationToken ct)
+            => RunIdempotentAsync(ownerNic, idempotencyKey, OpCreate, null, req,
+                () => _repo.GetByIdempotencyKeyAsync(ownerNic, idempotencyKey!, ct),
+                () => CreateCoreAsync(ownerNic, req, idempotencyKey, ct), ct);
+
+        public Task<BookingResponse> UpdateAsync(string id, string ownerNic, BookingUpdateRequest req, string? idempotencyKey, CancellationToken ct)
+            => RunIdempotentAsync(ownerNic, idempotencyKey, OpUpdate, id, req,
+                () => UpdateAppliedAsync(id, ownerNic, req, ct),
+                () => UpdateCoreAsync(id, ownerNic, req, ct), ct);
+
+        public Task<BookingResponse> CancelAsync(string id, string ownerNic, string? idempotencyKey, CancellationToken ct)
+            => RunIdempotentAsync(ownerNic, idempotencyKey, OpCancel, id, null,
+                () => CancelAppliedAsync(id, ownerNic, ct),
+                () => CancelCoreAsync(id, ownerNic, ct), ct);
+
+        // Hex SHA-256 of the body as JSON ("null" for cancel, which has none)
+        private static string HashRequest(object? body)
+        {
+            using var sha = SHA256.Create();
+            var json = body == null ? "null" : JsonSerializer.Serialize(body, body.GetType());
+            return Convert.ToHexString(sha.ComputeHash(Encoding.UTF8.GetBytes(json))).ToLowerInvariant();
+        }
+
+        // Takeover check: the booking already sits in the requested slot (UpdateCoreAsync replaces the booking last)
+        private async Task<Booking?> UpdateAppliedAsync(string id, string ownerNic, BookingUpdateRequest req, CancellationToken ct)
+        {
+            var b = await _repo.GetByIdAsync(id, ct);
+            if (b == null || !string.Equals(b.OwnerNic, ownerNic, StringComparison.Ordinal)) return null;
+            var notesDone = string.IsNullOrWhiteSpace(req.Notes) || b.Notes == req.Notes.Trim();
+            return b.SlotStartLocal == $"{req.LocalDate}T{req.StartTime}" && b.SlotMinutes == req.Minutes
+                   && b.UpdatedBy == ownerNic && notesDone ? b : null;
+        }
+
+        // Takeover check: the owner's cancel already went through (capacity was released with it)
+        private async Task<Booking?> CancelAppliedAsync(string id, string ownerNic, CancellationToken ct)
+        {
+            var b = await _repo.GetByIdAsync(id, ct);
+            return b != null && b.Status == "Cancelled" && b.CancelledBy == ownerNic ? b : null;
+        }
+
+        private async Task<Booking> CreateCoreAsync(string ownerNic, BookingCreateRequest req, string? idempotencyKey, CancellationToken ct)
         {
             var st = await _stations.GetByIdAsync(req.StationId, ct)
                      ?? throw new ValidationException("InvalidStation", "Station not found.");
@@ -1531,6 +1633,7 @@ namespace EvCharge.Api.Services
                 SlotMinutes = req.Minutes,
                 Status = "Pending",
                 Notes = string.IsNullOrWhiteSpace(req.Notes) ? null : req.Notes.Trim(),
+                IdempotencyKey = string.IsNullOrWhiteSpace(idempotencyKey) ? null : idempotencyKey,
                 CreatedAtUtc = now
             };
 
@@ -1572,10 +1675,10 @@ namespace EvCharge.Api.Services
                         ["bookingCode"] = booking.BookingCode
                     }, ct);
 
-                return ToResponse(booking);
+                return booking;
             }
 
-            return ToResponse(booking);
+            return booking;
         }
 
         public async Task<List<BookingListItem>> GetMineAsync(string ownerNic, string? status, DateTime? fromUtc, DateTime? toUtc, CancellationToken ct)
@@ -1601,7 +1704,7 @@ namespace EvCharge.Api.Services
             return ToResponse(b);
         }
 
-        public async Task<BookingResponse> UpdateAsync(string id, string ownerNic, BookingUpdateRequest req, CancellationToken ct)
+        private async Task<Booking> UpdateCoreAsync(string id, string ownerNic, BookingUpdateRequest req, CancellationToken ct)
         {
             var b = await _repo.GetByIdAsync(id, ct)
                     ?? throw new NotFoundException("BookingNotFound", "Booking not found.");
@@ -1649,7 +1752,7 @@ namespace EvCharge.Api.Services
                 b.UpdatedAtUtc = now;
                 b.UpdatedBy = ownerNic;
                 await _repo.ReplaceAsync(b, ct);
-                return ToResponse(b);
+                return b;
             }
 
             // Reserve new slot before releasing old
@@ -1678,10 +1781,10 @@ namespace EvCharge.Api.Services
             }
 
             await _repo.ReplaceAsync(b, ct);
-            return ToResponse(b);
+            return b;
         }
 
-        public async Task<BookingResponse> CancelAsync(string id, string ownerNic, CancellationToken ct)
+        private async Task<Booking> CancelCoreAsync(string id, string ownerNic, CancellationToken ct)
         {
             var b = await _repo.GetByIdAsync(id, ct)
                     ?? throw new NotFoundException("BookingNotFound", "Booking not found.");
@@ -1726,7 +1829,7 @@ namespace EvCharge.Api.Services
                     ["bookingCode"] = b.BookingCode
                 }, ct);
 
-            return ToResponse(b);
+            return b;
         }
 
         public async Task<List<BookingListItem>> AdminListAsync(string? stationId, string? status, DateTime? fromUtc, DateTime? toUtc, CancellationToken ct)
@@ -12,6 +12,7 @@ namespace EvCharge.Api.Services
         Task<(List<Notification> items, long total)> ListMineAsync(string nic, bool? unreadOnly, int page, int pageSize, CancellationToken ct);
         Task<bool> MarkReadAsync(string id, string nic, CancellationToken ct);
         Task<long> MarkAllReadAsync(string nic, CancellationToken ct);
+        Task<long> MarkReadManyAsync(IReadOnlyCollection<string> ids, string nic, CancellationToken ct);
     }
 
     public class NotificationService : INotificationService
@@ -97,6 +98,26 @@ namespace EvCharge.Api.Services
             return res.ModifiedCount > 0;
         }
 
+        public async Task<long> MarkReadManyAsync(IReadOnlyCollection<string> ids, string nic, CancellationToken ct)
+        {
+            // Ignore malformed ids instead of failing the whole batch
+            var valid = ids.Where(i => ObjectId.TryParse(i, out _)).Distinct().ToList();
+            if (valid.Count == 0) return 0;
+
+            var fb = Builders<Notification>.Filter;
+            var filter = fb.And(
+                fb.In(x => x.Id, valid),
+                fb.Eq(x => x.ToNic, nic),
+                fb.Eq(x => x.ReadAtUtc, (DateTime?)null)
+            );
+
+            var update = Builders<Notification>.Update
+                .Set(x => x.ReadAtUtc, DateTime.UtcNow);
+
+            var res = await _col.UpdateManyAsync(filter, update, cancellationToken: ct);
+            return res.ModifiedCount;
+        }
+
         public async Task<long> MarkAllReadAsync(string nic, CancellationToken ct)
         {
             var fb = Builders<Notification>.Filter;